@@ -0,0 +1,193 @@
+package com.datastax.apollo.anomaly;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.datastax.apollo.dao.JourneyKey;
+import com.datastax.apollo.dao.TenantKey;
+import com.datastax.apollo.entity.SpacecraftAnomalyEvent;
+import com.datastax.apollo.entity.SpacecraftPressureOverTime;
+import com.datastax.apollo.entity.SpacecraftSpeedOverTime;
+import com.datastax.apollo.entity.SpacecraftTemperatureOverTime;
+import com.datastax.apollo.model.Instrument;
+
+/**
+ * Streaming detection of anomalies on scalar instruments, evaluated when readings are ingested.
+ *
+ * Each journey keeps an exponentially weighted mean and variance per instrument (O(1) memory and time
+ * per reading, no window retained). A reading is flagged when its z-score against the statistics
+ * computed before it exceeds the threshold, once enough readings have been seen to trust them.
+ * Statistics are kept for a max number of journeys in LRU order: a journey abandoned without being
+ * completed is evicted, one evicted while still ingesting warms up again.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+@Component
+public class AnomalyDetector {
+
+    /** Scalar instruments evaluated, in the order of the state slots. */
+    private static final Instrument[] SCALARS = { Instrument.TEMPERATURE, Instrument.PRESSURE, Instrument.SPEED };
+
+    /** Slots per instrument in the state: mean, variance, count. */
+    private static final int SLOTS = 3;
+
+    /** Statistics per journey, in access order. */
+    private LinkedHashMap<JourneyKey, double[]> states;
+
+    /** Weight of the new reading in the moving statistics. */
+    private double alpha;
+
+    /** Absolute z-score above which a reading is flagged. */
+    private double zThreshold;
+
+    /** Readings required before flagging. */
+    private int warmup;
+
+    /**
+     * Constructor.
+     *
+     * @param alpha
+     *      weight of the new reading in the moving statistics, in ]0, 1]
+     * @param zThreshold
+     *      absolute z-score above which a reading is flagged
+     * @param warmup
+     *      readings required before flagging
+     * @param maxJourneys
+     *      journeys with statistics, least recently used is evicted beyond
+     */
+    public AnomalyDetector(
+            @Value("${apollo.anomaly.alpha:0.05}") double alpha,
+            @Value("${apollo.anomaly.z-threshold:4.0}") double zThreshold,
+            @Value("${apollo.anomaly.warmup:30}") int warmup,
+            @Value("${apollo.anomaly.max-journeys:10000}") int maxJourneys) {
+        if (alpha <= 0 || alpha > 1) {
+            throw new IllegalArgumentException("apollo.anomaly.alpha should be in ]0, 1]");
+        }
+        this.alpha      = alpha;
+        this.zThreshold = zThreshold;
+        this.warmup     = warmup;
+        this.states     = new LinkedHashMap<JourneyKey, double[]>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<JourneyKey, double[]> eldest) {
+                return size() > maxJourneys;
+            }
+        };
+    }
+
+    /**
+     * Evaluate readings of a timestamp and update statistics of the journey.
+     *
+     * @param journey
+     *      journey in the database of a session
+     * @param temperature
+     *      temperature reading
+     * @param pressure
+     *      pressure reading
+     * @param speed
+     *      speed reading
+     * @return
+     *      anomalies detected, empty most of the time
+     */
+    public List<SpacecraftAnomalyEvent> evaluate(JourneyKey journey, SpacecraftTemperatureOverTime temperature,
+            SpacecraftPressureOverTime pressure, SpacecraftSpeedOverTime speed) {
+        double[] state;
+        synchronized (states) {
+            state = states.computeIfAbsent(journey, k -> new double[SCALARS.length * SLOTS]);
+        }
+        List<SpacecraftAnomalyEvent> anomalies = Collections.emptyList();
+        // Readings of a journey are ingested by a single producer, lock is not contended
+        synchronized (state) {
+            SpacecraftAnomalyEvent anomaly;
+            if ((anomaly = update(state, 0, temperature.getTemperature(), temperature.getReading_time())) != null) {
+                anomalies = add(anomalies, anomaly);
+            }
+            if ((anomaly = update(state, 1, pressure.getPressure(), pressure.getReading_time())) != null) {
+                anomalies = add(anomalies, anomaly);
+            }
+            if ((anomaly = update(state, 2, speed.getSpeed(), speed.getReading_time())) != null) {
+                anomalies = add(anomalies, anomaly);
+            }
+        }
+        for (SpacecraftAnomalyEvent a : anomalies) {
+            a.setSpacecraft_name(journey.getSpacecraftName());
+            a.setJourney_id(journey.getJourneyId());
+        }
+        return anomalies;
+    }
+
+    /**
+     * Release statistics of a journey, no more readings are expected.
+     *
+     * @param journey
+     *      journey in the database of a session
+     */
+    public void release(JourneyKey journey) {
+        synchronized (states) {
+            states.remove(journey);
+        }
+    }
+
+    /**
+     * Release statistics of all journeys of a session, closed or opened again.
+     *
+     * @param tenant
+     *      bundle, user and keyspace of the session
+     */
+    public void release(TenantKey tenant) {
+        synchronized (states) {
+            states.keySet().removeIf(journey -> journey.getTenant().equals(tenant));
+        }
+    }
+
+    private SpacecraftAnomalyEvent update(double[] state, int instrument, Double reading, Instant readingTime) {
+        if (reading == null || reading.isNaN()) {
+            return null;
+        }
+        int offset = instrument * SLOTS;
+        double x        = reading;
+        double mean     = state[offset];
+        double variance = state[offset + 1];
+        double count    = state[offset + 2];
+        SpacecraftAnomalyEvent anomaly = null;
+        if (count == 0) {
+            mean = x;
+        } else {
+            // Score against statistics before the reading, an outlier must not hide itself
+            double diff = x - mean;
+            if (count >= warmup && variance > 0) {
+                double zscore = diff / Math.sqrt(variance);
+                if (Math.abs(zscore) > zThreshold) {
+                    anomaly = new SpacecraftAnomalyEvent();
+                    anomaly.setReading_time(readingTime);
+                    anomaly.setInstrument(SCALARS[instrument].name());
+                    anomaly.setReading_value(x);
+                    anomaly.setExpected_value(mean);
+                    anomaly.setZscore(zscore);
+                }
+            }
+            mean     += alpha * diff;
+            variance  = (1 - alpha) * (variance + alpha * diff * diff);
+        }
+        state[offset]     = mean;
+        state[offset + 1] = variance;
+        state[offset + 2] = count + 1;
+        return anomaly;
+    }
+
+    private List<SpacecraftAnomalyEvent> add(List<SpacecraftAnomalyEvent> anomalies, SpacecraftAnomalyEvent anomaly) {
+        if (anomalies.isEmpty()) {
+            anomalies = new ArrayList<>(SCALARS.length);
+        }
+        anomalies.add(anomaly);
+        return anomalies;
+    }
+
+}
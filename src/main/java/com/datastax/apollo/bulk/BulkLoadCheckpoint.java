@@ -0,0 +1,109 @@
+package com.datastax.apollo.bulk;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Chunks already loaded for a file, saved next to it so that an interrupted load resumes where it stopped.
+ *
+ * First line identifies the load (file size, chunk size, journey), following lines are indices of
+ * completed chunks appended as they complete. A checkpoint written for another load is ignored.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+public class BulkLoadCheckpoint implements AutoCloseable {
+
+    /** Extension appended to the file name. */
+    public static final String EXTENSION = ".checkpoint";
+
+    private final Path path;
+
+    private final BitSet completed = new BitSet();
+
+    private BufferedWriter writer;
+
+    /**
+     * Open checkpoint of a load, create it if needed.
+     *
+     * @param path
+     *      checkpoint file
+     * @param signature
+     *      identification of the load
+     */
+    public BulkLoadCheckpoint(Path path, String signature) throws IOException {
+        this.path = path;
+        boolean resume = false;
+        if (Files.exists(path)) {
+            List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+            if (!lines.isEmpty() && lines.get(0).equals(signature)) {
+                resume = true;
+                for (String line : lines.subList(1, lines.size())) {
+                    if (!line.isEmpty()) {
+                        completed.set(Integer.parseInt(line.trim()));
+                    }
+                }
+            }
+        }
+        if (resume) {
+            writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        } else {
+            writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+            writer.write(signature);
+            writer.newLine();
+            writer.flush();
+        }
+    }
+
+    /**
+     * Tell if a chunk has been loaded by a previous run.
+     */
+    public synchronized boolean isCompleted(int chunk) {
+        return completed.get(chunk);
+    }
+
+    /**
+     * Number of chunks already loaded.
+     */
+    public synchronized int countCompleted() {
+        return completed.cardinality();
+    }
+
+    /**
+     * Record a loaded chunk, flushed immediately.
+     */
+    public synchronized void markCompleted(int chunk) {
+        completed.set(chunk);
+        try {
+            writer.write(Integer.toString(chunk));
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Load is over, the checkpoint is not needed anymore.
+     */
+    public synchronized void delete() throws IOException {
+        close();
+        Files.deleteIfExists(path);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+}
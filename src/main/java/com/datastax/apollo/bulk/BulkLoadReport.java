@@ -0,0 +1,100 @@
+package com.datastax.apollo.bulk;
+
+/**
+ * Outcome of a bulk load.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+public class BulkLoadReport {
+    
+    /** Rows loaded by this run (4 readings each). */
+    private long rows;
+    
+    /** Bytes of the file. */
+    private long bytes;
+    
+    /** Chunks of the file. */
+    private int chunks;
+    
+    /** Chunks skipped as loaded by a previous run. */
+    private int resumedChunks;
+    
+    /** Duration of this run. */
+    private long elapsedMillis;
+    
+    /**
+     * Constructor.
+     */
+    public BulkLoadReport(long rows, long bytes, int chunks, int resumedChunks, long elapsedMillis) {
+        this.rows          = rows;
+        this.bytes         = bytes;
+        this.chunks        = chunks;
+        this.resumedChunks = resumedChunks;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * Getter accessor for attribute 'rows'.
+     *
+     * @return
+     *       current value of 'rows'
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Getter accessor for attribute 'bytes'.
+     *
+     * @return
+     *       current value of 'bytes'
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Getter accessor for attribute 'chunks'.
+     *
+     * @return
+     *       current value of 'chunks'
+     */
+    public int getChunks() {
+        return chunks;
+    }
+
+    /**
+     * Getter accessor for attribute 'resumedChunks'.
+     *
+     * @return
+     *       current value of 'resumedChunks'
+     */
+    public int getResumedChunks() {
+        return resumedChunks;
+    }
+
+    /**
+     * Getter accessor for attribute 'elapsedMillis'.
+     *
+     * @return
+     *       current value of 'elapsedMillis'
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    
+    /**
+     * Rows loaded per second by this run.
+     */
+    public double getRowsPerSecond() {
+        return elapsedMillis == 0 ? rows : rows * 1000.0 / elapsedMillis;
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return String.format("%d row(s) from %d bytes in %d millis (%.0f rows/s), %d chunk(s), %d resumed", 
+                rows, bytes, elapsedMillis, getRowsPerSecond(), chunks, resumedChunks);
+    }
+    
+}
@@ -0,0 +1,66 @@
+package com.datastax.apollo.bulk;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+import java.util.UUID;
+
+import com.datastax.apollo.dao.ExecutionProfile;
+import com.datastax.apollo.dao.SessionManager;
+import com.datastax.apollo.dao.SpacecraftInstrumentsDao;
+import com.datastax.apollo.dao.SpacecraftMapper;
+import com.datastax.apollo.dao.SpacecraftMapperBuilder;
+import com.datastax.apollo.dao.TelemetryStorage;
+import com.datastax.apollo.entity.SpacecraftJourneyCatalog;
+import com.datastax.oss.driver.api.core.CqlSession;
+
+/**
+ * Load a file of historical readings (CSV or NDJSON) into an existing journey from the command line.
+ *
+ * Running the same command again after a failure resumes the load from the checkpoint saved next to the file.
+ * As with the REST endpoint, the journey must exist and be active: completed journeys are cached as immutable.
+ *
+ * Usage: BulkLoadTelemetry &lt;bundle.zip&gt; &lt;user&gt; &lt;password&gt; &lt;keyspace&gt;
+ *   &lt;file&gt; &lt;spacecraftName&gt; &lt;journeyId&gt; [parallelism] [maxInFlight] [PER_INSTRUMENT|CONSOLIDATED]
+ */
+public class BulkLoadTelemetry {
+
+    /** Rows in a batch. */
+    private static final int BATCH_SIZE = 100;
+
+    /** Target size of a chunk in bytes. */
+    private static final long CHUNK_BYTES = 64L * 1024 * 1024;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 7) {
+            System.err.println("Usage: BulkLoadTelemetry <bundle.zip> <user> <password> <keyspace> "
+                    + "<file> <spacecraftName> <journeyId> [parallelism] [maxInFlight] [PER_INSTRUMENT|CONSOLIDATED]");
+            System.exit(1);
+        }
+        Path   file           = Paths.get(args[4]);
+        String spacecraftName = args[5];
+        UUID   journeyId      = UUID.fromString(args[6]);
+        int    parallelism    = args.length > 7 ? Integer.parseInt(args[7]) : Runtime.getRuntime().availableProcessors();
+        int    maxInFlight    = args.length > 8 ? Integer.parseInt(args[8]) : 64;
+        TelemetryStorage storage = args.length > 9 ? TelemetryStorage.valueOf(args[9]) : TelemetryStorage.PER_INSTRUMENT;
+        SessionManager.getInstance().saveCredentials(args[1], args[2], args[3], args[0]);
+        try {
+            CqlSession cqlSession = SessionManager.getInstance().connectToApollo();
+            SpacecraftMapper mapper = new SpacecraftMapperBuilder(cqlSession).build();
+            Optional<SpacecraftJourneyCatalog> journey = mapper.spacecraftJourneyDao(cqlSession.getKeyspace().get())
+                    .findById(spacecraftName, journeyId, ExecutionProfile.INTERACTIVE);
+            if (!journey.isPresent()) {
+                throw new IllegalArgumentException("No journey " + journeyId + " for spacecraft " + spacecraftName);
+            }
+            if (Boolean.FALSE.equals(journey.get().getActive())) {
+                throw new IllegalStateException("Journey " + journeyId + " is completed, its readings cannot change");
+            }
+            SpacecraftInstrumentsDao dao = mapper.spacecraftInstrumentsDao(cqlSession.getKeyspace().get(), storage.getDaoTable());
+            TelemetryBulkLoader loader = new TelemetryBulkLoader(parallelism, maxInFlight, BATCH_SIZE, CHUNK_BYTES);
+            System.out.println(loader.load(dao, file, spacecraftName, journeyId));
+        } finally {
+            SessionManager.getInstance().close();
+        }
+    }
+
+}
@@ -0,0 +1,335 @@
+package com.datastax.apollo.bulk;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.datastax.apollo.dao.SpacecraftInstrumentsDao;
+import com.datastax.apollo.entity.LocationUdt;
+import com.datastax.apollo.entity.SpacecraftLocationOverTime;
+import com.datastax.apollo.entity.SpacecraftPressureOverTime;
+import com.datastax.apollo.entity.SpacecraftSpeedOverTime;
+import com.datastax.apollo.entity.SpacecraftTemperatureOverTime;
+
+/**
+ * Load historical telemetry files (CSV or NDJSON) of a journey.
+ *
+ * The file is split in chunks aligned on line ends, chunks are memory-mapped and parsed in parallel,
+ * rows are grouped in single-partition batches and written asynchronously. The number of batches in
+ * flight is bounded for the whole load so that parsing never outruns the cluster. Completed chunks
+ * are recorded in a checkpoint file: a failed load can be restarted and skips what has been written.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+@Component
+public class TelemetryBulkLoader {
+
+    /** Logger for the class. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(TelemetryBulkLoader.class);
+
+    /** Bytes read to find the end of a line around a chunk boundary. */
+    private static final int BOUNDARY_SCAN_BYTES = 8192;
+
+    /** Chunks parsed concurrently. */
+    private int parallelism;
+
+    /** Batches written concurrently, all chunks included. */
+    private int maxInFlight;
+
+    /** Rows in a batch (each row is a reading per instrument). */
+    private int batchSize;
+
+    /** Target size of a chunk in bytes. */
+    private long chunkBytes;
+
+    /**
+     * Constructor.
+     *
+     * @param parallelism
+     *      chunks parsed concurrently
+     * @param maxInFlight
+     *      batches written concurrently
+     * @param batchSize
+     *      rows in a batch
+     * @param chunkBytes
+     *      target size of a chunk in bytes
+     */
+    public TelemetryBulkLoader(
+            @Value("${apollo.bulk.parallelism:4}") int parallelism,
+            @Value("${apollo.bulk.max-in-flight:64}") int maxInFlight,
+            @Value("${apollo.bulk.batch-size:100}") int batchSize,
+            @Value("${apollo.bulk.chunk-bytes:67108864}") long chunkBytes) {
+        if (parallelism < 1 || maxInFlight < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Parallelism, in-flight batches and batch size should be positive");
+        }
+        if (chunkBytes < BOUNDARY_SCAN_BYTES || chunkBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Chunk size should be between "
+                    + BOUNDARY_SCAN_BYTES + " and " + Integer.MAX_VALUE + " bytes");
+        }
+        this.parallelism = parallelism;
+        this.maxInFlight = maxInFlight;
+        this.batchSize   = batchSize;
+        this.chunkBytes  = chunkBytes;
+    }
+
+    /**
+     * Load a file into a journey, resume a previous load of the same file if any.
+     *
+     * @param dao
+     *      instruments dao
+     * @param file
+     *      telemetry file, format from the extension (.csv, .ndjson, .jsonl)
+     * @param spacecraftName
+     *      spacecraft name
+     * @param journeyId
+     *      journey identifier
+     * @return
+     *      report of the load
+     */
+    public BulkLoadReport load(SpacecraftInstrumentsDao dao, Path file, String spacecraftName, UUID journeyId)
+    throws IOException, InterruptedException {
+        TelemetryParser.Format format = TelemetryParser.Format.fromFileName(file.getFileName().toString());
+        long top = System.currentTimeMillis();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] bounds = chunkBounds(channel);
+            int    chunks = bounds.length - 1;
+            Path checkpointPath = file.resolveSibling(file.getFileName() + BulkLoadCheckpoint.EXTENSION);
+            String signature = "size=" + channel.size() + " chunkBytes=" + chunkBytes
+                    + " journey=" + spacecraftName + ":" + journeyId;
+            BulkLoadCheckpoint checkpoint = new BulkLoadCheckpoint(checkpointPath, signature);
+            int resumed = checkpoint.countCompleted();
+            if (resumed > 0) {
+                LOGGER.info("Resuming load of {}, {}/{} chunks already loaded", file, resumed, chunks);
+            }
+            Semaphore   inFlight  = new Semaphore(maxInFlight);
+            AtomicLong  rows      = new AtomicLong();
+            AtomicLong  bytes     = new AtomicLong();
+            AtomicInteger done    = new AtomicInteger(resumed);
+            AtomicInteger counter = new AtomicInteger();
+            ExecutorService executor = Executors.newFixedThreadPool(parallelism, r -> {
+                Thread t = new Thread(r, "bulk-load-" + counter.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+            try {
+                List<Future<?>> tasks = new ArrayList<>();
+                for (int i = 0; i < chunks; i++) {
+                    if (checkpoint.isCompleted(i)) {
+                        continue;
+                    }
+                    int  chunk = i;
+                    long start = bounds[i];
+                    long size  = bounds[i + 1] - bounds[i];
+                    tasks.add(executor.submit(() -> {
+                        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+                        BatchWriter writer = new BatchWriter(dao, spacecraftName, journeyId, inFlight);
+                        long chunkRows = TelemetryParser.parse(buffer, format, start, writer);
+                        writer.flush();
+                        writer.await();
+                        checkpoint.markCompleted(chunk);
+                        long totalRows  = rows.addAndGet(chunkRows);
+                        long totalBytes = bytes.addAndGet(size);
+                        long elapsed    = Math.max(1, System.currentTimeMillis() - top);
+                        LOGGER.info("Chunk {}/{} of {} loaded: {} rows, {} rows/s, {}%", done.incrementAndGet(), chunks,
+                                file.getFileName(), totalRows, totalRows * 1000 / elapsed,
+                                totalBytes * 100 / Math.max(1, channel.size()));
+                        return null;
+                    }));
+                }
+                for (Future<?> task : tasks) {
+                    try {
+                        task.get();
+                    } catch (ExecutionException e) {
+                        tasks.forEach(t -> t.cancel(true));
+                        Throwable cause = e.getCause();
+                        if (cause instanceof IllegalArgumentException) {
+                            throw (IllegalArgumentException) cause;
+                        }
+                        throw new IOException("Cannot load " + file + ", restart to resume from the checkpoint", cause);
+                    }
+                }
+            } finally {
+                executor.shutdownNow();
+                checkpoint.close();
+            }
+            checkpoint.delete();
+            BulkLoadReport report = new BulkLoadReport(rows.get(), bytes.get(), chunks, resumed,
+                    System.currentTimeMillis() - top);
+            LOGGER.info("Load of {} into journey {} completed: {}", file.getFileName(), journeyId, report);
+            return report;
+        }
+    }
+
+    /**
+     * Offsets of chunks, each chunk but the last ends right after a line feed.
+     */
+    private long[] chunkBounds(FileChannel channel) throws IOException {
+        long size = channel.size();
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        long start = 0;
+        ByteBuffer scan = ByteBuffer.allocate(BOUNDARY_SCAN_BYTES);
+        while (size - start > chunkBytes) {
+            long pos = start + chunkBytes;
+            long end = -1;
+            while (end < 0 && pos < size) {
+                scan.clear();
+                int read = channel.read(scan, pos);
+                for (int i = 0; i < read; i++) {
+                    if (scan.get(i) == '\n') {
+                        end = pos + i + 1;
+                        break;
+                    }
+                }
+                pos += Math.max(read, 0);
+                if (read <= 0) {
+                    break;
+                }
+            }
+            if (end < 0 || end >= size) {
+                break;
+            }
+            if (end - start > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Line too long at byte " + start);
+            }
+            bounds.add(end);
+            start = end;
+        }
+        bounds.add(size);
+        return bounds.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * Group rows of a chunk in batches, keep track of the batches written.
+     */
+    private class BatchWriter implements TelemetryParser.RowHandler {
+
+        private final SpacecraftInstrumentsDao dao;
+        private final String spacecraftName;
+        private final UUID journeyId;
+        private final Semaphore inFlight;
+
+        private List<SpacecraftTemperatureOverTime> temperatures = new ArrayList<>();
+        private List<SpacecraftPressureOverTime>    pressures    = new ArrayList<>();
+        private List<SpacecraftSpeedOverTime>       speeds       = new ArrayList<>();
+        private List<SpacecraftLocationOverTime>    locations    = new ArrayList<>();
+        private int pending = 0;
+
+        private final List<CompletableFuture<Void>> writes = new ArrayList<>();
+
+        private BatchWriter(SpacecraftInstrumentsDao dao, String spacecraftName, UUID journeyId, Semaphore inFlight) {
+            this.dao            = dao;
+            this.spacecraftName = spacecraftName;
+            this.journeyId      = journeyId;
+            this.inFlight       = inFlight;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void row(long readingTime, double temperature, double pressure, double speed, double x, double y, double z) {
+            Instant time = Instant.ofEpochMilli(readingTime);
+            if (!Double.isNaN(temperature)) {
+                SpacecraftTemperatureOverTime r = new SpacecraftTemperatureOverTime();
+                r.setSpacecraft_name(spacecraftName);
+                r.setJourney_id(journeyId);
+                r.setReading_time(time);
+                r.setTemperature(temperature);
+                r.setTemperature_unit("fahrenheit");
+                temperatures.add(r);
+            }
+            if (!Double.isNaN(pressure)) {
+                SpacecraftPressureOverTime r = new SpacecraftPressureOverTime();
+                r.setSpacecraft_name(spacecraftName);
+                r.setJourney_id(journeyId);
+                r.setReading_time(time);
+                r.setPressure(pressure);
+                r.setPressure_unit("kPa");
+                pressures.add(r);
+            }
+            if (!Double.isNaN(speed)) {
+                SpacecraftSpeedOverTime r = new SpacecraftSpeedOverTime();
+                r.setSpacecraft_name(spacecraftName);
+                r.setJourney_id(journeyId);
+                r.setReading_time(time);
+                r.setSpeed(speed);
+                r.setSpeed_unit("km/h");
+                speeds.add(r);
+            }
+            if (!Double.isNaN(x) && !Double.isNaN(y) && !Double.isNaN(z)) {
+                SpacecraftLocationOverTime r = new SpacecraftLocationOverTime();
+                r.setSpacecraft_name(spacecraftName);
+                r.setJourney_id(journeyId);
+                r.setReading_time(time);
+                r.setLocation(new LocationUdt(x, y, z));
+                r.setLocation_unit("km");
+                locations.add(r);
+            }
+            if (++pending >= batchSize) {
+                flush();
+            }
+        }
+
+        /**
+         * Write rows accumulated so far, wait for a slot if too many batches are in flight. The wait
+         * is interrupted when the load is cancelled (another chunk failed).
+         */
+        private void flush() {
+            if (pending == 0) {
+                return;
+            }
+            try {
+                inFlight.acquire();
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Load cancelled while waiting for a batch slot");
+            }
+            try {
+                writes.add(dao.insertInstrumentsBulk(temperatures, pressures, speeds, locations)
+                        .toCompletableFuture()
+                        .whenComplete((v, ex) -> inFlight.release()));
+            } catch(RuntimeException re) {
+                inFlight.release();
+                throw re;
+            }
+            temperatures = new ArrayList<>();
+            pressures    = new ArrayList<>();
+            speeds       = new ArrayList<>();
+            locations    = new ArrayList<>();
+            pending      = 0;
+        }
+
+        /**
+         * Wait for all batches of the chunk, fail if any of them failed.
+         */
+        private void await() throws InterruptedException {
+            try {
+                CompletableFuture.allOf(writes.toArray(new CompletableFuture[0])).get();
+            } catch (ExecutionException ee) {
+                throw new CompletionException(ee.getCause());
+            }
+        }
+    }
+
+}
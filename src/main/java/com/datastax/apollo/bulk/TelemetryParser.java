@@ -0,0 +1,361 @@
+package com.datastax.apollo.bulk;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parse telemetry rows directly from bytes (memory-mapped files), numbers are decoded in place
+ * without allocating a String per field.
+ *
+ * Each row holds readings of the four instruments for a timestamp:
+ * <ul>
+ *  <li>CSV: reading_time,temperature,pressure,speed,x,y,z (header line is skipped)</li>
+ *  <li>NDJSON: {"reading_time":..,"temperature":..,"pressure":..,"speed":..,"x":..,"y":..,"z":..}</li>
+ * </ul>
+ * reading_time is an epoch millis, an empty field or null is a missing value.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+public final class TelemetryParser {
+
+    /** Supported formats. */
+    public enum Format {
+        CSV, NDJSON;
+
+        /**
+         * Format from the file extension, CSV by default.
+         */
+        public static Format fromFileName(String fileName) {
+            String lower = fileName.toLowerCase();
+            return (lower.endsWith(".ndjson") || lower.endsWith(".jsonl") || lower.endsWith(".json")) ? NDJSON : CSV;
+        }
+    }
+
+    /**
+     * Receive parsed rows, missing values are NaN.
+     */
+    @FunctionalInterface
+    public interface RowHandler {
+        void row(long readingTime, double temperature, double pressure, double speed, double x, double y, double z);
+    }
+
+    /** Field positions, reading_time is kept apart as a long. */
+    private static final int TEMPERATURE = 0, PRESSURE = 1, SPEED = 2, X = 3, Y = 4, Z = 5, FIELDS = 6;
+
+    /** NDJSON keys, in the order of field positions. */
+    private static final byte[] KEY_READING_TIME = bytes("reading_time");
+    private static final byte[][] KEYS = {
+            bytes("temperature"), bytes("pressure"), bytes("speed"), bytes("x"), bytes("y"), bytes("z") };
+
+    /** Exponents are saturated beyond this value, far past the range of doubles (parsed as 0 or infinity). */
+    private static final int MAX_EXPONENT = 100_000;
+
+    /** Exact powers of ten as doubles. */
+    private static final double[] POW10 = new double[23];
+    static {
+        POW10[0] = 1;
+        for (int i = 1; i < POW10.length; i++) {
+            POW10[i] = POW10[i - 1] * 10;
+        }
+    }
+
+    private TelemetryParser() {}
+
+    /**
+     * Parse all rows of a chunk made of complete lines.
+     *
+     * @param chunk
+     *      bytes between position and limit
+     * @param format
+     *      format of lines
+     * @param fileOffset
+     *      offset of the chunk in the file, for error messages
+     * @param handler
+     *      receive rows
+     * @return
+     *      number of rows
+     */
+    public static long parse(ByteBuffer chunk, Format format, long fileOffset, RowHandler handler) {
+        double[] values = new double[FIELDS];
+        long[]   time   = new long[1];
+        int limit = chunk.limit();
+        int pos   = chunk.position();
+        long rows = 0;
+        while (pos < limit) {
+            int eol = pos;
+            while (eol < limit && chunk.get(eol) != '\n') {
+                eol++;
+            }
+            int end = (eol > pos && chunk.get(eol - 1) == '\r') ? eol - 1 : eol;
+            try {
+                boolean parsed = (format == Format.CSV) 
+                        ? parseCsvLine(chunk, pos, end, time, values) 
+                        : parseJsonLine(chunk, pos, end, time, values);
+                if (parsed) {
+                    handler.row(time[0], values[TEMPERATURE], values[PRESSURE], values[SPEED], values[X], values[Y], values[Z]);
+                    rows++;
+                }
+            } catch(IllegalArgumentException iae) {
+                throw new IllegalArgumentException("Invalid line at byte " + (fileOffset + pos) + ": " + iae.getMessage(), iae);
+            }
+            pos = eol + 1;
+        }
+        return rows;
+    }
+
+    private static boolean parseCsvLine(ByteBuffer buf, int start, int end, long[] time, double[] values) {
+        if (start == end || !isNumberStart(buf.get(start))) {
+            // Blank or header line
+            return false;
+        }
+        int field = -1;
+        int fieldStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i == end || buf.get(i) == ',') {
+                if (field == -1) {
+                    time[0] = parseLong(buf, fieldStart, i);
+                } else if (field < FIELDS) {
+                    values[field] = parseDouble(buf, fieldStart, i);
+                }
+                field++;
+                fieldStart = i + 1;
+            }
+        }
+        for (int f = Math.max(0, field); f < FIELDS; f++) {
+            values[f] = Double.NaN;
+        }
+        return true;
+    }
+
+    private static boolean parseJsonLine(ByteBuffer buf, int start, int end, long[] time, double[] values) {
+        int i = skipSpaces(buf, start, end);
+        if (i == end) {
+            return false;
+        }
+        if (buf.get(i) != '{') {
+            throw new IllegalArgumentException("expecting a JSON object");
+        }
+        for (int f = 0; f < FIELDS; f++) {
+            values[f] = Double.NaN;
+        }
+        boolean hasTime = false;
+        i++;
+        while (true) {
+            i = skipSpaces(buf, i, end);
+            if (i >= end) {
+                throw new IllegalArgumentException("unterminated object");
+            }
+            byte b = buf.get(i);
+            if (b == '}') {
+                break;
+            }
+            if (b == ',') {
+                i++;
+                continue;
+            }
+            if (b != '"') {
+                throw new IllegalArgumentException("expecting a key");
+            }
+            int keyStart = i + 1;
+            int keyEnd   = keyStart;
+            while (keyEnd < end && buf.get(keyEnd) != '"') {
+                keyEnd++;
+            }
+            i = skipSpaces(buf, keyEnd + 1, end);
+            if (i >= end || buf.get(i) != ':') {
+                throw new IllegalArgumentException("expecting ':'");
+            }
+            i = skipSpaces(buf, i + 1, end);
+            int valueStart = i;
+            if (i < end && buf.get(i) == '"') {
+                // String values are not expected, skipped
+                i++;
+                while (i < end && buf.get(i) != '"') {
+                    i += (buf.get(i) == '\\') ? 2 : 1;
+                }
+                i++;
+                continue;
+            }
+            while (i < end && buf.get(i) != ',' && buf.get(i) != '}' && buf.get(i) != ' ') {
+                i++;
+            }
+            if (equalsKey(buf, keyStart, keyEnd, KEY_READING_TIME)) {
+                time[0] = parseLong(buf, valueStart, i);
+                hasTime = true;
+            } else {
+                for (int f = 0; f < FIELDS; f++) {
+                    if (equalsKey(buf, keyStart, keyEnd, KEYS[f])) {
+                        values[f] = isNull(buf, valueStart, i) ? Double.NaN : parseDouble(buf, valueStart, i);
+                        break;
+                    }
+                }
+            }
+        }
+        if (!hasTime) {
+            throw new IllegalArgumentException("reading_time is required");
+        }
+        return true;
+    }
+
+    /**
+     * Decimal integer, values out of the range of a long are rejected.
+     */
+    static long parseLong(ByteBuffer buf, int start, int end) {
+        start = skipSpaces(buf, start, end);
+        end   = trimEnd(buf, start, end);
+        if (start == end) {
+            throw new IllegalArgumentException("missing integer");
+        }
+        int i = start;
+        boolean negative = false;
+        if (buf.get(i) == '-' || buf.get(i) == '+') {
+            negative = buf.get(i) == '-';
+            i++;
+        }
+        if (i == end) {
+            throw new IllegalArgumentException("invalid integer");
+        }
+        // Accumulated negatively as Long.MIN_VALUE has no positive counterpart
+        long limit    = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long limitDiv = limit / 10;
+        long value    = 0;
+        for (; i < end; i++) {
+            int digit = buf.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new IllegalArgumentException("invalid integer");
+            }
+            if (value < limitDiv || value * 10 < limit + digit) {
+                throw new IllegalArgumentException("integer out of range");
+            }
+            value = value * 10 - digit;
+        }
+        return negative ? value : -value;
+    }
+
+    /**
+     * Exponent of a decimal number, saturated (beyond any finite double) instead of overflowing.
+     */
+    private static int parseExponent(ByteBuffer buf, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (buf.get(i) == '-' || buf.get(i) == '+')) {
+            negative = buf.get(i) == '-';
+            i++;
+        }
+        if (i == end) {
+            throw new IllegalArgumentException("invalid number");
+        }
+        int exponent = 0;
+        for (; i < end; i++) {
+            int digit = buf.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new IllegalArgumentException("invalid number");
+            }
+            exponent = Math.min(MAX_EXPONENT, exponent * 10 + digit);
+        }
+        return negative ? -exponent : exponent;
+    }
+
+    /**
+     * Decimal number, exact for up to 15 significant digits and exponents up to 22 (all telemetry
+     * values in practice), other values fall back to {@link Double#parseDouble(String)}: overflows give
+     * an infinity, underflows zero.
+     */
+    static double parseDouble(ByteBuffer buf, int start, int end) {
+        start = skipSpaces(buf, start, end);
+        end   = trimEnd(buf, start, end);
+        if (start == end) {
+            return Double.NaN;
+        }
+        int i = start;
+        boolean negative = false;
+        if (buf.get(i) == '-' || buf.get(i) == '+') {
+            negative = buf.get(i) == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int  digits   = 0;
+        int  exponent = 0;
+        boolean dot   = false;
+        boolean valid = false;
+        for (; i < end; i++) {
+            byte b = buf.get(i);
+            if (b >= '0' && b <= '9') {
+                valid = true;
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + (b - '0');
+                    if (mantissa != 0) {
+                        digits++;
+                    }
+                    if (dot) {
+                        exponent--;
+                    }
+                } else if (!dot) {
+                    exponent++;
+                }
+            } else if (b == '.' && !dot) {
+                dot = true;
+            } else {
+                break;
+            }
+        }
+        if (valid && i < end && (buf.get(i) == 'e' || buf.get(i) == 'E')) {
+            exponent += parseExponent(buf, i + 1, end);
+            i = end;
+        }
+        if (!valid || i != end) {
+            throw new IllegalArgumentException("invalid number");
+        }
+        double value;
+        if (mantissa < (1L << 53) && Math.abs(exponent) < POW10.length) {
+            // Both operands are exact, a single rounding
+            value = exponent < 0 ? mantissa / POW10[-exponent] : mantissa * POW10[exponent];
+        } else {
+            byte[] raw = new byte[end - start];
+            for (int j = 0; j < raw.length; j++) {
+                raw[j] = buf.get(start + j);
+            }
+            return Double.parseDouble(new String(raw, StandardCharsets.US_ASCII));
+        }
+        return negative ? -value : value;
+    }
+
+    private static boolean isNumberStart(byte b) {
+        return (b >= '0' && b <= '9') || b == '-';
+    }
+
+    private static boolean isNull(ByteBuffer buf, int start, int end) {
+        return end - start == 4 && buf.get(start) == 'n';
+    }
+
+    private static boolean equalsKey(ByteBuffer buf, int start, int end, byte[] key) {
+        if (end - start != key.length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (buf.get(start + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int skipSpaces(ByteBuffer buf, int start, int end) {
+        while (start < end && (buf.get(start) == ' ' || buf.get(start) == '\t')) {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimEnd(ByteBuffer buf, int start, int end) {
+        while (end > start && (buf.get(end - 1) == ' ' || buf.get(end - 1) == '\t')) {
+            end--;
+        }
+        return end;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+}
@@ -0,0 +1,156 @@
+package com.datastax.apollo.controller;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.datastax.apollo.dao.TenantContext;
+
+/**
+ * Access log, one line per request in logfmt (key=value) on the logger 'apollo.access'.
+ *
+ * Lines are written by an asynchronous appender (see logback.xml): the request thread only queues
+ * the event and lines are dropped when the queue is full, logging never slows requests down.
+ * Frequent endpoints are sampled, errors and slow requests are always logged.
+ *
+ * Latencies (microseconds): 'duration_us' until the response is complete, 'handler_us' until the
+ * controller returned (differs for streamed responses).
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    /** Dedicated logger, routed to the asynchronous appender. */
+    private static final Logger ACCESS_LOG = LoggerFactory.getLogger("apollo.access");
+
+    /** Endpoint of requests not handled by a controller (static resources, errors). */
+    private static final String UNMATCHED = "-";
+
+    private final boolean enabled;
+
+    /** Share of requests logged when no endpoint rate applies. */
+    private final double defaultSampleRate;
+
+    /** Share of requests logged per endpoint pattern, first match applies. */
+    private final Map<String, Double> sampleRates = new LinkedHashMap<>();
+
+    /** Requests slower than this are always logged. */
+    private final long slowNanos;
+
+    /** Rate resolved per endpoint, patterns are matched once. */
+    private final Map<String, Double> endpointSampleRates = new ConcurrentHashMap<>();
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    /**
+     * Constructor.
+     *
+     * @param sampleRates
+     *      comma separated 'pattern=rate', patterns are matched against the request mapping of the endpoint
+     */
+    public AccessLogFilter(
+            @Value("${apollo.access-log.enabled:true}") boolean enabled,
+            @Value("${apollo.access-log.sample-rate:1.0}") double defaultSampleRate,
+            @Value("${apollo.access-log.sample-rates:}") String sampleRates,
+            @Value("${apollo.access-log.slow-millis:1000}") long slowMillis) {
+        this.enabled           = enabled;
+        this.defaultSampleRate = defaultSampleRate;
+        this.slowNanos         = TimeUnit.MILLISECONDS.toNanos(slowMillis);
+        for (String sampleRate : sampleRates.split(",")) {
+            int separator = sampleRate.lastIndexOf('=');
+            if (separator > 0) {
+                this.sampleRates.put(sampleRate.substring(0, separator).trim(),
+                        Double.parseDouble(sampleRate.substring(separator + 1).trim()));
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !ACCESS_LOG.isInfoEnabled();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+    throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long handlerNanos = System.nanoTime() - start;
+            if (request.isAsyncStarted()) {
+                // Streamed response, logged once written: onComplete also follows a timeout or an error
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    private final AtomicBoolean failed = new AtomicBoolean();
+                    public void onComplete(AsyncEvent event) {
+                        log(request, response, start, handlerNanos, true, failed.get());
+                    }
+                    public void onTimeout(AsyncEvent event) {
+                        failed.set(true);
+                    }
+                    public void onError(AsyncEvent event) {
+                        failed.set(true);
+                    }
+                    public void onStartAsync(AsyncEvent event) {
+                        // Listeners are dropped when asynchronous processing starts again
+                        event.getAsyncContext().addListener(this);
+                    }
+                });
+            } else {
+                log(request, response, start, handlerNanos, false, false);
+            }
+        }
+    }
+
+    private void log(HttpServletRequest request, HttpServletResponse response, long start, long handlerNanos, boolean async, boolean failed) {
+        long   durationNanos = System.nanoTime() - start;
+        int    status        = response.getStatus();
+        Object pattern       = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint      = pattern == null ? UNMATCHED : pattern.toString();
+        double sampleRate    = endpointSampleRates.computeIfAbsent(endpoint, this::sampleRate);
+        // Errors and slow requests are never sampled out
+        if (!failed && status < 500 && durationNanos < slowNanos
+                && sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        Object tenant = request.getAttribute(TenantContext.ATTRIBUTE_TENANT);
+        ACCESS_LOG.info("method={} endpoint={} uri={} status={} tenant={} duration_us={} handler_us={} async={} failed={} sample_rate={}",
+                request.getMethod(), endpoint, request.getRequestURI(), status,
+                tenant == null ? TenantContext.current() : tenant,
+                TimeUnit.NANOSECONDS.toMicros(durationNanos), TimeUnit.NANOSECONDS.toMicros(handlerNanos),
+                async, failed, sampleRate);
+    }
+
+    private double sampleRate(String endpoint) {
+        for (Map.Entry<String, Double> sampleRate : sampleRates.entrySet()) {
+            if (pathMatcher.match(sampleRate.getKey(), endpoint)) {
+                return sampleRate.getValue();
+            }
+        }
+        return defaultSampleRate;
+    }
+
+}
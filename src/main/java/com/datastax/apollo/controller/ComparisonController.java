@@ -0,0 +1,86 @@
+package com.datastax.apollo.controller;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.datastax.apollo.model.Instrument;
+import com.datastax.apollo.model.JourneyComparison;
+import com.datastax.apollo.model.JourneyReference;
+import com.datastax.apollo.service.ApolloService;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+
+/**
+ * REST Controller to compare journeys, possibly of different spacecrafts.
+ */
+@RestController
+@Api(
+ value = "/api/comparisons", 
+ description = "Compare instruments over several journeys")
+@RequestMapping("/api/comparisons")
+public class ComparisonController {
+    
+    /** Grid size when not provided. */
+    private static final int DEFAULT_MAX_POINTS = 1000;
+    
+    /** Service implementation Injection. */
+    private ApolloService apolloService;
+
+    /**
+     * Constructor.
+     *
+     * @param apolloService
+     *      service implementation
+     */
+    public ComparisonController(ApolloService apolloService) {
+        this.apolloService = apolloService;
+    }
+    
+    /**
+     * Series of an instrument for several journeys on a common grid of elapsed times.
+     */
+    @GetMapping(produces = APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Compare an instrument over journeys, aligned on time since their first reading", response = JourneyComparison.class)
+    @ApiResponses({
+        @ApiResponse(code = 200, message = "One series per journey, in the requested order"),
+        @ApiResponse(code = 400, message = "Invalid journey reference or grid parameters")
+    })
+    public ResponseEntity<JourneyComparison> compareJourneys(
+            @ApiParam(name="journey", value="Journeys as spacecraftName:journeyId, repeat the parameter for each journey", 
+                      example = "gemini3:abb7c000-c310-11ac-8080-808080808080", required=true )
+            @RequestParam("journey") List<String> journeys,
+            @ApiParam(name="instrument", value="TEMPERATURE, PRESSURE, SPEED or LOCATION", required=true )
+            @RequestParam("instrument") Instrument instrument,
+            @ApiParam(name="stepMillis", value="Step of the grid, computed from the longest journey if not provided", required=false ) 
+            @RequestParam("stepMillis") Optional<Long> stepMillis,
+            @ApiParam(name="maxPoints", value="Max number of grid points, default is 1000", required=false ) 
+            @RequestParam("maxPoints") Optional<Integer> maxPoints) {
+        List<JourneyReference> references = journeys.stream()
+                .map(JourneyReference::parse)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(apolloService.compareJourneys(references, instrument, 
+                stepMillis, maxPoints.orElse(DEFAULT_MAX_POINTS)));
+    }
+    
+    @ExceptionHandler(value = IllegalArgumentException.class)
+    @ResponseStatus(value = HttpStatus.BAD_REQUEST)
+    public String _errorBadRequestHandler(IllegalArgumentException ex) {
+        return ex.getMessage();
+    }
+}
@@ -2,11 +2,8 @@ package com.datastax.apollo.controller;
 
 import static org.springframework.web.bind.annotation.RequestMethod.GET;
 
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.StandardCopyOption;
-import java.util.UUID;
+import java.nio.file.Path;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,7 +17,9 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.datastax.apollo.dao.SecureBundleStore;
 import com.datastax.apollo.dao.SessionManager;
+import com.datastax.apollo.dao.TenantContext;
 
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiImplicitParam;
@@ -39,6 +38,19 @@ public class CredentialsController {
     
     /** Logger for the class. */
     private static final Logger LOGGER = LoggerFactory.getLogger(CredentialsController.class);
+    
+    /** Bundles saved once per content. */
+    private SecureBundleStore bundleStore;
+    
+    /**
+     * Constructor.
+     *
+     * @param bundleStore
+     *      bundles saved once per content
+     */
+    public CredentialsController(SecureBundleStore bundleStore) {
+        this.bundleStore = bundleStore;
+    }
    
     @ExceptionHandler(value = IllegalArgumentException.class)
     @ResponseStatus(value = HttpStatus.BAD_REQUEST)
@@ -48,20 +60,21 @@ public class CredentialsController {
     
     @ExceptionHandler(value = IllegalStateException.class)
     @ResponseStatus(value = HttpStatus.UNAUTHORIZED)
-    public String _errorUnAuthorizedHandler(IllegalArgumentException ex) {
+    public String _errorUnAuthorizedHandler(IllegalStateException ex) {
         return ex.getMessage();
     }
     
     @ExceptionHandler(value = IOException.class)
     @ResponseStatus(value = HttpStatus.INTERNAL_SERVER_ERROR)
-    public String _errorBadCannotWriteFile(IllegalArgumentException ex) {
+    public String _errorBadCannotWriteFile(IOException ex) {
         return ex.getMessage();
     }
     
     /**
      * POST on /api/credentials
      * 
-     * Request body is the zipfile
+     * Request body is the zipfile, credentials are saved for the tenant of the request
+     * (header 'X-Apollo-Tenant' or path '/tenants/{tenantId}/api/credentials').
      * 
      * @param username
      *      HTTP POST PARAM user name
@@ -102,14 +115,13 @@ public class CredentialsController {
            LOGGER.info("Initiatilizing credentials and connection");
            LOGGER.info("+ Zip File found with {} bytes", file.getSize());
            
-           // Save File Locally in temp folder with generated UID
-           File tempFile = File.createTempFile(UUID.randomUUID().toString(), ".zip");
-           Files.copy(file.getInputStream(), tempFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
-           LOGGER.info("+ Creating temporary file {}", tempFile.getAbsolutePath());
+           // Save File Locally, named after its content (same bundle => same session)
+           Path bundle = bundleStore.save(file.getInputStream());
            
+           // Tenant from header or path, default tenant otherwise
            SessionManager.getInstance()
-                         .saveCredentials(username, password, keyspace, tempFile.getAbsolutePath());
-           LOGGER.info("+ Saving credentials into SessionManager");
+                         .saveCredentials(TenantContext.current(), username, password, keyspace, bundle.toString());
+           LOGGER.info("+ Saving credentials into SessionManager for tenant {}", TenantContext.current());
            
            // Checking connection
            return checkConnection();
@@ -137,11 +149,8 @@ public class CredentialsController {
              @RequestParam("keyspace") String keyspace,
              @RequestParam("file")     MultipartFile file) throws IOException {
          
-         File tempFile = File.createTempFile(UUID.randomUUID().toString(), ".zip");
-         Files.copy(file.getInputStream(), tempFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
-         LOGGER.info("+ Creating temporary file {}", tempFile.getAbsolutePath());
-         
-         SessionManager.getInstance().testCredentials(username, password, keyspace, tempFile.getAbsolutePath());
+         Path bundle = bundleStore.save(file.getInputStream());
+         SessionManager.getInstance().testCredentials(username, password, keyspace, bundle.toString());
          LOGGER.info("Session has been successfully established");
          
          return ResponseEntity.ok("Valid Parameters");
@@ -1,31 +1,56 @@
 package com.datastax.apollo.controller;
 
+import static com.datastax.apollo.export.ArrowTelemetryWriter.APPLICATION_ARROW_STREAM_VALUE;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_OCTET_STREAM_VALUE;
+import static org.springframework.http.MediaType.TEXT_EVENT_STREAM_VALUE;
 
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.datastax.apollo.dao.JourneyKey;
+import com.datastax.apollo.entity.SpacecraftAnomalyEvent;
+import com.datastax.apollo.entity.SpacecraftJourneyCatalog;
 import com.datastax.apollo.entity.SpacecraftLocationOverTime;
 import com.datastax.apollo.entity.SpacecraftPressureOverTime;
 import com.datastax.apollo.entity.SpacecraftSpeedOverTime;
 import com.datastax.apollo.entity.SpacecraftTemperatureOverTime;
+import com.datastax.apollo.live.JourneyLiveStream;
+import com.datastax.apollo.model.Instrument;
+import com.datastax.apollo.model.JoinAlignment;
+import com.datastax.apollo.model.JoinedReadings;
 import com.datastax.apollo.model.PagedResultWrapper;
+import com.datastax.apollo.model.PagingMode;
 import com.datastax.apollo.service.ApolloService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
 
 @RestController
 @Api(
@@ -34,20 +59,39 @@ import io.swagger.annotations.ApiResponse;
 @RequestMapping("api/spacecraft/{spacecraftName}/{journeyId}/instruments")
 public class InstrumentsController {
     
-    /** Logger for the class. */
-    private static final Logger LOGGER = LoggerFactory.getLogger(InstrumentsController.class);
+    /** Newline delimited JSON, one reading per line. */
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
     
     /** Service implementation Injection. */
     private ApolloService apolloService;
+    
+    /** Caching headers for completed journeys. */
+    private JourneyHttpCaching httpCaching;
+    
+    /** Readings pushed to live subscribers. */
+    private JourneyLiveStream liveStream;
+    
+    /** Json serialization for streamed responses. */
+    private ObjectMapper objectMapper;
 
     /**
      * Constructor.
      *
      * @param spacecraftService
      *      service implementation
+     * @param httpCaching
+     *      caching headers for completed journeys
+     * @param liveStream
+     *      readings pushed to live subscribers
+     * @param objectMapper
+     *      json serialization for streamed responses
      */
-    public InstrumentsController(ApolloService apolloService) {
+    public InstrumentsController(ApolloService apolloService, JourneyHttpCaching httpCaching, 
+            JourneyLiveStream liveStream, ObjectMapper objectMapper) {
         this.apolloService = apolloService;
+        this.httpCaching   = httpCaching;
+        this.liveStream    = liveStream;
+        this.objectMapper  = objectMapper;
     }
     
     /**
@@ -64,9 +108,23 @@ public class InstrumentsController {
             @ApiParam(name="pageSize", value="Requested page size, default is 10", required=false ) 
             @RequestParam("pageSize") Optional<Integer> pageSize,
             @ApiParam(name="pageState", value="Use to retrieve next pages", required=false ) 
-            @RequestParam("pageState") Optional<String> pageState) {
-        LOGGER.info("Retrieving temperature readings for spacecraft {} and journey {}", spacecraftName, journeyId);
-        return ResponseEntity.ok(apolloService.getTemperatureReading(spacecraftName, journeyId, pageSize, pageState));
+            @RequestParam("pageState") Optional<String> pageState,
+            @ApiParam(name="pagingMode", value="DRIVER (default) or SEEK, in SEEK mode pageState is the epoch millis of last reading_time", required=false ) 
+            @RequestParam("pagingMode") Optional<PagingMode> pagingMode,
+            @ApiParam(name="targetPoints", value="Downsample the whole journey to this number of readings (LTTB), paging is ignored", required=false ) 
+            @RequestParam("targetPoints") Optional<Integer> targetPoints,
+            WebRequest webRequest) {
+        PagingMode mode = pagingMode.orElse(PagingMode.DRIVER);
+        String etag = httpCaching.etag(spacecraftName, journeyId, SpacecraftTemperatureOverTime.TABLE_NAME, mode, pageSize, pageState, targetPoints);
+        if (httpCaching.isNotModified(webRequest, spacecraftName, journeyId, etag)) {
+            return httpCaching.notModified(etag);
+        }
+        if (targetPoints.isPresent()) {
+            return httpCaching.ok(spacecraftName, journeyId, etag, 
+                    apolloService.getTemperatureReadingDownsampled(spacecraftName, journeyId, targetPoints.get()));
+        }
+        return httpCaching.ok(spacecraftName, journeyId, etag, 
+                apolloService.getTemperatureReading(spacecraftName, journeyId, pageSize, pageState, mode));
     }
     
     /**
@@ -83,9 +141,23 @@ public class InstrumentsController {
             @ApiParam(name="pageSize", value="Requested page size, default is 10", required=false ) 
             @RequestParam("pageSize") Optional<Integer> pageSize,
             @ApiParam(name="pageState", value="Use to retrieve next pages", required=false ) 
-            @RequestParam("pageState") Optional<String> pageState) {
-        LOGGER.info("Retrieving pressure readings for spacecraft {} and journey {}", spacecraftName, journeyId);
-        return ResponseEntity.ok(apolloService.getPressureReading(spacecraftName, journeyId, pageSize, pageState));
+            @RequestParam("pageState") Optional<String> pageState,
+            @ApiParam(name="pagingMode", value="DRIVER (default) or SEEK, in SEEK mode pageState is the epoch millis of last reading_time", required=false ) 
+            @RequestParam("pagingMode") Optional<PagingMode> pagingMode,
+            @ApiParam(name="targetPoints", value="Downsample the whole journey to this number of readings (LTTB), paging is ignored", required=false ) 
+            @RequestParam("targetPoints") Optional<Integer> targetPoints,
+            WebRequest webRequest) {
+        PagingMode mode = pagingMode.orElse(PagingMode.DRIVER);
+        String etag = httpCaching.etag(spacecraftName, journeyId, SpacecraftPressureOverTime.TABLE_NAME, mode, pageSize, pageState, targetPoints);
+        if (httpCaching.isNotModified(webRequest, spacecraftName, journeyId, etag)) {
+            return httpCaching.notModified(etag);
+        }
+        if (targetPoints.isPresent()) {
+            return httpCaching.ok(spacecraftName, journeyId, etag, 
+                    apolloService.getPressureReadingDownsampled(spacecraftName, journeyId, targetPoints.get()));
+        }
+        return httpCaching.ok(spacecraftName, journeyId, etag, 
+                apolloService.getPressureReading(spacecraftName, journeyId, pageSize, pageState, mode));
     } 
     
     /**
@@ -102,9 +174,23 @@ public class InstrumentsController {
             @ApiParam(name="pageSize", value="Requested page size, default is 10", required=false ) 
             @RequestParam("pageSize") Optional<Integer> pageSize,
             @ApiParam(name="pageState", value="Use to retrieve next pages", required=false ) 
-            @RequestParam("pageState") Optional<String> pageState) {
-        LOGGER.info("Retrieving pressure readings for spacecraft {} and journey {}", spacecraftName, journeyId);
-        return ResponseEntity.ok(apolloService.getSpeedReading(spacecraftName, journeyId, pageSize, pageState));
+            @RequestParam("pageState") Optional<String> pageState,
+            @ApiParam(name="pagingMode", value="DRIVER (default) or SEEK, in SEEK mode pageState is the epoch millis of last reading_time", required=false ) 
+            @RequestParam("pagingMode") Optional<PagingMode> pagingMode,
+            @ApiParam(name="targetPoints", value="Downsample the whole journey to this number of readings (LTTB), paging is ignored", required=false ) 
+            @RequestParam("targetPoints") Optional<Integer> targetPoints,
+            WebRequest webRequest) {
+        PagingMode mode = pagingMode.orElse(PagingMode.DRIVER);
+        String etag = httpCaching.etag(spacecraftName, journeyId, SpacecraftSpeedOverTime.TABLE_NAME, mode, pageSize, pageState, targetPoints);
+        if (httpCaching.isNotModified(webRequest, spacecraftName, journeyId, etag)) {
+            return httpCaching.notModified(etag);
+        }
+        if (targetPoints.isPresent()) {
+            return httpCaching.ok(spacecraftName, journeyId, etag, 
+                    apolloService.getSpeedReadingDownsampled(spacecraftName, journeyId, targetPoints.get()));
+        }
+        return httpCaching.ok(spacecraftName, journeyId, etag, 
+                apolloService.getSpeedReading(spacecraftName, journeyId, pageSize, pageState, mode));
     } 
     
     /**
@@ -121,8 +207,281 @@ public class InstrumentsController {
             @ApiParam(name="pageSize", value="Requested page size, default is 10", required=false ) 
             @RequestParam("pageSize") Optional<Integer> pageSize,
             @ApiParam(name="pageState", value="Use to retrieve next pages", required=false ) 
-            @RequestParam("pageState") Optional<String> pageState) {
-        LOGGER.info("Retrieving pressure readings for spacecraft {} and journey {}", spacecraftName, journeyId);
-        return ResponseEntity.ok(apolloService.getLocationReading(spacecraftName, journeyId, pageSize, pageState));
+            @RequestParam("pageState") Optional<String> pageState,
+            @ApiParam(name="pagingMode", value="DRIVER (default) or SEEK, in SEEK mode pageState is the epoch millis of last reading_time", required=false ) 
+            @RequestParam("pagingMode") Optional<PagingMode> pagingMode,
+            @ApiParam(name="tolerance", value="Return the whole trajectory simplified within this distance (3D Douglas-Peucker), paging is ignored", required=false ) 
+            @RequestParam("tolerance") Optional<Double> tolerance,
+            WebRequest webRequest) {
+        PagingMode mode = pagingMode.orElse(PagingMode.DRIVER);
+        String etag = httpCaching.etag(spacecraftName, journeyId, SpacecraftLocationOverTime.TABLE_NAME, mode, pageSize, pageState, tolerance);
+        if (httpCaching.isNotModified(webRequest, spacecraftName, journeyId, etag)) {
+            return httpCaching.notModified(etag);
+        }
+        if (tolerance.isPresent()) {
+            return httpCaching.ok(spacecraftName, journeyId, etag, 
+                    apolloService.getLocationReadingSimplified(spacecraftName, journeyId, tolerance.get()));
+        }
+        return httpCaching.ok(spacecraftName, journeyId, etag, 
+                apolloService.getLocationReading(spacecraftName, journeyId, pageSize, pageState, mode));
     } 
+    
+    /**
+     * Location reading closest to a point.
+     */
+    @GetMapping(value="/location/nearest", produces = APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Retrieve location reading closest to a point", response = SpacecraftLocationOverTime.class)
+    @ApiResponses({
+        @ApiResponse(code = 200, message = "Closest location reading"),
+        @ApiResponse(code = 404, message = "No location reading for the journey")
+    })
+    public ResponseEntity<SpacecraftLocationOverTime> findNearestLocation(
+            @ApiParam(name="spacecraftName", value="Spacecraft name",example = "gemini3",required=true )
+            @PathVariable(value = "spacecraftName") String spacecraftName,
+            @ApiParam(name="journeyId", value="Identifer for journey",example = "abb7c000-c310-11ac-8080-808080808080",required=true )
+            @PathVariable(value = "journeyId") UUID journeyId,
+            @RequestParam("x") double x, @RequestParam("y") double y, @RequestParam("z") double z) {
+        Optional<SpacecraftLocationOverTime> nearest = apolloService.findNearestLocation(spacecraftName, journeyId, x, y, z);
+        if (!nearest.isPresent()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(nearest.get());
+    }
+    
+    /**
+     * Location readings inside a box.
+     */
+    @GetMapping(value="/location/within", produces = APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Retrieve location readings inside a bounding box", response = List.class)
+    @ApiResponse(code = 200, message = "Location readings inside the box, most recent first")
+    public ResponseEntity<List<SpacecraftLocationOverTime>> findLocationsWithin(
+            @ApiParam(name="spacecraftName", value="Spacecraft name",example = "gemini3",required=true )
+            @PathVariable(value = "spacecraftName") String spacecraftName,
+            @ApiParam(name="journeyId", value="Identifer for journey",example = "abb7c000-c310-11ac-8080-808080808080",required=true )
+            @PathVariable(value = "journeyId") UUID journeyId,
+            @RequestParam("minX") double minX, @RequestParam("minY") double minY, @RequestParam("minZ") double minZ,
+            @RequestParam("maxX") double maxX, @RequestParam("maxY") double maxY, @RequestParam("maxZ") double maxZ,
+            @ApiParam(name="limit", value="Max number of readings, default is 1000", required=false ) 
+            @RequestParam("limit") Optional<Integer> limit) {
+        return ResponseEntity.ok(apolloService.findLocationsWithin(spacecraftName, journeyId, 
+                new double[] { minX, minY, minZ }, new double[] { maxX, maxY, maxZ }, limit.orElse(1000)));
+    }
+    
+    /**
+     * Readings of all instruments joined on reading time, as a JSON array.
+     */
+    @GetMapping(value="/joined", produces = APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Retrieve readings of all instruments per timestamp, most recent first", response = List.class)
+    @ApiResponse(code = 200, message = "One row per reading time, streamed as readings are fetched")
+    public ResponseEntity<StreamingResponseBody> getJoinedReadings(
+            @ApiParam(name="spacecraftName", value="Spacecraft name",example = "gemini3",required=true )
+            @PathVariable(value = "spacecraftName") String spacecraftName,
+            @ApiParam(name="journeyId", value="Identifer for journey",example = "abb7c000-c310-11ac-8080-808080808080",required=true )
+            @PathVariable(value = "journeyId") UUID journeyId,
+            @ApiParam(name="alignment", value="EXACT (default), FORWARD_FILL or NEAREST for instruments without reading at a timestamp", required=false ) 
+            @RequestParam("alignment") Optional<JoinAlignment> alignment,
+            @ApiParam(name="toleranceMillis", value="Max distance to a reading used to fill a timestamp", required=false ) 
+            @RequestParam("toleranceMillis") Optional<Long> toleranceMillis) {
+        Iterator<JoinedReadings> rows = apolloService.joinReadings(spacecraftName, journeyId, 
+                alignment.orElse(JoinAlignment.EXACT), toleranceMillis);
+        return ResponseEntity.ok(out -> {
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+                json.writeStartArray();
+                while (rows.hasNext()) {
+                    json.writeObject(rows.next());
+                }
+                json.writeEndArray();
+            }
+        });
+    }
+    
+    /**
+     * Readings of all instruments joined on reading time, one JSON document per line.
+     */
+    @GetMapping(value="/joined", produces = APPLICATION_NDJSON_VALUE)
+    @ApiOperation(value = "Retrieve readings of all instruments per timestamp as newline delimited JSON", response = JoinedReadings.class)
+    @ApiResponse(code = 200, message = "One line per reading time, streamed as readings are fetched")
+    public ResponseEntity<StreamingResponseBody> getJoinedReadingsNdjson(
+            @ApiParam(name="spacecraftName", value="Spacecraft name",example = "gemini3",required=true )
+            @PathVariable(value = "spacecraftName") String spacecraftName,
+            @ApiParam(name="journeyId", value="Identifer for journey",example = "abb7c000-c310-11ac-8080-808080808080",required=true )
+            @PathVariable(value = "journeyId") UUID journeyId,
+            @ApiParam(name="alignment", value="EXACT (default), FORWARD_FILL or NEAREST for instruments without reading at a timestamp", required=false ) 
+            @RequestParam("alignment") Optional<JoinAlignment> alignment,
+            @ApiParam(name="toleranceMillis", value="Max distance to a reading used to fill a timestamp", required=false ) 
+            @RequestParam("toleranceMillis") Optional<Long> toleranceMillis) {
+        Iterator<JoinedReadings> rows = apolloService.joinReadings(spacecraftName, journeyId, 
+                alignment.orElse(JoinAlignment.EXACT), toleranceMillis);
+        return ResponseEntity.ok(out -> {
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+                // Lines are delimited by the newline only
+                json.setRootValueSeparator(null);
+                while (rows.hasNext()) {
+                    json.writeObject(rows.next());
+                    json.writeRaw('\n');
+                }
+            }
+        });
+    }
+    
+    /**
+     * All temperature readings of a journey as an Arrow IPC stream.
+     */
+    @GetMapping(value="/temperature", produces = APPLICATION_ARROW_STREAM_VALUE)
+    @ApiOperation(value = "Export temperature readings of a journey as an Arrow IPC stream, most recent first")
+    @ApiResponse(code = 200, message = "Schema then one record batch per page of readings")
+    public ResponseEntity<StreamingResponseBody> exportTemperatureReadingAsArrow(
+            @ApiParam(name="spacecraftName", value="Spacecraft name",example = "gemini3",required=true )
+            @PathVariable(value = "spacecraftName") String spacecraftName,
+            @ApiParam(name="journeyId", value="Identifer for journey",example = "abb7c000-c310-11ac-8080-808080808080",required=true )
+            @PathVariable(value = "journeyId") UUID journeyId) {
+        return ResponseEntity.ok(out -> apolloService.exportReadingsAsArrow(spacecraftName, journeyId, Instrument.TEMPERATURE, out));
+    }
+    
+    /**
+     * All pressure readings of a journey as an Arrow IPC stream.
+     */
+    @GetMapping(value="/pressure", produces = APPLICATION_ARROW_STREAM_VALUE)
+    @ApiOperation(value = "Export pressure readings of a journey as an Arrow IPC stream, most recent first")
+    @ApiResponse(code = 200, message = "Schema then one record batch per page of readings")
+    public ResponseEntity<StreamingResponseBody> exportPressureReadingAsArrow(
+            @ApiParam(name="spacecraftName", value="Spacecraft name",example = "gemini3",required=true )
+            @PathVariable(value = "spacecraftName") String spacecraftName,
+            @ApiParam(name="journeyId", value="Identifer for journey",example = "abb7c000-c310-11ac-8080-808080808080",required=true )
+            @PathVariable(value = "journeyId") UUID journeyId) {
+        return ResponseEntity.ok(out -> apolloService.exportReadingsAsArrow(spacecraftName, journeyId, Instrument.PRESSURE, out));
+    }
+    
+    /**
+     * All speed readings of a journey as an Arrow IPC stream.
+     */
+    @GetMapping(value="/speed", produces = APPLICATION_ARROW_STREAM_VALUE)
+    @ApiOperation(value = "Export speed readings of a journey as an Arrow IPC stream, most recent first")
+    @ApiResponse(code = 200, message = "Schema then one record batch per page of readings")
+    public ResponseEntity<StreamingResponseBody> exportSpeedReadingAsArrow(
+            @ApiParam(name="spacecraftName", value="Spacecraft name",example = "gemini3",required=true )
+            @PathVariable(value = "spacecraftName") String spacecraftName,
+            @ApiParam(name="journeyId", value="Identifer for journey",example = "abb7c000-c310-11ac-8080-808080808080",required=true )
+            @PathVariable(value = "journeyId") UUID journeyId) {
+        return ResponseEntity.ok(out -> apolloService.exportReadingsAsArrow(spacecraftName, journeyId, Instrument.SPEED, out));
+    }
+    
+    /**
+     * All location readings of a journey as an Arrow IPC stream.
+     */
+    @GetMapping(value="/location", produces = APPLICATION_ARROW_STREAM_VALUE)
+    @ApiOperation(value = "Export location readings of a journey as an Arrow IPC stream, most recent first")
+    @ApiResponse(code = 200, message = "Schema then one record batch per page of readings")
+    public ResponseEntity<StreamingResponseBody> exportLocationReadingAsArrow(
+            @ApiParam(name="spacecraftName", value="Spacecraft name",example = "gemini3",required=true )
+            @PathVariable(value = "spacecraftName") String spacecraftName,
+            @ApiParam(name="journeyId", value="Identifer for journey",example = "abb7c000-c310-11ac-8080-808080808080",required=true )
+            @PathVariable(value = "journeyId") UUID journeyId) {
+        return ResponseEntity.ok(out -> apolloService.exportReadingsAsArrow(spacecraftName, journeyId, Instrument.LOCATION, out));
+    }
+    
+    /**
+     * Readings of all instruments joined on reading time as an Arrow IPC stream.
+     */
+    @GetMapping(value="/joined", produces = APPLICATION_ARROW_STREAM_VALUE)
+    @ApiOperation(value = "Export readings of all instruments per timestamp as an Arrow IPC stream, most recent first")
+    @ApiResponse(code = 200, message = "Schema then record batches of joined readings")
+    public ResponseEntity<StreamingResponseBody> exportJoinedReadingsAsArrow(
+            @ApiParam(name="spacecraftName", value="Spacecraft name",example = "gemini3",required=true )
+            @PathVariable(value = "spacecraftName") String spacecraftName,
+            @ApiParam(name="journeyId", value="Identifer for journey",example = "abb7c000-c310-11ac-8080-808080808080",required=true )
+            @PathVariable(value = "journeyId") UUID journeyId,
+            @ApiParam(name="alignment", value="EXACT (default), FORWARD_FILL or NEAREST for instruments without reading at a timestamp", required=false ) 
+            @RequestParam("alignment") Optional<JoinAlignment> alignment,
+            @ApiParam(name="toleranceMillis", value="Max distance to a reading used to fill a timestamp", required=false ) 
+            @RequestParam("toleranceMillis") Optional<Long> toleranceMillis) {
+        return ResponseEntity.ok(out -> apolloService.exportJoinedReadingsAsArrow(spacecraftName, journeyId, 
+                alignment.orElse(JoinAlignment.EXACT), toleranceMillis, out));
+    }
+    
+    /**
+     * Readings pushed as they are ingested (Server-Sent Events).
+     */
+    @GetMapping(value="/live", produces = TEXT_EVENT_STREAM_VALUE)
+    @ApiOperation(value = "Stream readings of an active journey as they are ingested")
+    @ApiResponses({
+        @ApiResponse(code = 200, message = "Event 'readings' with latest readings of all instruments, intermediate readings are skipped for slow clients"),
+        @ApiResponse(code = 404, message = "Journey does not exist or is not active")
+    })
+    public ResponseEntity<SseEmitter> streamLiveReadings(
+            @ApiParam(name="spacecraftName", value="Spacecraft name",example = "gemini3",required=true )
+            @PathVariable(value = "spacecraftName") String spacecraftName,
+            @ApiParam(name="journeyId", value="Identifer for journey",example = "abb7c000-c310-11ac-8080-808080808080",required=true )
+            @PathVariable(value = "journeyId") UUID journeyId) {
+        // Unknown journeys would never publish, subscribers are not kept for them
+        Optional<SpacecraftJourneyCatalog> journey = apolloService.findJourneyById(spacecraftName, journeyId);
+        if (!journey.isPresent() || Boolean.FALSE.equals(journey.get().getActive())) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(liveStream.subscribe(JourneyKey.of(spacecraftName, journeyId)));
+    }
+    
+    /**
+     * Anomalies detected at ingestion.
+     */
+    @GetMapping(value="/anomalies", produces = APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Retrieve anomalies detected on instruments for a journey", response = List.class)
+    @ApiResponse(code = 200, message = "Anomalies of the journey, most recent first")
+    public ResponseEntity<PagedResultWrapper<SpacecraftAnomalyEvent>> getAnomalies(
+            @ApiParam(name="spacecraftName", value="Spacecraft name",example = "gemini3",required=true )
+            @PathVariable(value = "spacecraftName") String spacecraftName,
+            @ApiParam(name="journeyId", value="Identifer for journey",example = "abb7c000-c310-11ac-8080-808080808080",required=true )
+            @PathVariable(value = "journeyId") UUID journeyId, 
+            @ApiParam(name="pageSize", value="Requested page size", required=false ) 
+            @RequestParam("pageSize") Optional<Integer> pageSize,
+            @ApiParam(name="pageState", value="Use to retrieve next pages", required=false ) 
+            @RequestParam("pageState") Optional<String> pageState,
+            WebRequest webRequest) {
+        String etag = httpCaching.etag(spacecraftName, journeyId, SpacecraftAnomalyEvent.TABLE_NAME, pageSize, pageState);
+        if (httpCaching.isNotModified(webRequest, spacecraftName, journeyId, etag)) {
+            return httpCaching.notModified(etag);
+        }
+        return httpCaching.ok(spacecraftName, journeyId, etag, 
+                apolloService.getAnomalies(spacecraftName, journeyId, pageSize, pageState));
+    }
+    
+    /**
+     * Export the columnar snapshot of a completed journey (four series), streamed from disk.
+     *
+     * The file is opened before the handler returns (no sendfile, read by the connector later): a
+     * snapshot evicted meanwhile is still sent in full.
+     */
+    @GetMapping(value="/snapshot", produces = APPLICATION_OCTET_STREAM_VALUE)
+    @ApiOperation(value = "Export columnar snapshot of a completed journey")
+    @ApiResponses({
+        @ApiResponse(code = 200, message = "Binary snapshot, see JourneySnapshot for the layout"),
+        @ApiResponse(code = 404, message = "Journey is active or snapshot is not yet available")
+    })
+    public void exportSnapshot(
+            @ApiParam(name="spacecraftName", value="Spacecraft name",example = "gemini3",required=true )
+            @PathVariable(value = "spacecraftName") String spacecraftName,
+            @ApiParam(name="journeyId", value="Identifer for journey",example = "abb7c000-c310-11ac-8080-808080808080",required=true )
+            @PathVariable(value = "journeyId") UUID journeyId,
+            HttpServletResponse response) throws IOException {
+        Optional<FileChannel> snapshot = apolloService.openSnapshotFile(spacecraftName, journeyId);
+        if (!snapshot.isPresent()) {
+            response.sendError(HttpStatus.NOT_FOUND.value(), "Snapshot is not available for journey " + journeyId);
+            return;
+        }
+        try (FileChannel channel = snapshot.get()) {
+            long size = channel.size();
+            response.setContentType(APPLICATION_OCTET_STREAM_VALUE);
+            response.setContentLengthLong(size);
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            for (long position = 0; position < size; ) {
+                position += channel.transferTo(position, size - position, out);
+            }
+        }
+    }
+    
+    @ExceptionHandler(value = IllegalArgumentException.class)
+    @ResponseStatus(value = HttpStatus.BAD_REQUEST)
+    public String _errorBadRequestHandler(IllegalArgumentException ex) {
+        return ex.getMessage();
+    }
 }
@@ -0,0 +1,158 @@
+package com.datastax.apollo.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import com.datastax.apollo.dao.SessionManager;
+import com.datastax.apollo.dao.TenantContext;
+import com.datastax.apollo.dao.TenantKey;
+import com.datastax.apollo.service.ApolloService;
+
+/**
+ * HTTP caching for completed journeys.
+ *
+ * Once a journey is not active anymore its readings never change: responses get a strong ETag
+ * computed from the request only (session of the tenant, journey, instrument, page cursor) so that
+ * a matching 'If-None-Match' is answered with 304 without reading the resource, once the journey
+ * is known to be completed. Only completed journeys are ever given an ETag, active journeys are
+ * sent with 'Cache-Control: no-cache'.
+ *
+ * The tenant can be provided as a header: responses vary on it, a shared cache never serves the
+ * readings of a tenant to another one.
+ */
+@Component
+public class JourneyHttpCaching {
+
+    /** Separator for ETag components. */
+    private static final String SEPARATOR = "|";
+
+    /** Service implementation Injection. */
+    private ApolloService apolloService;
+
+    /** How long shared caches and browsers can keep a completed journey page. */
+    private long maxAgeSeconds;
+
+    /**
+     * Constructor.
+     *
+     * @param apolloService
+     *      service implementation
+     * @param maxAgeSeconds
+     *      max-age directive for completed journeys
+     */
+    public JourneyHttpCaching(ApolloService apolloService,
+            @Value("${apollo.http-cache.max-age-seconds:86400}") long maxAgeSeconds) {
+        this.apolloService = apolloService;
+        this.maxAgeSeconds = maxAgeSeconds;
+    }
+
+    /**
+     * Compute a strong ETag for a resource of a journey in the database of the current tenant.
+     *
+     * @param spacecraftName
+     *      spacecraft name
+     * @param journeyId
+     *      journey identifier
+     * @param resource
+     *      resource within the journey (catalog entry, instrument, ...)
+     * @param cursor
+     *      whatever identifies the page (mode, size, state)
+     * @return
+     *      quoted ETag value
+     */
+    public String etag(String spacecraftName, UUID journeyId, String resource, Object... cursor) {
+        TenantKey tenant = SessionManager.getInstance().getTenantKey();
+        StringBuilder key = new StringBuilder(tenant.getSecureConnectionBundlePath())
+                .append(SEPARATOR).append(tenant.getUserName())
+                .append(SEPARATOR).append(tenant.getKeySpace())
+                .append(SEPARATOR).append(spacecraftName)
+                .append(SEPARATOR).append(journeyId)
+                .append(SEPARATOR).append(resource);
+        for (Object part : cursor) {
+            key.append(SEPARATOR).append(part);
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * Evaluate 'If-None-Match' header against expected ETag, then check the journey is completed:
+     * an ETag can be computed by anyone, only immutable resources are confirmed.
+     *
+     * @param request
+     *      current request
+     * @param spacecraftName
+     *      spacecraft name
+     * @param journeyId
+     *      journey identifier
+     * @param etag
+     *      expected etag
+     * @return
+     *      if the client already holds the resource
+     */
+    public boolean isNotModified(WebRequest request, String spacecraftName, UUID journeyId, String etag) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (!StringUtils.hasLength(ifNoneMatch)) {
+            return false;
+        }
+        for (String candidate : StringUtils.commaDelimitedListToStringArray(ifNoneMatch)) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (etag.equals(candidate)) {
+                return apolloService.isJourneyCompleted(spacecraftName, journeyId);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Response when client copy is still valid.
+     */
+    public <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                             .eTag(etag)
+                             .cacheControl(cacheControlCompleted())
+                             .varyBy(TenantContext.HEADER_TENANT)
+                             .build();
+    }
+
+    /**
+     * Response carrying a journey resource, cacheable only if the journey is completed.
+     *
+     * @param spacecraftName
+     *      spacecraft name
+     * @param journeyId
+     *      journey identifier
+     * @param etag
+     *      etag computed for the request
+     * @param body
+     *      response body
+     * @return
+     *      response with caching headers
+     */
+    public <T> ResponseEntity<T> ok(String spacecraftName, UUID journeyId, String etag, T body) {
+        if (apolloService.isJourneyCompleted(spacecraftName, journeyId)) {
+            return ResponseEntity.ok().eTag(etag).cacheControl(cacheControlCompleted())
+                                 .varyBy(TenantContext.HEADER_TENANT).body(body);
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache())
+                             .varyBy(TenantContext.HEADER_TENANT).body(body);
+    }
+
+    private CacheControl cacheControlCompleted() {
+        return CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).cachePublic();
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.datastax.apollo.controller;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.datastax.apollo.service.ApolloService;
+import com.datastax.apollo.service.SingleFlight;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+
+/**
+ * REST Controller exposing runtime statistics of the backend.
+ */
+@RestController
+@Api(
+ value = "/api/metrics",
+ description = "Runtime statistics of the backend")
+@RequestMapping("/api/metrics")
+public class MetricsController {
+
+    /** Service implementation Injection. */
+    private ApolloService apolloService;
+
+    /**
+     * Constructor.
+     *
+     * @param apolloService
+     *      service implementation
+     */
+    public MetricsController(ApolloService apolloService) {
+        this.apolloService = apolloService;
+    }
+
+    /**
+     * Identical concurrent reads served by a single query, since startup.
+     */
+    @GetMapping(value = "/coalescing", produces = APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Requests, queries run and coalescing ratio per kind of read", response = List.class)
+    @ApiResponses({
+        @ApiResponse(code = 200, message = "One entry per kind of read")
+    })
+    public ResponseEntity<List<SingleFlight<?, ?>>> getCoalescingMetrics() {
+        return ResponseEntity.ok(apolloService.getCoalescingMetrics());
+    }
+
+}
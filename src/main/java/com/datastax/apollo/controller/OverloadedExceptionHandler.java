@@ -0,0 +1,61 @@
+package com.datastax.apollo.controller;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+import com.datastax.apollo.limit.LimitExceededException;
+import com.datastax.apollo.schema.SchemaLockedException;
+
+/**
+ * Requests rejected by a concurrency limit, by the pool of threads writing streamed responses, or
+ * opening a session while another instance migrates its keyspace, are answered 503 with a delay to
+ * retry, for all controllers.
+ *
+ * Also applies to errors raised while a streamed body is written (asynchronous dispatch), as long as
+ * the response is not committed yet.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+@ControllerAdvice
+public class OverloadedExceptionHandler {
+
+    /** Seconds the client is asked to wait when no thread is available. */
+    private final int retryAfterSeconds;
+
+    /**
+     * Constructor.
+     *
+     * @param retryAfterSeconds
+     *      seconds the client is asked to wait when no thread is available
+     */
+    public OverloadedExceptionHandler(@Value("${apollo.limits.retry-after-seconds:1}") int retryAfterSeconds) {
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @ExceptionHandler(value = LimitExceededException.class)
+    public ResponseEntity<String> _errorOverloadedHandler(LimitExceededException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ex.getMessage());
+    }
+
+    @ExceptionHandler(value = SchemaLockedException.class)
+    public ResponseEntity<String> _errorSchemaLockedHandler(SchemaLockedException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ex.getMessage());
+    }
+
+    @ExceptionHandler(value = TaskRejectedException.class)
+    public ResponseEntity<String> _errorNoThreadHandler(TaskRejectedException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body("Too many streamed responses in progress");
+    }
+
+}
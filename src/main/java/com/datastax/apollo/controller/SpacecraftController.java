@@ -4,7 +4,12 @@ import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 import static org.springframework.http.MediaType.TEXT_PLAIN_VALUE;
 import static org.springframework.web.bind.annotation.RequestMethod.GET;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -13,6 +18,7 @@ import javax.servlet.http.HttpServletRequest;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -24,9 +30,19 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.datastax.apollo.bulk.BulkLoadCheckpoint;
+import com.datastax.apollo.bulk.BulkLoadReport;
+import com.datastax.apollo.bulk.TelemetryParser;
+import com.datastax.apollo.dao.TenantContext;
 import com.datastax.apollo.entity.SpacecraftJourneyCatalog;
+import com.datastax.apollo.entity.SpacecraftJourneySummary;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.datastax.apollo.service.ApolloService;
 
 import io.swagger.annotations.Api;
@@ -52,15 +68,27 @@ public class SpacecraftController {
     
     /** Service implementation Injection. */
     private ApolloService apolloService;
+    
+    /** Caching headers for completed journeys. */
+    private JourneyHttpCaching httpCaching;
+    
+    /** Json serialization for streamed responses. */
+    private ObjectMapper objectMapper;
 
     /**
      * Constructor.
      *
      * @param spacecraftService
      *      service implementation
+     * @param httpCaching
+     *      caching headers for completed journeys
+     * @param objectMapper
+     *      json serialization for streamed responses
      */
-    public SpacecraftController(ApolloService spacecraftService) {
+    public SpacecraftController(ApolloService spacecraftService, JourneyHttpCaching httpCaching, ObjectMapper objectMapper) {
         this.apolloService = spacecraftService;
+        this.httpCaching   = httpCaching;
+        this.objectMapper  = objectMapper;
     }
     
     /**
@@ -71,10 +99,34 @@ public class SpacecraftController {
      */
     @GetMapping(produces = APPLICATION_JSON_VALUE)
     @ApiOperation(value = "List all spacecrafts and journeys", response = List.class)
-    @ApiResponse(code = 200, message = "List all journeys for a spacecraft")
-    public ResponseEntity<List<SpacecraftJourneyCatalog>> findAllSpacecrafts() {
-        LOGGER.info("Retrieving all spacecrafts");
-        return ResponseEntity.ok(apolloService.findAllSpacecrafts());
+    @ApiResponse(code = 200, message = "List all journeys, ends with an element {\"error\": \"...\"} if the scan failed")
+    public ResponseEntity<StreamingResponseBody> findAllSpacecrafts() {
+        // Journeys are written as token ranges are scanned, never held in memory
+        return ResponseEntity.ok(out -> {
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+                json.writeStartArray();
+                try {
+                    apolloService.scanAllSpacecrafts(journey -> {
+                        synchronized (json) {
+                            try {
+                                json.writeObject(journey);
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        }
+                    });
+                } catch (UncheckedIOException clientGone) {
+                    throw clientGone.getCause();
+                } catch (RuntimeException re) {
+                    // Status may already be sent, the list ends with an error rather than being truncated
+                    LOGGER.error("Scan of the catalog failed, journeys listed are incomplete", re);
+                    json.writeStartObject();
+                    json.writeStringField("error", "Incomplete list: " + re.getMessage());
+                    json.writeEndObject();
+                }
+                json.writeEndArray();
+            }
+        });
     }
     
     /**
@@ -91,7 +143,6 @@ public class SpacecraftController {
     public ResponseEntity<List<SpacecraftJourneyCatalog>> findAllJourneysForSpacecraft(
             @ApiParam(name="spacecraftName", value="Spacecraft name",example = "gemini3",required=true )
             @PathVariable(value = "spacecraftName") String spaceCraftName) {
-        LOGGER.info("Retrieving all journey for spacecraft {}", spaceCraftName);
         return ResponseEntity.ok(apolloService.findAllJourneysForSpacecraft(spaceCraftName));
     }
     
@@ -110,6 +161,7 @@ public class SpacecraftController {
     @ApiOperation(value = "Retrieve a journey from its spacecraftname and journeyid", response = List.class)
     @ApiResponses({
         @ApiResponse(code = 200, message = "Returnings SpacecraftJourneyCatalog"),
+        @ApiResponse(code = 304, message = "Journey is completed and client copy is still valid"),
         @ApiResponse(code = 400, message = "spacecraftName is blank or contains invalid characters (expecting AlphaNumeric)"),
         @ApiResponse(code = 404, message = "No journey exists for the provided spacecraftName and journeyid")
     })
@@ -117,8 +169,13 @@ public class SpacecraftController {
             @ApiParam(name="spacecraftName", value="Spacecraft name",example = "gemini3",required=true )
             @PathVariable(value = "spacecraftName") String spacecraftName,
             @ApiParam(name="journeyId", value="Identifer for journey",example = "abb7c000-c310-11ac-8080-808080808080",required=true )
-            @PathVariable(value = "journeyId") UUID journeyId) {
-        LOGGER.info("Fetching journey with spacecraft name {} and journeyid {}", spacecraftName, journeyId);
+            @PathVariable(value = "journeyId") UUID journeyId,
+            WebRequest webRequest) {
+        // Completed journeys are immutable, client copy is still valid
+        String etag = httpCaching.etag(spacecraftName, journeyId, SpacecraftJourneyCatalog.TABLE_NAME);
+        if (httpCaching.isNotModified(webRequest, spacecraftName, journeyId, etag)) {
+            return httpCaching.notModified(etag);
+        }
         // Invoking Service
         Optional<SpacecraftJourneyCatalog> journey = apolloService.findJourneyById(spacecraftName, journeyId);
         // Routing Result
@@ -126,7 +183,57 @@ public class SpacecraftController {
             LOGGER.warn("Journey with spacecraft name {} and journeyid {} has not been found", spacecraftName, journeyId);
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(journey.get());
+        if (journey.get().getStatistics() == null) {
+            // Summary is still being computed, a cached copy would miss it
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache())
+                                 .varyBy(TenantContext.HEADER_TENANT).body(journey.get());
+        }
+        return httpCaching.ok(spacecraftName, journeyId, etag, journey.get());
+    }
+    
+    /**
+     * Mark a journey as completed, its readings become cacheable.
+     */
+    @PostMapping(value = "/{spacecraftName}/{journeyId}/complete")
+    @ApiOperation(value = "Mark a journey as completed (not active anymore)", response = String.class)
+    @ApiResponses({
+        @ApiResponse(code = 200, message = "Journey is now completed"),
+        @ApiResponse(code = 404, message = "No journey exists for the provided spacecraftName and journeyid")
+    })
+    public ResponseEntity<String> completeSpacecraftJourney(
+            @ApiParam(name="spacecraftName", value="Spacecraft name",example = "gemini3",required=true )
+            @PathVariable(value = "spacecraftName") String spacecraftName,
+            @ApiParam(name="journeyId", value="Identifer for journey",example = "abb7c000-c310-11ac-8080-808080808080",required=true )
+            @PathVariable(value = "journeyId") UUID journeyId) {
+        Optional<SpacecraftJourneyCatalog> journey = apolloService.findJourneyById(spacecraftName, journeyId);
+        if (!journey.isPresent()) {
+            LOGGER.warn("Journey with spacecraft name {} and journeyid {} has not been found", spacecraftName, journeyId);
+            return ResponseEntity.notFound().build();
+        }
+        apolloService.completeJourney(journey.get());
+        return ResponseEntity.ok("Journey " + journeyId + " is completed");
+    }
+    
+    /**
+     * Compute summary of a journey now, it is otherwise computed when the journey completes.
+     */
+    @PostMapping(value = "/{spacecraftName}/{journeyId}/summary", produces = APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Compute and save summary figures of a journey", response = SpacecraftJourneySummary.class)
+    @ApiResponses({
+        @ApiResponse(code = 200, message = "Summary has been computed"),
+        @ApiResponse(code = 404, message = "No journey exists for the provided spacecraftName and journeyid")
+    })
+    public ResponseEntity<SpacecraftJourneySummary> computeSpacecraftJourneySummary(
+            @ApiParam(name="spacecraftName", value="Spacecraft name",example = "gemini3",required=true )
+            @PathVariable(value = "spacecraftName") String spacecraftName,
+            @ApiParam(name="journeyId", value="Identifer for journey",example = "abb7c000-c310-11ac-8080-808080808080",required=true )
+            @PathVariable(value = "journeyId") UUID journeyId) {
+        Optional<SpacecraftJourneyCatalog> journey = apolloService.findJourneyById(spacecraftName, journeyId);
+        if (!journey.isPresent()) {
+            LOGGER.warn("Journey with spacecraft name {} and journeyid {} has not been found", spacecraftName, journeyId);
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(apolloService.computeJourneySummary(spacecraftName, journeyId));
     }
     
     @PostMapping(value = "/{spacecraftName}/{journeyId}/preload")
@@ -134,7 +241,8 @@ public class SpacecraftController {
     @ApiResponses({
         @ApiResponse(code = 200, message = "Loading is done"),
         @ApiResponse(code = 400, message = "spacecraftName is blank or contains invalid characters (expecting AlphaNumeric)"),
-        @ApiResponse(code = 404, message = "No journey exists for the provided spacecraftName and journeyid")
+        @ApiResponse(code = 404, message = "No journey exists for the provided spacecraftName and journeyid"),
+        @ApiResponse(code = 409, message = "Journey is completed, its readings cannot change")
     })
     public ResponseEntity<String> preload(
             @ApiParam(name="spacecraftName", value="Spacecraft name",example = "gemini3",required=true )
@@ -147,12 +255,61 @@ public class SpacecraftController {
             LOGGER.warn("Journey with spacecraft name {} and journeyid {} has not been found", spacecraftName, journeyId);
             return ResponseEntity.notFound().build();
         }
+        if (Boolean.FALSE.equals(journey.get().getActive())) {
+            // Completed journeys are cached as immutable (HTTP caches, snapshots, summaries)
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
         long top = System.currentTimeMillis();
         apolloService.preload(itemCount, spacecraftName, journeyId);
         long stop = System.currentTimeMillis();
         return ResponseEntity.ok(itemCount + " item(s) loaded in " + (stop-top) + "millis");
     }
     
+    /**
+     * Load a file of historical readings (CSV or NDJSON) into a journey.
+     *
+     * Uploads are not resumable: the file and its checkpoint are deleted when the request ends, a failed
+     * upload is sent again from the start (rows already written are written again, with the same values).
+     * Only the command line loader ({@link com.datastax.apollo.bulk.BulkLoadTelemetry}) resumes a file.
+     */
+    @PostMapping(value = "/{spacecraftName}/{journeyId}/bulk", produces = APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Load historical readings from a CSV or NDJSON file", response = BulkLoadReport.class)
+    @ApiResponses({
+        @ApiResponse(code = 200, message = "Loading is done"),
+        @ApiResponse(code = 400, message = "File contains invalid lines"),
+        @ApiResponse(code = 404, message = "No journey exists for the provided spacecraftName and journeyid"),
+        @ApiResponse(code = 409, message = "Journey is completed, its readings cannot change"),
+        @ApiResponse(code = 500, message = "Loading failed, the file is sent again from the start (not resumable)")
+    })
+    public ResponseEntity<BulkLoadReport> bulkLoad(
+            @ApiParam(name="spacecraftName", value="Spacecraft name",example = "gemini3",required=true )
+            @PathVariable(value = "spacecraftName") String spacecraftName,
+            @ApiParam(name="journeyId", value="Identifer for journey",example = "abb7c000-c310-11ac-8080-808080808080",required=true )
+            @PathVariable(value = "journeyId") UUID journeyId,
+            @RequestParam("file") MultipartFile file) throws IOException, InterruptedException {
+        Optional<SpacecraftJourneyCatalog> journey = apolloService.findJourneyById(spacecraftName, journeyId);
+        if (!journey.isPresent()) {
+            LOGGER.warn("Journey with spacecraft name {} and journeyid {} has not been found", spacecraftName, journeyId);
+            return ResponseEntity.notFound().build();
+        }
+        if (Boolean.FALSE.equals(journey.get().getActive())) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        // Saved locally to be memory-mapped (moved when the upload is spooled on disk), extension gives the format
+        String fileName = Optional.ofNullable(file.getOriginalFilename()).orElse("readings.csv");
+        TelemetryParser.Format format = TelemetryParser.Format.fromFileName(fileName);
+        File tempFile = File.createTempFile(UUID.randomUUID().toString(), "." + format.name().toLowerCase());
+        try {
+            Files.deleteIfExists(tempFile.toPath());
+            file.transferTo(tempFile);
+            LOGGER.info("+ Loading {} ({} bytes) into journey {}", fileName, file.getSize(), journeyId);
+            return ResponseEntity.ok(apolloService.bulkLoad(tempFile.toPath(), spacecraftName, journeyId));
+        } finally {
+            Files.deleteIfExists(tempFile.toPath());
+            Files.deleteIfExists(Paths.get(tempFile.getAbsolutePath() + BulkLoadCheckpoint.EXTENSION));
+        }
+    }
+    
     /**
      * Create a new Journey for a Spacecraft
      */
@@ -191,7 +348,7 @@ public class SpacecraftController {
     
     @ExceptionHandler(value = IllegalStateException.class)
     @ResponseStatus(value = HttpStatus.UNAUTHORIZED)
-    public String _errorUnAuthorizedHandler(IllegalArgumentException ex) {
+    public String _errorUnAuthorizedHandler(IllegalStateException ex) {
         return ex.getMessage();
     }
 
@@ -0,0 +1,66 @@
+package com.datastax.apollo.controller;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.datastax.apollo.dao.TenantContext;
+
+/**
+ * Streamed responses are written by async threads, they keep the tenant of the request.
+ *
+ * Threads are pooled and bounded: streams beyond the pool wait in the queue, beyond the queue they
+ * are rejected (503). Streams not completed in time are aborted, live streams have their own timeout.
+ */
+@Configuration
+public class TenantAsyncConfiguration implements WebMvcConfigurer {
+
+    /** Threads writing streamed responses. */
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+    /** Time given to a streamed response. */
+    private final long timeoutMillis;
+
+    /**
+     * Constructor.
+     *
+     * @param poolSize
+     *      threads writing streamed responses
+     * @param queueCapacity
+     *      streams waiting for a thread
+     * @param timeoutMillis
+     *      time given to a streamed response
+     */
+    public TenantAsyncConfiguration(
+            @Value("${apollo.async.pool-size:32}") int poolSize,
+            @Value("${apollo.async.queue-capacity:256}") int queueCapacity,
+            @Value("${apollo.async.timeout-millis:600000}") long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+        executor.setThreadNamePrefix("mvc-async-");
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setTaskDecorator(TenantContext::wrap);
+        executor.initialize();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(executor);
+        configurer.setDefaultTimeout(timeoutMillis);
+    }
+
+    /**
+     * Stop async threads.
+     */
+    @PreDestroy
+    public void cleanUp() {
+        executor.shutdown();
+    }
+
+}
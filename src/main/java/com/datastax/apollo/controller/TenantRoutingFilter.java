@@ -0,0 +1,87 @@
+package com.datastax.apollo.controller;
+
+import static com.datastax.apollo.dao.TenantContext.HEADER_TENANT;
+import static com.datastax.apollo.dao.TenantContext.PATH_PREFIX;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.datastax.apollo.dao.SessionLease;
+import com.datastax.apollo.dao.TenantContext;
+
+/**
+ * Route requests to the session of a tenant.
+ *
+ * Tenant is read from the header 'X-Apollo-Tenant' or from a path prefix: '/tenants/{tenantId}/api/...'
+ * is forwarded to '/api/...' with the tenant set. Requests without tenant use the default one.
+ *
+ * Sessions used by the request are retained until it completes, asynchronous processing included.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class TenantRoutingFilter extends OncePerRequestFilter {
+
+    /** Tenant identifiers are simple names. */
+    private static final Pattern TENANT_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    /** {@inheritDoc} */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+    throws ServletException, IOException {
+        String path     = request.getRequestURI().substring(request.getContextPath().length());
+        String tenantId = request.getHeader(HEADER_TENANT);
+        String forward  = null;
+        if (path.startsWith(PATH_PREFIX)) {
+            int end = path.indexOf('/', PATH_PREFIX.length());
+            if (end > PATH_PREFIX.length()) {
+                tenantId = path.substring(PATH_PREFIX.length(), end);
+                forward  = path.substring(end);
+            }
+        }
+        if (tenantId != null && !TENANT_ID.matcher(tenantId).matches()) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Invalid tenant identifier");
+            return;
+        }
+        SessionLease lease = new SessionLease();
+        TenantContext.set(tenantId);
+        TenantContext.setLease(lease);
+        request.setAttribute(TenantContext.ATTRIBUTE_TENANT, TenantContext.current());
+        try {
+            if (forward != null) {
+                request.getRequestDispatcher(forward).forward(request, response);
+            } else {
+                chain.doFilter(request, response);
+            }
+        } finally {
+            TenantContext.clear();
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    public void onComplete(AsyncEvent event) {
+                        lease.release();
+                    }
+                    public void onTimeout(AsyncEvent event) {}
+                    public void onError(AsyncEvent event) {}
+                    public void onStartAsync(AsyncEvent event) {
+                        event.getAsyncContext().addListener(this);
+                    }
+                });
+            } else {
+                lease.release();
+            }
+        }
+    }
+
+}
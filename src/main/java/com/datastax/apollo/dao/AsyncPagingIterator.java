@@ -0,0 +1,97 @@
+package com.datastax.apollo.dao;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+import com.datastax.apollo.jfr.DriverEvents;
+import com.datastax.apollo.jfr.RowMappingEvent;
+import com.datastax.oss.driver.api.core.MappedAsyncPagingIterable;
+
+/**
+ * Iterate over an asynchronous result page after page, the next page is requested as soon as the
+ * current one is received: several iterators consumed together page concurrently and at most two
+ * pages per iterator are held in memory.
+ *
+ * @param <T>
+ *      entity type
+ */
+public class AsyncPagingIterator<T> implements Iterator<T> {
+    
+    /** Page being received, null once the last page has been requested. */
+    private CompletionStage<? extends MappedAsyncPagingIterable<T>> nextPage;
+    
+    /** Page being consumed. */
+    private Iterator<T> currentPage = Collections.emptyIterator();
+    
+    /** Mapping of the page being consumed, null when not recorded. */
+    private RowMappingEvent mapping;
+    
+    /**
+     * Constructor.
+     *
+     * @param firstPage
+     *      query just sent
+     */
+    public AsyncPagingIterator(CompletionStage<? extends MappedAsyncPagingIterable<T>> firstPage) {
+        this.nextPage = firstPage;
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public boolean hasNext() {
+        while (!currentPage.hasNext()) {
+            commitMapping();
+            if (nextPage == null) {
+                return false;
+            }
+            MappedAsyncPagingIterable<T> page;
+            try {
+                page = nextPage.toCompletableFuture().join();
+            } catch(CompletionException ce) {
+                nextPage = null;
+                throw ce.getCause() instanceof RuntimeException ? (RuntimeException) ce.getCause() : ce;
+            }
+            nextPage    = page.hasMorePages() ? DriverEvents.fetchNextPage(page) : null;
+            currentPage = page.currentPage().iterator();
+            mapping     = new RowMappingEvent();
+            if (mapping.isEnabled()) {
+                mapping.table = DriverEvents.table(page.getColumnDefinitions());
+                mapping.begin();
+            } else {
+                mapping = null;
+            }
+        }
+        return true;
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        if (mapping == null) {
+            return currentPage.next();
+        }
+        // Rows of the page are mapped while iterating
+        long start = System.nanoTime();
+        T entity = currentPage.next();
+        mapping.mappingTime += System.nanoTime() - start;
+        mapping.rows++;
+        return entity;
+    }
+    
+    private void commitMapping() {
+        if (mapping != null) {
+            mapping.end();
+            if (mapping.shouldCommit()) {
+                mapping.commit();
+            }
+            mapping = null;
+        }
+    }
+    
+}
@@ -0,0 +1,33 @@
+package com.datastax.apollo.dao;
+
+/**
+ * Wrap the DAOs built for a session (limits, metrics...), applied once per session.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+@FunctionalInterface
+public interface DaoDecorator {
+
+    /** DAOs are used as built by the mapper. */
+    DaoDecorator NONE = new DaoDecorator() {
+        @Override
+        public <T> T decorate(TenantKey tenant, Class<T> daoType, T dao) {
+            return dao;
+        }
+    };
+
+    /**
+     * Wrap a DAO.
+     *
+     * @param tenant
+     *      session the DAO is built for
+     * @param daoType
+     *      interface of the DAO
+     * @param dao
+     *      DAO built by the mapper
+     * @return
+     *      DAO to use
+     */
+    <T> T decorate(TenantKey tenant, Class<T> daoType, T dao);
+
+}
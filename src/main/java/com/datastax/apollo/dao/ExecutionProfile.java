@@ -0,0 +1,46 @@
+package com.datastax.apollo.dao;
+
+import java.util.function.Function;
+
+import com.datastax.oss.driver.api.core.cql.BoundStatementBuilder;
+
+/**
+ * Driver execution profiles defined in application.conf, one per workload.
+ *
+ * Values can be passed to mapper methods accepting a {@link Function} on the bound statement.
+ */
+public enum ExecutionProfile implements Function<BoundStatementBuilder, BoundStatementBuilder> {
+    
+    /** Small dashboard reads: short timeout, idempotent, speculative execution. */
+    INTERACTIVE("interactive"),
+    
+    /** Full journey reads and table scans: large pages, long timeout. */
+    EXPORT("export"),
+    
+    /** High rate writes of readings. */
+    INGEST("ingest");
+    
+    /** Name of the profile in the driver configuration. */
+    private final String profileName;
+    
+    private ExecutionProfile(String profileName) {
+        this.profileName = profileName;
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public BoundStatementBuilder apply(BoundStatementBuilder bsb) {
+        return bsb.setExecutionProfileName(profileName);
+    }
+
+    /**
+     * Getter accessor for attribute 'profileName'.
+     *
+     * @return
+     *       current value of 'profileName'
+     */
+    public String getProfileName() {
+        return profileName;
+    }
+    
+}
@@ -0,0 +1,111 @@
+package com.datastax.apollo.dao;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Identify a journey in the database of a session. Two keyspaces (a copy for staging, tenants
+ * sharing spacecraft names) can hold the same journey identifiers: process-local caches about a
+ * journey are keyed by its session as well.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+public final class JourneyKey {
+
+    /** Session holding the journey. */
+    private final TenantKey tenant;
+
+    /** Spacecraft name. */
+    private final String spacecraftName;
+
+    /** Journey identifier. */
+    private final UUID journeyId;
+
+    /**
+     * Constructor.
+     *
+     * @param tenant
+     *      session holding the journey
+     * @param spacecraftName
+     *      spacecraft name
+     * @param journeyId
+     *      journey identifier
+     */
+    public JourneyKey(TenantKey tenant, String spacecraftName, UUID journeyId) {
+        this.tenant         = Objects.requireNonNull(tenant);
+        this.spacecraftName = Objects.requireNonNull(spacecraftName);
+        this.journeyId      = Objects.requireNonNull(journeyId);
+    }
+
+    /**
+     * Journey in the database of the current tenant (see {@link TenantContext}).
+     *
+     * @param spacecraftName
+     *      spacecraft name
+     * @param journeyId
+     *      journey identifier
+     * @return
+     *      key of the journey
+     */
+    public static JourneyKey of(String spacecraftName, UUID journeyId) {
+        return new JourneyKey(SessionManager.getInstance().getTenantKey(), spacecraftName, journeyId);
+    }
+
+    /**
+     * Getter accessor for attribute 'tenant'.
+     *
+     * @return
+     *       current value of 'tenant'
+     */
+    public TenantKey getTenant() {
+        return tenant;
+    }
+
+    /**
+     * Getter accessor for attribute 'spacecraftName'.
+     *
+     * @return
+     *       current value of 'spacecraftName'
+     */
+    public String getSpacecraftName() {
+        return spacecraftName;
+    }
+
+    /**
+     * Getter accessor for attribute 'journeyId'.
+     *
+     * @return
+     *       current value of 'journeyId'
+     */
+    public UUID getJourneyId() {
+        return journeyId;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof JourneyKey)) {
+            return false;
+        }
+        JourneyKey other = (JourneyKey) o;
+        return journeyId.equals(other.journeyId)
+                && spacecraftName.equals(other.spacecraftName)
+                && tenant.equals(other.tenant);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int hashCode() {
+        return Objects.hash(tenant, spacecraftName, journeyId);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return spacecraftName + "/" + journeyId + " in " + tenant.getKeySpace();
+    }
+
+}
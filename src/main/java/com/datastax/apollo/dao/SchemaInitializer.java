@@ -0,0 +1,25 @@
+package com.datastax.apollo.dao;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+
+/**
+ * Bring the keyspace of a session to the expected schema, applied once per session when it is opened
+ * (before DAOs prepare their statements).
+ *
+ * @author DataStax Developer Advocates team.
+ */
+@FunctionalInterface
+public interface SchemaInitializer {
+
+    /** Schema is managed outside of the application. */
+    SchemaInitializer NONE = cqlSession -> {};
+
+    /**
+     * Create or migrate the schema.
+     *
+     * @param cqlSession
+     *      session just opened, connected to its keyspace
+     */
+    void initialize(CqlSession cqlSession);
+
+}
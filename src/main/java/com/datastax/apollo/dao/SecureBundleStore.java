@@ -0,0 +1,151 @@
+package com.datastax.apollo.dao;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Secure connect bundles uploaded by clients, saved once per content.
+ *
+ * A bundle is stored under the SHA-256 of its content: uploading the same bundle again returns the
+ * same path, so credentials saved or tested with it match the session already open and the
+ * validation already cached. Bundles not uploaded again for the retention time and not used by saved
+ * credentials or open sessions are deleted.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+@Component
+public class SecureBundleStore {
+
+    /** Logger for the class. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(SecureBundleStore.class);
+
+    /** Extension of bundle files. */
+    public static final String FILE_EXTENSION = ".zip";
+
+    /** Prefix of uploads in progress. */
+    private static final String UPLOAD_PREFIX = "upload-";
+
+    /** Working directory. */
+    private Path directory;
+
+    /** Unused bundles are deleted past this time after their last upload. */
+    private long retentionMillis;
+
+    /** Delete unused bundles in background. */
+    private ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "bundle-sweeper");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * Constructor.
+     *
+     * @param directory
+     *      folder holding bundles
+     * @param retentionMillis
+     *      unused bundles are deleted past this time after their last upload
+     */
+    public SecureBundleStore(
+            @Value("${apollo.credentials.bundle-directory:${java.io.tmpdir}/apollo-bundles}") String directory,
+            @Value("${apollo.credentials.bundle-retention-millis:86400000}") long retentionMillis)
+    throws IOException {
+        this.directory       = Files.createDirectories(Paths.get(directory));
+        this.retentionMillis = retentionMillis;
+        long period = Math.min(retentionMillis, TimeUnit.HOURS.toMillis(1));
+        sweeper.scheduleWithFixedDelay(this::deleteUnusedBundles, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Save an uploaded bundle if not already known.
+     *
+     * @param bundle
+     *      content of the bundle
+     * @return
+     *      path of the bundle on disk
+     */
+    public Path save(InputStream bundle) throws IOException {
+        MessageDigest sha256;
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        Path upload = Files.createTempFile(directory, UPLOAD_PREFIX, ".tmp");
+        try {
+            try (InputStream in = new DigestInputStream(bundle, sha256)) {
+                Files.copy(in, upload, StandardCopyOption.REPLACE_EXISTING);
+            }
+            Path target = directory.resolve(String.format("%064x", new BigInteger(1, sha256.digest())) + FILE_EXTENSION);
+            if (!Files.exists(target)) {
+                try {
+                    Files.move(upload, target, StandardCopyOption.ATOMIC_MOVE);
+                    LOGGER.info("+ Bundle saved as {}", target);
+                } catch (FileAlreadyExistsException concurrentUpload) {
+                    // Same bundle uploaded concurrently, content is the same
+                }
+            } else {
+                // Retention counts from the last upload
+                Files.setLastModifiedTime(target, FileTime.fromMillis(System.currentTimeMillis()));
+            }
+            return target;
+        } finally {
+            Files.deleteIfExists(upload);
+        }
+    }
+
+    /**
+     * Delete bundles past retention and not used, and uploads left by a crash.
+     */
+    void deleteUnusedBundles() {
+        long expired = System.currentTimeMillis() - retentionMillis;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    boolean bundle = name.endsWith(FILE_EXTENSION);
+                    if ((bundle || name.startsWith(UPLOAD_PREFIX))
+                            && Files.getLastModifiedTime(file).toMillis() < expired
+                            && !(bundle && SessionManager.getInstance().isBundleInUse(file))) {
+                        Files.deleteIfExists(file);
+                        LOGGER.info("- Unused bundle {} deleted", file);
+                    }
+                } catch (IOException e) {
+                    LOGGER.warn("Cannot delete bundle {}", file, e);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Cannot list bundles in {}", directory, e);
+        }
+    }
+
+    /**
+     * Stop deleting bundles.
+     */
+    @PreDestroy
+    public void cleanUp() {
+        sweeper.shutdownNow();
+    }
+
+}
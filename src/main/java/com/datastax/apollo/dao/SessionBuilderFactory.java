@@ -0,0 +1,31 @@
+package com.datastax.apollo.dao;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.CqlSessionBuilder;
+
+/**
+ * Builder of the sessions of a tenant: connection and credentials, without keyspace.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+@FunctionalInterface
+public interface SessionBuilderFactory {
+
+    /** Apollo databases, the bundle path of the tenant is a secure connect bundle. */
+    SessionBuilderFactory CLOUD = (key, password) -> CqlSession.builder()
+            .withAuthCredentials(key.getUserName(), password)
+            .withCloudSecureConnectBundle(key.getSecureConnectionBundlePath());
+
+    /**
+     * Builder for the database of a key.
+     *
+     * @param key
+     *      bundle, user and keyspace
+     * @param password
+     *      password of the user
+     * @return
+     *      builder with connection and credentials, without keyspace
+     */
+    CqlSessionBuilder newSessionBuilder(TenantKey key, String password);
+
+}
@@ -0,0 +1,53 @@
+package com.datastax.apollo.dao;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Sessions used by a request, retained until the request completes so that a session evicted
+ * from the pool meanwhile is not closed under it.
+ *
+ * The lease follows the tenant to the threads working for the request (see {@link TenantContext}).
+ * Once released, sessions used by work outliving the request (background tasks) are not retained.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+public class SessionLease {
+
+    /** Sessions retained, guarded by this. */
+    private final Set<TenantSession> sessions = new LinkedHashSet<>();
+
+    /** Released with its request. */
+    private boolean released = false;
+
+    /**
+     * Retain a session for the request, once.
+     *
+     * @param session
+     *      session used by the request
+     */
+    synchronized void retain(TenantSession session) {
+        if (!released && sessions.add(session)) {
+            session.retain();
+        }
+    }
+
+    /**
+     * Request completed, release all sessions retained.
+     */
+    public void release() {
+        List<TenantSession> retained;
+        synchronized (this) {
+            if (released) {
+                return;
+            }
+            released = true;
+            retained = new ArrayList<>(sessions);
+            sessions.clear();
+        }
+        retained.forEach(SessionManager.getInstance()::release);
+    }
+
+}
@@ -0,0 +1,23 @@
+package com.datastax.apollo.dao;
+
+/**
+ * Notified when a session is closed (evicted, idle, opened again with another password): state kept
+ * in the process for its database can be dropped.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+@FunctionalInterface
+public interface SessionListener {
+
+    /** Nothing is kept per session. */
+    SessionListener NONE = key -> {};
+
+    /**
+     * A session has been closed.
+     *
+     * @param key
+     *      bundle, user and keyspace of the session
+     */
+    void sessionClosed(TenantKey key);
+
+}
@@ -1,27 +1,91 @@
 package com.datastax.apollo.dao;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.datastax.oss.driver.api.core.AllNodesFailedException;
 import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.auth.AuthenticationException;
 
 /**
- * {@link CqlSession} will be created for each call and drop after.
+ * Sessions of all tenants, keyed by (bundle, user, keyspace).
+ *
+ * Credentials are saved per tenant, without tenant they are saved for the default one. Sessions are
+ * opened on first use, kept in LRU order up to a max number of sessions and closed once idle. A
+ * session removed from the pool is closed once the requests using it complete (see {@link SessionLease}).
  */
 public class SessionManager {
-    
+
+    /** Logger for the class. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(SessionManager.class);
+
+    /** Tenant used when none is provided. */
+    public static final String DEFAULT_TENANT = "default";
+
     /** Singleton Pattern. */
     private static SessionManager _instance = null;
-    
-    /** Connectivity Attributes. */
-    private String userName;
-    private String password;
-    private String keySpace;
-    private String secureConnectionBundlePath;
-    
-    /** Status and working session. */
-    private boolean initialized = false;
-    private CqlSession cqlSession;
-    
+
+    /** Connectivity Attributes per tenant. */
+    private Map<String, TenantCredentials> credentials = new ConcurrentHashMap<>();
+
+    /** Open sessions in access order. */
+    private LinkedHashMap<TenantKey, TenantSession> sessions = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** Pool limits. */
+    private int  maxSessions       = 16;
+    private long idleTimeoutMillis = TimeUnit.MINUTES.toMillis(30);
+
+    /** Results of credentials tests, successes and rejected credentials only. */
+    private Map<TenantKey, CachedValidation> validations = new ConcurrentHashMap<>();
+    private long validationTtlMillis        = TimeUnit.MINUTES.toMillis(5);
+    private long validationFailureTtlMillis = TimeUnit.SECONDS.toMillis(10);
+
+    /** Salts of cached passwords. */
+    private static final SecureRandom SALTS = new SecureRandom();
+
+    /** Expired test results are purged past this number of entries. */
+    private static final int MAX_CACHED_VALIDATIONS = 1000;
+
+    /** Connection and credentials of new sessions. */
+    private SessionBuilderFactory sessionBuilderFactory = SessionBuilderFactory.CLOUD;
+
+    /** Applied to the DAOs of new sessions. */
+    private DaoDecorator daoDecorator = DaoDecorator.NONE;
+
+    /** Applied to the keyspace of new sessions. */
+    private SchemaInitializer schemaInitializer = SchemaInitializer.NONE;
+
+    /** Tables holding readings for new sessions. */
+    private TelemetryStorage telemetryStorage = TelemetryStorage.PER_INSTRUMENT;
+
+    /** Notified when a session is closed. */
+    private SessionListener sessionListener = SessionListener.NONE;
+
+    /** Close idle sessions in background. */
+    private ScheduledExecutorService idleSweeper;
+    private ScheduledFuture<?> idleSweep;
+
     public static final String QUERY_HEALTH_CHECK = "select data_center from system.local";
-    
+
     /**
      * Utility Method to initialized parameters.
      *
@@ -34,9 +98,87 @@ public class SessionManager {
         }
         return _instance;
     }
-    
+
+    /**
+     * Define limits of the pool.
+     *
+     * @param maxSessions
+     *      sessions open at the same time, least recently used is closed beyond
+     * @param idleTimeoutMillis
+     *      session not used for this time is closed
+     */
+    public synchronized void configurePool(int maxSessions, long idleTimeoutMillis) {
+        if (maxSessions < 1 || idleTimeoutMillis < 1) {
+            throw new IllegalArgumentException("Expecting at least one session and a positive idle timeout");
+        }
+        this.maxSessions       = maxSessions;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        if (idleSweeper == null) {
+            idleSweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "session-idle-sweeper");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        if (idleSweep != null) {
+            idleSweep.cancel(false);
+        }
+        long period = Math.min(idleTimeoutMillis, TimeUnit.MINUTES.toMillis(1));
+        idleSweep = idleSweeper.scheduleWithFixedDelay(this::closeIdleSessions, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Build sessions opened from now on, and temporary sessions of credentials tests.
+     *
+     * @param sessionBuilderFactory
+     *      connection and credentials of a tenant
+     */
+    public synchronized void configureSessionBuilderFactory(SessionBuilderFactory sessionBuilderFactory) {
+        this.sessionBuilderFactory = sessionBuilderFactory;
+    }
+
+    /**
+     * Wrap the DAOs of sessions opened from now on.
+     *
+     * @param daoDecorator
+     *      applied to the DAOs once built
+     */
+    public synchronized void configureDaoDecorator(DaoDecorator daoDecorator) {
+        this.daoDecorator = daoDecorator;
+    }
+
+    /**
+     * Create or migrate the schema of sessions opened from now on.
+     *
+     * @param schemaInitializer
+     *      applied to the keyspace once the session is opened
+     */
+    public synchronized void configureSchemaInitializer(SchemaInitializer schemaInitializer) {
+        this.schemaInitializer = schemaInitializer;
+    }
+
     /**
-     * Initialize parameters.
+     * Tables holding readings for sessions opened from now on.
+     *
+     * @param telemetryStorage
+     *      one table per instrument or a single table
+     */
+    public synchronized void configureTelemetryStorage(TelemetryStorage telemetryStorage) {
+        this.telemetryStorage = telemetryStorage;
+    }
+
+    /**
+     * Notify a listener when sessions are closed.
+     *
+     * @param sessionListener
+     *      drops state kept for the database of a session
+     */
+    public synchronized void configureSessionListener(SessionListener sessionListener) {
+        this.sessionListener = sessionListener;
+    }
+
+    /**
+     * Initialize parameters of the default tenant.
      *
      * @param userName
      *      current username
@@ -48,16 +190,57 @@ public class SessionManager {
      *      current keyspace
      */
     public void saveCredentials(String userName, String password, String keyspace, String secureConnectionBundlePath) {
-        this.userName                   = userName;
-        this.password                   = password;
-        this.keySpace                   = keyspace;
-        this.secureConnectionBundlePath = secureConnectionBundlePath;
-        this.initialized                = true;
+        saveCredentials(DEFAULT_TENANT, userName, password, keyspace, secureConnectionBundlePath);
+    }
+
+    /**
+     * Initialize parameters of a tenant.
+     *
+     * @param tenantId
+     *      tenant identifier
+     * @param userName
+     *      current username
+     * @param password
+     *      current password
+     * @param secureConnectionBundlePath
+     *      zip bundle path on disl
+     * @param keyspace
+     *      current keyspace
+     */
+    public void saveCredentials(String tenantId, String userName, String password, String keyspace, String secureConnectionBundlePath) {
+        TenantKey key = new TenantKey(secureConnectionBundlePath, userName, keyspace);
+        credentials.put(tenantId, new TenantCredentials(key, password));
+        // Session opened with another password is not valid anymore
+        synchronized (this) {
+            TenantSession session = sessions.get(key);
+            if (session != null && !session.hasPassword(password)) {
+                sessions.remove(key);
+                close(session);
+            }
+        }
     }
-    
+
+    /**
+     * Define how long a credentials test result is kept.
+     *
+     * @param validationTtlMillis
+     *      time to live of a successful test
+     * @param validationFailureTtlMillis
+     *      time to live of a test with rejected credentials
+     */
+    public void configureValidation(long validationTtlMillis, long validationFailureTtlMillis) {
+        this.validationTtlMillis        = validationTtlMillis;
+        this.validationFailureTtlMillis = validationFailureTtlMillis;
+    }
+
     /**
      * Test with no persistence.
      * 
+     * Result is cached for the same parameters and concurrent identical tests share a single attempt.
+     * Successes are kept for the validation TTL and rejected credentials for a shorter one, other failures
+     * (timeouts, unreachable nodes) are not kept. An open session with the same parameters is used when
+     * available, a temporary session is built otherwise.
+     *
      * @param user
      *      sample user name
      * @param password
@@ -65,20 +248,149 @@ public class SessionManager {
      * @param keyspace
      *      sample keyspace
      * @param secureConnectionBundlePath
-     *      temp file
+     *      bundle file, named after its content
      */
     public void testCredentials(String user, String passwd, String keyspce, String secureConnectionBundlePath) {
+        TenantKey key = new TenantKey(secureConnectionBundlePath, user, keyspce);
+        long now = System.currentTimeMillis();
+        CompletableFuture<Void> attempt = new CompletableFuture<>();
+        CachedValidation cached = validations.compute(key, (k, v) -> 
+            (v != null && (v.expiresAt > now || !v.result.isDone()) && v.matches(passwd)) 
+                ? v : new CachedValidation(attempt, passwd));
+        if (cached.result == attempt) {
+            try {
+                checkCredentials(key, passwd);
+                cached.expiresAt = System.currentTimeMillis() + validationTtlMillis;
+                attempt.complete(null);
+            } catch(RuntimeException re) {
+                if (isAuthenticationFailure(re)) {
+                    cached.expiresAt = System.currentTimeMillis() + validationFailureTtlMillis;
+                }
+                attempt.completeExceptionally(re);
+            }
+        }
+        try {
+            cached.result.join();
+        } catch(CompletionException ce) {
+            throw new IllegalStateException(ce.getCause());
+        }
+        // Results are only read for the same parameters, expired ones are removed on the way
+        if (validations.size() > MAX_CACHED_VALIDATIONS) {
+            validations.values().removeIf(v -> v.result.isDone() && v.expiresAt <= now);
+        }
+    }
+
+    /**
+     * Credentials rejected by the database, other failures may succeed on next attempt.
+     */
+    private static boolean isAuthenticationFailure(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof AuthenticationException) {
+                return true;
+            }
+            if (t instanceof AllNodesFailedException) {
+                for (Throwable nodeError : ((AllNodesFailedException) t).getErrors().values()) {
+                    if (isAuthenticationFailure(nodeError)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tell if a bundle is used by saved credentials or an open session.
+     *
+     * @param bundle
+     *      bundle file
+     * @return
+     *      if the bundle is needed to open sessions
+     */
+    public boolean isBundleInUse(Path bundle) {
+        for (TenantCredentials tenant : credentials.values()) {
+            if (bundle.equals(Paths.get(tenant.key.getSecureConnectionBundlePath()))) {
+                return true;
+            }
+        }
+        synchronized (this) {
+            for (TenantKey key : sessions.keySet()) {
+                if (bundle.equals(Paths.get(key.getSecureConnectionBundlePath()))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void checkCredentials(TenantKey key, String passwd) {
+        TenantSession open;
+        SessionBuilderFactory builderFactory;
+        synchronized (this) {
+            open = sessions.get(key);
+            builderFactory = sessionBuilderFactory;
+        }
+        if (open != null && open.hasPassword(passwd)) {
+            open.getCqlSession().execute(QUERY_HEALTH_CHECK);
+            return;
+        }
         // Autocloseable temporary session
-        try (CqlSession tmpSession = CqlSession.builder()
-                .withCloudSecureConnectBundle(secureConnectionBundlePath)
-                .withAuthCredentials(user, passwd)
-                .withKeyspace(keyspce).build()) {
+        try (CqlSession tmpSession = builderFactory.newSessionBuilder(key, passwd)
+                .withKeyspace(key.getKeySpace()).build()) {
             tmpSession.execute(QUERY_HEALTH_CHECK);
-        } catch(RuntimeException re) {
-            throw new IllegalStateException(re);
         }
     }
-    
+
+    /**
+     * Session of the current tenant (see {@link TenantContext}).
+     *
+     * @return
+     *       session with its DAOs
+     */
+    public TenantSession getTenantSession() {
+        return getTenantSession(TenantContext.current());
+    }
+
+    /**
+     * Session of a tenant, opened if needed.
+     *
+     * @param tenantId
+     *      tenant identifier
+     * @return
+     *       session with its DAOs
+     */
+    public TenantSession getTenantSession(String tenantId) {
+        TenantCredentials tenant = getCredentials(tenantId);
+        List<TenantSession> evicted = new ArrayList<>();
+        TenantSession session;
+        synchronized (this) {
+            session = sessions.get(tenant.key);
+            if (session == null) {
+                session = new TenantSession(tenant.key, tenant.password, sessionBuilderFactory, daoDecorator, schemaInitializer, telemetryStorage);
+                sessions.put(tenant.key, session);
+                Iterator<TenantSession> lru = sessions.values().iterator();
+                while (sessions.size() > maxSessions && lru.hasNext()) {
+                    TenantSession eldest = lru.next();
+                    if (eldest != session) {
+                        evicted.add(eldest);
+                        lru.remove();
+                    }
+                }
+            }
+            session.touch();
+            // Retained in the pool lock, a session can't be retired in between
+            SessionLease lease = TenantContext.lease();
+            if (lease != null) {
+                lease.retain(session);
+            }
+        }
+        for (TenantSession eldest : evicted) {
+            LOGGER.info("Closing session {}, more than {} sessions open", eldest.getKey(), maxSessions);
+            close(eldest);
+        }
+        return session;
+    }
+
     /**
      * Getter accessor for attribute 'cqlSession'.
      *
@@ -86,18 +398,9 @@ public class SessionManager {
      *       current value of 'cqlSession'
      */
     public CqlSession connectToApollo() {
-        if (!isInitialized()) {
-            throw new IllegalStateException("Please initialize the connection parameters first with saveCredentials(...)");
-        }
-        if (null == cqlSession) {
-            cqlSession = CqlSession.builder().withCloudSecureConnectBundle(getSecureConnectionBundlePath())
-                    .withAuthCredentials(getUserName(),getPassword())
-                    .withKeyspace(getKeySpace())
-                    .build();
-        }
-        return cqlSession;
+        return getTenantSession().getCqlSession();
     }
-    
+
     /**
      * IfO simple command failing => invalid connection
      */
@@ -108,16 +411,97 @@ public class SessionManager {
             throw new IllegalStateException(re);
         }
     }
-    
+
     /**
-     * Cleanup session
+     * Close sessions not used for more than the idle timeout, they are opened again when needed.
+     */
+    public void closeIdleSessions() {
+        long limit = System.currentTimeMillis() - idleTimeoutMillis;
+        List<TenantSession> idle = new ArrayList<>();
+        synchronized (this) {
+            Iterator<TenantSession> lru = sessions.values().iterator();
+            while (lru.hasNext()) {
+                TenantSession session = lru.next();
+                if (session.getLastAccess() < limit) {
+                    idle.add(session);
+                    lru.remove();
+                }
+            }
+        }
+        for (TenantSession session : idle) {
+            LOGGER.info("Closing idle session {}", session.getKey());
+            close(session);
+        }
+    }
+
+    /**
+     * Cleanup sessions
      */
     public void close() {
-        if (isInitialized() && null != cqlSession) {
-            cqlSession.close();
+        List<TenantSession> open;
+        synchronized (this) {
+            open = new ArrayList<>(sessions.values());
+            sessions.clear();
+            if (idleSweeper != null) {
+                idleSweeper.shutdownNow();
+                idleSweeper = null;
+                idleSweep   = null;
+            }
+        }
+        // Shutting down, requests still running fail
+        open.forEach(this::closeNow);
+    }
+
+    /**
+     * Release a session retained by a request, closed if it left the pool meanwhile.
+     *
+     * @param session
+     *      session used by a request
+     */
+    void release(TenantSession session) {
+        if (session.release()) {
+            LOGGER.info("Closing session {}, last request completed", session.getKey());
+            closeNow(session);
         }
     }
 
+    /**
+     * Session removed from the pool: closed now if unused, else by the last request using it.
+     */
+    private void close(TenantSession session) {
+        if (session.retire()) {
+            closeNow(session);
+        }
+    }
+
+    private void closeNow(TenantSession session) {
+        session.close();
+        try {
+            sessionListener.sessionClosed(session.getKey());
+        } catch (RuntimeException re) {
+            LOGGER.warn("Session listener failed for {}", session.getKey(), re);
+        }
+    }
+
+    /**
+     * Key of the session of the current tenant (see {@link TenantContext}), without opening it.
+     *
+     * @return
+     *       bundle, user and keyspace of the current tenant
+     */
+    public TenantKey getTenantKey() {
+        return getCredentials(TenantContext.current()).key;
+    }
+
+    private TenantCredentials getCredentials(String tenantId) {
+        TenantCredentials tenant = credentials.get(tenantId);
+        if (tenant == null) {
+            throw new IllegalStateException("Please initialize the connection parameters of tenant '"
+                    + tenantId + "' first with saveCredentials(...)");
+        }
+        return tenant;
+    }
+
     /**
      * Getter accessor for attribute 'userName'.
      *
@@ -125,7 +509,7 @@ public class SessionManager {
      *       current value of 'userName'
      */
     public String getUserName() {
-        return userName;
+        return isInitialized() ? credentials.get(TenantContext.current()).key.getUserName() : null;
     }
 
     /**
@@ -135,7 +519,7 @@ public class SessionManager {
      *       current value of 'password'
      */
     public String getPassword() {
-        return password;
+        return isInitialized() ? credentials.get(TenantContext.current()).password : null;
     }
 
     /**
@@ -145,7 +529,7 @@ public class SessionManager {
      *       current value of 'secureConnectionBundlePath'
      */
     public String getSecureConnectionBundlePath() {
-        return secureConnectionBundlePath;
+        return isInitialized() ? credentials.get(TenantContext.current()).key.getSecureConnectionBundlePath() : null;
     }
 
     /**
@@ -155,17 +539,67 @@ public class SessionManager {
      *       current value of 'keySpace'
      */
     public String getKeySpace() {
-        return keySpace;
+        return isInitialized() ? credentials.get(TenantContext.current()).key.getKeySpace() : null;
     }
 
     /**
-     * Getter accessor for attribute 'initialized'.
+     * Tell if credentials of the current tenant have been saved.
      *
      * @return
      *       current value of 'initialized'
      */
     public boolean isInitialized() {
-        return initialized;
-    }    
-    
+        return credentials.containsKey(TenantContext.current());
+    }
+
+    /**
+     * Result of a credentials test, pending while the test runs. Password is kept as a salted hash.
+     */
+    private static final class CachedValidation {
+
+        private final CompletableFuture<Void> result;
+
+        private final byte[] salt = new byte[16];
+
+        private final byte[] passwordHash;
+
+        /** Set before the result completes, expired right away unless kept. */
+        private volatile long expiresAt = 0;
+
+        private CachedValidation(CompletableFuture<Void> result, String password) {
+            this.result = result;
+            SALTS.nextBytes(salt);
+            this.passwordHash = hash(salt, password);
+        }
+
+        private boolean matches(String password) {
+            return MessageDigest.isEqual(passwordHash, hash(salt, password));
+        }
+
+        private static byte[] hash(byte[] salt, String password) {
+            try {
+                MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+                sha256.update(salt);
+                return sha256.digest(password.getBytes(StandardCharsets.UTF_8));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * Credentials saved for a tenant.
+     */
+    private static final class TenantCredentials {
+
+        private final TenantKey key;
+
+        private final String password;
+
+        private TenantCredentials(TenantKey key, String password) {
+            this.key      = key;
+            this.password = password;
+        }
+    }
+
 }
@@ -0,0 +1,47 @@
+package com.datastax.apollo.dao;
+
+import java.util.UUID;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
+import com.datastax.apollo.entity.SpacecraftAnomalyEvent;
+import com.datastax.oss.driver.api.core.PagingIterable;
+import com.datastax.oss.driver.api.core.cql.BoundStatementBuilder;
+import com.datastax.oss.driver.api.mapper.annotations.Dao;
+import com.datastax.oss.driver.api.mapper.annotations.Insert;
+import com.datastax.oss.driver.api.mapper.annotations.Select;
+
+/**
+ * Operations on anomalies detected at ingestion.
+ */
+@Dao
+public interface SpacecraftAnomalyDao {
+    
+    /**
+     * Search for anomalies of a journey, most recent first.
+     * 
+     * @param spacecraftName
+     *      spacecraft name
+     * @param journeyId
+     *      journey identifier
+     * @param setAttributes
+     *      paging metadata
+     * @return
+     *      anomalies
+     */
+    @Select(customWhereClause = "spacecraft_name= :spacecraftName AND journey_id= :journeyId")
+    PagingIterable<SpacecraftAnomalyEvent> findAnomalies(
+            String spacecraftName, UUID journeyId,
+            Function<BoundStatementBuilder, BoundStatementBuilder> setAttributes);
+    
+    /**
+     * Save an anomaly without blocking the ingestion.
+     * 
+     * @param anomaly
+     *      detected anomaly
+     * @return
+     *      completion
+     */
+    @Insert
+    CompletionStage<Void> insertAsync(SpacecraftAnomalyEvent anomaly);
+}
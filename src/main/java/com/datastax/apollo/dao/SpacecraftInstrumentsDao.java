@@ -1,16 +1,24 @@
 package com.datastax.apollo.dao;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletionStage;
 import java.util.function.Function;
 
 import com.datastax.apollo.entity.SpacecraftLocationOverTime;
 import com.datastax.apollo.entity.SpacecraftPressureOverTime;
 import com.datastax.apollo.entity.SpacecraftSpeedOverTime;
 import com.datastax.apollo.entity.SpacecraftTemperatureOverTime;
+import com.datastax.apollo.model.Instrument;
+import com.datastax.oss.driver.api.core.MappedAsyncPagingIterable;
 import com.datastax.oss.driver.api.core.PagingIterable;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
 import com.datastax.oss.driver.api.core.cql.BoundStatementBuilder;
+import com.datastax.oss.driver.api.core.cql.Row;
 import com.datastax.oss.driver.api.mapper.annotations.Dao;
+import com.datastax.oss.driver.api.mapper.annotations.GetEntity;
 import com.datastax.oss.driver.api.mapper.annotations.QueryProvider;
 import com.datastax.oss.driver.api.mapper.annotations.Select;
 
@@ -36,7 +44,8 @@ public interface SpacecraftInstrumentsDao {
        entityHelpers = { SpacecraftTemperatureOverTime.class, SpacecraftPressureOverTime.class, 
                          SpacecraftLocationOverTime.class, SpacecraftSpeedOverTime.class})
     PagingIterable<SpacecraftTemperatureOverTime> getTemperatureReading(
-            String spacecraftName, UUID JourneyId, Optional<Integer> pageSize, Optional<String> pagingState);
+            String spacecraftName, UUID JourneyId, Optional<Integer> pageSize, Optional<String> pagingState,
+            ExecutionProfile profile);
     
     /**
      * Search for pressure readings.
@@ -45,7 +54,8 @@ public interface SpacecraftInstrumentsDao {
        entityHelpers = { SpacecraftTemperatureOverTime.class, SpacecraftPressureOverTime.class, 
                          SpacecraftLocationOverTime.class, SpacecraftSpeedOverTime.class})
     PagingIterable<SpacecraftPressureOverTime> getPressureReading(
-            String spacecraftName, UUID JourneyId, Optional<Integer> pageSize, Optional<String> pagingState);
+            String spacecraftName, UUID JourneyId, Optional<Integer> pageSize, Optional<String> pagingState,
+            ExecutionProfile profile);
     
     /**
      * Search for speed readings.
@@ -54,7 +64,8 @@ public interface SpacecraftInstrumentsDao {
        entityHelpers = { SpacecraftTemperatureOverTime.class, SpacecraftPressureOverTime.class, 
                          SpacecraftLocationOverTime.class, SpacecraftSpeedOverTime.class})
     PagingIterable<SpacecraftSpeedOverTime> getSpeedReading(
-            String spacecraftName, UUID JourneyId, Optional<Integer> pageSize, Optional<String> spagingState);
+            String spacecraftName, UUID JourneyId, Optional<Integer> pageSize, Optional<String> spagingState,
+            ExecutionProfile profile);
     
     /**
      * Search for location readings.
@@ -63,15 +74,125 @@ public interface SpacecraftInstrumentsDao {
        entityHelpers = { SpacecraftTemperatureOverTime.class, SpacecraftPressureOverTime.class, 
                          SpacecraftLocationOverTime.class, SpacecraftSpeedOverTime.class})
     PagingIterable<SpacecraftLocationOverTime> getLocationReading(
-            String spacecraftName, UUID JourneyId, Optional<Integer> pageSize, Optional<String> pagingState);
+            String spacecraftName, UUID JourneyId, Optional<Integer> pageSize, Optional<String> pagingState,
+            ExecutionProfile profile);
     
     /**
-     * Insert instruments.
+     * Search for temperature readings asynchronously (streaming joins).
+     */
+    @QueryProvider(providerClass = SpacecraftInstrumentsQueryProvider.class, 
+       entityHelpers = { SpacecraftTemperatureOverTime.class, SpacecraftPressureOverTime.class, 
+                         SpacecraftLocationOverTime.class, SpacecraftSpeedOverTime.class})
+    CompletionStage<MappedAsyncPagingIterable<SpacecraftTemperatureOverTime>> getTemperatureReadingAsync(
+            String spacecraftName, UUID JourneyId, ExecutionProfile profile);
+    
+    /**
+     * Search for pressure readings asynchronously (streaming joins).
+     */
+    @QueryProvider(providerClass = SpacecraftInstrumentsQueryProvider.class, 
+       entityHelpers = { SpacecraftTemperatureOverTime.class, SpacecraftPressureOverTime.class, 
+                         SpacecraftLocationOverTime.class, SpacecraftSpeedOverTime.class})
+    CompletionStage<MappedAsyncPagingIterable<SpacecraftPressureOverTime>> getPressureReadingAsync(
+            String spacecraftName, UUID JourneyId, ExecutionProfile profile);
+    
+    /**
+     * Search for speed readings asynchronously (streaming joins).
+     */
+    @QueryProvider(providerClass = SpacecraftInstrumentsQueryProvider.class, 
+       entityHelpers = { SpacecraftTemperatureOverTime.class, SpacecraftPressureOverTime.class, 
+                         SpacecraftLocationOverTime.class, SpacecraftSpeedOverTime.class})
+    CompletionStage<MappedAsyncPagingIterable<SpacecraftSpeedOverTime>> getSpeedReadingAsync(
+            String spacecraftName, UUID JourneyId, ExecutionProfile profile);
+    
+    /**
+     * Search for location readings asynchronously (streaming joins).
+     */
+    @QueryProvider(providerClass = SpacecraftInstrumentsQueryProvider.class, 
+       entityHelpers = { SpacecraftTemperatureOverTime.class, SpacecraftPressureOverTime.class, 
+                         SpacecraftLocationOverTime.class, SpacecraftSpeedOverTime.class})
+    CompletionStage<MappedAsyncPagingIterable<SpacecraftLocationOverTime>> getLocationReadingAsync(
+            String spacecraftName, UUID JourneyId, ExecutionProfile profile);
+    
+    /**
+     * Search for readings of an instrument as driver rows asynchronously (columnar exports).
+     */
+    @QueryProvider(providerClass = SpacecraftInstrumentsQueryProvider.class, 
+       entityHelpers = { SpacecraftTemperatureOverTime.class, SpacecraftPressureOverTime.class, 
+                         SpacecraftLocationOverTime.class, SpacecraftSpeedOverTime.class})
+    CompletionStage<AsyncResultSet> getReadingRowsAsync(
+            String spacecraftName, UUID JourneyId, Instrument instrument, ExecutionProfile profile);
+    
+    /**
+     * Search for temperature readings older than a reading time (seek pagination).
+     */
+    @QueryProvider(providerClass = SpacecraftInstrumentsQueryProvider.class, 
+       entityHelpers = { SpacecraftTemperatureOverTime.class, SpacecraftPressureOverTime.class, 
+                         SpacecraftLocationOverTime.class, SpacecraftSpeedOverTime.class})
+    PagingIterable<SpacecraftTemperatureOverTime> getTemperatureReadingBefore(
+            String spacecraftName, UUID JourneyId, int limit, Instant readingTimeBefore);
+    
+    /**
+     * Search for pressure readings older than a reading time (seek pagination).
+     */
+    @QueryProvider(providerClass = SpacecraftInstrumentsQueryProvider.class, 
+       entityHelpers = { SpacecraftTemperatureOverTime.class, SpacecraftPressureOverTime.class, 
+                         SpacecraftLocationOverTime.class, SpacecraftSpeedOverTime.class})
+    PagingIterable<SpacecraftPressureOverTime> getPressureReadingBefore(
+            String spacecraftName, UUID JourneyId, int limit, Instant readingTimeBefore);
+    
+    /**
+     * Search for speed readings older than a reading time (seek pagination).
+     */
+    @QueryProvider(providerClass = SpacecraftInstrumentsQueryProvider.class, 
+       entityHelpers = { SpacecraftTemperatureOverTime.class, SpacecraftPressureOverTime.class, 
+                         SpacecraftLocationOverTime.class, SpacecraftSpeedOverTime.class})
+    PagingIterable<SpacecraftSpeedOverTime> getSpeedReadingBefore(
+            String spacecraftName, UUID JourneyId, int limit, Instant readingTimeBefore);
+    
+    /**
+     * Search for location readings older than a reading time (seek pagination).
+     */
+    @QueryProvider(providerClass = SpacecraftInstrumentsQueryProvider.class, 
+       entityHelpers = { SpacecraftTemperatureOverTime.class, SpacecraftPressureOverTime.class, 
+                         SpacecraftLocationOverTime.class, SpacecraftSpeedOverTime.class})
+    PagingIterable<SpacecraftLocationOverTime> getLocationReadingBefore(
+            String spacecraftName, UUID JourneyId, int limit, Instant readingTimeBefore);
+    
+    /**
+     * Map rows of instrument tables (token range scans).
+     */
+    @GetEntity
+    SpacecraftTemperatureOverTime asTemperatureReading(Row row);
+    
+    @GetEntity
+    SpacecraftPressureOverTime asPressureReading(Row row);
+    
+    @GetEntity
+    SpacecraftSpeedOverTime asSpeedReading(Row row);
+    
+    @GetEntity
+    SpacecraftLocationOverTime asLocationReading(Row row);
+    
+    /**
+     * Insert instruments, values are bound before the call returns.
+     *
+     * @return
+     *      completed once the readings are written
      */
     @QueryProvider(providerClass = SpacecraftInstrumentsQueryProvider.class, 
             entityHelpers = { SpacecraftTemperatureOverTime.class, SpacecraftPressureOverTime.class, 
                               SpacecraftLocationOverTime.class, SpacecraftSpeedOverTime.class})
-    void insertInstruments(
+    CompletionStage<Void> insertInstruments(
             SpacecraftTemperatureOverTime temperature, SpacecraftPressureOverTime pressure,  
             SpacecraftSpeedOverTime speed, SpacecraftLocationOverTime location);
+    
+    /**
+     * Insert readings of a journey in bulk (historical loads).
+     */
+    @QueryProvider(providerClass = SpacecraftInstrumentsQueryProvider.class, 
+       entityHelpers = { SpacecraftTemperatureOverTime.class, SpacecraftPressureOverTime.class, 
+                         SpacecraftLocationOverTime.class, SpacecraftSpeedOverTime.class})
+    CompletionStage<Void> insertInstrumentsBulk(
+            List<SpacecraftTemperatureOverTime> temperatures, List<SpacecraftPressureOverTime> pressures,
+            List<SpacecraftSpeedOverTime> speeds, List<SpacecraftLocationOverTime> locations);
 }
@@ -1,21 +1,42 @@
 package com.datastax.apollo.dao;
 
 import static com.datastax.apollo.entity.AbstractInstrumentReading.COLUMN_JOURNEY_ID;
+import static com.datastax.apollo.entity.AbstractInstrumentReading.COLUMN_READING_TIME;
 import static com.datastax.apollo.entity.AbstractInstrumentReading.COLUMN_SPACECRAFT_NAME;
+import static com.datastax.apollo.entity.SpacecraftLocationOverTime.COLUMN_LOCATION;
+import static com.datastax.apollo.entity.SpacecraftLocationOverTime.COLUMN_LOCATION_UNIT;
+import static com.datastax.apollo.entity.SpacecraftPressureOverTime.COLUMN_PRESSURE;
+import static com.datastax.apollo.entity.SpacecraftPressureOverTime.COLUMN_PRESSURE_UNIT;
+import static com.datastax.apollo.entity.SpacecraftSpeedOverTime.COLUMN_SPEED;
+import static com.datastax.apollo.entity.SpacecraftSpeedOverTime.COLUMN_SPEED_UNIT;
+import static com.datastax.apollo.entity.SpacecraftTemperatureOverTime.COLUMN_TEMPERATURE;
+import static com.datastax.apollo.entity.SpacecraftTemperatureOverTime.COLUMN_TEMPERATURE_UNIT;
 import static com.datastax.oss.driver.api.querybuilder.QueryBuilder.bindMarker;
-import static com.datastax.oss.driver.api.querybuilder.QueryBuilder.selectFrom;
+import static com.datastax.oss.driver.api.querybuilder.QueryBuilder.insertInto;
 import static com.datastax.oss.driver.api.querybuilder.relation.Relation.column;
 
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
+import com.datastax.apollo.entity.AbstractInstrumentReading;
 import com.datastax.apollo.entity.SpacecraftLocationOverTime;
 import com.datastax.apollo.entity.SpacecraftPressureOverTime;
 import com.datastax.apollo.entity.SpacecraftSpeedOverTime;
 import com.datastax.apollo.entity.SpacecraftTemperatureOverTime;
+import com.datastax.apollo.jfr.DriverEvents;
+import com.datastax.apollo.model.Instrument;
 import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.MappedAsyncPagingIterable;
 import com.datastax.oss.driver.api.core.PagingIterable;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
 import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BatchStatementBuilder;
 import com.datastax.oss.driver.api.core.cql.BoundStatement;
 import com.datastax.oss.driver.api.core.cql.BoundStatementBuilder;
 import com.datastax.oss.driver.api.core.cql.DefaultBatchType;
@@ -33,6 +54,14 @@ import com.datastax.oss.protocol.internal.util.Bytes;
  */
 public class SpacecraftInstrumentsQueryProvider {
     
+    /** Bind marker for the limit of seek queries. */
+    public static final String PARAM_LIMIT = "limit";
+    
+    /** Operations and tables reported in Flight Recorder query events. */
+    private static final String OPERATION_SELECT   = "select";
+    private static final String OPERATION_SEEK     = "seek";
+    private static final String TABLES_INSTRUMENTS = "spacecraft_*_over_time";
+    
     private CqlSession cqlSession;
     
     /** Helper for bean, tables mappings. */
@@ -52,10 +81,25 @@ public class SpacecraftInstrumentsQueryProvider {
     private PreparedStatement psSelectLocationReading;
     private PreparedStatement psSelectSpeedReading;
     
+    private PreparedStatement psSeekTemperatureReading;
+    private PreparedStatement psSeekPressureReading;
+    private PreparedStatement psSeekLocationReading;
+    private PreparedStatement psSeekSpeedReading;
+    
+    /** Readings of all instruments in one row, null when each instrument has its own table. */
+    private PreparedStatement psInsertTelemetry;
+    
+    /** Tables written by insertInstruments (Flight Recorder events). */
+    private String insertTables = TABLES_INSTRUMENTS;
+    
     /**
      * Constructor invoked by the DataStax driver based on Annotation {@link QueryProvider} 
      * set on class {@link SpacecraftInstrumentsDao}.
      * 
+     * When the DAO is built for a table (see {@link TelemetryStorage}), entity helpers target this
+     * table: readings of an instrument are the projection of its columns and all instruments of a
+     * timestamp are written as a single row.
+     * 
      * @param context
      *      context to extrat dse session
      * @param ehTemperature
@@ -76,46 +120,135 @@ public class SpacecraftInstrumentsQueryProvider {
         this.ehSpeed        = ehSpeed;
         this.ehLocation     = ehLocation;
         
-        // Leveraging EntityHelper for insert queries
+        // Leveraging EntityHelper for insert queries (columns of the instrument only)
         psInsertTemperatureReading = cqlSession.prepare(ehTemperature.insert().asCql());
         psInsertPressureReading    = cqlSession.prepare(ehPressure.insert().asCql());
         psInsertLocationReading    = cqlSession.prepare(ehLocation.insert().asCql());
         psInsertSpeedReading       = cqlSession.prepare(ehSpeed.insert().asCql());
         
         psSelectTemperatureReading = cqlSession.prepare(
-                selectFrom(SpacecraftTemperatureOverTime.TABLE_NAME).all()
+                ehTemperature.selectStart()
                 .where(column(COLUMN_SPACECRAFT_NAME).isEqualTo(bindMarker(COLUMN_SPACECRAFT_NAME)))
                 .where(column(COLUMN_JOURNEY_ID).isEqualTo(bindMarker(COLUMN_JOURNEY_ID)))
                 .build());
         psSelectPressureReading = cqlSession.prepare(
-                selectFrom(SpacecraftPressureOverTime.TABLE_NAME).all()
+                ehPressure.selectStart()
                 .where(column(COLUMN_SPACECRAFT_NAME).isEqualTo(bindMarker(COLUMN_SPACECRAFT_NAME)))
                 .where(column(COLUMN_JOURNEY_ID).isEqualTo(bindMarker(COLUMN_JOURNEY_ID)))
                 .build());
         psSelectSpeedReading = cqlSession.prepare(
-                selectFrom(SpacecraftSpeedOverTime.TABLE_NAME).all()
+                ehSpeed.selectStart()
                 .where(column(COLUMN_SPACECRAFT_NAME).isEqualTo(bindMarker(COLUMN_SPACECRAFT_NAME)))
                 .where(column(COLUMN_JOURNEY_ID).isEqualTo(bindMarker(COLUMN_JOURNEY_ID)))
                 .build());
         psSelectLocationReading = cqlSession.prepare(
-                selectFrom(SpacecraftLocationOverTime.TABLE_NAME).all()
+                ehLocation.selectStart()
                 .where(column(COLUMN_SPACECRAFT_NAME).isEqualTo(bindMarker(COLUMN_SPACECRAFT_NAME)))
                 .where(column(COLUMN_JOURNEY_ID).isEqualTo(bindMarker(COLUMN_JOURNEY_ID)))
                 .build());
+        
+        psSeekTemperatureReading = prepareSeek(ehTemperature);
+        psSeekPressureReading    = prepareSeek(ehPressure);
+        psSeekLocationReading    = prepareSeek(ehLocation);
+        psSeekSpeedReading       = prepareSeek(ehSpeed);
+        
+        if (context.getTableId() != null) {
+            psInsertTelemetry = cqlSession.prepare(insertInto(context.getTableId())
+                    .value(COLUMN_SPACECRAFT_NAME, bindMarker(COLUMN_SPACECRAFT_NAME))
+                    .value(COLUMN_JOURNEY_ID, bindMarker(COLUMN_JOURNEY_ID))
+                    .value(COLUMN_READING_TIME, bindMarker(COLUMN_READING_TIME))
+                    .value(COLUMN_TEMPERATURE, bindMarker(COLUMN_TEMPERATURE))
+                    .value(COLUMN_TEMPERATURE_UNIT, bindMarker(COLUMN_TEMPERATURE_UNIT))
+                    .value(COLUMN_PRESSURE, bindMarker(COLUMN_PRESSURE))
+                    .value(COLUMN_PRESSURE_UNIT, bindMarker(COLUMN_PRESSURE_UNIT))
+                    .value(COLUMN_SPEED, bindMarker(COLUMN_SPEED))
+                    .value(COLUMN_SPEED_UNIT, bindMarker(COLUMN_SPEED_UNIT))
+                    .value(COLUMN_LOCATION, bindMarker(COLUMN_LOCATION))
+                    .value(COLUMN_LOCATION_UNIT, bindMarker(COLUMN_LOCATION_UNIT))
+                    .build());
+            insertTables = context.getTableId().asInternal();
+        }
     }
     
     /**
      * Insert instruments values for a timestamp.
      */
-    public void insertInstruments(
+    public CompletionStage<Void> insertInstruments(
             SpacecraftTemperatureOverTime temperature, SpacecraftPressureOverTime pressure,  
             SpacecraftSpeedOverTime speed, SpacecraftLocationOverTime location) {
-        cqlSession.executeAsync(BatchStatement.builder(DefaultBatchType.LOGGED)
+        if (psInsertTelemetry != null) {
+            // A single row, applied atomically without batch
+            BoundStatementBuilder row = psInsertTelemetry.boundStatementBuilder()
+                    .setExecutionProfileName(ExecutionProfile.INGEST.getProfileName());
+            ehTemperature.set(temperature, row, NullSavingStrategy.DO_NOT_SET);
+            ehPressure.set(pressure, row, NullSavingStrategy.DO_NOT_SET);
+            ehSpeed.set(speed, row, NullSavingStrategy.DO_NOT_SET);
+            ehLocation.set(location, row, NullSavingStrategy.DO_NOT_SET);
+            return DriverEvents.executeAsync(cqlSession, row.build(), insertTables, "insert").thenApply(rs -> null);
+        }
+        return DriverEvents.executeAsync(cqlSession, BatchStatement.builder(DefaultBatchType.LOGGED)
                 .addStatement(bind(psInsertTemperatureReading, temperature, ehTemperature))
                 .addStatement(bind(psInsertPressureReading, pressure, ehPressure))
                 .addStatement(bind(psInsertSpeedReading, speed, ehSpeed))
                 .addStatement(bind(psInsertLocationReading, location, ehLocation))
-                .build()).thenApply(rs -> null);
+                .setExecutionProfileName(ExecutionProfile.INGEST.getProfileName())
+                .build(), insertTables, "insert").thenApply(rs -> null);
+    }
+    
+    /**
+     * Insert readings of a single journey in bulk: one unlogged batch per table, each batch
+     * targets a single partition and is applied by one replica set. With a single table readings
+     * of a timestamp are merged in one row.
+     */
+    public CompletionStage<Void> insertInstrumentsBulk(
+            List<SpacecraftTemperatureOverTime> temperatures, List<SpacecraftPressureOverTime> pressures,
+            List<SpacecraftSpeedOverTime> speeds, List<SpacecraftLocationOverTime> locations) {
+        if (psInsertTelemetry != null) {
+            Map<Instant, BoundStatementBuilder> rows = new LinkedHashMap<>();
+            merge(rows, temperatures, ehTemperature);
+            merge(rows, pressures, ehPressure);
+            merge(rows, speeds, ehSpeed);
+            merge(rows, locations, ehLocation);
+            if (rows.isEmpty()) {
+                return CompletableFuture.completedFuture(null);
+            }
+            BatchStatementBuilder batch = BatchStatement.builder(DefaultBatchType.UNLOGGED)
+                    .setExecutionProfileName(ExecutionProfile.INGEST.getProfileName());
+            for (BoundStatementBuilder row : rows.values()) {
+                batch.addStatement(row.build());
+            }
+            return DriverEvents.executeAsync(cqlSession, batch.build(), insertTables, "bulk insert")
+                               .thenApply(rs -> null);
+        }
+        return CompletableFuture.allOf(
+                bulk(psInsertTemperatureReading, temperatures, ehTemperature),
+                bulk(psInsertPressureReading, pressures, ehPressure),
+                bulk(psInsertSpeedReading, speeds, ehSpeed),
+                bulk(psInsertLocationReading, locations, ehLocation));
+    }
+    
+    private <T> CompletableFuture<?> bulk(PreparedStatement ps, List<T> entities, EntityHelper<T> entityHelper) {
+        if (entities.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        BatchStatementBuilder batch = BatchStatement.builder(DefaultBatchType.UNLOGGED)
+                .setExecutionProfileName(ExecutionProfile.INGEST.getProfileName());
+        for (T entity : entities) {
+            batch.addStatement(bind(ps, entity, entityHelper));
+        }
+        return DriverEvents.executeAsync(cqlSession, batch.build(),
+                entityHelper.getTableId().asInternal(), "bulk insert").toCompletableFuture();
+    }
+    
+    /**
+     * Columns of an instrument set on the row of their reading time, columns of other instruments
+     * not set are left untouched.
+     */
+    private <T extends AbstractInstrumentReading> void merge(Map<Instant, BoundStatementBuilder> rows, List<T> entities, EntityHelper<T> entityHelper) {
+        for (T entity : entities) {
+            BoundStatementBuilder row = rows.computeIfAbsent(entity.getReading_time(), t -> psInsertTelemetry.boundStatementBuilder());
+            entityHelper.set(entity, row, NullSavingStrategy.DO_NOT_SET);
+        }
     }
     
     /**
@@ -125,62 +258,196 @@ public class SpacecraftInstrumentsQueryProvider {
             String spacecraftName,
             UUID journeyId,
             Optional<Integer> pageSize,
-            Optional<String>  pagingState) {
+            Optional<String>  pagingState,
+            ExecutionProfile  profile) {
         
         // Detailing operations for the first (next will be much compact)
         
         // (1) - Bind the prepared statement with parameters 
         BoundStatement bsTemperature = psSelectTemperatureReading.bind()
                 .setUuid(COLUMN_JOURNEY_ID, journeyId)
-                .setString(spacecraftName, spacecraftName);
+                .setString(COLUMN_SPACECRAFT_NAME, spacecraftName);
 
-        // (2) - Update the bound statement to add paging metadata (pageSize, pageState)
-        bsTemperature = paging(bsTemperature, pageSize, pagingState);
+        // (2) - Update the bound statement to add paging metadata (pageSize, pageState) and workload profile
+        bsTemperature = paging(bsTemperature, pageSize, pagingState, profile);
         
-        // (3) - Executing query
-        ResultSet resultSet = cqlSession.execute(bsTemperature);
+        // (3) - Executing query (recorded as a Flight Recorder event)
+        ResultSet resultSet = DriverEvents.execute(cqlSession, bsTemperature, ehTemperature.getTableId().asInternal(), OPERATION_SELECT);
         
         // (4) - Using the entity Help to marshall to expect bean
-        return resultSet.map(ehTemperature::get);
+        return DriverEvents.map(resultSet, ehTemperature::get, ehTemperature.getTableId().asInternal());
     }
     
     /**
      * Retrieve Pressure reading for a journey.
      */
     public PagingIterable<SpacecraftPressureOverTime> getPressureReading(
-            String spacecraftName, UUID journeyId, Optional<Integer> pageSize, Optional<String>  pagingState) {
-       return cqlSession.execute(paging(psSelectPressureReading.bind()
+            String spacecraftName, UUID journeyId, Optional<Integer> pageSize, Optional<String>  pagingState, ExecutionProfile profile) {
+       return select(paging(psSelectPressureReading.bind()
                        .setUuid(COLUMN_JOURNEY_ID, journeyId)
-                       .setString(spacecraftName, spacecraftName), pageSize, pagingState))
-               .map(ehPressure::get);
+                       .setString(COLUMN_SPACECRAFT_NAME, spacecraftName), pageSize, pagingState, profile), OPERATION_SELECT, ehPressure);
     }
     
     /**
      * Retrieve Location reading for a journey.
      */
     public PagingIterable<SpacecraftLocationOverTime> getLocationReading(
-            String spacecraftName, UUID journeyId, Optional<Integer> pageSize, Optional<String>  pagingState) {
-       return cqlSession.execute(paging(psSelectLocationReading.bind()
+            String spacecraftName, UUID journeyId, Optional<Integer> pageSize, Optional<String>  pagingState, ExecutionProfile profile) {
+       return select(paging(psSelectLocationReading.bind()
                        .setUuid(COLUMN_JOURNEY_ID, journeyId)
-                       .setString(spacecraftName, spacecraftName), pageSize, pagingState))
-               .map(ehLocation::get);
+                       .setString(COLUMN_SPACECRAFT_NAME, spacecraftName), pageSize, pagingState, profile), OPERATION_SELECT, ehLocation);
     }
     
     /**
      * Retrieve Pressure reading for a journey.
      */
     public PagingIterable<SpacecraftSpeedOverTime> getSpeedReading(
-            String spacecraftName, UUID journeyId, Optional<Integer> pageSize, Optional<String>  pagingState) {
-       return cqlSession.execute(paging(psSelectSpeedReading.bind()
+            String spacecraftName, UUID journeyId, Optional<Integer> pageSize, Optional<String>  pagingState, ExecutionProfile profile) {
+       return select(paging(psSelectSpeedReading.bind()
+                       .setUuid(COLUMN_JOURNEY_ID, journeyId)
+                       .setString(COLUMN_SPACECRAFT_NAME, spacecraftName), pageSize, pagingState, profile), OPERATION_SELECT, ehSpeed);
+    }
+    
+    /**
+     * Retrieve all temperature readings of a journey asynchronously, next page is fetched on demand.
+     */
+    public CompletionStage<MappedAsyncPagingIterable<SpacecraftTemperatureOverTime>> getTemperatureReadingAsync(
+            String spacecraftName, UUID journeyId, ExecutionProfile profile) {
+        return selectAsync(paging(psSelectTemperatureReading.bind()
+                       .setUuid(COLUMN_JOURNEY_ID, journeyId)
+                       .setString(COLUMN_SPACECRAFT_NAME, spacecraftName), Optional.empty(), Optional.empty(), profile), ehTemperature);
+    }
+    
+    /**
+     * Retrieve all pressure readings of a journey asynchronously, next page is fetched on demand.
+     */
+    public CompletionStage<MappedAsyncPagingIterable<SpacecraftPressureOverTime>> getPressureReadingAsync(
+            String spacecraftName, UUID journeyId, ExecutionProfile profile) {
+        return selectAsync(paging(psSelectPressureReading.bind()
+                       .setUuid(COLUMN_JOURNEY_ID, journeyId)
+                       .setString(COLUMN_SPACECRAFT_NAME, spacecraftName), Optional.empty(), Optional.empty(), profile), ehPressure);
+    }
+    
+    /**
+     * Retrieve all speed readings of a journey asynchronously, next page is fetched on demand.
+     */
+    public CompletionStage<MappedAsyncPagingIterable<SpacecraftSpeedOverTime>> getSpeedReadingAsync(
+            String spacecraftName, UUID journeyId, ExecutionProfile profile) {
+        return selectAsync(paging(psSelectSpeedReading.bind()
+                       .setUuid(COLUMN_JOURNEY_ID, journeyId)
+                       .setString(COLUMN_SPACECRAFT_NAME, spacecraftName), Optional.empty(), Optional.empty(), profile), ehSpeed);
+    }
+    
+    /**
+     * Retrieve all location readings of a journey asynchronously, next page is fetched on demand.
+     */
+    public CompletionStage<MappedAsyncPagingIterable<SpacecraftLocationOverTime>> getLocationReadingAsync(
+            String spacecraftName, UUID journeyId, ExecutionProfile profile) {
+        return selectAsync(paging(psSelectLocationReading.bind()
+                       .setUuid(COLUMN_JOURNEY_ID, journeyId)
+                       .setString(COLUMN_SPACECRAFT_NAME, spacecraftName), Optional.empty(), Optional.empty(), profile), ehLocation);
+    }
+    
+    /**
+     * Retrieve all readings of an instrument for a journey as driver rows (columnar exports), 
+     * next page is fetched on demand.
+     */
+    public CompletionStage<AsyncResultSet> getReadingRowsAsync(
+            String spacecraftName, UUID journeyId, Instrument instrument, ExecutionProfile profile) {
+        PreparedStatement ps;
+        EntityHelper<?>   eh;
+        switch (instrument) {
+            case TEMPERATURE: ps = psSelectTemperatureReading; eh = ehTemperature; break;
+            case PRESSURE:    ps = psSelectPressureReading;    eh = ehPressure;    break;
+            case SPEED:       ps = psSelectSpeedReading;       eh = ehSpeed;       break;
+            default:          ps = psSelectLocationReading;    eh = ehLocation;    break;
+        }
+        return DriverEvents.executeAsync(cqlSession, paging(ps.bind()
                        .setUuid(COLUMN_JOURNEY_ID, journeyId)
-                       .setString(spacecraftName, spacecraftName), pageSize, pagingState))
-               .map(ehSpeed::get);
+                       .setString(COLUMN_SPACECRAFT_NAME, spacecraftName), Optional.empty(), Optional.empty(), profile),
+               eh.getTableId().asInternal(), OPERATION_SELECT);
+    }
+    
+    /**
+     * Retrieve up to 'limit' temperature readings strictly older than 'readingTimeBefore'.
+     */
+    public PagingIterable<SpacecraftTemperatureOverTime> getTemperatureReadingBefore(
+            String spacecraftName, UUID journeyId, int limit, Instant readingTimeBefore) {
+        return select(seek(psSeekTemperatureReading, spacecraftName, journeyId, limit, readingTimeBefore), OPERATION_SEEK, ehTemperature);
+    }
+    
+    /**
+     * Retrieve up to 'limit' pressure readings strictly older than 'readingTimeBefore'.
+     */
+    public PagingIterable<SpacecraftPressureOverTime> getPressureReadingBefore(
+            String spacecraftName, UUID journeyId, int limit, Instant readingTimeBefore) {
+        return select(seek(psSeekPressureReading, spacecraftName, journeyId, limit, readingTimeBefore), OPERATION_SEEK, ehPressure);
+    }
+    
+    /**
+     * Retrieve up to 'limit' location readings strictly older than 'readingTimeBefore'.
+     */
+    public PagingIterable<SpacecraftLocationOverTime> getLocationReadingBefore(
+            String spacecraftName, UUID journeyId, int limit, Instant readingTimeBefore) {
+        return select(seek(psSeekLocationReading, spacecraftName, journeyId, limit, readingTimeBefore), OPERATION_SEEK, ehLocation);
+    }
+    
+    /**
+     * Retrieve up to 'limit' speed readings strictly older than 'readingTimeBefore'.
+     */
+    public PagingIterable<SpacecraftSpeedOverTime> getSpeedReadingBefore(
+            String spacecraftName, UUID journeyId, int limit, Instant readingTimeBefore) {
+        return select(seek(psSeekSpeedReading, spacecraftName, journeyId, limit, readingTimeBefore), OPERATION_SEEK, ehSpeed);
+    }
+    
+    /**
+     * Syntaxic sugar to execute a query and map its rows, recorded as Flight Recorder events.
+     */
+    private <T> PagingIterable<T> select(BoundStatement bs, String operation, EntityHelper<T> entityHelper) {
+        String table = entityHelper.getTableId().asInternal();
+        return DriverEvents.map(DriverEvents.execute(cqlSession, bs, table, operation), entityHelper::get, table);
+    }
+    
+    /**
+     * Syntaxic sugar to execute a query asynchronously and map its rows, recorded as a Flight Recorder event.
+     */
+    private <T> CompletionStage<MappedAsyncPagingIterable<T>> selectAsync(BoundStatement bs, EntityHelper<T> entityHelper) {
+        return DriverEvents.executeAsync(cqlSession, bs, entityHelper.getTableId().asInternal(), OPERATION_SELECT)
+                           .thenApply(rs -> rs.map(entityHelper::get));
+    }
+    
+    /**
+     * Partitions are clustered by reading_time DESC, a slice 'reading_time < ?' with a limit
+     * is a seek on the clustering key: the cursor is the last reading_time of previous page.
+     * Seek queries are bounded, they always use the interactive profile.
+     */
+    private PreparedStatement prepareSeek(EntityHelper<?> entityHelper) {
+        return cqlSession.prepare(entityHelper.selectStart()
+                .where(column(COLUMN_SPACECRAFT_NAME).isEqualTo(bindMarker(COLUMN_SPACECRAFT_NAME)))
+                .where(column(COLUMN_JOURNEY_ID).isEqualTo(bindMarker(COLUMN_JOURNEY_ID)))
+                .where(column(COLUMN_READING_TIME).isLessThan(bindMarker(COLUMN_READING_TIME)))
+                .limit(bindMarker(PARAM_LIMIT))
+                .build());
+    }
+    
+    /**
+     * Syntaxic sugar to bind a seek query, page size is aligned on limit to get a single round trip.
+     */
+    private BoundStatement seek(PreparedStatement ps, String spacecraftName, UUID journeyId, int limit, Instant readingTimeBefore) {
+        return ps.bind()
+                 .setString(COLUMN_SPACECRAFT_NAME, spacecraftName)
+                 .setUuid(COLUMN_JOURNEY_ID, journeyId)
+                 .setInstant(COLUMN_READING_TIME, readingTimeBefore)
+                 .setInt(PARAM_LIMIT, limit)
+                 .setPageSize(limit)
+                 .setExecutionProfileName(ExecutionProfile.INTERACTIVE.getProfileName());
     }
     
     /**
      * Syntaxic sugar to help with paging
      */
-    private BoundStatement paging(BoundStatement bs, Optional<Integer> pageSize, Optional<String>  pagingState) {
+    private BoundStatement paging(BoundStatement bs, Optional<Integer> pageSize, Optional<String>  pagingState, ExecutionProfile profile) {
+        bs = bs.setExecutionProfileName(profile.getProfileName());
         if(pageSize.isPresent()) {
             bs = bs.setPageSize(pageSize.get());
          }
@@ -2,10 +2,16 @@ package com.datastax.apollo.dao;
 
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
 
 import com.datastax.apollo.entity.SpacecraftJourneyCatalog;
+import com.datastax.apollo.entity.SpacecraftJourneySummary;
 import com.datastax.oss.driver.api.core.PagingIterable;
+import com.datastax.oss.driver.api.core.cql.BoundStatementBuilder;
+import com.datastax.oss.driver.api.core.cql.Row;
 import com.datastax.oss.driver.api.mapper.annotations.Dao;
+import com.datastax.oss.driver.api.mapper.annotations.GetEntity;
 import com.datastax.oss.driver.api.mapper.annotations.Insert;
 import com.datastax.oss.driver.api.mapper.annotations.Query;
 import com.datastax.oss.driver.api.mapper.annotations.Select;
@@ -22,16 +28,30 @@ public interface SpacecraftJourneyDao {
     @Query("SELECT * FROM ${keyspaceId}.${tableId}")
     PagingIterable<SpacecraftJourneyCatalog> findAll();
     
+    /**
+     * Map a row of the catalog table (token range scans).
+     * 
+     * @param row
+     *      row of table spacecraft_journey_catalog
+     * @return
+     *      journey
+     */
+    @GetEntity
+    SpacecraftJourneyCatalog asJourney(Row row);
+    
     /**
      * Find all journeys for a spacecraft name.
      * 
      * @param spacecraftName
      *      spacecraftname (Partition key)
+     * @param profile
+     *      execution profile, see {@link ExecutionProfile}
      * @return
      *      list of journeys
      */
     @Select(customWhereClause = SpacecraftJourneyCatalog.COLUMN_SPACECRAFT_NAME + "= :spacecraftName")
-    PagingIterable<SpacecraftJourneyCatalog> findAllJourneysForSpacecraft(String spacecraftName);
+    PagingIterable<SpacecraftJourneyCatalog> findAllJourneysForSpacecraft(String spacecraftName,
+            Function<BoundStatementBuilder, BoundStatementBuilder> profile);
     
     /**
      * Find a journey from its id and a spacecraft name (PK)
@@ -40,21 +60,55 @@ public interface SpacecraftJourneyDao {
      *      spacecraft name
      * @param journeyId
      *      journey unique identifier
+     * @param profile
+     *      execution profile, see {@link ExecutionProfile}
      * @return
      *      journey details if it exists or empty
      */
     @Select
-    Optional<SpacecraftJourneyCatalog> findById(String spacecraftName, UUID journeyId);
+    Optional<SpacecraftJourneyCatalog> findById(String spacecraftName, UUID journeyId,
+            Function<BoundStatementBuilder, BoundStatementBuilder> profile);
     
     /**
      * Upsert a new journey.
      * 
      * @param spacecraftJourney
      *      bean representing a journey
+     * @param profile
+     *      execution profile, see {@link ExecutionProfile}
      * @return
      *      if statement was applied
      */
     @Insert
-    boolean upsert(SpacecraftJourneyCatalog spacecraftJourney);
+    boolean upsert(SpacecraftJourneyCatalog spacecraftJourney,
+            Function<BoundStatementBuilder, BoundStatementBuilder> profile);
+    
+    /**
+     * Find precomputed figures of a journey, asynchronously to run along the catalog lookup.
+     * 
+     * @param spacecraftName
+     *      spacecraft name
+     * @param journeyId
+     *      journey unique identifier
+     * @param profile
+     *      execution profile, see {@link ExecutionProfile}
+     * @return
+     *      summary if it has been computed
+     */
+    @Select
+    CompletionStage<Optional<SpacecraftJourneySummary>> findSummaryById(String spacecraftName, UUID journeyId,
+            Function<BoundStatementBuilder, BoundStatementBuilder> profile);
+    
+    /**
+     * Upsert figures of a journey.
+     * 
+     * @param summary
+     *      figures computed over all readings
+     * @param profile
+     *      execution profile, see {@link ExecutionProfile}
+     */
+    @Insert
+    void upsertSummary(SpacecraftJourneySummary summary,
+            Function<BoundStatementBuilder, BoundStatementBuilder> profile);
 
 }
@@ -4,6 +4,7 @@ import com.datastax.oss.driver.api.core.CqlIdentifier;
 import com.datastax.oss.driver.api.mapper.annotations.Dao;
 import com.datastax.oss.driver.api.mapper.annotations.DaoFactory;
 import com.datastax.oss.driver.api.mapper.annotations.DaoKeyspace;
+import com.datastax.oss.driver.api.mapper.annotations.DaoTable;
 import com.datastax.oss.driver.api.mapper.annotations.Mapper;
 
 /**
@@ -23,7 +24,20 @@ public interface SpacecraftMapper {
     @DaoFactory
     SpacecraftJourneyDao spacecraftJourneyDao(@DaoKeyspace CqlIdentifier keyspace);
     
+    /**
+     * Initialization of Dao {@link SpacecraftInstrumentsDao}
+     *
+     * @param keyspace
+     *      working keyspace name
+     * @param table
+     *      table holding all instruments, null for one table per instrument (see {@link TelemetryStorage})
+     * @return
+     *      instanciation with the mappers
+     */
+    @DaoFactory
+    SpacecraftInstrumentsDao spacecraftInstrumentsDao(@DaoKeyspace CqlIdentifier keyspace, @DaoTable CqlIdentifier table);
+    
     @DaoFactory
-    SpacecraftInstrumentsDao spacecraftInstrumentsDao(@DaoKeyspace CqlIdentifier keyspace);
+    SpacecraftAnomalyDao spacecraftAnomalyDao(@DaoKeyspace CqlIdentifier keyspace);
     
 }
@@ -0,0 +1,63 @@
+package com.datastax.apollo.dao;
+
+import com.datastax.apollo.model.Instrument;
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+
+/**
+ * Tables holding readings, chosen by configuration (apollo.storage.telemetry).
+ *
+ * With a single table an ingestion writes one row instead of four (one per instrument table):
+ * a quarter of the mutations, commit log entries and SSTables. Readings of an instrument are read
+ * as the projection of its columns, entities and API are the same. Readings are not copied from
+ * one storage to the other.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+public enum TelemetryStorage {
+
+    /** One table per instrument (spacecraft_*_over_time). */
+    PER_INSTRUMENT(null),
+
+    /** Readings of all instruments of a timestamp in one row. */
+    CONSOLIDATED("spacecraft_telemetry_over_time");
+
+    /** Table holding all instruments, null for one table per instrument. */
+    private final String tableName;
+
+    private TelemetryStorage(String tableName) {
+        this.tableName = tableName;
+    }
+
+    /**
+     * Table holding the readings of an instrument.
+     *
+     * @param instrument
+     *      instrument
+     * @return
+     *      table name
+     */
+    public String tableOf(Instrument instrument) {
+        return tableName == null ? instrument.getTableName() : tableName;
+    }
+
+    /**
+     * Table given to the instruments DAO.
+     *
+     * @return
+     *      table holding all instruments, null for the table of each entity
+     */
+    public CqlIdentifier getDaoTable() {
+        return tableName == null ? null : CqlIdentifier.fromCql(tableName);
+    }
+
+    /**
+     * Getter accessor for attribute 'tableName'.
+     *
+     * @return
+     *       current value of 'tableName'
+     */
+    public String getTableName() {
+        return tableName;
+    }
+
+}
@@ -0,0 +1,109 @@
+package com.datastax.apollo.dao;
+
+import java.util.function.Supplier;
+
+/**
+ * Tenant of the current request, set when the request is routed and carried over to the
+ * threads working for it. Without tenant the default one (credentials saved without tenant) is used.
+ * The lease of the sessions used by the request (see {@link SessionLease}) follows the tenant.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+public final class TenantContext {
+
+    /** Request header holding the tenant identifier. */
+    public static final String HEADER_TENANT = "X-Apollo-Tenant";
+
+    /** Path prefix holding the tenant identifier: /tenants/{tenantId}/api/... */
+    public static final String PATH_PREFIX = "/tenants/";
+
+    /** Request attribute holding the tenant identifier, kept for the access log. */
+    public static final String ATTRIBUTE_TENANT = "apollo.tenant";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private static final ThreadLocal<SessionLease> LEASE = new ThreadLocal<>();
+
+    private TenantContext() {}
+
+    /**
+     * Tenant of the current thread.
+     */
+    public static String current() {
+        String tenantId = CURRENT.get();
+        return tenantId == null ? SessionManager.DEFAULT_TENANT : tenantId;
+    }
+
+    /**
+     * Set tenant of the current thread.
+     */
+    public static void set(String tenantId) {
+        CURRENT.set(tenantId);
+    }
+
+    /**
+     * Lease of the sessions used by the current request.
+     *
+     * @return
+     *      lease, null outside of a request
+     */
+    public static SessionLease lease() {
+        return LEASE.get();
+    }
+
+    /**
+     * Set lease of the current thread.
+     */
+    public static void setLease(SessionLease lease) {
+        LEASE.set(lease);
+    }
+
+    /**
+     * Back to the default tenant, without lease.
+     */
+    public static void clear() {
+        CURRENT.remove();
+        LEASE.remove();
+    }
+
+    /**
+     * Run a task with the tenant of the calling thread.
+     */
+    public static Runnable wrap(Runnable task) {
+        String tenantId = CURRENT.get();
+        SessionLease lease = LEASE.get();
+        return () -> {
+            String previous = CURRENT.get();
+            SessionLease previousLease = LEASE.get();
+            CURRENT.set(tenantId);
+            LEASE.set(lease);
+            try {
+                task.run();
+            } finally {
+                CURRENT.set(previous);
+                LEASE.set(previousLease);
+            }
+        };
+    }
+
+    /**
+     * Run a computation with the tenant of the calling thread.
+     */
+    public static <T> Supplier<T> wrap(Supplier<T> computation) {
+        String tenantId = CURRENT.get();
+        SessionLease lease = LEASE.get();
+        return () -> {
+            String previous = CURRENT.get();
+            SessionLease previousLease = LEASE.get();
+            CURRENT.set(tenantId);
+            LEASE.set(lease);
+            try {
+                return computation.get();
+            } finally {
+                CURRENT.set(previous);
+                LEASE.set(previousLease);
+            }
+        };
+    }
+
+}
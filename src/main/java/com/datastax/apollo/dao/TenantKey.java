@@ -0,0 +1,95 @@
+package com.datastax.apollo.dao;
+
+import java.util.Objects;
+
+/**
+ * Identify a database session: secure connect bundle, user and keyspace. Tenants sharing
+ * the same key share the session.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+public final class TenantKey {
+
+    /** Secure connect bundle on disk. */
+    private final String secureConnectionBundlePath;
+
+    /** User name. */
+    private final String userName;
+
+    /** Working keyspace. */
+    private final String keySpace;
+
+    /**
+     * Constructor.
+     *
+     * @param secureConnectionBundlePath
+     *      zip bundle path on disk
+     * @param userName
+     *      user name
+     * @param keySpace
+     *      working keyspace
+     */
+    public TenantKey(String secureConnectionBundlePath, String userName, String keySpace) {
+        this.secureConnectionBundlePath = Objects.requireNonNull(secureConnectionBundlePath);
+        this.userName                   = Objects.requireNonNull(userName);
+        this.keySpace                   = Objects.requireNonNull(keySpace);
+    }
+
+    /**
+     * Getter accessor for attribute 'secureConnectionBundlePath'.
+     *
+     * @return
+     *       current value of 'secureConnectionBundlePath'
+     */
+    public String getSecureConnectionBundlePath() {
+        return secureConnectionBundlePath;
+    }
+
+    /**
+     * Getter accessor for attribute 'userName'.
+     *
+     * @return
+     *       current value of 'userName'
+     */
+    public String getUserName() {
+        return userName;
+    }
+
+    /**
+     * Getter accessor for attribute 'keySpace'.
+     *
+     * @return
+     *       current value of 'keySpace'
+     */
+    public String getKeySpace() {
+        return keySpace;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TenantKey)) {
+            return false;
+        }
+        TenantKey other = (TenantKey) o;
+        return secureConnectionBundlePath.equals(other.secureConnectionBundlePath)
+                && userName.equals(other.userName)
+                && keySpace.equals(other.keySpace);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int hashCode() {
+        return Objects.hash(secureConnectionBundlePath, userName, keySpace);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return userName + "@" + keySpace + " (" + secureConnectionBundlePath + ")";
+    }
+
+}
@@ -0,0 +1,215 @@
+package com.datastax.apollo.dao;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+
+/**
+ * Session of a tenant with its own mapper, DAOs and prepared statements. The session is opened on
+ * first use and closed gracefully (pending requests complete) when the pool evicts it: requests
+ * using it retain it (see {@link SessionLease}), it is closed once the last one is released.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+public class TenantSession {
+
+    /** Identification of the session. */
+    private final TenantKey key;
+
+    /** Password used to open the session. */
+    private final String password;
+
+    /** Connection and credentials of the session. */
+    private final SessionBuilderFactory sessionBuilderFactory;
+
+    /** Applied to the DAOs once built. */
+    private final DaoDecorator daoDecorator;
+
+    /** Applied to the keyspace once the session is opened. */
+    private final SchemaInitializer schemaInitializer;
+
+    /** Tables holding readings. */
+    private final TelemetryStorage telemetryStorage;
+
+    /** Working session, opened on first use. */
+    private CqlSession cqlSession;
+
+    /** Driver Daos. */
+    private SpacecraftJourneyDao     spacecraftJourneyDao;
+    private SpacecraftInstrumentsDao spacecraftInstrumentsDao;
+    private SpacecraftAnomalyDao     spacecraftAnomalyDao;
+
+    /** Full scans split on the token ring. */
+    private TokenRangeScanner tokenRangeScanner;
+
+    /** Last time the session has been requested (epoch millis). */
+    private volatile long lastAccess = System.currentTimeMillis();
+
+    /** Once closed the session is not usable anymore. */
+    private boolean closed = false;
+
+    /** Requests using the session, and whether it is closed once they are released. */
+    private int retainCount = 0;
+    private boolean retired = false;
+
+    /**
+     * Constructor.
+     *
+     * @param key
+     *      bundle, user and keyspace
+     * @param password
+     *      password of the user
+     * @param sessionBuilderFactory
+     *      connection and credentials of the session
+     * @param daoDecorator
+     *      applied to the DAOs once built
+     * @param schemaInitializer
+     *      applied to the keyspace once the session is opened
+     * @param telemetryStorage
+     *      tables holding readings
+     */
+    public TenantSession(TenantKey key, String password, SessionBuilderFactory sessionBuilderFactory, 
+            DaoDecorator daoDecorator, SchemaInitializer schemaInitializer, TelemetryStorage telemetryStorage) {
+        this.key                   = key;
+        this.password              = password;
+        this.sessionBuilderFactory = sessionBuilderFactory;
+        this.daoDecorator          = daoDecorator;
+        this.schemaInitializer     = schemaInitializer;
+        this.telemetryStorage      = telemetryStorage;
+    }
+
+    /**
+     * Getter accessor for attribute 'cqlSession', open the session if needed.
+     *
+     * @return
+     *       current value of 'cqlSession'
+     */
+    public synchronized CqlSession getCqlSession() {
+        if (closed) {
+            throw new IllegalStateException("Session " + key + " has been closed");
+        }
+        if (null == cqlSession) {
+            CqlSession opened = sessionBuilderFactory.newSessionBuilder(key, password).withKeyspace(key.getKeySpace()).build();
+            try {
+                schemaInitializer.initialize(opened);
+            } catch (RuntimeException re) {
+                // Opened again, and migrated, on next use
+                opened.close();
+                throw re;
+            }
+            cqlSession = opened;
+        }
+        return cqlSession;
+    }
+
+    public synchronized SpacecraftJourneyDao getSpacecraftJourneyDao() {
+        if (spacecraftJourneyDao == null) {
+            CqlSession session = getCqlSession();
+            spacecraftJourneyDao = daoDecorator.decorate(key, SpacecraftJourneyDao.class, new SpacecraftMapperBuilder(session).build()
+                    .spacecraftJourneyDao(session.getKeyspace().get()));
+        }
+        return spacecraftJourneyDao;
+    }
+
+    public synchronized SpacecraftInstrumentsDao getSpacecraftInstrumentsDao() {
+        if (spacecraftInstrumentsDao == null) {
+            CqlSession session = getCqlSession();
+            spacecraftInstrumentsDao = daoDecorator.decorate(key, SpacecraftInstrumentsDao.class, new SpacecraftMapperBuilder(session).build()
+                    .spacecraftInstrumentsDao(session.getKeyspace().get(), telemetryStorage.getDaoTable()));
+        }
+        return spacecraftInstrumentsDao;
+    }
+
+    public synchronized SpacecraftAnomalyDao getSpacecraftAnomalyDao() {
+        if (spacecraftAnomalyDao == null) {
+            CqlSession session = getCqlSession();
+            spacecraftAnomalyDao = daoDecorator.decorate(key, SpacecraftAnomalyDao.class, new SpacecraftMapperBuilder(session).build()
+                    .spacecraftAnomalyDao(session.getKeyspace().get()));
+        }
+        return spacecraftAnomalyDao;
+    }
+
+    public synchronized TokenRangeScanner getTokenRangeScanner(int parallelism, int splits) {
+        if (tokenRangeScanner == null) {
+            CqlSession session = getCqlSession();
+            TokenRangeReader reader = daoDecorator.decorate(key, TokenRangeReader.class, session::executeAsync);
+            tokenRangeScanner = new TokenRangeScanner(session, reader, parallelism, splits);
+        }
+        return tokenRangeScanner;
+    }
+
+    /**
+     * Record an access (LRU and idle eviction).
+     */
+    public void touch() {
+        lastAccess = System.currentTimeMillis();
+    }
+
+    /**
+     * Getter accessor for attribute 'lastAccess'.
+     *
+     * @return
+     *       current value of 'lastAccess'
+     */
+    public long getLastAccess() {
+        return lastAccess;
+    }
+
+    /**
+     * Getter accessor for attribute 'key'.
+     *
+     * @return
+     *       current value of 'key'
+     */
+    public TenantKey getKey() {
+        return key;
+    }
+
+    /**
+     * Tell if the session has been opened with this password.
+     */
+    public boolean hasPassword(String candidate) {
+        return password.equals(candidate);
+    }
+
+    /**
+     * A request starts using the session.
+     */
+    synchronized void retain() {
+        retainCount++;
+    }
+
+    /**
+     * A request does not use the session anymore.
+     *
+     * @return
+     *      true if the session is retired and now unused, to be closed
+     */
+    synchronized boolean release() {
+        retainCount--;
+        return retired && retainCount == 0;
+    }
+
+    /**
+     * Session is removed from the pool, no new request will use it.
+     *
+     * @return
+     *      true if no request uses it, to be closed now
+     */
+    synchronized boolean retire() {
+        retired = true;
+        return retainCount == 0;
+    }
+
+    /**
+     * Close the session, requests in flight are allowed to complete.
+     */
+    public synchronized void close() {
+        closed = true;
+        if (tokenRangeScanner != null) {
+            tokenRangeScanner.close();
+        }
+        if (cqlSession != null) {
+            cqlSession.closeAsync();
+        }
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.datastax.apollo.dao;
+
+import java.util.concurrent.CompletionStage;
+
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.Statement;
+
+/**
+ * Reads one page of a token range for {@link TokenRangeScanner}, decorated as the DAOs of the session
+ * so that scans take the same read limits as other queries (one call per page).
+ *
+ * @author DataStax Developer Advocates team.
+ */
+@FunctionalInterface
+public interface TokenRangeReader {
+
+    /**
+     * Read a page.
+     *
+     * @param statement
+     *      range query, with the paging state of the previous page if any
+     * @return
+     *      page of rows
+     */
+    CompletionStage<AsyncResultSet> readPage(Statement<?> statement);
+
+}
@@ -0,0 +1,178 @@
+package com.datastax.apollo.dao;
+
+import static com.datastax.oss.driver.api.querybuilder.QueryBuilder.bindMarker;
+import static com.datastax.oss.driver.api.querybuilder.QueryBuilder.selectFrom;
+import static com.datastax.oss.driver.api.querybuilder.relation.Relation.token;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.Row;
+
+/**
+ * Full table scan split on the token ring.
+ *
+ * The Murmur3 ring (used by Apollo) is split in even ranges 'token(pk) > start AND token(pk) <= end',
+ * ranges are scanned with the export profile by a fixed pool of 'parallelism' workers shared by all the
+ * scans of the session: concurrent scans wait for a worker rather than adding queries in flight. Each
+ * page is read through a {@link TokenRangeReader} taking the read limits of the session. Rows are handed
+ * to the consumer as pages arrive and never accumulated: the consumer is invoked from several worker
+ * threads and must be thread-safe, it can block (for instance when writing to a slow client).
+ *
+ * @author DataStax Developer Advocates team.
+ */
+public class TokenRangeScanner {
+
+    /** Bind markers for range bounds. */
+    private static final String PARAM_START = "start_token";
+    private static final String PARAM_END   = "end_token";
+
+    /** Working session. */
+    private CqlSession cqlSession;
+
+    /** Pages of ranges, limited as the DAOs. */
+    private TokenRangeReader reader;
+
+    /** Number of ranges scanned concurrently. */
+    private int parallelism;
+
+    /** Number of ranges the ring is split into. */
+    private int splits;
+
+    /** Statements per table. */
+    private Map<String, PreparedStatement> statements = new ConcurrentHashMap<>();
+
+    /** Workers shared by all scans. */
+    private ExecutorService executor;
+
+    /**
+     * Constructor.
+     *
+     * @param cqlSession
+     *      working session
+     * @param reader
+     *      reads pages of ranges (limited)
+     * @param parallelism
+     *      number of ranges scanned concurrently, for all scans
+     * @param splits
+     *      number of ranges the ring is split into
+     */
+    public TokenRangeScanner(CqlSession cqlSession, TokenRangeReader reader, int parallelism, int splits) {
+        this.cqlSession  = cqlSession;
+        this.reader      = reader;
+        this.parallelism = Math.max(1, parallelism);
+        this.splits      = Math.max(this.parallelism, splits);
+        this.executor    = Executors.newFixedThreadPool(this.parallelism, r -> {
+            Thread t = new Thread(r, "token-range-scan");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Scan a table.
+     *
+     * @param tableName
+     *      table to scan
+     * @param partitionKey
+     *      partition key columns of the table, in order
+     * @param mapper
+     *      mapping of rows (can be a mapper '@GetEntity')
+     * @param consumer
+     *      thread-safe consumer of results
+     * @return
+     *      number of rows scanned
+     */
+    public <T> long scan(String tableName, List<String> partitionKey,
+            Function<Row, T> mapper, Consumer<? super T> consumer) {
+        PreparedStatement ps = statements.computeIfAbsent(tableName, t -> cqlSession.prepare(
+                selectFrom(t).all()
+                .where(token(partitionKey).isGreaterThan(bindMarker(PARAM_START)))
+                .where(token(partitionKey).isLessThanOrEqualTo(bindMarker(PARAM_END)))
+                .build()));
+        Queue<long[]> ranges = new ConcurrentLinkedQueue<>(splitRing(splits));
+        AtomicLong count     = new AtomicLong();
+        List<CompletableFuture<Void>> workers = new ArrayList<>(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            workers.add(CompletableFuture.runAsync(() -> {
+                long[] range;
+                while ((range = ranges.poll()) != null) {
+                    try {
+                        BoundStatement statement = ps.bind()
+                                .setLong(PARAM_START, range[0])
+                                .setLong(PARAM_END,   range[1])
+                                .setExecutionProfileName(ExecutionProfile.EXPORT.getProfileName());
+                        while (true) {
+                            // One limited call per page, next page resumes from the paging state
+                            AsyncResultSet page = reader.readPage(statement).toCompletableFuture().join();
+                            for (Row row : page.currentPage()) {
+                                consumer.accept(mapper.apply(row));
+                                count.incrementAndGet();
+                            }
+                            if (!page.hasMorePages()) {
+                                break;
+                            }
+                            statement = statement.setPagingState(page.getExecutionInfo().getPagingState());
+                        }
+                    } catch(CompletionException ce) {
+                        ranges.clear();
+                        throw (ce.getCause() instanceof RuntimeException) ? (RuntimeException) ce.getCause() : ce;
+                    } catch(RuntimeException re) {
+                        // Stop other workers early
+                        ranges.clear();
+                        throw re;
+                    }
+                }
+            }, executor));
+        }
+        try {
+            CompletableFuture.allOf(workers.toArray(new CompletableFuture[0])).join();
+        } catch(CompletionException ce) {
+            if (ce.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ce.getCause();
+            }
+            throw ce;
+        }
+        return count.get();
+    }
+
+    /**
+     * Split Murmur3 ring ]Long.MIN_VALUE, Long.MAX_VALUE] in even contiguous ranges.
+     */
+    static List<long[]> splitRing(int splits) {
+        BigInteger min   = BigInteger.valueOf(Long.MIN_VALUE);
+        BigInteger width = BigInteger.valueOf(Long.MAX_VALUE).subtract(min);
+        List<long[]> ranges = new ArrayList<>(splits);
+        long start = Long.MIN_VALUE;
+        for (int i = 1; i <= splits; i++) {
+            long end = (i == splits) ? Long.MAX_VALUE :
+                min.add(width.multiply(BigInteger.valueOf(i)).divide(BigInteger.valueOf(splits))).longValue();
+            ranges.add(new long[] { start, end });
+            start = end;
+        }
+        return ranges;
+    }
+
+    /**
+     * Release workers.
+     */
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,110 @@
+package com.datastax.apollo.entity;
+
+import com.datastax.oss.driver.api.mapper.annotations.ClusteringColumn;
+import com.datastax.oss.driver.api.mapper.annotations.CqlName;
+import com.datastax.oss.driver.api.mapper.annotations.Entity;
+
+/**
+ * Bean Mapping table spacecraft_anomaly_events.
+ */
+@Entity
+@CqlName(SpacecraftAnomalyEvent.TABLE_NAME)
+public class SpacecraftAnomalyEvent extends AbstractInstrumentReading {
+    
+    /** Constants. */
+    public static final String TABLE_NAME            = "spacecraft_anomaly_events";
+    public static final String COLUMN_INSTRUMENT     = "instrument";
+    public static final String COLUMN_READING_VALUE  = "reading_value";
+    public static final String COLUMN_EXPECTED_VALUE = "expected_value";
+    public static final String COLUMN_ZSCORE         = "zscore";
+    
+    @ClusteringColumn(1)
+    @CqlName(COLUMN_INSTRUMENT)
+    private String instrument;
+    
+    @CqlName(COLUMN_READING_VALUE)
+    private Double reading_value;
+    
+    @CqlName(COLUMN_EXPECTED_VALUE)
+    private Double expected_value;
+    
+    @CqlName(COLUMN_ZSCORE)
+    private Double zscore;
+
+    /**
+     * Getter accessor for attribute 'instrument'.
+     *
+     * @return
+     *       current value of 'instrument'
+     */
+    public String getInstrument() {
+        return instrument;
+    }
+
+    /**
+     * Setter accessor for attribute 'instrument'.
+     * @param instrument
+     * 		new value for 'instrument '
+     */
+    public void setInstrument(String instrument) {
+        this.instrument = instrument;
+    }
+
+    /**
+     * Getter accessor for attribute 'reading_value'.
+     *
+     * @return
+     *       current value of 'reading_value'
+     */
+    public Double getReading_value() {
+        return reading_value;
+    }
+
+    /**
+     * Setter accessor for attribute 'reading_value'.
+     * @param reading_value
+     * 		new value for 'reading_value '
+     */
+    public void setReading_value(Double reading_value) {
+        this.reading_value = reading_value;
+    }
+
+    /**
+     * Getter accessor for attribute 'expected_value'.
+     *
+     * @return
+     *       current value of 'expected_value'
+     */
+    public Double getExpected_value() {
+        return expected_value;
+    }
+
+    /**
+     * Setter accessor for attribute 'expected_value'.
+     * @param expected_value
+     * 		new value for 'expected_value '
+     */
+    public void setExpected_value(Double expected_value) {
+        this.expected_value = expected_value;
+    }
+
+    /**
+     * Getter accessor for attribute 'zscore'.
+     *
+     * @return
+     *       current value of 'zscore'
+     */
+    public Double getZscore() {
+        return zscore;
+    }
+
+    /**
+     * Setter accessor for attribute 'zscore'.
+     * @param zscore
+     * 		new value for 'zscore '
+     */
+    public void setZscore(Double zscore) {
+        this.zscore = zscore;
+    }
+
+}
@@ -12,6 +12,7 @@ import com.datastax.oss.driver.api.mapper.annotations.ClusteringColumn;
 import com.datastax.oss.driver.api.mapper.annotations.CqlName;
 import com.datastax.oss.driver.api.mapper.annotations.Entity;
 import com.datastax.oss.driver.api.mapper.annotations.PartitionKey;
+import com.datastax.oss.driver.api.mapper.annotations.Transient;
 import com.datastax.oss.driver.api.querybuilder.SchemaBuilder;
 
 
@@ -54,6 +55,10 @@ public class SpacecraftJourneyCatalog implements Serializable {
     @CqlName(COLUMN_SUMMARY)
     private String summary;
     
+    /** Precomputed figures, stored in {@link SpacecraftJourneySummary#TABLE_NAME}. */
+    @Transient
+    private SpacecraftJourneySummary statistics;
+    
     public SpacecraftJourneyCatalog() {}
     
     /**
@@ -189,6 +194,25 @@ public class SpacecraftJourneyCatalog implements Serializable {
     public void setSummary(String summary) {
         this.summary = summary;
     }
+
+    /**
+     * Getter accessor for attribute 'statistics'.
+     *
+     * @return
+     *       current value of 'statistics'
+     */
+    public SpacecraftJourneySummary getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Setter accessor for attribute 'statistics'.
+     * @param statistics
+     * 		new value for 'statistics '
+     */
+    public void setStatistics(SpacecraftJourneySummary statistics) {
+        this.statistics = statistics;
+    }
      
     
 }
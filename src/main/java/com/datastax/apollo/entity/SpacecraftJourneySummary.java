@@ -0,0 +1,456 @@
+package com.datastax.apollo.entity;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.UUID;
+
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.metadata.schema.ClusteringOrder;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.mapper.annotations.ClusteringColumn;
+import com.datastax.oss.driver.api.mapper.annotations.CqlName;
+import com.datastax.oss.driver.api.mapper.annotations.Entity;
+import com.datastax.oss.driver.api.mapper.annotations.PartitionKey;
+import com.datastax.oss.driver.api.querybuilder.SchemaBuilder;
+
+/**
+ * Entity representing Table spacecraft_journey_summary, figures computed once over all readings of a journey.
+ */
+@Entity
+@CqlName(SpacecraftJourneySummary.TABLE_NAME)
+public class SpacecraftJourneySummary implements Serializable {
+
+    /** Serial. */
+    private static final long serialVersionUID = 1L;
+    
+    /** Constants.*/
+    public static final String TABLE_NAME               = "spacecraft_journey_summary";
+    public static final String COLUMN_SPACECRAFT_NAME   = "spacecraft_name";
+    public static final String COLUMN_ID                = "journey_id";
+    public static final String COLUMN_FIRST_READING     = "first_reading";
+    public static final String COLUMN_LAST_READING      = "last_reading";
+    public static final String COLUMN_DURATION_MILLIS   = "duration_millis";
+    public static final String COLUMN_DISTANCE          = "distance";
+    public static final String COLUMN_DISTANCE_UNIT     = "distance_unit";
+    public static final String COLUMN_MAX_SPEED         = "max_speed";
+    public static final String COLUMN_SPEED_UNIT        = "speed_unit";
+    public static final String COLUMN_MIN_TEMPERATURE   = "min_temperature";
+    public static final String COLUMN_MAX_TEMPERATURE   = "max_temperature";
+    public static final String COLUMN_TEMPERATURE_UNIT  = "temperature_unit";
+    public static final String COLUMN_TEMPERATURE_COUNT = "temperature_count";
+    public static final String COLUMN_PRESSURE_COUNT    = "pressure_count";
+    public static final String COLUMN_SPEED_COUNT       = "speed_count";
+    public static final String COLUMN_LOCATION_COUNT    = "location_count";
+    public static final String COLUMN_COMPUTED_AT       = "computed_at";
+    
+    @PartitionKey
+    @CqlName(COLUMN_SPACECRAFT_NAME)
+    private String spacecraftName;
+    
+    @ClusteringColumn
+    @CqlName(COLUMN_ID)
+    private UUID journeyId;
+    
+    @CqlName(COLUMN_FIRST_READING)
+    private Instant firstReading;
+    
+    @CqlName(COLUMN_LAST_READING)
+    private Instant lastReading;
+    
+    @CqlName(COLUMN_DURATION_MILLIS)
+    private Long durationMillis;
+    
+    @CqlName(COLUMN_DISTANCE)
+    private Double distance;
+    
+    @CqlName(COLUMN_DISTANCE_UNIT)
+    private String distanceUnit;
+    
+    @CqlName(COLUMN_MAX_SPEED)
+    private Double maxSpeed;
+    
+    @CqlName(COLUMN_SPEED_UNIT)
+    private String speedUnit;
+    
+    @CqlName(COLUMN_MIN_TEMPERATURE)
+    private Double minTemperature;
+    
+    @CqlName(COLUMN_MAX_TEMPERATURE)
+    private Double maxTemperature;
+    
+    @CqlName(COLUMN_TEMPERATURE_UNIT)
+    private String temperatureUnit;
+    
+    @CqlName(COLUMN_TEMPERATURE_COUNT)
+    private Long temperatureCount;
+    
+    @CqlName(COLUMN_PRESSURE_COUNT)
+    private Long pressureCount;
+    
+    @CqlName(COLUMN_SPEED_COUNT)
+    private Long speedCount;
+    
+    @CqlName(COLUMN_LOCATION_COUNT)
+    private Long locationCount;
+    
+    @CqlName(COLUMN_COMPUTED_AT)
+    private Instant computedAt;
+    
+    public SpacecraftJourneySummary() {}
+    
+    /**
+     * Create table if not exist.
+     *
+     * @param session
+     *      current cql session
+     */
+    public static void createTable(CqlSession session) {
+        session.execute(SchemaBuilder
+                    .createTable(CqlIdentifier.fromCql(TABLE_NAME))
+                    .ifNotExists()
+                    .withPartitionKey(COLUMN_SPACECRAFT_NAME, DataTypes.TEXT)
+                    .withClusteringColumn(COLUMN_ID, DataTypes.TIMEUUID)
+                    .withColumn(COLUMN_FIRST_READING,     DataTypes.TIMESTAMP)
+                    .withColumn(COLUMN_LAST_READING,      DataTypes.TIMESTAMP)
+                    .withColumn(COLUMN_DURATION_MILLIS,   DataTypes.BIGINT)
+                    .withColumn(COLUMN_DISTANCE,          DataTypes.DOUBLE)
+                    .withColumn(COLUMN_DISTANCE_UNIT,     DataTypes.TEXT)
+                    .withColumn(COLUMN_MAX_SPEED,         DataTypes.DOUBLE)
+                    .withColumn(COLUMN_SPEED_UNIT,        DataTypes.TEXT)
+                    .withColumn(COLUMN_MIN_TEMPERATURE,   DataTypes.DOUBLE)
+                    .withColumn(COLUMN_MAX_TEMPERATURE,   DataTypes.DOUBLE)
+                    .withColumn(COLUMN_TEMPERATURE_UNIT,  DataTypes.TEXT)
+                    .withColumn(COLUMN_TEMPERATURE_COUNT, DataTypes.BIGINT)
+                    .withColumn(COLUMN_PRESSURE_COUNT,    DataTypes.BIGINT)
+                    .withColumn(COLUMN_SPEED_COUNT,       DataTypes.BIGINT)
+                    .withColumn(COLUMN_LOCATION_COUNT,    DataTypes.BIGINT)
+                    .withColumn(COLUMN_COMPUTED_AT,       DataTypes.TIMESTAMP)
+                    .withClusteringOrder(COLUMN_ID, ClusteringOrder.DESC)
+                    .build());
+    }
+
+    /**
+     * Getter accessor for attribute 'spacecraftName'.
+     *
+     * @return
+     *       current value of 'spacecraftName'
+     */
+    public String getSpacecraftName() {
+        return spacecraftName;
+    }
+
+    /**
+     * Setter accessor for attribute 'spacecraftName'.
+     * @param spacecraftName
+     * 		new value for 'spacecraftName '
+     */
+    public void setSpacecraftName(String spacecraftName) {
+        this.spacecraftName = spacecraftName;
+    }
+
+    /**
+     * Getter accessor for attribute 'journeyId'.
+     *
+     * @return
+     *       current value of 'journeyId'
+     */
+    public UUID getJourneyId() {
+        return journeyId;
+    }
+
+    /**
+     * Setter accessor for attribute 'journeyId'.
+     * @param journeyId
+     * 		new value for 'journeyId '
+     */
+    public void setJourneyId(UUID journeyId) {
+        this.journeyId = journeyId;
+    }
+
+    /**
+     * Getter accessor for attribute 'firstReading'.
+     *
+     * @return
+     *       current value of 'firstReading'
+     */
+    public Instant getFirstReading() {
+        return firstReading;
+    }
+
+    /**
+     * Setter accessor for attribute 'firstReading'.
+     * @param firstReading
+     * 		new value for 'firstReading '
+     */
+    public void setFirstReading(Instant firstReading) {
+        this.firstReading = firstReading;
+    }
+
+    /**
+     * Getter accessor for attribute 'lastReading'.
+     *
+     * @return
+     *       current value of 'lastReading'
+     */
+    public Instant getLastReading() {
+        return lastReading;
+    }
+
+    /**
+     * Setter accessor for attribute 'lastReading'.
+     * @param lastReading
+     * 		new value for 'lastReading '
+     */
+    public void setLastReading(Instant lastReading) {
+        this.lastReading = lastReading;
+    }
+
+    /**
+     * Getter accessor for attribute 'durationMillis'.
+     *
+     * @return
+     *       current value of 'durationMillis'
+     */
+    public Long getDurationMillis() {
+        return durationMillis;
+    }
+
+    /**
+     * Setter accessor for attribute 'durationMillis'.
+     * @param durationMillis
+     * 		new value for 'durationMillis '
+     */
+    public void setDurationMillis(Long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+
+    /**
+     * Getter accessor for attribute 'distance'.
+     *
+     * @return
+     *       current value of 'distance'
+     */
+    public Double getDistance() {
+        return distance;
+    }
+
+    /**
+     * Setter accessor for attribute 'distance'.
+     * @param distance
+     * 		new value for 'distance '
+     */
+    public void setDistance(Double distance) {
+        this.distance = distance;
+    }
+
+    /**
+     * Getter accessor for attribute 'distanceUnit'.
+     *
+     * @return
+     *       current value of 'distanceUnit'
+     */
+    public String getDistanceUnit() {
+        return distanceUnit;
+    }
+
+    /**
+     * Setter accessor for attribute 'distanceUnit'.
+     * @param distanceUnit
+     * 		new value for 'distanceUnit '
+     */
+    public void setDistanceUnit(String distanceUnit) {
+        this.distanceUnit = distanceUnit;
+    }
+
+    /**
+     * Getter accessor for attribute 'maxSpeed'.
+     *
+     * @return
+     *       current value of 'maxSpeed'
+     */
+    public Double getMaxSpeed() {
+        return maxSpeed;
+    }
+
+    /**
+     * Setter accessor for attribute 'maxSpeed'.
+     * @param maxSpeed
+     * 		new value for 'maxSpeed '
+     */
+    public void setMaxSpeed(Double maxSpeed) {
+        this.maxSpeed = maxSpeed;
+    }
+
+    /**
+     * Getter accessor for attribute 'speedUnit'.
+     *
+     * @return
+     *       current value of 'speedUnit'
+     */
+    public String getSpeedUnit() {
+        return speedUnit;
+    }
+
+    /**
+     * Setter accessor for attribute 'speedUnit'.
+     * @param speedUnit
+     * 		new value for 'speedUnit '
+     */
+    public void setSpeedUnit(String speedUnit) {
+        this.speedUnit = speedUnit;
+    }
+
+    /**
+     * Getter accessor for attribute 'minTemperature'.
+     *
+     * @return
+     *       current value of 'minTemperature'
+     */
+    public Double getMinTemperature() {
+        return minTemperature;
+    }
+
+    /**
+     * Setter accessor for attribute 'minTemperature'.
+     * @param minTemperature
+     * 		new value for 'minTemperature '
+     */
+    public void setMinTemperature(Double minTemperature) {
+        this.minTemperature = minTemperature;
+    }
+
+    /**
+     * Getter accessor for attribute 'maxTemperature'.
+     *
+     * @return
+     *       current value of 'maxTemperature'
+     */
+    public Double getMaxTemperature() {
+        return maxTemperature;
+    }
+
+    /**
+     * Setter accessor for attribute 'maxTemperature'.
+     * @param maxTemperature
+     * 		new value for 'maxTemperature '
+     */
+    public void setMaxTemperature(Double maxTemperature) {
+        this.maxTemperature = maxTemperature;
+    }
+
+    /**
+     * Getter accessor for attribute 'temperatureUnit'.
+     *
+     * @return
+     *       current value of 'temperatureUnit'
+     */
+    public String getTemperatureUnit() {
+        return temperatureUnit;
+    }
+
+    /**
+     * Setter accessor for attribute 'temperatureUnit'.
+     * @param temperatureUnit
+     * 		new value for 'temperatureUnit '
+     */
+    public void setTemperatureUnit(String temperatureUnit) {
+        this.temperatureUnit = temperatureUnit;
+    }
+
+    /**
+     * Getter accessor for attribute 'temperatureCount'.
+     *
+     * @return
+     *       current value of 'temperatureCount'
+     */
+    public Long getTemperatureCount() {
+        return temperatureCount;
+    }
+
+    /**
+     * Setter accessor for attribute 'temperatureCount'.
+     * @param temperatureCount
+     * 		new value for 'temperatureCount '
+     */
+    public void setTemperatureCount(Long temperatureCount) {
+        this.temperatureCount = temperatureCount;
+    }
+
+    /**
+     * Getter accessor for attribute 'pressureCount'.
+     *
+     * @return
+     *       current value of 'pressureCount'
+     */
+    public Long getPressureCount() {
+        return pressureCount;
+    }
+
+    /**
+     * Setter accessor for attribute 'pressureCount'.
+     * @param pressureCount
+     * 		new value for 'pressureCount '
+     */
+    public void setPressureCount(Long pressureCount) {
+        this.pressureCount = pressureCount;
+    }
+
+    /**
+     * Getter accessor for attribute 'speedCount'.
+     *
+     * @return
+     *       current value of 'speedCount'
+     */
+    public Long getSpeedCount() {
+        return speedCount;
+    }
+
+    /**
+     * Setter accessor for attribute 'speedCount'.
+     * @param speedCount
+     * 		new value for 'speedCount '
+     */
+    public void setSpeedCount(Long speedCount) {
+        this.speedCount = speedCount;
+    }
+
+    /**
+     * Getter accessor for attribute 'locationCount'.
+     *
+     * @return
+     *       current value of 'locationCount'
+     */
+    public Long getLocationCount() {
+        return locationCount;
+    }
+
+    /**
+     * Setter accessor for attribute 'locationCount'.
+     * @param locationCount
+     * 		new value for 'locationCount '
+     */
+    public void setLocationCount(Long locationCount) {
+        this.locationCount = locationCount;
+    }
+
+    /**
+     * Getter accessor for attribute 'computedAt'.
+     *
+     * @return
+     *       current value of 'computedAt'
+     */
+    public Instant getComputedAt() {
+        return computedAt;
+    }
+
+    /**
+     * Setter accessor for attribute 'computedAt'.
+     * @param computedAt
+     * 		new value for 'computedAt '
+     */
+    public void setComputedAt(Instant computedAt) {
+        this.computedAt = computedAt;
+    }
+    
+}
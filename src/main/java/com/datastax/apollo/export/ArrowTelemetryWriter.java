@@ -0,0 +1,275 @@
+package com.datastax.apollo.export;
+
+import static com.datastax.apollo.entity.AbstractInstrumentReading.COLUMN_READING_TIME;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletionStage;
+
+import javax.annotation.PreDestroy;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.TimeStampMilliTZVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.datastax.apollo.entity.LocationUdt;
+import com.datastax.apollo.entity.SpacecraftLocationOverTime;
+import com.datastax.apollo.entity.SpacecraftPressureOverTime;
+import com.datastax.apollo.entity.SpacecraftSpeedOverTime;
+import com.datastax.apollo.entity.SpacecraftTemperatureOverTime;
+import com.datastax.apollo.jfr.DriverEvents;
+import com.datastax.apollo.model.Instrument;
+import com.datastax.apollo.model.JoinedReadings;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.data.UdtValue;
+
+/**
+ * Write readings as an Apache Arrow IPC stream (schema, then record batches).
+ *
+ * Column vectors are filled directly from driver rows, one record batch per driver page, so that
+ * clients (pandas, Spark) load the series without parsing. reading_time is a UTC timestamp in millis,
+ * values are nullable doubles and location is split in x, y, z columns. Units and journey are kept
+ * in the schema metadata.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+@Component
+public class ArrowTelemetryWriter {
+
+    /** Media type of an Arrow IPC stream. */
+    public static final String APPLICATION_ARROW_STREAM_VALUE = "application/vnd.apache.arrow.stream";
+
+    /** Metadata keys. */
+    public static final String METADATA_UNIT            = "unit";
+    public static final String METADATA_SPACECRAFT_NAME = "spacecraft_name";
+    public static final String METADATA_JOURNEY_ID      = "journey_id";
+
+    /** Off-heap memory shared by all exports. */
+    private BufferAllocator allocator;
+
+    /** Rows in a record batch when readings are not read page per page. */
+    private int batchRows;
+
+    /**
+     * Constructor.
+     *
+     * @param maxMemory
+     *      off-heap memory for vectors, all exports included
+     * @param batchRows
+     *      rows in a record batch for joined readings
+     */
+    public ArrowTelemetryWriter(
+            @Value("${apollo.arrow.max-memory:268435456}") long maxMemory,
+            @Value("${apollo.arrow.batch-rows:5000}") int batchRows) {
+        this.allocator = new RootAllocator(maxMemory);
+        this.batchRows = batchRows;
+    }
+
+    /**
+     * Write readings of an instrument, pages are requested while the previous one is written.
+     *
+     * @param spacecraftName
+     *      spacecraft name
+     * @param journeyId
+     *      journey identifier
+     * @param instrument
+     *      instrument of the readings
+     * @param firstPage
+     *      query just sent
+     * @param out
+     *      target stream
+     */
+    public void writeInstrument(String spacecraftName, UUID journeyId, Instrument instrument,
+            CompletionStage<AsyncResultSet> firstPage, OutputStream out) throws IOException {
+        AsyncResultSet page = firstPage.toCompletableFuture().join();
+        Iterator<Row> rows = page.currentPage().iterator();
+        Row first = rows.hasNext() ? rows.next() : null;
+        String unit = (first == null) ? null : first.getString(unitColumn(instrument));
+        List<Field> fields = new ArrayList<>();
+        fields.add(readingTimeField());
+        if (Instrument.LOCATION == instrument) {
+            fields.add(valueField(LocationUdt.XCOORDINATE, unit));
+            fields.add(valueField(LocationUdt.YCOORDINATE, unit));
+            fields.add(valueField(LocationUdt.ZCOORDINATE, unit));
+        } else {
+            fields.add(valueField(valueColumn(instrument), unit));
+        }
+        try (BufferAllocator exportAllocator = allocator.newChildAllocator(journeyId.toString(), 0, Long.MAX_VALUE);
+             VectorSchemaRoot root = VectorSchemaRoot.create(schema(spacecraftName, journeyId, fields), exportAllocator)) {
+            ArrowStreamWriter writer = new ArrowStreamWriter(root, null, out);
+            writer.start();
+            TimeStampMilliTZVector times = (TimeStampMilliTZVector) root.getVector(0);
+            while (page != null) {
+                // Next page is fetched while the current one is written
+                CompletionStage<AsyncResultSet> nextPage = page.hasMorePages() ? DriverEvents.fetchNextPage(page) : null;
+                root.allocateNew();
+                int count = 0;
+                for (Row row = first; row != null; row = rows.hasNext() ? rows.next() : null) {
+                    times.setSafe(count, row.getInstant(COLUMN_READING_TIME).toEpochMilli());
+                    if (Instrument.LOCATION == instrument) {
+                        UdtValue location = row.getUdtValue(SpacecraftLocationOverTime.COLUMN_LOCATION);
+                        setValue((Float8Vector) root.getVector(1), count, location, LocationUdt.XCOORDINATE);
+                        setValue((Float8Vector) root.getVector(2), count, location, LocationUdt.YCOORDINATE);
+                        setValue((Float8Vector) root.getVector(3), count, location, LocationUdt.ZCOORDINATE);
+                    } else {
+                        setValue((Float8Vector) root.getVector(1), count, row, valueColumn(instrument));
+                    }
+                    count++;
+                }
+                if (count > 0) {
+                    root.setRowCount(count);
+                    writer.writeBatch();
+                }
+                page  = (nextPage == null) ? null : nextPage.toCompletableFuture().join();
+                rows  = (page == null) ? null : page.currentPage().iterator();
+                first = (rows != null && rows.hasNext()) ? rows.next() : null;
+            }
+            writer.end();
+            out.flush();
+        }
+    }
+
+    /**
+     * Write readings of all instruments joined on reading time, in batches of fixed size.
+     *
+     * @param spacecraftName
+     *      spacecraft name
+     * @param journeyId
+     *      journey identifier
+     * @param readings
+     *      joined readings
+     * @param out
+     *      target stream
+     */
+    public void writeJoined(String spacecraftName, UUID journeyId, Iterator<JoinedReadings> readings, OutputStream out)
+    throws IOException {
+        List<Field> fields = new ArrayList<>();
+        fields.add(readingTimeField());
+        fields.add(valueField(SpacecraftTemperatureOverTime.COLUMN_TEMPERATURE, null));
+        fields.add(valueField(SpacecraftPressureOverTime.COLUMN_PRESSURE, null));
+        fields.add(valueField(SpacecraftSpeedOverTime.COLUMN_SPEED, null));
+        fields.add(valueField(LocationUdt.XCOORDINATE, null));
+        fields.add(valueField(LocationUdt.YCOORDINATE, null));
+        fields.add(valueField(LocationUdt.ZCOORDINATE, null));
+        try (BufferAllocator exportAllocator = allocator.newChildAllocator(journeyId.toString(), 0, Long.MAX_VALUE);
+             VectorSchemaRoot root = VectorSchemaRoot.create(schema(spacecraftName, journeyId, fields), exportAllocator)) {
+            ArrowStreamWriter writer = new ArrowStreamWriter(root, null, out);
+            writer.start();
+            TimeStampMilliTZVector times       = (TimeStampMilliTZVector) root.getVector(0);
+            Float8Vector           temperature = (Float8Vector) root.getVector(1);
+            Float8Vector           pressure    = (Float8Vector) root.getVector(2);
+            Float8Vector           speed       = (Float8Vector) root.getVector(3);
+            Float8Vector           x           = (Float8Vector) root.getVector(4);
+            Float8Vector           y           = (Float8Vector) root.getVector(5);
+            Float8Vector           z           = (Float8Vector) root.getVector(6);
+            while (readings.hasNext()) {
+                root.allocateNew();
+                int count = 0;
+                while (count < batchRows && readings.hasNext()) {
+                    JoinedReadings r = readings.next();
+                    times.setSafe(count, r.getReadingTime().toEpochMilli());
+                    setValue(temperature, count, r.getTemperature());
+                    setValue(pressure, count, r.getPressure());
+                    setValue(speed, count, r.getSpeed());
+                    LocationUdt location = r.getLocation();
+                    setValue(x, count, location == null ? null : location.getX_coordinate());
+                    setValue(y, count, location == null ? null : location.getY_coordinate());
+                    setValue(z, count, location == null ? null : location.getZ_coordinate());
+                    count++;
+                }
+                root.setRowCount(count);
+                writer.writeBatch();
+            }
+            writer.end();
+            out.flush();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        allocator.close();
+    }
+
+    private static void setValue(Float8Vector vector, int index, Row row, String column) {
+        if (row.isNull(column)) {
+            vector.setNull(index);
+        } else {
+            vector.setSafe(index, row.getDouble(column));
+        }
+    }
+
+    private static void setValue(Float8Vector vector, int index, UdtValue udt, String field) {
+        if (udt == null || udt.isNull(field)) {
+            vector.setNull(index);
+        } else {
+            vector.setSafe(index, udt.getDouble(field));
+        }
+    }
+
+    private static void setValue(Float8Vector vector, int index, Double value) {
+        if (value == null) {
+            vector.setNull(index);
+        } else {
+            vector.setSafe(index, value);
+        }
+    }
+
+    private static Schema schema(String spacecraftName, UUID journeyId, List<Field> fields) {
+        Map<String, String> metadata = new HashMap<>();
+        metadata.put(METADATA_SPACECRAFT_NAME, spacecraftName);
+        metadata.put(METADATA_JOURNEY_ID, journeyId.toString());
+        return new Schema(fields, metadata);
+    }
+
+    private static Field readingTimeField() {
+        return new Field(COLUMN_READING_TIME,
+                FieldType.notNullable(new ArrowType.Timestamp(TimeUnit.MILLISECOND, "UTC")), null);
+    }
+
+    private static Field valueField(String name, String unit) {
+        Map<String, String> metadata = null;
+        if (unit != null) {
+            metadata = new HashMap<>();
+            metadata.put(METADATA_UNIT, unit);
+        }
+        return new Field(name, new FieldType(true,
+                new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE), null, metadata), null);
+    }
+
+    private static String valueColumn(Instrument instrument) {
+        switch (instrument) {
+            case TEMPERATURE: return SpacecraftTemperatureOverTime.COLUMN_TEMPERATURE;
+            case PRESSURE:    return SpacecraftPressureOverTime.COLUMN_PRESSURE;
+            case SPEED:       return SpacecraftSpeedOverTime.COLUMN_SPEED;
+            default:          return SpacecraftLocationOverTime.COLUMN_LOCATION;
+        }
+    }
+
+    private static String unitColumn(Instrument instrument) {
+        switch (instrument) {
+            case TEMPERATURE: return SpacecraftTemperatureOverTime.COLUMN_TEMPERATURE_UNIT;
+            case PRESSURE:    return SpacecraftPressureOverTime.COLUMN_PRESSURE_UNIT;
+            case SPEED:       return SpacecraftSpeedOverTime.COLUMN_SPEED_UNIT;
+            default:          return SpacecraftLocationOverTime.COLUMN_LOCATION_UNIT;
+        }
+    }
+
+}
@@ -0,0 +1,201 @@
+package com.datastax.apollo.jfr;
+
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
+import com.datastax.oss.driver.api.core.AsyncPagingIterable;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.PagingIterable;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
+import com.datastax.oss.driver.api.core.cql.ResultSet;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.cql.Statement;
+
+/**
+ * Driver calls recorded as Flight Recorder events (queries, page fetches, row mapping).
+ *
+ * Events are only filled and committed when enabled in the running recording, without recording
+ * the calls go straight to the driver.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+public final class DriverEvents {
+
+    private DriverEvents() {}
+
+    /**
+     * Execute a statement, until its first page is received.
+     *
+     * @param cqlSession
+     *      session
+     * @param statement
+     *      statement to execute
+     * @param table
+     *      table queried
+     * @param operation
+     *      kind of query (select, seek, insert...)
+     * @return
+     *      result
+     */
+    public static ResultSet execute(CqlSession cqlSession, Statement<?> statement, String table, String operation) {
+        QueryEvent event = new QueryEvent();
+        event.begin();
+        ResultSet rs;
+        try {
+            rs = cqlSession.execute(statement);
+        } catch (RuntimeException re) {
+            commit(event, statement, table, operation, (ResultSet) null);
+            throw re;
+        }
+        commit(event, statement, table, operation, rs);
+        return rs;
+    }
+
+    /**
+     * Execute a statement asynchronously, until its first page is received.
+     *
+     * @param cqlSession
+     *      session
+     * @param statement
+     *      statement to execute
+     * @param table
+     *      table queried
+     * @param operation
+     *      kind of query (select, seek, insert...)
+     * @return
+     *      result
+     */
+    public static CompletionStage<AsyncResultSet> executeAsync(CqlSession cqlSession, Statement<?> statement, String table, String operation) {
+        QueryEvent event = new QueryEvent();
+        if (!event.isEnabled()) {
+            return cqlSession.executeAsync(statement);
+        }
+        event.begin();
+        return cqlSession.executeAsync(statement).whenComplete((rs, error) -> commit(event, statement, table, operation, rs));
+    }
+
+    private static void commit(QueryEvent event, Statement<?> statement, String table, String operation, ResultSet rs) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.failed = (rs == null);
+            if (rs != null) {
+                event.rows      = rs.getAvailableWithoutFetching();
+                event.bytes     = rs.getExecutionInfo().getResponseSizeInBytes();
+                event.morePages = !rs.isFullyFetched();
+            }
+            commit(event, statement, table, operation);
+        }
+    }
+
+    private static void commit(QueryEvent event, Statement<?> statement, String table, String operation, AsyncResultSet rs) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.failed = (rs == null);
+            if (rs != null) {
+                event.rows      = rs.remaining();
+                event.bytes     = rs.getExecutionInfo().getResponseSizeInBytes();
+                event.morePages = rs.hasMorePages();
+            }
+            commit(event, statement, table, operation);
+        }
+    }
+
+    private static void commit(QueryEvent event, Statement<?> statement, String table, String operation) {
+        event.table     = table;
+        event.operation = operation;
+        event.profile   = statement.getExecutionProfileName();
+        event.commit();
+    }
+
+    /**
+     * Request the next page of an asynchronous result, until it is received.
+     *
+     * @param page
+     *      current page, with more pages
+     * @return
+     *      next page
+     */
+    public static <T, P extends AsyncPagingIterable<T, P>> CompletionStage<P> fetchNextPage(P page) {
+        PageFetchEvent event = new PageFetchEvent();
+        if (!event.isEnabled()) {
+            return page.fetchNextPage();
+        }
+        String table = table(page.getColumnDefinitions());
+        event.begin();
+        return page.fetchNextPage().whenComplete((next, error) -> {
+            event.end();
+            if (event.shouldCommit()) {
+                event.table  = table;
+                event.failed = (next == null);
+                if (next != null) {
+                    event.rows      = next.remaining();
+                    event.bytes     = next.getExecutionInfo().getResponseSizeInBytes();
+                    event.morePages = next.hasMorePages();
+                }
+                event.commit();
+            }
+        });
+    }
+
+    /**
+     * Map rows of a result to entities, each page is recorded once its rows are mapped.
+     *
+     * @param rs
+     *      result
+     * @param mapper
+     *      entity helper
+     * @param table
+     *      table queried
+     * @return
+     *      entities, mapped while iterating
+     */
+    public static <T> PagingIterable<T> map(ResultSet rs, Function<Row, T> mapper, String table) {
+        if (!new RowMappingEvent().isEnabled()) {
+            return rs.map(mapper);
+        }
+        return rs.map(new Function<Row, T>() {
+            private RowMappingEvent event;
+            private long mappingTime;
+            private int rows;
+            @Override
+            public T apply(Row row) {
+                if (event == null) {
+                    event = new RowMappingEvent();
+                    event.begin();
+                }
+                long start = System.nanoTime();
+                T entity = mapper.apply(row);
+                mappingTime += System.nanoTime() - start;
+                rows++;
+                // Last row of the page
+                if (rs.getAvailableWithoutFetching() == 0) {
+                    event.end();
+                    if (event.shouldCommit()) {
+                        event.table       = table;
+                        event.rows        = rows;
+                        event.mappingTime = mappingTime;
+                        event.commit();
+                    }
+                    event       = null;
+                    mappingTime = 0;
+                    rows        = 0;
+                }
+                return entity;
+            }
+        });
+    }
+
+    /**
+     * Table of a result.
+     *
+     * @param columns
+     *      columns of the result
+     * @return
+     *      table of the first column, empty if no columns
+     */
+    public static String table(ColumnDefinitions columns) {
+        return columns.size() == 0 ? "" : columns.get(0).getTable().asInternal();
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.datastax.apollo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Next page of a result requested from the database, until it is received.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+@Name("com.datastax.apollo.PageFetch")
+@Label("Page Fetch")
+@Category({"Apollo", "Database"})
+@Description("Next page of a result requested from the database, until it is received")
+public class PageFetchEvent extends Event {
+
+    @Label("Table")
+    public String table;
+
+    @Label("Rows")
+    public int rows;
+
+    @Label("Response Size")
+    @DataAmount
+    public long bytes;
+
+    @Label("More Pages")
+    public boolean morePages;
+
+    @Label("Failed")
+    public boolean failed;
+
+}
@@ -0,0 +1,31 @@
+package com.datastax.apollo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Page of results built for a response.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+@Name("com.datastax.apollo.PagedResult")
+@Label("Paged Result")
+@Category({"Apollo", "Mapping"})
+@Description("Page of results built for a response")
+public class PagedResultEvent extends Event {
+
+    @Label("Source")
+    @Description("Driver page, seek query or rows already read")
+    public String source;
+
+    @Label("Rows")
+    @Description("Rows available when built, read while serialized for driver pages and seek queries")
+    public int rows;
+
+    @Label("Page Size")
+    public int pageSize;
+
+}
@@ -0,0 +1,44 @@
+package com.datastax.apollo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Query sent to the database, until its first page is received.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+@Name("com.datastax.apollo.Query")
+@Label("Query")
+@Category({"Apollo", "Database"})
+@Description("Query sent to the database, until its first page is received")
+public class QueryEvent extends Event {
+
+    @Label("Table")
+    public String table;
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Execution Profile")
+    public String profile;
+
+    @Label("Rows")
+    @Description("Rows of the first page")
+    public int rows;
+
+    @Label("Response Size")
+    @DataAmount
+    public long bytes;
+
+    @Label("More Pages")
+    public boolean morePages;
+
+    @Label("Failed")
+    public boolean failed;
+
+}
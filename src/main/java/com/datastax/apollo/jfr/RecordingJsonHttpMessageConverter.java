@@ -0,0 +1,96 @@
+package com.datastax.apollo.jfr;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+import com.datastax.apollo.model.PagedResultWrapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * JSON responses written by Jackson, each body is recorded as a {@link SerializationEvent}.
+ *
+ * Replaces the converter configured by Spring Boot, with the same {@link ObjectMapper}. Streamed
+ * responses (exports, scans) write their own JSON and are not recorded here.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+@Component
+public class RecordingJsonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    /**
+     * Constructor.
+     *
+     * @param objectMapper
+     *      mapper configured by Spring Boot
+     */
+    public RecordingJsonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        SerializationEvent event = new SerializationEvent();
+        if (!event.isEnabled()) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+        CountingOutputStream body = new CountingOutputStream(outputMessage.getBody());
+        event.begin();
+        try {
+            super.writeInternal(object, type, new HttpOutputMessage() {
+                public OutputStream getBody() {
+                    return body;
+                }
+                public HttpHeaders getHeaders() {
+                    return outputMessage.getHeaders();
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            event.failed = true;
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.type  = object.getClass();
+                // Rows of a page are counted while written
+                event.rows  = (object instanceof PagedResultWrapper) ? ((PagedResultWrapper<?>) object).getCount() : -1;
+                event.bytes = body.count;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Bytes written to the response.
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        private CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+    }
+
+}
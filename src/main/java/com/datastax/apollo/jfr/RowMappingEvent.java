@@ -0,0 +1,32 @@
+package com.datastax.apollo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Rows of a page mapped to entities, from the first row to the last one. Rows are mapped while they
+ * are consumed: the mapping time only counts the mapping itself.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+@Name("com.datastax.apollo.RowMapping")
+@Label("Row Mapping")
+@Category({"Apollo", "Mapping"})
+@Description("Rows of a page mapped to entities")
+public class RowMappingEvent extends Event {
+
+    @Label("Table")
+    public String table;
+
+    @Label("Rows")
+    public int rows;
+
+    @Label("Mapping Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long mappingTime;
+
+}
@@ -0,0 +1,35 @@
+package com.datastax.apollo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Response body written as JSON.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+@Name("com.datastax.apollo.Serialization")
+@Label("Response Serialization")
+@Category({"Apollo", "Web"})
+@Description("Response body written as JSON")
+public class SerializationEvent extends Event {
+
+    @Label("Type")
+    public Class<?> type;
+
+    @Label("Rows")
+    @Description("Entities of a paged result, -1 for other responses")
+    public int rows;
+
+    @Label("Size")
+    @DataAmount
+    public long bytes;
+
+    @Label("Failed")
+    public boolean failed;
+
+}
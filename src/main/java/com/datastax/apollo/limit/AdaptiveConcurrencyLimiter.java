@@ -0,0 +1,216 @@
+package com.datastax.apollo.limit;
+
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Limit of concurrent requests tuned from observed latency (gradient, close to TCP Vegas).
+ *
+ * Latency is averaged over short windows. The lowest average stands for latency without queuing, the
+ * one of the last window for current latency. Their ratio is the gradient: close to 1 when the database keeps up, the limit grows by a small queue
+ * allowance; lower when requests start to queue, the limit shrinks in proportion. Timeouts halve the
+ * limit. Requests over the limit are rejected immediately instead of waiting, so the ones accepted
+ * complete in time. The lowest latency is measured again periodically to follow lasting changes.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    /** Logger for the class. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(AdaptiveConcurrencyLimiter.class);
+
+    /** Window of latency samples, closed once long and large enough. */
+    private static final long WINDOW_NANOS       = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final int  WINDOW_MIN_SAMPLES = 10;
+
+    /** Windows before the lowest latency is measured again. */
+    private static final int MIN_RTT_WINDOWS = 600;
+
+    /** Weight of a new limit against the current one. */
+    private static final double SMOOTHING = 0.2;
+
+    /** Identification in logs and errors. */
+    private final String name;
+
+    /** Bounds of the limit. */
+    private final int minLimit;
+    private final int maxLimit;
+
+    /** Latency increase accepted before the limit shrinks (2.0 = twice the minimum latency). */
+    private final double tolerance;
+
+    /** Seconds the client is asked to wait when rejected. */
+    private final int retryAfterSeconds;
+
+    /** Current limit and requests in flight, guarded by this. */
+    private double limit;
+    private int    inFlight;
+
+    /** Current window: start, samples, sum of round trip times (nanos), max requests in flight. */
+    private long windowStart = System.nanoTime();
+    private int  windowSamples;
+    private long windowRttSum;
+    private int  windowMaxInFlight;
+
+    /** Lowest average round trip time (nanos) and windows since it is measured. */
+    private double minRtt;
+    private int    windows;
+
+    /**
+     * Constructor.
+     *
+     * @param name
+     *      name of the limiter
+     * @param initialLimit
+     *      limit before any latency is observed
+     * @param minLimit
+     *      limit never goes below
+     * @param maxLimit
+     *      limit never goes above
+     * @param tolerance
+     *      latency increase accepted before the limit shrinks
+     * @param retryAfterSeconds
+     *      seconds the client is asked to wait when rejected
+     */
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit, double tolerance, int retryAfterSeconds) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Expecting 1 <= minLimit <= initialLimit <= maxLimit for limiter " + name);
+        }
+        if (tolerance < 1) {
+            throw new IllegalArgumentException("Expecting a tolerance of at least 1 for limiter " + name);
+        }
+        this.name              = name;
+        this.minLimit          = minLimit;
+        this.maxLimit          = maxLimit;
+        this.tolerance         = tolerance;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.limit             = initialLimit;
+    }
+
+    /**
+     * Take a slot for a request, the slot is given back with one of the methods of {@link Permit}.
+     *
+     * @return
+     *      slot for the request
+     * @throws LimitExceededException
+     *      when as many requests as the limit are already in flight
+     */
+    public synchronized Permit acquire() {
+        if (inFlight >= (int) limit) {
+            throw new LimitExceededException(name, (int) limit, retryAfterSeconds);
+        }
+        inFlight++;
+        return new Permit(inFlight);
+    }
+
+    private synchronized void release(long rttNanos, int inFlightAtStart, boolean dropped) {
+        inFlight--;
+        double previous = limit;
+        if (dropped) {
+            limit = Math.max(minLimit, limit / 2);
+            LOGGER.debug("Limiter {}: request dropped, limit {} -> {}", name, (int) previous, (int) limit);
+        } else if (rttNanos >= 0) {
+            windowSamples++;
+            windowRttSum     += rttNanos;
+            windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtStart);
+            long now = System.nanoTime();
+            if (now - windowStart < WINDOW_NANOS || windowSamples < WINDOW_MIN_SAMPLES) {
+                return;
+            }
+            double rtt = (double) windowRttSum / windowSamples;
+            // Lowest latency starts again from the current one once in a while
+            minRtt = (windows++ % MIN_RTT_WINDOWS == 0) ? rtt : Math.min(minRtt, rtt);
+            // Latency tells about the limit only when requests in flight come close to it
+            if (windowMaxInFlight >= limit / 2) {
+                double gradient = Math.max(0.5, Math.min(1.0, tolerance * minRtt / rtt));
+                double target   = limit * gradient + Math.sqrt(limit);
+                limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + target * SMOOTHING));
+            }
+            if ((int) previous != (int) limit && LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Limiter {}: limit {} -> {}, rtt {}ms (min {}ms)", name, (int) previous, (int) limit,
+                        TimeUnit.NANOSECONDS.toMillis((long) rtt), TimeUnit.NANOSECONDS.toMillis((long) minRtt));
+            }
+            windowStart       = now;
+            windowSamples     = 0;
+            windowRttSum      = 0;
+            windowMaxInFlight = 0;
+        }
+    }
+
+    /**
+     * Getter accessor for attribute 'name'.
+     *
+     * @return
+     *       current value of 'name'
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Getter accessor for attribute 'limit'.
+     *
+     * @return
+     *       current value of 'limit'
+     */
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * Getter accessor for attribute 'inFlight'.
+     *
+     * @return
+     *       current value of 'inFlight'
+     */
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * Slot of a request in flight, given back once.
+     */
+    public final class Permit {
+
+        private final long startNanos = System.nanoTime();
+
+        private final int inFlightAtStart;
+
+        private boolean released = false;
+
+        private Permit(int inFlightAtStart) {
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        /**
+         * Request completed, its latency is a sample.
+         */
+        public void onSuccess() {
+            release(System.nanoTime() - startNanos, false);
+        }
+
+        /**
+         * Request timed out, the database is overloaded.
+         */
+        public void onDropped() {
+            release(-1, true);
+        }
+
+        /**
+         * Request failed for another reason, its latency is not a sample.
+         */
+        public void onIgnore() {
+            release(-1, false);
+        }
+
+        private synchronized void release(long rttNanos, boolean dropped) {
+            if (!released) {
+                released = true;
+                AdaptiveConcurrencyLimiter.this.release(rttNanos, inFlightAtStart, dropped);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,167 @@
+package com.datastax.apollo.limit;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.datastax.apollo.dao.DaoDecorator;
+import com.datastax.apollo.dao.TenantKey;
+import com.datastax.oss.driver.api.core.DriverTimeoutException;
+import com.datastax.oss.driver.api.core.servererrors.OverloadedException;
+import com.datastax.oss.driver.api.core.servererrors.ReadTimeoutException;
+import com.datastax.oss.driver.api.core.servererrors.WriteTimeoutException;
+
+/**
+ * Concurrency limits in front of the database, one for reads and one for ingestion so that a burst
+ * of writes does not starve readers (and the other way around). Each session (tenant) has its own
+ * limiters: databases do not share their capacity.
+ *
+ * DAOs are wrapped, as well as the page reader of full scans: each call takes a slot of the limiter
+ * matching the method, released when the call returns or, for asynchronous calls, when the future completes. Row mappers (as...) do not hit
+ * the database and bulk inserts have their own flow control (apollo.bulk.max-in-flight), both are
+ * not limited.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+@Component
+public class DaoConcurrencyLimits implements DaoDecorator {
+
+    /** Limiters of a session. */
+    private static final class Limiters {
+        private final AdaptiveConcurrencyLimiter read;
+        private final AdaptiveConcurrencyLimiter ingest;
+
+        private Limiters(AdaptiveConcurrencyLimiter read, AdaptiveConcurrencyLimiter ingest) {
+            this.read   = read;
+            this.ingest = ingest;
+        }
+    }
+
+    /** Limiters per session, dropped when the session closes. */
+    private final Map<TenantKey, Limiters> limiters = new ConcurrentHashMap<>();
+
+    /** Limits can be disabled, DAOs are then used as built. */
+    private final boolean enabled;
+
+    /** Settings of limiters. */
+    private final double tolerance;
+    private final int retryAfterSeconds;
+    private final int readInitial;
+    private final int readMin;
+    private final int readMax;
+    private final int ingestInitial;
+    private final int ingestMin;
+    private final int ingestMax;
+
+    /**
+     * Constructor.
+     */
+    public DaoConcurrencyLimits(
+            @Value("${apollo.limits.enabled:true}") boolean enabled,
+            @Value("${apollo.limits.tolerance:2.0}") double tolerance,
+            @Value("${apollo.limits.retry-after-seconds:1}") int retryAfterSeconds,
+            @Value("${apollo.limits.read.initial:32}") int readInitial,
+            @Value("${apollo.limits.read.min:8}") int readMin,
+            @Value("${apollo.limits.read.max:512}") int readMax,
+            @Value("${apollo.limits.ingest.initial:32}") int ingestInitial,
+            @Value("${apollo.limits.ingest.min:4}") int ingestMin,
+            @Value("${apollo.limits.ingest.max:256}") int ingestMax) {
+        this.enabled           = enabled;
+        this.tolerance         = tolerance;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.readInitial       = readInitial;
+        this.readMin           = readMin;
+        this.readMax           = readMax;
+        this.ingestInitial     = ingestInitial;
+        this.ingestMin         = ingestMin;
+        this.ingestMax         = ingestMax;
+        // Settings are checked at startup rather than on the first session
+        newLimiters(null);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public <T> T decorate(TenantKey tenant, Class<T> daoType, T dao) {
+        if (!enabled) {
+            return dao;
+        }
+        // DAOs of a session share its limiters
+        Limiters sessionLimiters = limiters.computeIfAbsent(tenant, this::newLimiters);
+        return daoType.cast(Proxy.newProxyInstance(daoType.getClassLoader(), new Class<?>[] { daoType },
+                (proxy, method, args) -> invoke(sessionLimiters, dao, method, args)));
+    }
+
+    /**
+     * Drop limiters of a session, closed or opened again (learnt limits start over).
+     */
+    public void release(TenantKey tenant) {
+        limiters.remove(tenant);
+    }
+
+    private Limiters newLimiters(TenantKey tenant) {
+        String suffix = (tenant == null) ? "" : "/" + tenant.getKeySpace();
+        return new Limiters(
+                new AdaptiveConcurrencyLimiter("read" + suffix, readInitial, readMin, readMax, tolerance, retryAfterSeconds),
+                new AdaptiveConcurrencyLimiter("ingest" + suffix, ingestInitial, ingestMin, ingestMax, tolerance, retryAfterSeconds));
+    }
+
+    private Object invoke(Limiters sessionLimiters, Object dao, Method method, Object[] args) throws Throwable {
+        AdaptiveConcurrencyLimiter limiter = limiterFor(sessionLimiters, method);
+        if (limiter == null) {
+            return invokeTarget(dao, method, args);
+        }
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.acquire();
+        Object result;
+        try {
+            result = invokeTarget(dao, method, args);
+        } catch (Throwable t) {
+            release(permit, t);
+            throw t;
+        }
+        if (result instanceof CompletionStage) {
+            ((CompletionStage<?>) result).whenComplete((r, ex) -> release(permit, ex));
+        } else {
+            permit.onSuccess();
+        }
+        return result;
+    }
+
+    private static Object invokeTarget(Object dao, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(dao, args);
+        } catch (InvocationTargetException ite) {
+            throw ite.getCause();
+        }
+    }
+
+    private static void release(AdaptiveConcurrencyLimiter.Permit permit, Throwable error) {
+        Throwable cause = (error instanceof CompletionException && error.getCause() != null) ? error.getCause() : error;
+        if (cause == null) {
+            permit.onSuccess();
+        } else if (cause instanceof DriverTimeoutException || cause instanceof ReadTimeoutException
+                || cause instanceof WriteTimeoutException || cause instanceof OverloadedException) {
+            permit.onDropped();
+        } else {
+            permit.onIgnore();
+        }
+    }
+
+    private static AdaptiveConcurrencyLimiter limiterFor(Limiters sessionLimiters, Method method) {
+        String name = method.getName();
+        if (method.getDeclaringClass() == Object.class || name.startsWith("as") || name.endsWith("Bulk")) {
+            return null;
+        }
+        if (name.startsWith("insert") || name.startsWith("upsert") || name.startsWith("delete")) {
+            return sessionLimiters.ingest;
+        }
+        return sessionLimiters.read;
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.datastax.apollo.limit;
+
+/**
+ * Request rejected as the database already handles as many requests as the limit, the client
+ * should retry later (HTTP 503 with Retry-After).
+ *
+ * @author DataStax Developer Advocates team.
+ */
+public class LimitExceededException extends RuntimeException {
+
+    /** Serial. */
+    private static final long serialVersionUID = 5474381962378815413L;
+
+    /** Seconds the client is asked to wait. */
+    private final int retryAfterSeconds;
+
+    /**
+     * Constructor.
+     *
+     * @param limiter
+     *      name of the limiter
+     * @param limit
+     *      limit when rejected
+     * @param retryAfterSeconds
+     *      seconds the client is asked to wait
+     */
+    public LimitExceededException(String limiter, int limit, int retryAfterSeconds) {
+        super("Too many " + limiter + " requests in flight (limit " + limit + "), retry in " + retryAfterSeconds + "s");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Getter accessor for attribute 'retryAfterSeconds'.
+     *
+     * @return
+     *       current value of 'retryAfterSeconds'
+     */
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    /** No stack trace, rejections are frequent under load and expected. */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+
+}
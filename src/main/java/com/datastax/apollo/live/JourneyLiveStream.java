@@ -0,0 +1,211 @@
+package com.datastax.apollo.live;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.datastax.apollo.dao.JourneyKey;
+import com.datastax.apollo.dao.TenantKey;
+
+/**
+ * In-process fan-out of ingested readings to Server-Sent Events subscribers of a journey.
+ *
+ * Ingestion only stores the latest readings in the slot of each subscriber and schedules a delivery
+ * if none is pending: a slow client gets fewer, more recent, readings and never blocks the producer.
+ * Subscribers do not read Cassandra, load does not grow with the number of viewers.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+@Component
+public class JourneyLiveStream {
+
+    /** Logger for the class. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(JourneyLiveStream.class);
+
+    /** Name of events sent. */
+    public static final String EVENT_READINGS = "readings";
+
+    /** Subscribers per journey. */
+    private Map<JourneyKey, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    /** Writes to clients, at most one pending task per subscriber. */
+    private ExecutorService executor;
+
+    /** Connection lifetime. */
+    private long timeoutMillis;
+
+    /**
+     * Constructor.
+     *
+     * @param deliveryThreads
+     *      threads writing to clients
+     * @param timeoutMillis
+     *      connection lifetime, clients reconnect afterwards
+     */
+    public JourneyLiveStream(
+            @Value("${apollo.live.delivery-threads:4}") int deliveryThreads,
+            @Value("${apollo.live.timeout-millis:1800000}") long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(deliveryThreads, r -> {
+            Thread t = new Thread(r, "journey-live-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Subscribe to readings of a journey.
+     *
+     * @param journey
+     *      journey in the database of a session
+     * @return
+     *      emitter to return from the controller
+     */
+    public SseEmitter subscribe(JourneyKey journey) {
+        Subscriber subscriber = new Subscriber(journey, new SseEmitter(timeoutMillis));
+        subscriber.emitter.onCompletion(() -> unsubscribe(subscriber));
+        subscriber.emitter.onTimeout(() -> unsubscribe(subscriber));
+        subscribers.compute(journey, (k, list) -> {
+            List<Subscriber> journeySubscribers = (list == null) ? new CopyOnWriteArrayList<>() : list;
+            journeySubscribers.add(subscriber);
+            return journeySubscribers;
+        });
+        return subscriber.emitter;
+    }
+
+    /**
+     * Push readings to subscribers of the journey, never blocks.
+     *
+     * @param journey
+     *      journey in the database of a session
+     * @param readings
+     *      readings just ingested
+     */
+    public void publish(JourneyKey journey, LiveReadings readings) {
+        List<Subscriber> journeySubscribers = subscribers.get(journey);
+        if (journeySubscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : journeySubscribers) {
+            // Latest value wins, a reading not yet delivered is replaced
+            subscriber.latest.set(readings);
+            if (subscriber.scheduled.compareAndSet(false, true)) {
+                executor.execute(() -> deliver(subscriber));
+            }
+        }
+    }
+
+    /**
+     * Close streams of a journey, no more readings are expected.
+     *
+     * @param journey
+     *      journey in the database of a session
+     */
+    public void close(JourneyKey journey) {
+        List<Subscriber> journeySubscribers = subscribers.remove(journey);
+        if (journeySubscribers != null) {
+            journeySubscribers.forEach(s -> s.emitter.complete());
+        }
+    }
+
+    /**
+     * Close streams of a session, closed or opened again: clients reconnect to the current one.
+     *
+     * @param tenant
+     *      bundle, user and keyspace of the session
+     */
+    public void release(TenantKey tenant) {
+        for (JourneyKey journey : subscribers.keySet()) {
+            if (journey.getTenant().equals(tenant)) {
+                close(journey);
+            }
+        }
+    }
+
+    /**
+     * Number of subscribers to a journey.
+     */
+    public int countSubscribers(JourneyKey journey) {
+        List<Subscriber> journeySubscribers = subscribers.get(journey);
+        return journeySubscribers == null ? 0 : journeySubscribers.size();
+    }
+
+    private void deliver(Subscriber subscriber) {
+        while (true) {
+            LiveReadings readings = subscriber.latest.getAndSet(null);
+            if (readings == null) {
+                subscriber.scheduled.set(false);
+                // A reading published before the flag was released would be left behind
+                if (subscriber.latest.get() == null || !subscriber.scheduled.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+            try {
+                subscriber.emitter.send(SseEmitter.event()
+                        .name(EVENT_READINGS)
+                        .id(String.valueOf(readings.getTemperature().getReading_time().toEpochMilli()))
+                        .data(readings, MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException e) {
+                LOGGER.debug("Live subscriber of journey {} disconnected: {}", subscriber.key, e.getMessage());
+                unsubscribe(subscriber);
+                subscriber.emitter.completeWithError(e);
+                return;
+            }
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.key, (k, list) -> {
+            list.remove(subscriber);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    /**
+     * Stop delivery threads.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Connection with a single slot buffer.
+     */
+    private static final class Subscriber {
+
+        private final JourneyKey key;
+
+        private final SseEmitter emitter;
+
+        /** Readings waiting for delivery. */
+        private final AtomicReference<LiveReadings> latest = new AtomicReference<>();
+
+        /** A delivery task is pending or running. */
+        private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+        private Subscriber(JourneyKey key, SseEmitter emitter) {
+            this.key     = key;
+            this.emitter = emitter;
+        }
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.datastax.apollo.live;
+
+import com.datastax.apollo.entity.AbstractInstrumentReading;
+import com.datastax.apollo.entity.LocationUdt;
+import com.datastax.apollo.entity.SpacecraftLocationOverTime;
+import com.datastax.apollo.entity.SpacecraftPressureOverTime;
+import com.datastax.apollo.entity.SpacecraftSpeedOverTime;
+import com.datastax.apollo.entity.SpacecraftTemperatureOverTime;
+
+/**
+ * Readings of all instruments for a timestamp, as pushed to live subscribers.
+ *
+ * Values are copied when published: producers reuse their entities for the next readings while
+ * delivery threads serialize this snapshot, which is never modified.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+public class LiveReadings {
+    
+    private final SpacecraftTemperatureOverTime temperature;
+    
+    private final SpacecraftPressureOverTime pressure;
+    
+    private final SpacecraftSpeedOverTime speed;
+    
+    private final SpacecraftLocationOverTime location;
+
+    /**
+     * Constructor, readings are copied.
+     */
+    public LiveReadings(SpacecraftTemperatureOverTime temperature, SpacecraftPressureOverTime pressure, 
+            SpacecraftSpeedOverTime speed, SpacecraftLocationOverTime location) {
+        this.temperature = copyKey(temperature, new SpacecraftTemperatureOverTime());
+        this.temperature.setTemperature(temperature.getTemperature());
+        this.temperature.setTemperature_unit(temperature.getTemperature_unit());
+        this.pressure    = copyKey(pressure, new SpacecraftPressureOverTime());
+        this.pressure.setPressure(pressure.getPressure());
+        this.pressure.setPressure_unit(pressure.getPressure_unit());
+        this.speed       = copyKey(speed, new SpacecraftSpeedOverTime());
+        this.speed.setSpeed(speed.getSpeed());
+        this.speed.setSpeed_unit(speed.getSpeed_unit());
+        this.location    = copyKey(location, new SpacecraftLocationOverTime());
+        LocationUdt udt  = location.getLocation();
+        if (udt != null) {
+            this.location.setLocation(new LocationUdt(udt.getX_coordinate(), udt.getY_coordinate(), udt.getZ_coordinate()));
+        }
+        this.location.setLocation_unit(location.getLocation_unit());
+    }
+
+    private static <T extends AbstractInstrumentReading> T copyKey(AbstractInstrumentReading source, T target) {
+        target.setSpacecraft_name(source.getSpacecraft_name());
+        target.setJourney_id(source.getJourney_id());
+        target.setReading_time(source.getReading_time());
+        return target;
+    }
+
+    /**
+     * Getter accessor for attribute 'temperature'.
+     *
+     * @return
+     *       current value of 'temperature'
+     */
+    public SpacecraftTemperatureOverTime getTemperature() {
+        return temperature;
+    }
+
+    /**
+     * Getter accessor for attribute 'pressure'.
+     *
+     * @return
+     *       current value of 'pressure'
+     */
+    public SpacecraftPressureOverTime getPressure() {
+        return pressure;
+    }
+
+    /**
+     * Getter accessor for attribute 'speed'.
+     *
+     * @return
+     *       current value of 'speed'
+     */
+    public SpacecraftSpeedOverTime getSpeed() {
+        return speed;
+    }
+
+    /**
+     * Getter accessor for attribute 'location'.
+     *
+     * @return
+     *       current value of 'location'
+     */
+    public SpacecraftLocationOverTime getLocation() {
+        return location;
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.datastax.apollo.model;
+
+import com.datastax.apollo.entity.SpacecraftLocationOverTime;
+import com.datastax.apollo.entity.SpacecraftPressureOverTime;
+import com.datastax.apollo.entity.SpacecraftSpeedOverTime;
+import com.datastax.apollo.entity.SpacecraftTemperatureOverTime;
+
+/**
+ * Instruments available on a spacecraft, one table each.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+public enum Instrument {
+    
+    TEMPERATURE(SpacecraftTemperatureOverTime.TABLE_NAME, 1),
+    PRESSURE(SpacecraftPressureOverTime.TABLE_NAME, 1),
+    SPEED(SpacecraftSpeedOverTime.TABLE_NAME, 1),
+    LOCATION(SpacecraftLocationOverTime.TABLE_NAME, 3);
+    
+    /** Table holding readings. */
+    private final String tableName;
+    
+    /** Number of values for a reading (location is x,y,z). */
+    private final int dimensions;
+    
+    private Instrument(String tableName, int dimensions) {
+        this.tableName  = tableName;
+        this.dimensions = dimensions;
+    }
+
+    /**
+     * Getter accessor for attribute 'tableName'.
+     *
+     * @return
+     *       current value of 'tableName'
+     */
+    public String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * Getter accessor for attribute 'dimensions'.
+     *
+     * @return
+     *       current value of 'dimensions'
+     */
+    public int getDimensions() {
+        return dimensions;
+    }
+    
+}
@@ -0,0 +1,19 @@
+package com.datastax.apollo.model;
+
+/**
+ * How an instrument without a reading at a timestamp is filled when joining instruments.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+public enum JoinAlignment {
+    
+    /** Only readings at the exact timestamp, null otherwise. */
+    EXACT,
+    
+    /** Last reading at or before the timestamp. */
+    FORWARD_FILL,
+    
+    /** Closest reading, before or after the timestamp. */
+    NEAREST;
+    
+}
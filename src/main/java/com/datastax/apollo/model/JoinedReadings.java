@@ -0,0 +1,85 @@
+package com.datastax.apollo.model;
+
+import java.time.Instant;
+
+import com.datastax.apollo.entity.LocationUdt;
+
+/**
+ * Values of all instruments for a timestamp.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+public class JoinedReadings {
+    
+    private Instant readingTime;
+    
+    private Double temperature;
+    
+    private Double pressure;
+    
+    private Double speed;
+    
+    private LocationUdt location;
+    
+    /**
+     * Constructor.
+     */
+    public JoinedReadings(Instant readingTime, Double temperature, Double pressure, Double speed, LocationUdt location) {
+        this.readingTime = readingTime;
+        this.temperature = temperature;
+        this.pressure    = pressure;
+        this.speed       = speed;
+        this.location    = location;
+    }
+
+    /**
+     * Getter accessor for attribute 'readingTime'.
+     *
+     * @return
+     *       current value of 'readingTime'
+     */
+    public Instant getReadingTime() {
+        return readingTime;
+    }
+
+    /**
+     * Getter accessor for attribute 'temperature'.
+     *
+     * @return
+     *       current value of 'temperature'
+     */
+    public Double getTemperature() {
+        return temperature;
+    }
+
+    /**
+     * Getter accessor for attribute 'pressure'.
+     *
+     * @return
+     *       current value of 'pressure'
+     */
+    public Double getPressure() {
+        return pressure;
+    }
+
+    /**
+     * Getter accessor for attribute 'speed'.
+     *
+     * @return
+     *       current value of 'speed'
+     */
+    public Double getSpeed() {
+        return speed;
+    }
+
+    /**
+     * Getter accessor for attribute 'location'.
+     *
+     * @return
+     *       current value of 'location'
+     */
+    public LocationUdt getLocation() {
+        return location;
+    }
+    
+}
@@ -0,0 +1,161 @@
+package com.datastax.apollo.model;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Series of one instrument for several journeys, aligned on time elapsed since the first reading
+ * of each journey and resampled on a common grid.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+public class JourneyComparison {
+    
+    /** Instrument compared. */
+    private Instrument instrument;
+    
+    /** Step of the grid. */
+    private long stepMillis;
+    
+    /** Grid, elapsed time since the first reading of each journey. */
+    private long[] elapsedMillis;
+    
+    /** One series per journey, in the requested order. */
+    private List<Series> series = new ArrayList<>();
+    
+    /**
+     * Default Constructor.
+     */
+    public JourneyComparison() {}
+    
+    /**
+     * Constructor.
+     */
+    public JourneyComparison(Instrument instrument, long stepMillis, long[] elapsedMillis) {
+        this.instrument    = instrument;
+        this.stepMillis    = stepMillis;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * Getter accessor for attribute 'instrument'.
+     *
+     * @return
+     *       current value of 'instrument'
+     */
+    public Instrument getInstrument() {
+        return instrument;
+    }
+
+    /**
+     * Getter accessor for attribute 'stepMillis'.
+     *
+     * @return
+     *       current value of 'stepMillis'
+     */
+    public long getStepMillis() {
+        return stepMillis;
+    }
+
+    /**
+     * Getter accessor for attribute 'elapsedMillis'.
+     *
+     * @return
+     *       current value of 'elapsedMillis'
+     */
+    public long[] getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Getter accessor for attribute 'series'.
+     *
+     * @return
+     *       current value of 'series'
+     */
+    public List<Series> getSeries() {
+        return series;
+    }
+    
+    /**
+     * Values of a journey on the grid, null where the journey has no reading.
+     */
+    public static class Series {
+        
+        private String spacecraftName;
+        
+        private UUID journeyId;
+        
+        /** First reading of the journey, origin of the grid. */
+        private Instant start;
+        
+        private String unit;
+        
+        /** Values per dimension (x, y, z for locations) then per grid point. */
+        private Double[][] values;
+        
+        /**
+         * Constructor.
+         */
+        public Series(String spacecraftName, UUID journeyId, Instant start, String unit, Double[][] values) {
+            this.spacecraftName = spacecraftName;
+            this.journeyId      = journeyId;
+            this.start          = start;
+            this.unit           = unit;
+            this.values         = values;
+        }
+
+        /**
+         * Getter accessor for attribute 'spacecraftName'.
+         *
+         * @return
+         *       current value of 'spacecraftName'
+         */
+        public String getSpacecraftName() {
+            return spacecraftName;
+        }
+
+        /**
+         * Getter accessor for attribute 'journeyId'.
+         *
+         * @return
+         *       current value of 'journeyId'
+         */
+        public UUID getJourneyId() {
+            return journeyId;
+        }
+
+        /**
+         * Getter accessor for attribute 'start'.
+         *
+         * @return
+         *       current value of 'start'
+         */
+        public Instant getStart() {
+            return start;
+        }
+
+        /**
+         * Getter accessor for attribute 'unit'.
+         *
+         * @return
+         *       current value of 'unit'
+         */
+        public String getUnit() {
+            return unit;
+        }
+
+        /**
+         * Getter accessor for attribute 'values'.
+         *
+         * @return
+         *       current value of 'values'
+         */
+        public Double[][] getValues() {
+            return values;
+        }
+    }
+    
+}
@@ -0,0 +1,73 @@
+package com.datastax.apollo.model;
+
+import java.util.UUID;
+
+/**
+ * Identify a journey as 'spacecraftName:journeyId' in request parameters.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+public class JourneyReference {
+    
+    /** Separator between spacecraft name and journey id. */
+    public static final String SEPARATOR = ":";
+    
+    private final String spacecraftName;
+    
+    private final UUID journeyId;
+    
+    /**
+     * Constructor.
+     */
+    public JourneyReference(String spacecraftName, UUID journeyId) {
+        this.spacecraftName = spacecraftName;
+        this.journeyId      = journeyId;
+    }
+    
+    /**
+     * Parse a reference.
+     *
+     * @param reference
+     *      expecting 'spacecraftName:journeyId'
+     * @return
+     *      parsed reference
+     */
+    public static JourneyReference parse(String reference) {
+        int idx = reference.lastIndexOf(SEPARATOR);
+        if (idx <= 0) {
+            throw new IllegalArgumentException("Invalid journey '" + reference + "', expecting spacecraftName:journeyId");
+        }
+        try {
+            return new JourneyReference(reference.substring(0, idx), UUID.fromString(reference.substring(idx + 1)));
+        } catch(IllegalArgumentException iae) {
+            throw new IllegalArgumentException("Invalid journey id in '" + reference + "'");
+        }
+    }
+
+    /**
+     * Getter accessor for attribute 'spacecraftName'.
+     *
+     * @return
+     *       current value of 'spacecraftName'
+     */
+    public String getSpacecraftName() {
+        return spacecraftName;
+    }
+
+    /**
+     * Getter accessor for attribute 'journeyId'.
+     *
+     * @return
+     *       current value of 'journeyId'
+     */
+    public UUID getJourneyId() {
+        return journeyId;
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return spacecraftName + SEPARATOR + journeyId;
+    }
+    
+}
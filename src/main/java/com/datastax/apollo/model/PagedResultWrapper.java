@@ -4,18 +4,27 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
-import java.util.stream.IntStream;
+import java.util.function.Function;
 
+import com.datastax.apollo.jfr.PagedResultEvent;
 import com.datastax.oss.driver.api.core.MappedAsyncPagingIterable;
 import com.datastax.oss.driver.api.core.PagingIterable;
 import com.datastax.oss.protocol.internal.util.Bytes;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 
 /**
  * Ease usage of the paginState.
+ * 
+ * Pages built from a driver result are not copied: rows are mapped one by one while the response is
+ * serialized and the page state comes last, once all rows have been written.
  *
  * @author DataStax Developer Advocates team.
  */
+@JsonPropertyOrder({"pageSize", "data", "pageState"})
 public class PagedResultWrapper < ENTITY > {
 	
 	/** Custom management of paging state. */
@@ -27,6 +36,16 @@ public class PagedResultWrapper < ENTITY > {
     /** Results map as entities. */
     private List<ENTITY> data = new ArrayList<>();
     
+    /** Rows of the current page not read yet, mapped on demand. */
+    private Iterator<ENTITY> pendingRows;
+    
+    /** Seek pagination, cursor computed from the last entity of a full page. */
+    private Function<ENTITY, String> seekCursor;
+    
+    /** Entities read so far and last one. */
+    private int count = 0;
+    private ENTITY last;
+    
     /**
 	 * Default Constructor.
 	 */
@@ -42,30 +61,66 @@ public class PagedResultWrapper < ENTITY > {
      */
     public PagedResultWrapper(PagingIterable<ENTITY> rs, int pageSize) {
         if (null != rs) {
-            Iterator<ENTITY> iterResults = rs.iterator();
-            IntStream.range(0, rs.getAvailableWithoutFetching())
-                     .forEach(item -> data.add(iterResults.next()));
+            // Only the page already received, iterating further would fetch next page
+            pendingRows = limit(rs.iterator(), rs.getAvailableWithoutFetching());
             if (null != rs.getExecutionInfo().getPagingState()) {
                 ByteBuffer pagingState = rs.getExecutionInfo().getPagingState();
-                if (pagingState != null && pagingState.hasArray()) {
+                if (pagingState != null) {
                     pageState = Optional.ofNullable(Bytes.toHexString(pagingState));
                 }
             }
             this.pageSize = pageSize;
+            record("driver page", rs.getAvailableWithoutFetching(), pageSize);
         }
     }
     
     public PagedResultWrapper(MappedAsyncPagingIterable<ENTITY> rs, int pageSize) {
         if (null != rs) {
-           rs.currentPage().forEach(data::add);
+           pendingRows = rs.currentPage().iterator();
            ByteBuffer pagingState = rs.getExecutionInfo().getPagingState();
-           if (pagingState != null && pagingState.hasArray()) {
+           if (pagingState != null) {
                pageState = Optional.ofNullable(Bytes.toHexString(pagingState));
            }
            this.pageSize = pageSize;
+           record("driver page", rs.remaining(), pageSize);
         }
     }
 
+    /**
+     * Constructor from a bounded query (seek pagination), the cursor is only provided when the page is full.
+     * 
+     * @param rs
+     *      result of a query with a limit
+     * @param limit
+     *      limit of the query
+     * @param seekCursor
+     *      cursor computed from the last entity
+     */
+    public PagedResultWrapper(PagingIterable<ENTITY> rs, int limit, Function<ENTITY, String> seekCursor) {
+        this.pendingRows = limit(rs.iterator(), limit);
+        this.pageSize    = limit;
+        this.seekCursor  = seekCursor;
+        record("seek query", Math.min(rs.getAvailableWithoutFetching(), limit), limit);
+    }
+
+    /**
+     * Constructor from a page already fetched (seek pagination).
+     * 
+     * @param data
+     *      entities of the page
+     * @param pageSize
+     *      page size
+     * @param pageState
+     *      cursor to fetch next page if any
+     */
+    public PagedResultWrapper(List<ENTITY> data, int pageSize, Optional<String> pageState) {
+        this.data      = data;
+        this.pageSize  = pageSize;
+        this.pageState = pageState;
+        this.count     = data.size();
+        record("rows read", count, pageSize);
+    }
+
     /**
      * Getter accessor for attribute 'pageState'.
      *
@@ -73,6 +128,11 @@ public class PagedResultWrapper < ENTITY > {
      *       current value of 'pageState'
      */
     public Optional<String> getPageState() {
+        if (seekCursor != null) {
+            // Cursor depends on the last entity, rows are read if not written yet
+            readAll();
+            return (count == pageSize && last != null) ? Optional.of(seekCursor.apply(last)) : Optional.empty();
+        }
         return pageState;
     }
 
@@ -92,8 +152,83 @@ public class PagedResultWrapper < ENTITY > {
      * @return
      *       current value of 'data'
      */
+    @JsonIgnore
     public List<ENTITY> getData() {
+        readAll();
         return data;
     }
+    
+    /**
+     * Entities of the page for serialization, rows not read yet are mapped while iterating and not kept.
+     *
+     * @return
+     *       entities of the page
+     */
+    @JsonProperty("data")
+    public Iterator<ENTITY> getDataStream() {
+        if (pendingRows == null) {
+            return data.iterator();
+        }
+        Iterator<ENTITY> rows = pendingRows;
+        pendingRows = null;
+        return new Iterator<ENTITY>() {
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+            public ENTITY next() {
+                last = rows.next();
+                count++;
+                return last;
+            }
+        };
+    }
+    
+    /**
+     * Getter accessor for attribute 'count', rows not read yet are not counted.
+     *
+     * @return
+     *       current value of 'count'
+     */
+    @JsonIgnore
+    public int getCount() {
+        return count;
+    }
+    
+    private void readAll() {
+        if (pendingRows != null) {
+            while (pendingRows.hasNext()) {
+                last = pendingRows.next();
+                data.add(last);
+                count++;
+            }
+            pendingRows = null;
+        }
+    }
+    
+    private static void record(String source, int rows, int pageSize) {
+        PagedResultEvent event = new PagedResultEvent();
+        if (event.shouldCommit()) {
+            event.source   = source;
+            event.rows     = rows;
+            event.pageSize = pageSize;
+            event.commit();
+        }
+    }
+    
+    private static <T> Iterator<T> limit(Iterator<T> rows, int max) {
+        return new Iterator<T>() {
+            private int remaining = max;
+            public boolean hasNext() {
+                return remaining > 0 && rows.hasNext();
+            }
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                remaining--;
+                return rows.next();
+            }
+        };
+    }
 
 }
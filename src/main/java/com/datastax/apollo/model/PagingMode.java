@@ -0,0 +1,19 @@
+package com.datastax.apollo.model;
+
+/**
+ * How pages of instrument readings are requested.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+public enum PagingMode {
+    
+    /** Opaque paging state provided by the driver, hex encoded (always read from the database). */
+    DRIVER,
+    
+    /**
+     * Seek on the clustering column: the page state is the epoch millis of the last 
+     * 'reading_time' returned, next page is the slice 'reading_time < cursor'. Any instant
+     * can be used as a cursor, pages can be computed by clients and fetched concurrently.
+     */
+    SEEK;
+}
@@ -0,0 +1,40 @@
+package com.datastax.apollo.schema;
+
+/**
+ * Schema of a keyspace is migrated by another instance, the session is opened on a later request
+ * (HTTP 503 with Retry-After).
+ *
+ * @author DataStax Developer Advocates team.
+ */
+public class SchemaLockedException extends RuntimeException {
+
+    /** Serial. */
+    private static final long serialVersionUID = -3160412954846328706L;
+
+    /** Seconds the client is asked to wait. */
+    private final int retryAfterSeconds;
+
+    /**
+     * Constructor.
+     *
+     * @param keyspace
+     *      keyspace being migrated
+     * @param retryAfterSeconds
+     *      seconds the client is asked to wait
+     */
+    public SchemaLockedException(String keyspace, int retryAfterSeconds) {
+        super("Schema of keyspace " + keyspace + " is migrated by another instance, retry in " + retryAfterSeconds + "s");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Getter accessor for attribute 'retryAfterSeconds'.
+     *
+     * @return
+     *       current value of 'retryAfterSeconds'
+     */
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+}
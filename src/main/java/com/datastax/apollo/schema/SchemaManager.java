@@ -0,0 +1,280 @@
+package com.datastax.apollo.schema;
+
+import static com.datastax.oss.driver.api.querybuilder.QueryBuilder.deleteFrom;
+import static com.datastax.oss.driver.api.querybuilder.QueryBuilder.insertInto;
+import static com.datastax.oss.driver.api.querybuilder.QueryBuilder.literal;
+import static com.datastax.oss.driver.api.querybuilder.QueryBuilder.selectFrom;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.datastax.apollo.dao.SchemaInitializer;
+import com.datastax.apollo.dao.TelemetryStorage;
+import com.datastax.apollo.model.Instrument;
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.metadata.Metadata;
+import com.datastax.oss.driver.api.core.metadata.schema.TableMetadata;
+import com.datastax.oss.driver.api.core.servererrors.QueryValidationException;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.querybuilder.SchemaBuilder;
+
+/**
+ * Create and migrate the schema of each keyspace when its session is opened.
+ *
+ * Migrations are versioned scripts (src/main/resources/schema), versions applied are recorded in
+ * table {@link #TABLE_SCHEMA_VERSION} of the keyspace and the missing ones are applied in order.
+ * Instances starting together take a lock first, a row of the same table inserted with a lightweight
+ * transaction (IF NOT EXISTS) and a TTL so that a crashed instance does not hold it: one migrates,
+ * the others wait for it a few seconds then fail the request opening the session (503), the session is
+ * opened again on next request and finds the versions applied.
+ * Readings tables are also aligned, under the same lock, on the configured default TTL which can change
+ * from one deployment to the other: expired readings are dropped with their time window (no tombstones).
+ * Sessions opening with the schema and TTL already in place only read, they never take the lock.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+@Component
+public class SchemaManager implements SchemaInitializer {
+
+    /** Logger for the class. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(SchemaManager.class);
+
+    /** Versions applied to the keyspace. */
+    public static final String TABLE_SCHEMA_VERSION = "schema_version";
+    public static final String COLUMN_VERSION       = "version";
+    public static final String COLUMN_DESCRIPTION   = "description";
+    public static final String COLUMN_SCRIPT        = "script";
+    public static final String COLUMN_APPLIED_AT    = "applied_at";
+
+    /** All versions, in order. */
+    public static final List<SchemaMigration> MIGRATIONS = List.of(
+            new SchemaMigration(1, "Initial schema", "/schema/V1__initial_schema.cql", false),
+            new SchemaMigration(2, "Time window compaction and compression of readings", "/schema/V2__time_series_tables.cql", true),
+            new SchemaMigration(3, "Readings of all instruments in one table", "/schema/V3__telemetry_table.cql", false),
+            new SchemaMigration(4, "Time window compaction and compression of all readings", "/schema/V4__telemetry_table_options.cql", true));
+
+    /** Table option holding the default TTL. */
+    private static final CqlIdentifier OPTION_DEFAULT_TTL = CqlIdentifier.fromInternal("default_time_to_live");
+
+    /** Row of the migration lock, not a version (versions start at 1). */
+    private static final int LOCK_VERSION = 0;
+
+    /** Lock is released by its TTL if its owner stops, longer than any migration. */
+    private static final int LOCK_TTL_SECONDS = 300;
+
+    /** Waiting for the lock, on the thread of the request opening the session. */
+    private static final long LOCK_POLL_MILLIS = 500;
+
+    /** Schema changes wait for all nodes to agree, longer than queries. */
+    private static final Duration DDL_TIMEOUT = Duration.ofSeconds(30);
+
+    /** Schema can be managed outside of the application. */
+    private final boolean enabled;
+
+    /** Default TTL of readings, 0 to keep them. */
+    private final int ttlSeconds;
+
+    /** Time to wait for the lock before failing the request. */
+    private final long lockWaitMillis;
+
+    /**
+     * Constructor.
+     *
+     * @param enabled
+     *      schema created and migrated by the application
+     * @param ttlSeconds
+     *      default TTL of readings in seconds, 0 to keep them
+     * @param lockWaitMillis
+     *      time to wait for another instance migrating the keyspace before failing the request
+     */
+    public SchemaManager(
+            @Value("${apollo.schema.enabled:true}") boolean enabled,
+            @Value("${apollo.schema.ttl-seconds:0}") int ttlSeconds,
+            @Value("${apollo.schema.lock-wait-millis:5000}") long lockWaitMillis) {
+        if (ttlSeconds < 0) {
+            throw new IllegalArgumentException("Expecting a positive TTL or 0, got " + ttlSeconds);
+        }
+        this.enabled        = enabled;
+        this.ttlSeconds     = ttlSeconds;
+        this.lockWaitMillis = lockWaitMillis;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void initialize(CqlSession cqlSession) {
+        if (!enabled) {
+            return;
+        }
+        cqlSession.execute(SchemaBuilder.createTable(TABLE_SCHEMA_VERSION)
+                .ifNotExists()
+                .withPartitionKey(COLUMN_VERSION, DataTypes.INT)
+                .withColumn(COLUMN_DESCRIPTION, DataTypes.TEXT)
+                .withColumn(COLUMN_SCRIPT, DataTypes.TEXT)
+                .withColumn(COLUMN_APPLIED_AT, DataTypes.TIMESTAMP)
+                .build().setTimeout(DDL_TIMEOUT));
+        if (!appliedVersions(cqlSession).containsAll(versions(MIGRATIONS))
+                || !outdatedTimeToLive(cqlSession, cqlSession.getMetadata()).isEmpty()) {
+            String owner = lock(cqlSession);
+            try {
+                // Read again, another instance may have migrated while waiting for the lock
+                Set<Integer> applied = appliedVersions(cqlSession);
+                for (SchemaMigration migration : MIGRATIONS) {
+                    if (!applied.contains(migration.getVersion())) {
+                        migrate(cqlSession, migration);
+                    }
+                }
+                applyTimeToLive(cqlSession, outdatedTimeToLive(cqlSession, cqlSession.refreshSchema()));
+            } finally {
+                unlock(cqlSession, owner);
+            }
+        }
+    }
+
+    private static Set<Integer> appliedVersions(CqlSession cqlSession) {
+        Set<Integer> applied = new HashSet<>();
+        for (Row row : cqlSession.execute(selectFrom(TABLE_SCHEMA_VERSION).column(COLUMN_VERSION).build())) {
+            applied.add(row.getInt(COLUMN_VERSION));
+        }
+        return applied;
+    }
+
+    private static Set<Integer> versions(List<SchemaMigration> migrations) {
+        Set<Integer> versions = new HashSet<>();
+        for (SchemaMigration migration : migrations) {
+            versions.add(migration.getVersion());
+        }
+        return versions;
+    }
+
+    /**
+     * Wait for the migration lock of the keyspace, for a few seconds only.
+     *
+     * @return
+     *      owner of the lock, to release it
+     */
+    private String lock(CqlSession cqlSession) {
+        String owner = UUID.randomUUID().toString();
+        long deadline = System.currentTimeMillis() + lockWaitMillis;
+        boolean waiting = false;
+        while (true) {
+            boolean acquired = cqlSession.execute(insertInto(TABLE_SCHEMA_VERSION)
+                    .value(COLUMN_VERSION, literal(LOCK_VERSION))
+                    .value(COLUMN_DESCRIPTION, literal(owner))
+                    .value(COLUMN_APPLIED_AT, literal(Instant.now()))
+                    .ifNotExists()
+                    .usingTtl(LOCK_TTL_SECONDS)
+                    .build()).wasApplied();
+            if (acquired) {
+                return owner;
+            }
+            if (System.currentTimeMillis() > deadline) {
+                throw new SchemaLockedException(keyspace(cqlSession), (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(lockWaitMillis)));
+            }
+            if (!waiting) {
+                LOGGER.info("Keyspace {} is migrated by another instance, waiting", keyspace(cqlSession));
+                waiting = true;
+            }
+            try {
+                Thread.sleep(LOCK_POLL_MILLIS);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the schema lock", ie);
+            }
+        }
+    }
+
+    /**
+     * Release the lock if still owned (it may have expired).
+     */
+    private void unlock(CqlSession cqlSession, String owner) {
+        try {
+            cqlSession.execute(deleteFrom(TABLE_SCHEMA_VERSION)
+                    .whereColumn(COLUMN_VERSION).isEqualTo(literal(LOCK_VERSION))
+                    .ifColumn(COLUMN_DESCRIPTION).isEqualTo(literal(owner))
+                    .build());
+        } catch (RuntimeException e) {
+            LOGGER.warn("Cannot release the schema lock of {}, expires in {} second(s)", keyspace(cqlSession), LOCK_TTL_SECONDS, e);
+        }
+    }
+
+    private void migrate(CqlSession cqlSession, SchemaMigration migration) {
+        LOGGER.info("Migrating keyspace {} to version {}: {}", keyspace(cqlSession), migration.getVersion(), migration.getDescription());
+        for (String statement : migration.getStatements()) {
+            try {
+                cqlSession.execute(SimpleStatement.newInstance(statement).setTimeout(DDL_TIMEOUT));
+            } catch (QueryValidationException qve) {
+                if (!migration.isOptional()) {
+                    throw qve;
+                }
+                LOGGER.warn("Statement of version {} refused by the database, skipped: {}", migration.getVersion(), qve.getMessage());
+            }
+        }
+        cqlSession.execute(insertInto(TABLE_SCHEMA_VERSION)
+                .value(COLUMN_VERSION, literal(migration.getVersion()))
+                .value(COLUMN_DESCRIPTION, literal(migration.getDescription()))
+                .value(COLUMN_SCRIPT, literal(migration.getScript()))
+                .value(COLUMN_APPLIED_AT, literal(Instant.now()))
+                .build());
+    }
+
+    /**
+     * Readings tables whose default TTL differs from the configuration, tables not created are skipped.
+     */
+    private List<String> outdatedTimeToLive(CqlSession cqlSession, Metadata metadata) {
+        Optional<CqlIdentifier> keyspace = cqlSession.getKeyspace();
+        List<String> tableNames = new ArrayList<>();
+        for (Instrument instrument : Instrument.values()) {
+            tableNames.add(instrument.getTableName());
+        }
+        tableNames.add(TelemetryStorage.CONSOLIDATED.getTableName());
+        List<String> outdated = new ArrayList<>();
+        for (String tableName : tableNames) {
+            Optional<Object> defaultTtl = keyspace
+                    .flatMap(metadata::getKeyspace)
+                    .flatMap(ks -> ks.getTable(tableName))
+                    .map(TableMetadata::getOptions)
+                    .map(options -> options.get(OPTION_DEFAULT_TTL));
+            if (defaultTtl.isPresent() 
+                    && !(defaultTtl.get() instanceof Number && ((Number) defaultTtl.get()).intValue() == ttlSeconds)) {
+                outdated.add(tableName);
+            }
+        }
+        return outdated;
+    }
+
+    /**
+     * Align default TTL of readings tables on the configuration, under the lock.
+     */
+    private void applyTimeToLive(CqlSession cqlSession, List<String> tableNames) {
+        for (String tableName : tableNames) {
+            LOGGER.info("Setting default TTL of {} to {} second(s)", tableName, ttlSeconds);
+            try {
+                cqlSession.execute(SchemaBuilder.alterTable(tableName)
+                        .withDefaultTimeToLiveSeconds(ttlSeconds)
+                        .build().setTimeout(DDL_TIMEOUT));
+            } catch (QueryValidationException qve) {
+                LOGGER.warn("Default TTL of {} refused by the database: {}", tableName, qve.getMessage());
+            }
+        }
+    }
+
+    private static String keyspace(CqlSession cqlSession) {
+        return cqlSession.getKeyspace().map(CqlIdentifier::asInternal).orElse("?");
+    }
+
+}
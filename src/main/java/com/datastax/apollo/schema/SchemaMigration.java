@@ -0,0 +1,125 @@
+package com.datastax.apollo.schema;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Version of the schema, a CQL script applied once per keyspace. Scripts are never modified once
+ * released: a change of schema is a new version.
+ *
+ * Statements must be idempotent (IF NOT EXISTS, ALTER ... WITH): a migration interrupted is applied
+ * again safely. Instances opening the same keyspace at the same time do not run scripts concurrently,
+ * they take turns on a lock (see {@link SchemaManager}).
+ *
+ * @author DataStax Developer Advocates team.
+ */
+public class SchemaMigration {
+
+    /** Version, migrations are applied in ascending order. */
+    private final int version;
+
+    /** What the migration does. */
+    private final String description;
+
+    /** Classpath resource holding the script. */
+    private final String script;
+
+    /** Table options only, a managed database may refuse them: statements rejected are skipped. */
+    private final boolean optional;
+
+    /**
+     * Constructor.
+     *
+     * @param version
+     *      version
+     * @param description
+     *      what the migration does
+     * @param script
+     *      classpath resource holding the script, statements separated by ';', lines starting with '--' ignored
+     * @param optional
+     *      statements rejected by the database are skipped
+     */
+    public SchemaMigration(int version, String description, String script, boolean optional) {
+        this.version     = version;
+        this.description = description;
+        this.script      = script;
+        this.optional    = optional;
+    }
+
+    /**
+     * Statements of the script.
+     *
+     * @return
+     *      statements in order
+     */
+    public List<String> getStatements() {
+        String cql;
+        try (InputStream in = SchemaMigration.class.getResourceAsStream(script)) {
+            if (in == null) {
+                throw new IllegalStateException("Cannot find migration script " + script);
+            }
+            cql = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        StringBuilder withoutComments = new StringBuilder();
+        for (String line : cql.split("\n")) {
+            if (!line.trim().startsWith("--")) {
+                withoutComments.append(line).append('\n');
+            }
+        }
+        List<String> statements = new ArrayList<>();
+        for (String statement : withoutComments.toString().split(";")) {
+            if (!statement.isBlank()) {
+                statements.add(statement.trim());
+            }
+        }
+        return Collections.unmodifiableList(statements);
+    }
+
+    /**
+     * Getter accessor for attribute 'version'.
+     *
+     * @return
+     *       current value of 'version'
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Getter accessor for attribute 'description'.
+     *
+     * @return
+     *       current value of 'description'
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Getter accessor for attribute 'script'.
+     *
+     * @return
+     *       current value of 'script'
+     */
+    public String getScript() {
+        return script;
+    }
+
+    /**
+     * Getter accessor for attribute 'optional'.
+     *
+     * @return
+     *       current value of 'optional'
+     */
+    public boolean isOptional() {
+        return optional;
+    }
+
+}
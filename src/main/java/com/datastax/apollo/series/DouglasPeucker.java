@@ -0,0 +1,97 @@
+package com.datastax.apollo.series;
+
+import java.util.Arrays;
+
+/**
+ * Douglas-Peucker simplification of a 3-dimensions trajectory.
+ *
+ * A reading is kept when it lies farther than the tolerance from the segment joining the readings kept
+ * around it. Ranges to process are held in an explicit primitive stack (no recursion, no boxing) so that
+ * multi-million points journeys are simplified in O(n log n) on average with a bitmap of kept readings.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+public final class DouglasPeucker {
+
+    private DouglasPeucker() {}
+
+    /**
+     * Select readings to keep.
+     *
+     * @param columns
+     *      location readings (3 dimensions) without missing values, ordered by time
+     * @param tolerance
+     *      max distance between the original and the simplified trajectory, same unit as coordinates
+     * @return
+     *      indices of readings to keep, in the series order
+     */
+    public static int[] simplify(ReadingColumns columns, double tolerance) {
+        int size = columns.size();
+        if (size < 3) {
+            int[] all = new int[size];
+            for (int i = 0; i < size; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+        double[] xs = columns.values(0);
+        double[] ys = columns.values(1);
+        double[] zs = columns.values(2);
+        double squaredTolerance = tolerance * tolerance;
+        boolean[] keep = new boolean[size];
+        keep[0] = keep[size - 1] = true;
+        int kept = 2;
+        int[] stack = new int[64];
+        int top = 0;
+        stack[top++] = 0;
+        stack[top++] = size - 1;
+        while (top > 0) {
+            int last  = stack[--top];
+            int first = stack[--top];
+            double ax = xs[first], ay = ys[first], az = zs[first];
+            double dx = xs[last] - ax, dy = ys[last] - ay, dz = zs[last] - az;
+            double segment = dx * dx + dy * dy + dz * dz;
+            double maxDistance = -1;
+            int    maxIndex    = -1;
+            for (int i = first + 1; i < last; i++) {
+                double px = xs[i] - ax, py = ys[i] - ay, pz = zs[i] - az;
+                double distance;
+                if (segment == 0) {
+                    distance = px * px + py * py + pz * pz;
+                } else {
+                    // Distance to the segment, projection is clamped on the ends
+                    double t = Math.max(0, Math.min(1, (px * dx + py * dy + pz * dz) / segment));
+                    double ex = px - t * dx, ey = py - t * dy, ez = pz - t * dz;
+                    distance = ex * ex + ey * ey + ez * ez;
+                }
+                if (distance > maxDistance) {
+                    maxDistance = distance;
+                    maxIndex    = i;
+                }
+            }
+            if (maxDistance > squaredTolerance) {
+                keep[maxIndex] = true;
+                kept++;
+                if (top + 4 > stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                if (maxIndex - first > 1) {
+                    stack[top++] = first;
+                    stack[top++] = maxIndex;
+                }
+                if (last - maxIndex > 1) {
+                    stack[top++] = maxIndex;
+                    stack[top++] = last;
+                }
+            }
+        }
+        int[] selected = new int[kept];
+        for (int i = 0, j = 0; i < size; i++) {
+            if (keep[i]) {
+                selected[j++] = i;
+            }
+        }
+        return selected;
+    }
+
+}
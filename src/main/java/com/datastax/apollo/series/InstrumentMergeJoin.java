@@ -0,0 +1,150 @@
+package com.datastax.apollo.series;
+
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.datastax.apollo.entity.AbstractInstrumentReading;
+import com.datastax.apollo.entity.SpacecraftLocationOverTime;
+import com.datastax.apollo.entity.SpacecraftPressureOverTime;
+import com.datastax.apollo.entity.SpacecraftSpeedOverTime;
+import com.datastax.apollo.entity.SpacecraftTemperatureOverTime;
+import com.datastax.apollo.model.JoinAlignment;
+import com.datastax.apollo.model.JoinedReadings;
+
+/**
+ * Merge-join of the four instruments of a journey, one row per distinct reading time.
+ *
+ * Inputs are ordered by reading_time DESC (clustering order), the join emits rows in the same order
+ * and only keeps the current and the previously consumed reading of each instrument.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+public class InstrumentMergeJoin implements Iterator<JoinedReadings> {
+
+    private final Cursor<SpacecraftTemperatureOverTime> temperature;
+    private final Cursor<SpacecraftPressureOverTime>    pressure;
+    private final Cursor<SpacecraftSpeedOverTime>       speed;
+    private final Cursor<SpacecraftLocationOverTime>    location;
+
+    /** Filling of missing readings. */
+    private final JoinAlignment alignment;
+
+    /** Max distance to a reading used to fill a timestamp. */
+    private final long toleranceMillis;
+
+    /**
+     * Constructor.
+     *
+     * @param temperature
+     *      temperature readings, most recent first
+     * @param pressure
+     *      pressure readings, most recent first
+     * @param speed
+     *      speed readings, most recent first
+     * @param location
+     *      location readings, most recent first
+     * @param alignment
+     *      filling of missing readings
+     * @param toleranceMillis
+     *      max distance to a reading used to fill a timestamp
+     */
+    public InstrumentMergeJoin(Iterator<SpacecraftTemperatureOverTime> temperature, 
+            Iterator<SpacecraftPressureOverTime> pressure, Iterator<SpacecraftSpeedOverTime> speed, 
+            Iterator<SpacecraftLocationOverTime> location, JoinAlignment alignment, long toleranceMillis) {
+        this.temperature     = new Cursor<>(temperature);
+        this.pressure        = new Cursor<>(pressure);
+        this.speed           = new Cursor<>(speed);
+        this.location        = new Cursor<>(location);
+        this.alignment       = alignment;
+        this.toleranceMillis = toleranceMillis;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean hasNext() {
+        return temperature.head != null || pressure.head != null || speed.head != null || location.head != null;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public JoinedReadings next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        // Most recent reading time among the heads
+        long time = Math.max(Math.max(temperature.headTime(), pressure.headTime()), 
+                             Math.max(speed.headTime(), location.headTime()));
+        SpacecraftTemperatureOverTime t = match(temperature, time);
+        SpacecraftPressureOverTime    p = match(pressure, time);
+        SpacecraftSpeedOverTime       s = match(speed, time);
+        SpacecraftLocationOverTime    l = match(location, time);
+        return new JoinedReadings(Instant.ofEpochMilli(time), 
+                t == null ? null : t.getTemperature(),
+                p == null ? null : p.getPressure(),
+                s == null ? null : s.getSpeed(),
+                l == null ? null : l.getLocation());
+    }
+
+    /**
+     * Reading of an instrument for a reading time, the cursor moves forward on an exact match.
+     */
+    private <T extends AbstractInstrumentReading> T match(Cursor<T> cursor, long time) {
+        if (cursor.head != null && cursor.headTime() == time) {
+            T reading = cursor.head;
+            cursor.advance();
+            return reading;
+        }
+        // Head is older than the time (or absent), previous reading is more recent
+        switch(alignment) {
+            case FORWARD_FILL:
+                return within(cursor.head, time);
+            case NEAREST:
+                T before = within(cursor.head, time);
+                T after  = within(cursor.previous, time);
+                if (before == null || after == null) {
+                    return before == null ? after : before;
+                }
+                return (time - epochMillis(before)) <= (epochMillis(after) - time) ? before : after;
+            default:
+                return null;
+        }
+    }
+
+    private <T extends AbstractInstrumentReading> T within(T reading, long time) {
+        return (reading != null && Math.abs(time - epochMillis(reading)) <= toleranceMillis) ? reading : null;
+    }
+
+    private static long epochMillis(AbstractInstrumentReading reading) {
+        return reading.getReading_time().toEpochMilli();
+    }
+
+    /**
+     * Position in the readings of an instrument.
+     */
+    private static final class Cursor<T extends AbstractInstrumentReading> {
+
+        private final Iterator<T> readings;
+
+        /** Next reading to join. */
+        private T head;
+
+        /** Last reading joined, more recent than the head. */
+        private T previous;
+
+        private Cursor(Iterator<T> readings) {
+            this.readings = readings;
+            this.head     = readings.hasNext() ? readings.next() : null;
+        }
+
+        private void advance() {
+            previous = head;
+            head     = readings.hasNext() ? readings.next() : null;
+        }
+
+        private long headTime() {
+            return head == null ? Long.MIN_VALUE : epochMillis(head);
+        }
+    }
+
+}
@@ -0,0 +1,81 @@
+package com.datastax.apollo.series;
+
+/**
+ * Largest-Triangle-Three-Buckets downsampling of a scalar series.
+ *
+ * Readings are split in (threshold - 2) buckets, first and last readings are always kept and for each
+ * bucket the reading forming the largest triangle with the previously selected reading and the average
+ * of the next bucket is selected. Single pass over primitive columns, only the output is allocated.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+public final class Lttb {
+
+    private Lttb() {}
+
+    /**
+     * Select readings to keep.
+     *
+     * @param columns
+     *      scalar readings, ordered by time (ascending or descending)
+     * @param threshold
+     *      number of readings expected, at least 3 (otherwise all readings are kept)
+     * @return
+     *      indices of readings to keep, in the series order
+     */
+    public static int[] select(ReadingColumns columns, int threshold) {
+        int size = columns.size();
+        if (threshold >= size || threshold < 3) {
+            int[] all = new int[size];
+            for (int i = 0; i < all.length; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+        long[]   times  = columns.times();
+        double[] values = columns.values(0);
+        int[] selected  = new int[threshold];
+        int   count     = 0;
+        double bucketSize = (double) (size - 2) / (threshold - 2);
+        int a = 0;
+        selected[count++] = a;
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            // Average of next bucket (last reading for the last bucket)
+            int nextStart = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            int nextEnd   = Math.min((int) Math.floor((bucket + 2) * bucketSize) + 1, size);
+            double avgTime = 0, avgValue = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgTime  += times[i];
+                avgValue += values[i];
+            }
+            int nextCount = nextEnd - nextStart;
+            if (nextCount > 0) {
+                avgTime  /= nextCount;
+                avgValue /= nextCount;
+            } else {
+                avgTime  = times[size - 1];
+                avgValue = values[size - 1];
+            }
+            // Current bucket
+            int start = (int) Math.floor(bucket * bucketSize) + 1;
+            int end   = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            double aTime  = times[a];
+            double aValue = values[a];
+            double maxArea = -1;
+            int    maxIndex = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((aTime - avgTime) * (values[i] - aValue)
+                                     - (aTime - times[i]) * (avgValue - aValue));
+                if (area > maxArea) {
+                    maxArea  = area;
+                    maxIndex = i;
+                }
+            }
+            selected[count++] = maxIndex;
+            a = maxIndex;
+        }
+        selected[count] = size - 1;
+        return selected;
+    }
+
+}
@@ -0,0 +1,149 @@
+package com.datastax.apollo.series;
+
+import java.util.Arrays;
+
+/**
+ * Readings of one instrument stored as primitive columns: one 'long' column for reading times
+ * (epoch millis) and one 'double' column per dimension (1 for scalars, 3 for locations).
+ *
+ * Arrays grow as readings are appended, no object is allocated per reading.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+public class ReadingColumns {
+
+    /** Initial capacity when not provided. */
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    /** Reading times as epoch millis. */
+    private long[] times;
+
+    /** Values, first index is the dimension. */
+    private double[][] values;
+
+    /** Number of readings. */
+    private int size = 0;
+
+    /** Unit of the values, null if unknown. */
+    private String unit;
+
+    /**
+     * Constructor.
+     *
+     * @param dimensions
+     *      number of values per reading
+     */
+    public ReadingColumns(int dimensions) {
+        this(dimensions, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param dimensions
+     *      number of values per reading
+     * @param capacity
+     *      initial capacity
+     */
+    public ReadingColumns(int dimensions, int capacity) {
+        this.times  = new long[Math.max(1, capacity)];
+        this.values = new double[dimensions][Math.max(1, capacity)];
+    }
+
+    /**
+     * Append a scalar reading.
+     */
+    public void add(long epochMillis, double value) {
+        ensureCapacity();
+        times[size]     = epochMillis;
+        values[0][size] = value;
+        size++;
+    }
+
+    /**
+     * Append a 3-dimensions reading.
+     */
+    public void add(long epochMillis, double x, double y, double z) {
+        ensureCapacity();
+        times[size]     = epochMillis;
+        values[0][size] = x;
+        values[1][size] = y;
+        values[2][size] = z;
+        size++;
+    }
+
+    private void ensureCapacity() {
+        if (size == times.length) {
+            int newCapacity = times.length + (times.length >> 1) + 1;
+            times = Arrays.copyOf(times, newCapacity);
+            for (int d = 0; d < values.length; d++) {
+                values[d] = Arrays.copyOf(values[d], newCapacity);
+            }
+        }
+    }
+
+    /**
+     * Reading time at index.
+     */
+    public long time(int index) {
+        return times[index];
+    }
+
+    /**
+     * Value at index for a dimension.
+     */
+    public double value(int dimension, int index) {
+        return values[dimension][index];
+    }
+
+    /**
+     * Getter accessor for attribute 'size'.
+     *
+     * @return
+     *       current value of 'size'
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Number of values per reading.
+     */
+    public int dimensions() {
+        return values.length;
+    }
+
+    /**
+     * Backing array of times, valid up to {@link #size()}.
+     */
+    public long[] times() {
+        return times;
+    }
+
+    /**
+     * Backing array of values for a dimension, valid up to {@link #size()}.
+     */
+    public double[] values(int dimension) {
+        return values[dimension];
+    }
+
+    /**
+     * Getter accessor for attribute 'unit'.
+     *
+     * @return
+     *       current value of 'unit'
+     */
+    public String getUnit() {
+        return unit;
+    }
+
+    /**
+     * Setter accessor for attribute 'unit'.
+     * @param unit
+     * 		new value for 'unit '
+     */
+    public void setUnit(String unit) {
+        this.unit = unit;
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.datastax.apollo.series;
+
+import java.util.Arrays;
+
+/**
+ * Linear resampling of a series on a regular grid of elapsed times.
+ *
+ * Readings and grid points are merged in a single pass (both are ordered by time), a grid point
+ * outside of the series, or surrounded by a missing value, is NaN.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+public final class Resampler {
+
+    private Resampler() {}
+
+    /**
+     * Resample a series relative to its first reading.
+     *
+     * @param columns
+     *      readings ordered by time (ascending or descending)
+     * @param stepMillis
+     *      grid step
+     * @param points
+     *      number of grid points, first one is the first reading
+     * @return
+     *      values per dimension then per grid point
+     */
+    public static double[][] resample(ReadingColumns columns, long stepMillis, int points) {
+        int dimensions = columns.dimensions();
+        double[][] resampled = new double[dimensions][points];
+        for (double[] dimension : resampled) {
+            Arrays.fill(dimension, Double.NaN);
+        }
+        int size = columns.size();
+        if (size == 0 || points == 0) {
+            return resampled;
+        }
+        // Readings from Cassandra are clustered by reading_time DESC
+        boolean descending = size > 1 && columns.time(0) > columns.time(size - 1);
+        long origin = descending ? columns.time(size - 1) : columns.time(0);
+        int next = 0;
+        for (int p = 0; p < points; p++) {
+            long target = origin + p * stepMillis;
+            // First reading at or after the grid point
+            while (next < size && columns.time(index(next, size, descending)) < target) {
+                next++;
+            }
+            if (next == size) {
+                break;
+            }
+            int after = index(next, size, descending);
+            long afterTime = columns.time(after);
+            if (afterTime == target || next == 0) {
+                if (afterTime == target) {
+                    for (int d = 0; d < dimensions; d++) {
+                        resampled[d][p] = columns.value(d, after);
+                    }
+                }
+                continue;
+            }
+            int before = index(next - 1, size, descending);
+            long beforeTime = columns.time(before);
+            double ratio = (double) (target - beforeTime) / (afterTime - beforeTime);
+            for (int d = 0; d < dimensions; d++) {
+                double v0 = columns.value(d, before);
+                resampled[d][p] = v0 + ratio * (columns.value(d, after) - v0);
+            }
+        }
+        return resampled;
+    }
+
+    private static int index(int position, int size, boolean descending) {
+        return descending ? size - 1 - position : position;
+    }
+
+}
@@ -1,31 +1,97 @@
 package com.datastax.apollo.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import javax.annotation.PreDestroy;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.datastax.apollo.anomaly.AnomalyDetector;
+import com.datastax.apollo.bulk.BulkLoadReport;
+import com.datastax.apollo.bulk.TelemetryBulkLoader;
+import com.datastax.apollo.dao.AsyncPagingIterator;
+import com.datastax.apollo.dao.ExecutionProfile;
+import com.datastax.apollo.dao.JourneyKey;
 import com.datastax.apollo.dao.SessionManager;
+import com.datastax.apollo.dao.SpacecraftAnomalyDao;
 import com.datastax.apollo.dao.SpacecraftInstrumentsDao;
 import com.datastax.apollo.dao.SpacecraftJourneyDao;
-import com.datastax.apollo.dao.SpacecraftMapper;
-import com.datastax.apollo.dao.SpacecraftMapperBuilder;
+import com.datastax.apollo.dao.TelemetryStorage;
+import com.datastax.apollo.dao.TenantContext;
+import com.datastax.apollo.dao.TenantKey;
+import com.datastax.apollo.dao.TokenRangeScanner;
+import com.datastax.apollo.entity.AbstractInstrumentReading;
 import com.datastax.apollo.entity.LocationUdt;
+import com.datastax.apollo.entity.SpacecraftAnomalyEvent;
 import com.datastax.apollo.entity.SpacecraftJourneyCatalog;
+import com.datastax.apollo.entity.SpacecraftJourneySummary;
 import com.datastax.apollo.entity.SpacecraftLocationOverTime;
 import com.datastax.apollo.entity.SpacecraftPressureOverTime;
 import com.datastax.apollo.entity.SpacecraftSpeedOverTime;
 import com.datastax.apollo.entity.SpacecraftTemperatureOverTime;
+import com.datastax.apollo.export.ArrowTelemetryWriter;
+import com.datastax.apollo.limit.DaoConcurrencyLimits;
+import com.datastax.apollo.limit.LimitExceededException;
+import com.datastax.apollo.live.JourneyLiveStream;
+import com.datastax.apollo.live.LiveReadings;
+import com.datastax.apollo.model.Instrument;
+import com.datastax.apollo.model.JoinAlignment;
+import com.datastax.apollo.model.JoinedReadings;
+import com.datastax.apollo.model.JourneyComparison;
+import com.datastax.apollo.model.JourneyReference;
 import com.datastax.apollo.model.PagedResultWrapper;
-import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.apollo.model.PagingMode;
+import com.datastax.apollo.schema.SchemaManager;
+import com.datastax.apollo.series.DouglasPeucker;
+import com.datastax.apollo.series.InstrumentMergeJoin;
+import com.datastax.apollo.series.Lttb;
+import com.datastax.apollo.series.ReadingColumns;
+import com.datastax.apollo.series.Resampler;
+import com.datastax.apollo.snapshot.JourneySnapshot;
+import com.datastax.apollo.snapshot.JourneySnapshotStore;
+import com.datastax.apollo.spatial.JourneyLocationIndex;
+import com.datastax.apollo.spatial.LocationIndexCache;
+import com.datastax.apollo.spatial.TrajectoryCache;
+import com.datastax.apollo.summary.JourneySummarizer;
+import com.datastax.apollo.summary.JourneySummaryAccumulator;
 import com.datastax.oss.driver.api.core.PagingIterable;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.protocol.internal.util.Bytes;
 import com.datastax.oss.driver.api.core.uuid.Uuids;
 
 /**
@@ -38,57 +104,361 @@ public class ApolloService {
     /** Logger for the class. */
     private static final Logger LOGGER = LoggerFactory.getLogger(ApolloService.class);
    
-    /** Driver Daos. */
-    private SpacecraftJourneyDao     spacecraftJourneyDao;
-    private SpacecraftInstrumentsDao spacecraftInstrumentsDao;
+    /** Page size used in seek mode when not provided. */
+    public static final int DEFAULT_SEEK_PAGE_SIZE = 10;
     
+    /** Journeys in a single comparison. */
+    public static final int MAX_COMPARED_JOURNEYS = 20;
+    
+    /** Reads that are never cancelled. */
+    private static final BooleanSupplier NOT_CANCELLED = () -> false;
+    
+    /** Full scans split on the token ring. */
+    private int scanParallelism;
+    private int scanSplits;
+    
+    /** Tables holding readings, scanned for analytics. */
+    private TelemetryStorage telemetryStorage;
+    
+    /** Local disk tier for completed journeys. */
+    private JourneySnapshotStore snapshotStore;
+    
+    /** Spatial indices over location readings. */
+    private LocationIndexCache locationIndexCache;
+    
+    /** Simplified trajectories of completed journeys. */
+    private TrajectoryCache trajectoryCache;
+    
+    /** Anomalies detection on ingested readings. */
+    private AnomalyDetector anomalyDetector;
+    
+    /** Readings pushed to live subscribers. */
+    private JourneyLiveStream liveStream;
+    
+    /** Summaries computed in background when journeys complete. */
+    private JourneySummarizer summarizer;
+    
+    /** Historical telemetry files loaded in parallel. */
+    private TelemetryBulkLoader bulkLoader;
+    
+    /** Columnar exports of readings. */
+    private ArrowTelemetryWriter arrowWriter;
+    
+    /** Requests in flight to the database, per session. */
+    private DaoConcurrencyLimits concurrencyLimits;
+    
+    /** Series of compared journeys are fetched concurrently, bounded by the pool size. */
+    private ExecutorService compareExecutor;
+    
+    /** Identical reads in flight at the same time share a single query (per tenant). */
+    private SingleFlight<List<Object>, PagedResultWrapper<?>> readingPages = new SingleFlight<>("readings");
+    private SingleFlight<List<Object>, Optional<SpacecraftJourneyCatalog>> journeyDetails = new SingleFlight<>("journey-details");
+    private SingleFlight<List<Object>, Optional<SpacecraftJourneyCatalog>> journeyRows = new SingleFlight<>("journey");
+    private SingleFlight<List<Object>, List<SpacecraftJourneyCatalog>> journeyLists = new SingleFlight<>("journeys");
+    
+    /** Completed journeys are immutable, their status is kept once seen. */
+    private Map<JourneyKey, Boolean> completedJourneys = new LinkedHashMap<JourneyKey, Boolean>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<JourneyKey, Boolean> eldest) {
+            return size() > MAX_COMPLETED_JOURNEYS;
+        }
+    };
+    
+    /** Completed journeys remembered, least recently read is forgotten beyond (read again from the catalog). */
+    private static final int MAX_COMPLETED_JOURNEYS = 100000;
+    
+    /** Active journeys with the expiry of their status (epoch millis), a completion is seen this late at most. */
+    private Map<JourneyKey, Long> activeJourneys = new ConcurrentHashMap<>();
+    private long activeStatusTtlMillis;
+    
+    /** Expired statuses of active journeys are purged past this number of entries. */
+    private static final int MAX_ACTIVE_JOURNEYS = 10000;
+    
+    /** Writes of a preload in flight at the same time (fewer if the ingestion limit is lower). */
+    private static final int PRELOAD_MAX_IN_FLIGHT = 128;
+    
+    /**
+     * Constructor.
+     *
+     * @param snapshotStore
+     *      local disk tier for completed journeys
+     * @param locationIndexCache
+     *      spatial indices over location readings
+     * @param trajectoryCache
+     *      simplified trajectories of completed journeys
+     * @param anomalyDetector
+     *      anomalies detection on ingested readings
+     * @param liveStream
+     *      readings pushed to live subscribers
+     * @param summarizer
+     *      summaries computed in background when journeys complete
+     * @param bulkLoader
+     *      historical telemetry files loaded in parallel
+     * @param arrowWriter
+     *      columnar exports of readings
+     * @param concurrencyLimits
+     *      requests in flight to the database, for reads and ingestion
+     * @param schemaManager
+     *      schema created and migrated when a session is opened
+     * @param compareParallelism
+     *      journeys fetched concurrently for a comparison
+     * @param scanParallelism
+     *      token ranges scanned concurrently
+     * @param scanSplits
+     *      number of token ranges for a full scan
+     * @param maxSessions
+     *      sessions open at the same time (one per bundle, user and keyspace)
+     * @param sessionIdleTimeoutMillis
+     *      session not used for this time is closed
+     * @param validationTtlMillis
+     *      how long a successful credentials test is kept
+     * @param validationFailureTtlMillis
+     *      how long a credentials test with rejected credentials is kept
+     * @param telemetryStorage
+     *      one table per instrument or a single table for all instruments
+     * @param activeStatusTtlMillis
+     *      how long the status of an active journey is kept
+     */
+    public ApolloService(JourneySnapshotStore snapshotStore, 
+            LocationIndexCache locationIndexCache, TrajectoryCache trajectoryCache,
+            AnomalyDetector anomalyDetector, JourneyLiveStream liveStream, JourneySummarizer summarizer,
+            TelemetryBulkLoader bulkLoader, ArrowTelemetryWriter arrowWriter, DaoConcurrencyLimits concurrencyLimits,
+            SchemaManager schemaManager,
+            @Value("${apollo.compare.parallelism:8}") int compareParallelism,
+            @Value("${apollo.scan.parallelism:4}") int scanParallelism,
+            @Value("${apollo.scan.splits:64}") int scanSplits,
+            @Value("${apollo.tenants.max-sessions:16}") int maxSessions,
+            @Value("${apollo.tenants.idle-timeout-millis:1800000}") long sessionIdleTimeoutMillis,
+            @Value("${apollo.credentials.validation-ttl-millis:300000}") long validationTtlMillis,
+            @Value("${apollo.credentials.validation-failure-ttl-millis:10000}") long validationFailureTtlMillis,
+            @Value("${apollo.storage.telemetry:PER_INSTRUMENT}") TelemetryStorage telemetryStorage,
+            @Value("${apollo.http-cache.active-status-ttl-millis:1000}") long activeStatusTtlMillis) {
+        this.snapshotStore      = snapshotStore;
+        this.locationIndexCache = locationIndexCache;
+        this.trajectoryCache    = trajectoryCache;
+        this.anomalyDetector    = anomalyDetector;
+        this.liveStream         = liveStream;
+        this.summarizer         = summarizer;
+        this.bulkLoader         = bulkLoader;
+        this.arrowWriter        = arrowWriter;
+        this.concurrencyLimits  = concurrencyLimits;
+        AtomicInteger counter   = new AtomicInteger();
+        this.compareExecutor    = Executors.newFixedThreadPool(compareParallelism, r -> {
+            Thread t = new Thread(r, "journey-compare-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.scanParallelism    = scanParallelism;
+        this.scanSplits         = scanSplits;
+        this.telemetryStorage   = telemetryStorage;
+        this.activeStatusTtlMillis = activeStatusTtlMillis;
+        SessionManager.getInstance().configurePool(maxSessions, sessionIdleTimeoutMillis);
+        SessionManager.getInstance().configureValidation(validationTtlMillis, validationFailureTtlMillis);
+        SessionManager.getInstance().configureDaoDecorator(concurrencyLimits);
+        SessionManager.getInstance().configureSchemaInitializer(schemaManager);
+        SessionManager.getInstance().configureTelemetryStorage(telemetryStorage);
+        SessionManager.getInstance().configureSessionListener(this::releaseSession);
+    }
+    
+    /**
+     * Drop what is kept in memory for the database of a session, closed or opened again.
+     */
+    private void releaseSession(TenantKey tenant) {
+        synchronized (completedJourneys) {
+            completedJourneys.keySet().removeIf(journey -> journey.getTenant().equals(tenant));
+        }
+        activeJourneys.keySet().removeIf(journey -> journey.getTenant().equals(tenant));
+        snapshotStore.release(tenant);
+        locationIndexCache.release(tenant);
+        trajectoryCache.release(tenant);
+        anomalyDetector.release(tenant);
+        liveStream.release(tenant);
+        concurrencyLimits.release(tenant);
+    }
+    
+    
+    /**
+     * Insert readings of all instruments for a timestamp.
+     *
+     * @param temperature
+     *      temperature reading
+     * @param pressure
+     *      pressure reading
+     * @param speed
+     *      speed reading
+     * @param location
+     *      location reading
+     * @return
+     *      completed once the readings are written
+     */
+    public CompletionStage<Void> insertInstruments(SpacecraftTemperatureOverTime temperature, SpacecraftPressureOverTime pressure, 
+            SpacecraftSpeedOverTime speed, SpacecraftLocationOverTime location) {
+        CompletionStage<Void> written = getSpaceCraftInstrumentsDao().insertInstruments(temperature, pressure, speed, location);
+        JourneyKey journey = journeyKey(temperature.getSpacecraft_name(), temperature.getJourney_id());
+        // Values are copied, entities can be reused by the caller for the next readings
+        LiveReadings readings = new LiveReadings(temperature, pressure, speed, location);
+        // Session is resolved now, callbacks run on driver threads
+        SpacecraftAnomalyDao anomalyDao = getSpacecraftAnomalyDao();
+        // Side effects once the readings are written, a rejected or failed write has none
+        return written.thenRun(() -> {
+            try {
+                onReadingsWritten(journey, readings, anomalyDao);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Readings of journey {} written, cannot update index, subscribers or anomalies", journey, e);
+            }
+        });
+    }
+    
+    /**
+     * Update the spatial index, push to live subscribers and save anomalies once readings are written.
+     */
+    private void onReadingsWritten(JourneyKey journey, LiveReadings readings, SpacecraftAnomalyDao anomalyDao) {
+        SpacecraftLocationOverTime location = readings.getLocation();
+        // Spatial index is updated only if built or being built
+        if (location.getLocation() != null) {
+            locationIndexCache.add(journey, location.getReading_time().toEpochMilli(), 
+                    location.getLocation().getX_coordinate(), 
+                    location.getLocation().getY_coordinate(), 
+                    location.getLocation().getZ_coordinate());
+        }
+        if (liveStream.countSubscribers(journey) > 0) {
+            liveStream.publish(journey, readings);
+        }
+        // Anomalies are saved asynchronously, ingestion does not wait for them
+        for (SpacecraftAnomalyEvent anomaly : anomalyDetector.evaluate(journey, 
+                readings.getTemperature(), readings.getPressure(), readings.getSpeed())) {
+            try {
+                anomalyDao.insertAsync(anomaly).whenComplete((v, ex) -> {
+                    if (ex != null) {
+                        LOGGER.warn("Cannot save {} anomaly of journey {}", anomaly.getInstrument(), anomaly.getJourney_id(), ex);
+                    }
+                });
+            } catch (RuntimeException e) {
+                // Rejected by the ingestion limit, readings are written all the same
+                LOGGER.warn("Cannot save {} anomaly of journey {}: {}", anomaly.getInstrument(), anomaly.getJourney_id(), e.getMessage());
+            }
+        }
+    }
     
     /**
-     * Insert reading into database.
+     * Retrieve anomalies detected for a journey, most recent first.
+     *
+     * @param spacecraftName
+     *      name of spacecrafr
+     * @param journeyId
+     *      journey identifier
+     * @param pageSize
+     *      page size
+     * @param pageState
+     *      page state
+     * @return
+     *      result page
+     */
+    public PagedResultWrapper<SpacecraftAnomalyEvent> getAnomalies(
+            String spacecraftName, UUID journeyId, 
+            Optional<Integer> pageSize, Optional<String> pageState) {
+        PagingIterable<SpacecraftAnomalyEvent> daoResult = getSpacecraftAnomalyDao().findAnomalies(
+                spacecraftName, journeyId, bs -> {
+                    if (pageSize.isPresent()) {
+                        bs = bs.setPageSize(pageSize.get());
+                    }
+                    if (pageState.isPresent()) {
+                        bs = bs.setPagingState(Bytes.fromHexString(pageState.get()));
+                    }
+                    return bs;
+                });
+        return new PagedResultWrapper<SpacecraftAnomalyEvent>(daoResult, 
+                pageSize.isPresent() ? pageSize.get() : 0);
+    }
+    
+    /**
+     * Insert generated readings into database, returns once all are written.
+     *
+     * Writes are pipelined: at most {@link #PRELOAD_MAX_IN_FLIGHT} at the same time, and when the
+     * ingestion limit rejects a write the oldest one is awaited before trying again.
      *
      * @param itemCount
      *      current item count
      */
     public void preload(int itemCount, String spacecraftName, UUID journeyId) {
-        SpacecraftLocationOverTime    loc   = new SpacecraftLocationOverTime();
-        loc.setJourney_id(journeyId);
-        loc.setSpacecraft_name(spacecraftName);
-        loc.setLocation_unit("km");
-        SpacecraftTemperatureOverTime temp  = new SpacecraftTemperatureOverTime();
-        temp.setSpacecraft_name(spacecraftName);
-        temp.setJourney_id(journeyId);
-        temp.setTemperature_unit("fahrenheit");
-        SpacecraftPressureOverTime    press = new SpacecraftPressureOverTime();
-        press.setJourney_id(journeyId);
-        press.setSpacecraft_name(spacecraftName);
-        press.setPressure_unit("kPa");
-        SpacecraftSpeedOverTime       speed = new SpacecraftSpeedOverTime();temp.setJourney_id(journeyId);
-        speed.setJourney_id(journeyId);
-        speed.setSpacecraft_name(spacecraftName);
-        speed.setSpeed_unit("km/h");
+        Deque<CompletableFuture<Void>> inFlight = new ArrayDeque<>();
         Instant start = Instant.now();
+        double temperature = 69.3, pressure = 100.5, speed = 30000;
+        double x = 0, y = 0, z = 0;
         for (int i = 0; i < itemCount; i++) {
+            // New entities for each reading, previous ones may still be written
+            SpacecraftTemperatureOverTime temp = new SpacecraftTemperatureOverTime();
+            temp.setSpacecraft_name(spacecraftName);
+            temp.setJourney_id(journeyId);
+            temp.setTemperature_unit("fahrenheit");
             temp.setReading_time(start);
+            temp.setTemperature(temperature);
+            SpacecraftPressureOverTime press = new SpacecraftPressureOverTime();
+            press.setSpacecraft_name(spacecraftName);
+            press.setJourney_id(journeyId);
+            press.setPressure_unit("kPa");
             press.setReading_time(start);
-            speed.setReading_time(start);
-            
-            LocationUdt udt = new LocationUdt(0,0,0);
-            loc.setLocation(udt);
+            press.setPressure(pressure);
+            SpacecraftSpeedOverTime spd = new SpacecraftSpeedOverTime();
+            spd.setSpacecraft_name(spacecraftName);
+            spd.setJourney_id(journeyId);
+            spd.setSpeed_unit("km/h");
+            spd.setReading_time(start);
+            spd.setSpeed(speed);
+            SpacecraftLocationOverTime loc = new SpacecraftLocationOverTime();
+            loc.setSpacecraft_name(spacecraftName);
+            loc.setJourney_id(journeyId);
+            loc.setLocation_unit("km");
             loc.setReading_time(start);
-            temp.setTemperature(Double.valueOf(69.3));
-            press.setPressure(Double.valueOf(100.5));
-            speed.setSpeed(Double.valueOf(30000));
-            getSpaceCraftInstrumentsDao().insertInstruments(temp,press, speed, loc);
+            loc.setLocation(new LocationUdt(x, y, z));
+            while (!inFlight.isEmpty() && (inFlight.size() >= PRELOAD_MAX_IN_FLIGHT || inFlight.peek().isDone())) {
+                inFlight.poll().join();
+            }
+            while (true) {
+                try {
+                    inFlight.add(insertInstruments(temp, press, spd, loc).toCompletableFuture());
+                    break;
+                } catch (LimitExceededException lee) {
+                    if (inFlight.isEmpty()) {
+                        throw lee;
+                    }
+                    inFlight.poll().join();
+                }
+            }
             
             // Compute next value
             start = start.plusSeconds(1);
-            udt.setX_coordinate(udt.getX_coordinate()+1);
-            udt.setY_coordinate(udt.getY_coordinate()+1);
-            udt.setZ_coordinate(udt.getZ_coordinate()+5);
-            temp.setTemperature(createRandomValue(temp.getTemperature()));
-            press.setPressure(createRandomValue(press.getPressure()));
-            speed.setSpeed(createRandomValue(speed.getSpeed()));
+            x += 1;
+            y += 1;
+            z += 5;
+            temperature = createRandomValue(temperature);
+            pressure    = createRandomValue(pressure);
+            speed       = createRandomValue(speed);
         }
+        CompletableFuture.allOf(inFlight.toArray(new CompletableFuture<?>[0])).join();
+    }
+    
+    /**
+     * Load a file of historical readings into a journey.
+     * 
+     * Readings are written in bulk: no anomaly detection and no push to live subscribers.
+     *
+     * @param file
+     *      telemetry file (CSV or NDJSON)
+     * @param spacecraftName
+     *      name of spacecraft
+     * @param journeyId
+     *      journey identifier
+     * @return
+     *      report of the load
+     */
+    public BulkLoadReport bulkLoad(Path file, String spacecraftName, UUID journeyId) 
+    throws IOException, InterruptedException {
+        BulkLoadReport report = bulkLoader.load(getSpaceCraftInstrumentsDao(), file, spacecraftName, journeyId);
+        // Readings not seen by the index, it is rebuilt on next query
+        locationIndexCache.invalidate(journeyKey(spacecraftName, journeyId));
+        return report;
     }
     
     private double createRandomValue(double lastValue) {
@@ -103,11 +473,41 @@ public class ApolloService {
       }
     
     /**
-     * Find all spacecrafts in the catalog.
+     * Scan all spacecrafts in the catalog, token ranges are read concurrently.
+     *
+     * @param consumer
+     *      thread-safe consumer of journeys, invoked as pages arrive
+     * @return
+     *      number of journeys
      */
-    public List< SpacecraftJourneyCatalog > findAllSpacecrafts() {
-        // no paging we don't expect more than 5k journeys
-        return getSpaceCraftJourneyDao().findAll().all(); 
+    public long scanAllSpacecrafts(Consumer<SpacecraftJourneyCatalog> consumer) {
+        SpacecraftJourneyDao dao = getSpaceCraftJourneyDao();
+        return getTokenRangeScanner().scan(SpacecraftJourneyCatalog.TABLE_NAME, 
+                Arrays.asList(SpacecraftJourneyCatalog.COLUMN_SPACECRAFT_NAME), dao::asJourney, consumer);
+    }
+    
+    /**
+     * Scan readings of an instrument for the whole fleet (analytics), token ranges are read concurrently.
+     *
+     * @param instrument
+     *      instrument to scan (its table or the table of all instruments)
+     * @param consumer
+     *      thread-safe consumer of readings, invoked as pages arrive
+     * @return
+     *      number of readings
+     */
+    public long scanAllReadings(Instrument instrument, Consumer<AbstractInstrumentReading> consumer) {
+        SpacecraftInstrumentsDao dao = getSpaceCraftInstrumentsDao();
+        Function<Row, AbstractInstrumentReading> mapper;
+        switch(instrument) {
+            case TEMPERATURE: mapper = dao::asTemperatureReading; break;
+            case PRESSURE:    mapper = dao::asPressureReading;    break;
+            case SPEED:       mapper = dao::asSpeedReading;       break;
+            default:          mapper = dao::asLocationReading;    break;
+        }
+        return getTokenRangeScanner().scan(telemetryStorage.tableOf(instrument), 
+                Arrays.asList(AbstractInstrumentReading.COLUMN_SPACECRAFT_NAME, AbstractInstrumentReading.COLUMN_JOURNEY_ID), 
+                mapper, consumer);
     }
     
     /**
@@ -120,7 +520,8 @@ public class ApolloService {
      */
     public List < SpacecraftJourneyCatalog > findAllJourneysForSpacecraft(String spacecraftName) {
         // no paging we don't expect more than 5k journeys
-        return getSpaceCraftJourneyDao().findAllJourneysForSpacecraft(spacecraftName).all();
+        return journeyLists.execute(Arrays.asList(TenantContext.current(), spacecraftName), () -> 
+            getSpaceCraftJourneyDao().findAllJourneysForSpacecraft(spacecraftName, ExecutionProfile.INTERACTIVE).all());
     }
     
     /**
@@ -131,10 +532,124 @@ public class ApolloService {
      * @param journeyid
      *      journey unique identifier
      * @return
-     *      journey details if it exists
+     *      journey details with its summary if computed, if it exists
      */
     public Optional< SpacecraftJourneyCatalog > findJourneyById(String spacecraftName, UUID journeyId) {
-        return getSpaceCraftJourneyDao().findById(spacecraftName, journeyId);
+        return journeyDetails.execute(Arrays.asList(TenantContext.current(), spacecraftName, journeyId), () -> {
+            // Both single row reads are sent together
+            CompletableFuture<Optional<SpacecraftJourneySummary>> statistics = getSpaceCraftJourneyDao()
+                    .findSummaryById(spacecraftName, journeyId, ExecutionProfile.INTERACTIVE).toCompletableFuture();
+            Optional< SpacecraftJourneyCatalog > journey = readJourney(spacecraftName, journeyId);
+            journey.ifPresent(j -> j.setStatistics(statistics.join().orElse(null)));
+            return journey;
+        });
+    }
+    
+    private Optional< SpacecraftJourneyCatalog > readJourney(String spacecraftName, UUID journeyId) {
+        return journeyRows.execute(Arrays.asList(TenantContext.current(), spacecraftName, journeyId), () -> {
+            Optional< SpacecraftJourneyCatalog > journey = getSpaceCraftJourneyDao().findById(spacecraftName, journeyId, ExecutionProfile.INTERACTIVE);
+            journey.filter(j -> Boolean.FALSE.equals(j.getActive()))
+                   .ifPresent(j -> rememberCompleted(journeyKey(spacecraftName, journeyId)));
+            return journey;
+        });
+    }
+    
+    /**
+     * Tell if a journey is over (not active anymore), its readings will not change. Completion is
+     * kept once seen, the status of an active journey is kept briefly.
+     *
+     * @param spacecraftName
+     *      unique spacecraft name (PK)
+     * @param journeyId
+     *      journey unique identifier
+     * @return
+     *      if journey exists and is not active
+     */
+    public boolean isJourneyCompleted(String spacecraftName, UUID journeyId) {
+        JourneyKey journey = journeyKey(spacecraftName, journeyId);
+        synchronized (completedJourneys) {
+            if (completedJourneys.get(journey) != null) {
+                return true;
+            }
+        }
+        long now = System.currentTimeMillis();
+        Long expiresAt = activeJourneys.get(journey);
+        if (expiresAt != null && expiresAt > now) {
+            return false;
+        }
+        boolean completed = readJourney(spacecraftName, journeyId)
+                .map(j -> Boolean.FALSE.equals(j.getActive()))
+                .orElse(false);
+        if (!completed) {
+            if (activeJourneys.size() >= MAX_ACTIVE_JOURNEYS) {
+                activeJourneys.values().removeIf(e -> e <= now);
+            }
+            activeJourneys.put(journey, now + activeStatusTtlMillis);
+        }
+        return completed;
+    }
+    
+    private void rememberCompleted(JourneyKey journey) {
+        synchronized (completedJourneys) {
+            completedJourneys.put(journey, Boolean.TRUE);
+        }
+    }
+    
+    /**
+     * Mark a journey as completed, no more readings are expected.
+     *
+     * @param journey
+     *      active journey
+     */
+    public void completeJourney(SpacecraftJourneyCatalog journey) {
+        LOGGER.info("Completing journey {} for spacecraft {}", journey.getJourneyId(), journey.getName());
+        journey.setActive(false);
+        journey.setEnd(Instant.now());
+        getSpaceCraftJourneyDao().upsert(journey, ExecutionProfile.INGEST);
+        JourneyKey key = journeyKey(journey.getName(), journey.getJourneyId());
+        rememberCompleted(key);
+        activeJourneys.remove(key);
+        anomalyDetector.release(key);
+        liveStream.close(key);
+        summarizer.schedule(key, 
+                TenantContext.wrap(() -> computeJourneySummary(journey.getName(), journey.getJourneyId())));
+    }
+    
+    /**
+     * Compute figures of a journey in a single pass over its readings and save them.
+     *
+     * @param spacecraftName
+     *      unique spacecraft name (PK)
+     * @param journeyId
+     *      journey unique identifier
+     * @return
+     *      summary saved in table spacecraft_journey_summary
+     */
+    public SpacecraftJourneySummary computeJourneySummary(String spacecraftName, UUID journeyId) {
+        SpacecraftInstrumentsDao dao = getSpaceCraftInstrumentsDao();
+        JourneySummaryAccumulator accumulator = new JourneySummaryAccumulator();
+        for (SpacecraftTemperatureOverTime r : dao.getTemperatureReading(spacecraftName, journeyId, Optional.empty(), Optional.empty(), ExecutionProfile.EXPORT)) {
+            accumulator.temperature(r.getReading_time(), r.getTemperature(), r.getTemperature_unit());
+        }
+        for (SpacecraftPressureOverTime r : dao.getPressureReading(spacecraftName, journeyId, Optional.empty(), Optional.empty(), ExecutionProfile.EXPORT)) {
+            accumulator.pressure(r.getReading_time());
+        }
+        for (SpacecraftSpeedOverTime r : dao.getSpeedReading(spacecraftName, journeyId, Optional.empty(), Optional.empty(), ExecutionProfile.EXPORT)) {
+            accumulator.speed(r.getReading_time(), r.getSpeed(), r.getSpeed_unit());
+        }
+        for (SpacecraftLocationOverTime r : dao.getLocationReading(spacecraftName, journeyId, Optional.empty(), Optional.empty(), ExecutionProfile.EXPORT)) {
+            accumulator.location(r.getReading_time(), r.getLocation(), r.getLocation_unit());
+        }
+        SpacecraftJourneySummary summary = accumulator.toSummary(spacecraftName, journeyId);
+        getSpaceCraftJourneyDao().upsertSummary(summary, ExecutionProfile.INGEST);
+        return summary;
+    }
+    
+    /**
+     * Journey in the database of the current tenant, journeys of two keyspaces can share identifiers.
+     */
+    private JourneyKey journeyKey(String spacecraftName, UUID journeyId) {
+        return JourneyKey.of(spacecraftName, journeyId);
     }
     
     /**
@@ -155,9 +670,9 @@ public class ApolloService {
         dto.setSummary(summary);
         dto.setStart(Instant.now());
         dto.setEnd(Instant.now().plus(1000, ChronoUnit.MINUTES));
-        dto.setActive(false);
+        dto.setActive(true);
         dto.setJourneyId(journeyUid);
-        getSpaceCraftJourneyDao().upsert(dto);
+        getSpaceCraftJourneyDao().upsert(dto, ExecutionProfile.INGEST);
         return journeyUid;
     }
     
@@ -172,16 +687,37 @@ public class ApolloService {
      *      page size
      * @param pageState
      *      page state
+     * @param pagingMode
+     *      opaque driver paging state or seek on reading time
      * @return
      *      result page
      */
     public PagedResultWrapper<SpacecraftTemperatureOverTime> getTemperatureReading(
             String spacecraftName, UUID journeyId, 
-            Optional<Integer> pageSize, Optional<String> pageState) {
-        PagingIterable<SpacecraftTemperatureOverTime> daoResult = 
-                getSpaceCraftInstrumentsDao().getTemperatureReading(spacecraftName, journeyId, pageSize, pageState);
-        return new PagedResultWrapper<SpacecraftTemperatureOverTime>(daoResult, 
-                pageSize.isPresent() ? pageSize.get() : 0);
+            Optional<Integer> pageSize, Optional<String> pageState, PagingMode pagingMode) {
+        Optional<JourneySnapshot> snapshot = findSnapshot(spacecraftName, journeyId);
+        if (PagingMode.SEEK == pagingMode) {
+            int limit = pageSize.orElse(DEFAULT_SEEK_PAGE_SIZE);
+            Instant before = decodeSeekCursor(pageState);
+            if (snapshot.isPresent()) {
+                return seekSnapshot(spacecraftName, journeyId, snapshot.get(), Instrument.TEMPERATURE, limit, before, 
+                        i -> {
+                            SpacecraftTemperatureOverTime r = new SpacecraftTemperatureOverTime();
+                            r.setTemperature(nullable(snapshot.get().value(Instrument.TEMPERATURE, 0, i)));
+                            r.setTemperature_unit(snapshot.get().unit(Instrument.TEMPERATURE));
+                            return r;
+                        });
+            }
+            return coalescePage(Instrument.TEMPERATURE, spacecraftName, journeyId, pageSize, pageState, pagingMode, 
+                    () -> seekPage(getSpaceCraftInstrumentsDao().getTemperatureReadingBefore(
+                            spacecraftName, journeyId, limit, before), limit));
+        }
+        return coalescePage(Instrument.TEMPERATURE, spacecraftName, journeyId, pageSize, pageState, pagingMode, () -> {
+            PagingIterable<SpacecraftTemperatureOverTime> daoResult = 
+                    getSpaceCraftInstrumentsDao().getTemperatureReading(spacecraftName, journeyId, pageSize, pageState, ExecutionProfile.INTERACTIVE);
+            return new PagedResultWrapper<SpacecraftTemperatureOverTime>(daoResult, 
+                    pageSize.isPresent() ? pageSize.get() : 0);
+        });
     }
     
     /**
@@ -195,16 +731,37 @@ public class ApolloService {
      *      page size
      * @param pageState
      *      page state
+     * @param pagingMode
+     *      opaque driver paging state or seek on reading time
      * @return
      *      result page
      */
     public PagedResultWrapper<SpacecraftPressureOverTime> getPressureReading(
             String spacecraftName, UUID journeyId, 
-            Optional<Integer> pageSize, Optional<String> pageState) {
-        PagingIterable<SpacecraftPressureOverTime> daoResult = 
-                getSpaceCraftInstrumentsDao().getPressureReading(spacecraftName, journeyId, pageSize, pageState);
-        return new PagedResultWrapper<SpacecraftPressureOverTime>(daoResult, 
-                pageSize.isPresent() ? pageSize.get() : 0);
+            Optional<Integer> pageSize, Optional<String> pageState, PagingMode pagingMode) {
+        Optional<JourneySnapshot> snapshot = findSnapshot(spacecraftName, journeyId);
+        if (PagingMode.SEEK == pagingMode) {
+            int limit = pageSize.orElse(DEFAULT_SEEK_PAGE_SIZE);
+            Instant before = decodeSeekCursor(pageState);
+            if (snapshot.isPresent()) {
+                return seekSnapshot(spacecraftName, journeyId, snapshot.get(), Instrument.PRESSURE, limit, before, 
+                        i -> {
+                            SpacecraftPressureOverTime r = new SpacecraftPressureOverTime();
+                            r.setPressure(nullable(snapshot.get().value(Instrument.PRESSURE, 0, i)));
+                            r.setPressure_unit(snapshot.get().unit(Instrument.PRESSURE));
+                            return r;
+                        });
+            }
+            return coalescePage(Instrument.PRESSURE, spacecraftName, journeyId, pageSize, pageState, pagingMode, 
+                    () -> seekPage(getSpaceCraftInstrumentsDao().getPressureReadingBefore(
+                            spacecraftName, journeyId, limit, before), limit));
+        }
+        return coalescePage(Instrument.PRESSURE, spacecraftName, journeyId, pageSize, pageState, pagingMode, () -> {
+            PagingIterable<SpacecraftPressureOverTime> daoResult = 
+                    getSpaceCraftInstrumentsDao().getPressureReading(spacecraftName, journeyId, pageSize, pageState, ExecutionProfile.INTERACTIVE);
+            return new PagedResultWrapper<SpacecraftPressureOverTime>(daoResult, 
+                    pageSize.isPresent() ? pageSize.get() : 0);
+        });
     }
     
     /**
@@ -218,16 +775,37 @@ public class ApolloService {
      *      page size
      * @param pageState
      *      page state
+     * @param pagingMode
+     *      opaque driver paging state or seek on reading time
      * @return
      *      result page
      */
     public PagedResultWrapper<SpacecraftSpeedOverTime> getSpeedReading(
             String spacecraftName, UUID journeyId, 
-            Optional<Integer> pageSize, Optional<String> pageState) {
-        PagingIterable<SpacecraftSpeedOverTime> daoResult = 
-                getSpaceCraftInstrumentsDao().getSpeedReading(spacecraftName, journeyId, pageSize, pageState);
-        return new PagedResultWrapper<SpacecraftSpeedOverTime>(daoResult, 
-                pageSize.isPresent() ? pageSize.get() : 0);
+            Optional<Integer> pageSize, Optional<String> pageState, PagingMode pagingMode) {
+        Optional<JourneySnapshot> snapshot = findSnapshot(spacecraftName, journeyId);
+        if (PagingMode.SEEK == pagingMode) {
+            int limit = pageSize.orElse(DEFAULT_SEEK_PAGE_SIZE);
+            Instant before = decodeSeekCursor(pageState);
+            if (snapshot.isPresent()) {
+                return seekSnapshot(spacecraftName, journeyId, snapshot.get(), Instrument.SPEED, limit, before, 
+                        i -> {
+                            SpacecraftSpeedOverTime r = new SpacecraftSpeedOverTime();
+                            r.setSpeed(nullable(snapshot.get().value(Instrument.SPEED, 0, i)));
+                            r.setSpeed_unit(snapshot.get().unit(Instrument.SPEED));
+                            return r;
+                        });
+            }
+            return coalescePage(Instrument.SPEED, spacecraftName, journeyId, pageSize, pageState, pagingMode, 
+                    () -> seekPage(getSpaceCraftInstrumentsDao().getSpeedReadingBefore(
+                            spacecraftName, journeyId, limit, before), limit));
+        }
+        return coalescePage(Instrument.SPEED, spacecraftName, journeyId, pageSize, pageState, pagingMode, () -> {
+            PagingIterable<SpacecraftSpeedOverTime> daoResult = 
+                    getSpaceCraftInstrumentsDao().getSpeedReading(spacecraftName, journeyId, pageSize, pageState, ExecutionProfile.INTERACTIVE);
+            return new PagedResultWrapper<SpacecraftSpeedOverTime>(daoResult, 
+                    pageSize.isPresent() ? pageSize.get() : 0);
+        });
     }
     
     /**
@@ -241,34 +819,659 @@ public class ApolloService {
      *      page size
      * @param pageState
      *      page state
+     * @param pagingMode
+     *      opaque driver paging state or seek on reading time
      * @return
      *      result page
      */
     public PagedResultWrapper<SpacecraftLocationOverTime> getLocationReading(
             String spacecraftName, UUID journeyId, 
-            Optional<Integer> pageSize, Optional<String> pageState) {
-        PagingIterable<SpacecraftLocationOverTime> daoResult = 
-                getSpaceCraftInstrumentsDao().getLocationReading(spacecraftName, journeyId, pageSize, pageState);
-        return new PagedResultWrapper<SpacecraftLocationOverTime>(daoResult, 
-                pageSize.isPresent() ? pageSize.get() : 0);
+            Optional<Integer> pageSize, Optional<String> pageState, PagingMode pagingMode) {
+        Optional<JourneySnapshot> snapshot = findSnapshot(spacecraftName, journeyId);
+        if (PagingMode.SEEK == pagingMode) {
+            int limit = pageSize.orElse(DEFAULT_SEEK_PAGE_SIZE);
+            Instant before = decodeSeekCursor(pageState);
+            if (snapshot.isPresent()) {
+                return seekSnapshot(spacecraftName, journeyId, snapshot.get(), Instrument.LOCATION, limit, before, 
+                        i -> {
+                            SpacecraftLocationOverTime r = new SpacecraftLocationOverTime();
+                            r.setLocation(new LocationUdt(
+                                    snapshot.get().value(Instrument.LOCATION, 0, i),
+                                    snapshot.get().value(Instrument.LOCATION, 1, i),
+                                    snapshot.get().value(Instrument.LOCATION, 2, i)));
+                            r.setLocation_unit(snapshot.get().unit(Instrument.LOCATION));
+                            return r;
+                        });
+            }
+            return coalescePage(Instrument.LOCATION, spacecraftName, journeyId, pageSize, pageState, pagingMode, 
+                    () -> seekPage(getSpaceCraftInstrumentsDao().getLocationReadingBefore(
+                            spacecraftName, journeyId, limit, before), limit));
+        }
+        return coalescePage(Instrument.LOCATION, spacecraftName, journeyId, pageSize, pageState, pagingMode, () -> {
+            PagingIterable<SpacecraftLocationOverTime> daoResult = 
+                    getSpaceCraftInstrumentsDao().getLocationReading(spacecraftName, journeyId, pageSize, pageState, ExecutionProfile.INTERACTIVE);
+            return new PagedResultWrapper<SpacecraftLocationOverTime>(daoResult, 
+                    pageSize.isPresent() ? pageSize.get() : 0);
+        });
+    }
+    
+    /**
+     * Identical page requests in flight share a single query. A caller alone streams the rows to its
+     * response; when other callers joined the page is read once and each gets its own wrapper over
+     * the same rows.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> PagedResultWrapper<T> coalescePage(Instrument instrument, String spacecraftName, UUID journeyId,
+            Optional<Integer> pageSize, Optional<String> pageState, PagingMode pagingMode, Supplier<PagedResultWrapper<T>> query) {
+        List<Object> key = Arrays.asList(TenantContext.current(), instrument, spacecraftName, journeyId, 
+                pageSize.orElse(null), pageState.orElse(null), pagingMode);
+        AtomicReference<PagedResultWrapper<T>> own = new AtomicReference<>();
+        PagedResultWrapper<T> page = (PagedResultWrapper<T>) readingPages.execute(key, () -> {
+            own.set(query.get());
+            return own.get();
+        }, ApolloService::readFully);
+        if (page == own.get()) {
+            // Query run for this caller only, rows are still streamed
+            return page;
+        }
+        return readFully(page);
+    }
+    
+    /**
+     * Read all rows of a page, the new wrapper can be read by several callers.
+     */
+    private static <T> PagedResultWrapper<T> readFully(PagedResultWrapper<T> rows) {
+        return new PagedResultWrapper<T>(rows.getData(), rows.getPageSize(), rows.getPageState());
+    }
+    
+    /**
+     * Statistics of identical reads sharing a query.
+     *
+     * @return
+     *      one entry per kind of read
+     */
+    public List<SingleFlight<?, ?>> getCoalescingMetrics() {
+        return Arrays.asList(readingPages, journeyDetails, journeyRows, journeyLists);
+    }
+    
+    /**
+     * Build a page in seek mode from a bounded query, rows are mapped while the response is written.
+     */
+    private <T extends AbstractInstrumentReading> PagedResultWrapper<T> seekPage(PagingIterable<T> rows, int limit) {
+        return new PagedResultWrapper<T>(rows, limit, r -> String.valueOf(r.getReading_time().toEpochMilli()));
     }
     
-    protected synchronized SpacecraftJourneyDao getSpaceCraftJourneyDao() {
-        if (spacecraftJourneyDao == null) {
-            CqlSession cqlSession   = SessionManager.getInstance().connectToApollo();
-            SpacecraftMapper mapper = new SpacecraftMapperBuilder(cqlSession).build();
-            this.spacecraftJourneyDao = mapper.spacecraftJourneyDao(cqlSession.getKeyspace().get());
+    /**
+     * Build a page in seek mode, the cursor is only provided when the page is full.
+     */
+    private <T extends AbstractInstrumentReading> PagedResultWrapper<T> seekPage(List<T> data, int limit) {
+        Optional<String> nextCursor = Optional.empty();
+        if (data.size() == limit) {
+            nextCursor = Optional.of(String.valueOf(data.get(limit - 1).getReading_time().toEpochMilli()));
         }
-        return spacecraftJourneyDao;
+        return new PagedResultWrapper<T>(data, limit, nextCursor);
     }
     
-    protected synchronized SpacecraftInstrumentsDao getSpaceCraftInstrumentsDao() {
-        if (spacecraftInstrumentsDao == null) {
-            CqlSession cqlSession   = SessionManager.getInstance().connectToApollo();
-            SpacecraftMapper mapper = new SpacecraftMapperBuilder(cqlSession).build();
-            this.spacecraftInstrumentsDao = mapper.spacecraftInstrumentsDao(cqlSession.getKeyspace().get());
+    /**
+     * Build a page in seek mode from the local snapshot of a completed journey.
+     */
+    private <T extends AbstractInstrumentReading> PagedResultWrapper<T> seekSnapshot(
+            String spacecraftName, UUID journeyId, JourneySnapshot snapshot, Instrument instrument, 
+            int limit, Instant before, IntFunction<T> reading) {
+        int from = snapshot.indexBefore(instrument, before.toEpochMilli());
+        int to   = Math.min(from + limit, snapshot.size(instrument));
+        List<T> data = new ArrayList<>(Math.max(0, to - from));
+        for (int i = from; i < to; i++) {
+            T r = reading.apply(i);
+            r.setSpacecraft_name(spacecraftName);
+            r.setJourney_id(journeyId);
+            r.setReading_time(Instant.ofEpochMilli(snapshot.readingTime(instrument, i)));
+            data.add(r);
         }
-        return spacecraftInstrumentsDao;
+        return seekPage(data, limit);
+    }
+    
+    /**
+     * Downsample temperature readings of a journey (LTTB).
+     *
+     * @param spacecraftName
+     *      name of spacecraft
+     * @param journeyId
+     *      journey identifier
+     * @param targetPoints
+     *      number of readings expected
+     * @return
+     *      downsampled readings, most recent first
+     */
+    public PagedResultWrapper<SpacecraftTemperatureOverTime> getTemperatureReadingDownsampled(
+            String spacecraftName, UUID journeyId, int targetPoints) {
+        return downsample(spacecraftName, journeyId, Instrument.TEMPERATURE, targetPoints, (value, unit) -> {
+            SpacecraftTemperatureOverTime r = new SpacecraftTemperatureOverTime();
+            r.setTemperature(value);
+            r.setTemperature_unit(unit);
+            return r;
+        });
+    }
+    
+    /**
+     * Downsample pressure readings of a journey (LTTB).
+     *
+     * @param spacecraftName
+     *      name of spacecraft
+     * @param journeyId
+     *      journey identifier
+     * @param targetPoints
+     *      number of readings expected
+     * @return
+     *      downsampled readings, most recent first
+     */
+    public PagedResultWrapper<SpacecraftPressureOverTime> getPressureReadingDownsampled(
+            String spacecraftName, UUID journeyId, int targetPoints) {
+        return downsample(spacecraftName, journeyId, Instrument.PRESSURE, targetPoints, (value, unit) -> {
+            SpacecraftPressureOverTime r = new SpacecraftPressureOverTime();
+            r.setPressure(value);
+            r.setPressure_unit(unit);
+            return r;
+        });
+    }
+    
+    /**
+     * Downsample speed readings of a journey (LTTB).
+     *
+     * @param spacecraftName
+     *      name of spacecraft
+     * @param journeyId
+     *      journey identifier
+     * @param targetPoints
+     *      number of readings expected
+     * @return
+     *      downsampled readings, most recent first
+     */
+    public PagedResultWrapper<SpacecraftSpeedOverTime> getSpeedReadingDownsampled(
+            String spacecraftName, UUID journeyId, int targetPoints) {
+        return downsample(spacecraftName, journeyId, Instrument.SPEED, targetPoints, (value, unit) -> {
+            SpacecraftSpeedOverTime r = new SpacecraftSpeedOverTime();
+            r.setSpeed(value);
+            r.setSpeed_unit(unit);
+            return r;
+        });
+    }
+    
+    private <T extends AbstractInstrumentReading> PagedResultWrapper<T> downsample(
+            String spacecraftName, UUID journeyId, Instrument instrument, int targetPoints, 
+            BiFunction<Double, String, T> reading) {
+        if (targetPoints < 3) {
+            throw new IllegalArgumentException("targetPoints should be at least 3");
+        }
+        ReadingColumns columns = readScalarColumns(spacecraftName, journeyId, instrument);
+        int[] selected = Lttb.select(columns, targetPoints);
+        List<T> data   = new ArrayList<>(selected.length);
+        for (int idx : selected) {
+            T r = reading.apply(columns.value(0, idx), columns.getUnit());
+            r.setSpacecraft_name(spacecraftName);
+            r.setJourney_id(journeyId);
+            r.setReading_time(Instant.ofEpochMilli(columns.time(idx)));
+            data.add(r);
+        }
+        return new PagedResultWrapper<T>(data, targetPoints, Optional.empty());
+    }
+    
+    /**
+     * Read all values of a scalar instrument for a journey, missing values are skipped.
+     */
+    private ReadingColumns readScalarColumns(String spacecraftName, UUID journeyId, Instrument instrument) {
+        return readScalarColumns(spacecraftName, journeyId, instrument, NOT_CANCELLED);
+    }
+    
+    /**
+     * Read all values of a scalar instrument for a journey, stop reading pages once cancelled.
+     */
+    private ReadingColumns readScalarColumns(String spacecraftName, UUID journeyId, Instrument instrument, 
+            BooleanSupplier cancelled) {
+        // Missing values are skipped while reading, the journey is held once
+        Optional<JourneySnapshot> snapshot = findSnapshot(spacecraftName, journeyId);
+        if (snapshot.isPresent()) {
+            JourneySnapshot journey = snapshot.get();
+            ReadingColumns present = new ReadingColumns(1, journey.size(instrument));
+            present.setUnit(journey.unit(instrument));
+            for (int i = 0; i < journey.size(instrument); i++) {
+                double value = journey.value(instrument, 0, i);
+                if (!Double.isNaN(value)) {
+                    present.add(journey.readingTime(instrument, i), value);
+                }
+            }
+            return present;
+        }
+        SpacecraftInstrumentsDao dao = getSpaceCraftInstrumentsDao();
+        switch(instrument) {
+            case TEMPERATURE:
+                return scalarColumns(dao.getTemperatureReading(spacecraftName, journeyId, Optional.empty(), Optional.empty(), ExecutionProfile.EXPORT),
+                        SpacecraftTemperatureOverTime::getTemperature, SpacecraftTemperatureOverTime::getTemperature_unit, true, cancelled);
+            case PRESSURE:
+                return scalarColumns(dao.getPressureReading(spacecraftName, journeyId, Optional.empty(), Optional.empty(), ExecutionProfile.EXPORT),
+                        SpacecraftPressureOverTime::getPressure, SpacecraftPressureOverTime::getPressure_unit, true, cancelled);
+            case SPEED:
+                return scalarColumns(dao.getSpeedReading(spacecraftName, journeyId, Optional.empty(), Optional.empty(), ExecutionProfile.EXPORT),
+                        SpacecraftSpeedOverTime::getSpeed, SpacecraftSpeedOverTime::getSpeed_unit, true, cancelled);
+            default:
+                throw new IllegalArgumentException("Instrument " + instrument + " is not a scalar");
+        }
+    }
+    
+    /**
+     * Join readings of the four instruments of a journey, one row per reading time, most recent first.
+     *
+     * @param spacecraftName
+     *      name of spacecrafr
+     * @param journeyId
+     *      journey identifier
+     * @param alignment
+     *      filling of instruments without a reading at a reading time
+     * @param toleranceMillis
+     *      max distance to a reading used to fill a reading time, unbounded if not provided
+     * @return
+     *      rows, fetched page after page as they are consumed
+     */
+    public Iterator<JoinedReadings> joinReadings(String spacecraftName, UUID journeyId, 
+            JoinAlignment alignment, Optional<Long> toleranceMillis) {
+        SpacecraftInstrumentsDao dao = getSpaceCraftInstrumentsDao();
+        // The four partitions are paged concurrently
+        return new InstrumentMergeJoin(
+                new AsyncPagingIterator<>(dao.getTemperatureReadingAsync(spacecraftName, journeyId, ExecutionProfile.EXPORT)),
+                new AsyncPagingIterator<>(dao.getPressureReadingAsync(spacecraftName, journeyId, ExecutionProfile.EXPORT)),
+                new AsyncPagingIterator<>(dao.getSpeedReadingAsync(spacecraftName, journeyId, ExecutionProfile.EXPORT)),
+                new AsyncPagingIterator<>(dao.getLocationReadingAsync(spacecraftName, journeyId, ExecutionProfile.EXPORT)),
+                alignment, toleranceMillis.orElse(Long.MAX_VALUE));
+    }
+    
+    /**
+     * Export all readings of an instrument as an Arrow IPC stream, most recent first. Readings are
+     * streamed from the database, the snapshot tier is not used.
+     *
+     * @param spacecraftName
+     *      name of spacecraft
+     * @param journeyId
+     *      journey identifier
+     * @param instrument
+     *      exported instrument
+     * @param out
+     *      target stream
+     */
+    public void exportReadingsAsArrow(String spacecraftName, UUID journeyId, Instrument instrument, OutputStream out) 
+    throws IOException {
+        arrowWriter.writeInstrument(spacecraftName, journeyId, instrument, getSpaceCraftInstrumentsDao()
+                .getReadingRowsAsync(spacecraftName, journeyId, instrument, ExecutionProfile.EXPORT), out);
+    }
+    
+    /**
+     * Export readings of all instruments joined on reading time as an Arrow IPC stream, most recent first.
+     * Readings are streamed from the database, the snapshot tier is not used.
+     *
+     * @param spacecraftName
+     *      name of spacecraft
+     * @param journeyId
+     *      journey identifier
+     * @param alignment
+     *      how instruments without reading at a timestamp are filled
+     * @param toleranceMillis
+     *      max distance to a reading used to fill a timestamp
+     * @param out
+     *      target stream
+     */
+    public void exportJoinedReadingsAsArrow(String spacecraftName, UUID journeyId, 
+            JoinAlignment alignment, Optional<Long> toleranceMillis, OutputStream out) throws IOException {
+        arrowWriter.writeJoined(spacecraftName, journeyId, 
+                joinReadings(spacecraftName, journeyId, alignment, toleranceMillis), out);
+    }
+    
+    /**
+     * Compare an instrument over several journeys, aligned on time elapsed since their first reading.
+     *
+     * @param journeys
+     *      journeys to compare
+     * @param instrument
+     *      instrument to compare
+     * @param stepMillis
+     *      step of the common grid, computed from the longest journey if not provided
+     * @param maxPoints
+     *      max number of grid points
+     * @return
+     *      series resampled on the grid
+     */
+    public JourneyComparison compareJourneys(List<JourneyReference> journeys, Instrument instrument, 
+            Optional<Long> stepMillis, int maxPoints) {
+        if (journeys.isEmpty() || journeys.size() > MAX_COMPARED_JOURNEYS) {
+            throw new IllegalArgumentException("Expecting 1 to " + MAX_COMPARED_JOURNEYS + " journeys");
+        }
+        if (maxPoints < 2 || (stepMillis.isPresent() && stepMillis.get() < 1)) {
+            throw new IllegalArgumentException("Expecting maxPoints >= 2 and stepMillis >= 1");
+        }
+        // Fetches run concurrently, total time is about the slowest one
+        AtomicBoolean cancelled = new AtomicBoolean();
+        List<CompletableFuture<ReadingColumns>> fetches = new ArrayList<>(journeys.size());
+        for (JourneyReference journey : journeys) {
+            fetches.add(CompletableFuture.supplyAsync(TenantContext.wrap(() -> Instrument.LOCATION == instrument 
+                    ? loadLocationColumns(journey.getSpacecraftName(), journey.getJourneyId(), cancelled::get)
+                    : readScalarColumns(journey.getSpacecraftName(), journey.getJourneyId(), instrument, cancelled::get)), 
+                compareExecutor));
+        }
+        List<ReadingColumns> series = new ArrayList<>(journeys.size());
+        try {
+            for (CompletableFuture<ReadingColumns> fetch : fetches) {
+                series.add(fetch.join());
+            }
+        } catch(CompletionException ce) {
+            // Other fetches stop at their next row, before fetching more pages
+            cancelled.set(true);
+            throw ce.getCause() instanceof RuntimeException ? (RuntimeException) ce.getCause() : ce;
+        }
+        long maxDuration = 0;
+        for (ReadingColumns columns : series) {
+            if (columns.size() > 0) {
+                maxDuration = Math.max(maxDuration, Math.abs(columns.time(0) - columns.time(columns.size() - 1)));
+            }
+        }
+        long step = stepMillis.orElse(Math.max(1, (maxDuration + maxPoints - 2) / (maxPoints - 1)));
+        long points = maxDuration / step + 1;
+        if (points > maxPoints) {
+            throw new IllegalArgumentException("stepMillis=" + step + " would produce " + points 
+                    + " points, more than maxPoints=" + maxPoints);
+        }
+        long[] grid = new long[(int) points];
+        for (int p = 0; p < grid.length; p++) {
+            grid[p] = p * step;
+        }
+        JourneyComparison comparison = new JourneyComparison(instrument, step, grid);
+        for (int i = 0; i < journeys.size(); i++) {
+            ReadingColumns columns = series.get(i);
+            double[][] resampled = Resampler.resample(columns, step, grid.length);
+            Double[][] values = new Double[resampled.length][grid.length];
+            for (int d = 0; d < resampled.length; d++) {
+                for (int p = 0; p < grid.length; p++) {
+                    values[d][p] = nullable(resampled[d][p]);
+                }
+            }
+            Instant start = columns.size() == 0 ? null : 
+                Instant.ofEpochMilli(Math.min(columns.time(0), columns.time(columns.size() - 1)));
+            comparison.getSeries().add(new JourneyComparison.Series(journeys.get(i).getSpacecraftName(), 
+                    journeys.get(i).getJourneyId(), start, columns.getUnit(), values));
+        }
+        return comparison;
+    }
+    
+    /**
+     * Local snapshot of a completed journey, its creation is triggered by the first read.
+     *
+     * @param spacecraftName
+     *      unique spacecraft name (PK)
+     * @param journeyId
+     *      journey unique identifier
+     * @return
+     *      snapshot if available
+     */
+    public Optional<JourneySnapshot> findSnapshot(String spacecraftName, UUID journeyId) {
+        if (!isJourneyCompleted(spacecraftName, journeyId)) {
+            return Optional.empty();
+        }
+        JourneyKey journey = journeyKey(spacecraftName, journeyId);
+        Optional<JourneySnapshot> snapshot = snapshotStore.find(journey);
+        if (!snapshot.isPresent()) {
+            snapshotStore.scheduleSnapshot(journey, 
+                    TenantContext.wrap(() -> loadJourneyColumns(spacecraftName, journeyId)));
+        }
+        return snapshot;
+    }
+    
+    /**
+     * Location reading closest to a point.
+     *
+     * @param spacecraftName
+     *      unique spacecraft name (PK)
+     * @param journeyId
+     *      journey unique identifier
+     * @param x
+     *      x coordinate
+     * @param y
+     *      y coordinate
+     * @param z
+     *      z coordinate
+     * @return
+     *      closest reading if the journey has readings
+     */
+    public Optional<SpacecraftLocationOverTime> findNearestLocation(
+            String spacecraftName, UUID journeyId, double x, double y, double z) {
+        JourneyLocationIndex index = getLocationIndex(spacecraftName, journeyId);
+        return Optional.ofNullable(index.nearest(x, y, z))
+                       .map(p -> toLocationReading(spacecraftName, journeyId, index.getUnit(), p));
+    }
+    
+    /**
+     * Location readings inside a box, bounds included.
+     *
+     * @param spacecraftName
+     *      unique spacecraft name (PK)
+     * @param journeyId
+     *      journey unique identifier
+     * @param min
+     *      lower corner { x, y, z }
+     * @param max
+     *      upper corner { x, y, z }
+     * @param limit
+     *      max number of readings
+     * @return
+     *      readings sorted by reading time DESC
+     */
+    public List<SpacecraftLocationOverTime> findLocationsWithin(
+            String spacecraftName, UUID journeyId, double[] min, double[] max, int limit) {
+        JourneyLocationIndex index = getLocationIndex(spacecraftName, journeyId);
+        // Index ranks all matches by time, the limit keeps the most recent ones
+        return index.within(min, max, limit).stream()
+                    .map(p -> toLocationReading(spacecraftName, journeyId, index.getUnit(), p))
+                    .collect(Collectors.toList());
+    }
+    
+    private JourneyLocationIndex getLocationIndex(String spacecraftName, UUID journeyId) {
+        return locationIndexCache.get(journeyKey(spacecraftName, journeyId), 
+                () -> loadLocationColumns(spacecraftName, journeyId));
+    }
+    
+    /**
+     * Simplified trajectory of a journey (3D Douglas-Peucker), cached for completed journeys.
+     *
+     * @param spacecraftName
+     *      name of spacecraft
+     * @param journeyId
+     *      journey identifier
+     * @param tolerance
+     *      max distance to the original trajectory, in the unit of locations
+     * @return
+     *      readings kept, most recent first
+     */
+    public PagedResultWrapper<SpacecraftLocationOverTime> getLocationReadingSimplified(
+            String spacecraftName, UUID journeyId, double tolerance) {
+        if (tolerance < 0 || Double.isNaN(tolerance)) {
+            throw new IllegalArgumentException("tolerance should be a positive number");
+        }
+        Supplier<ReadingColumns> simplifier = () -> {
+            ReadingColumns all = loadLocationColumns(spacecraftName, journeyId);
+            ReadingColumns present = new ReadingColumns(3, all.size());
+            for (int i = 0; i < all.size(); i++) {
+                if (!Double.isNaN(all.value(0, i)) && !Double.isNaN(all.value(1, i)) && !Double.isNaN(all.value(2, i))) {
+                    present.add(all.time(i), all.value(0, i), all.value(1, i), all.value(2, i));
+                }
+            }
+            int[] selected = DouglasPeucker.simplify(present, tolerance);
+            ReadingColumns trajectory = new ReadingColumns(3, selected.length);
+            trajectory.setUnit(all.getUnit());
+            for (int idx : selected) {
+                trajectory.add(present.time(idx), present.value(0, idx), present.value(1, idx), present.value(2, idx));
+            }
+            return trajectory;
+        };
+        ReadingColumns trajectory = isJourneyCompleted(spacecraftName, journeyId) ?
+                trajectoryCache.get(journeyKey(spacecraftName, journeyId), tolerance, simplifier) : simplifier.get();
+        List<SpacecraftLocationOverTime> data = new ArrayList<>(trajectory.size());
+        for (int i = 0; i < trajectory.size(); i++) {
+            data.add(toLocationReading(spacecraftName, journeyId, trajectory.getUnit(), new double[] { 
+                    trajectory.time(i), trajectory.value(0, i), trajectory.value(1, i), trajectory.value(2, i) }));
+        }
+        return new PagedResultWrapper<SpacecraftLocationOverTime>(data, data.size(), Optional.empty());
+    }
+    
+    /**
+     * Location readings of a journey, from the local snapshot when available.
+     */
+    private ReadingColumns loadLocationColumns(String spacecraftName, UUID journeyId) {
+        return loadLocationColumns(spacecraftName, journeyId, NOT_CANCELLED);
+    }
+    
+    private ReadingColumns loadLocationColumns(String spacecraftName, UUID journeyId, BooleanSupplier cancelled) {
+        Optional<JourneySnapshot> snapshot = findSnapshot(spacecraftName, journeyId);
+        if (!snapshot.isPresent()) {
+            return readLocationColumns(spacecraftName, journeyId, cancelled);
+        }
+        return snapshot.get().columns(Instrument.LOCATION);
+    }
+    
+    private SpacecraftLocationOverTime toLocationReading(String spacecraftName, UUID journeyId, String unit, double[] point) {
+        SpacecraftLocationOverTime reading = new SpacecraftLocationOverTime();
+        reading.setSpacecraft_name(spacecraftName);
+        reading.setJourney_id(journeyId);
+        reading.setReading_time(Instant.ofEpochMilli((long) point[0]));
+        reading.setLocation(new LocationUdt(point[1], point[2], point[3]));
+        reading.setLocation_unit(unit);
+        return reading;
+    }
+    
+    /**
+     * Open the snapshot file of a completed journey, to be streamed as is.
+     *
+     * @param spacecraftName
+     *      unique spacecraft name (PK)
+     * @param journeyId
+     *      journey unique identifier
+     * @return
+     *      open file if available, to be closed by the caller
+     */
+    public Optional<FileChannel> openSnapshotFile(String spacecraftName, UUID journeyId) throws IOException {
+        if (!findSnapshot(spacecraftName, journeyId).isPresent()) {
+            return Optional.empty();
+        }
+        return snapshotStore.openFile(journeyKey(spacecraftName, journeyId));
+    }
+    
+    /**
+     * Read the four series of a journey as primitive columns, whole partitions are read.
+     *
+     * @param spacecraftName
+     *      unique spacecraft name (PK)
+     * @param journeyId
+     *      journey unique identifier
+     * @return
+     *      columns in {@link Instrument} order
+     */
+    public ReadingColumns[] loadJourneyColumns(String spacecraftName, UUID journeyId) {
+        SpacecraftInstrumentsDao dao = getSpaceCraftInstrumentsDao();
+        ReadingColumns[] series = new ReadingColumns[Instrument.values().length];
+        series[Instrument.TEMPERATURE.ordinal()] = scalarColumns(
+                dao.getTemperatureReading(spacecraftName, journeyId, Optional.empty(), Optional.empty(), ExecutionProfile.EXPORT),
+                SpacecraftTemperatureOverTime::getTemperature, SpacecraftTemperatureOverTime::getTemperature_unit, false, NOT_CANCELLED);
+        series[Instrument.PRESSURE.ordinal()] = scalarColumns(
+                dao.getPressureReading(spacecraftName, journeyId, Optional.empty(), Optional.empty(), ExecutionProfile.EXPORT),
+                SpacecraftPressureOverTime::getPressure, SpacecraftPressureOverTime::getPressure_unit, false, NOT_CANCELLED);
+        series[Instrument.SPEED.ordinal()] = scalarColumns(
+                dao.getSpeedReading(spacecraftName, journeyId, Optional.empty(), Optional.empty(), ExecutionProfile.EXPORT),
+                SpacecraftSpeedOverTime::getSpeed, SpacecraftSpeedOverTime::getSpeed_unit, false, NOT_CANCELLED);
+        series[Instrument.LOCATION.ordinal()] = readLocationColumns(spacecraftName, journeyId, NOT_CANCELLED);
+        return series;
+    }
+    
+    private ReadingColumns readLocationColumns(String spacecraftName, UUID journeyId, BooleanSupplier cancelled) {
+        ReadingColumns locations = new ReadingColumns(Instrument.LOCATION.getDimensions());
+        for (SpacecraftLocationOverTime loc : getSpaceCraftInstrumentsDao().getLocationReading(spacecraftName, journeyId, Optional.empty(), Optional.empty(), ExecutionProfile.EXPORT)) {
+            checkNotCancelled(cancelled);
+            LocationUdt udt = loc.getLocation();
+            locations.setUnit(loc.getLocation_unit());
+            if (udt == null) {
+                locations.add(loc.getReading_time().toEpochMilli(), Double.NaN, Double.NaN, Double.NaN);
+            } else {
+                locations.add(loc.getReading_time().toEpochMilli(), 
+                        udt.getX_coordinate(), udt.getY_coordinate(), udt.getZ_coordinate());
+            }
+        }
+        return locations;
+    }
+    
+    /**
+     * Readings of a scalar instrument in primitive columns, missing values are skipped or kept as NaN.
+     * Checked for cancellation on each row, next pages are not fetched once cancelled.
+     */
+    private <T extends AbstractInstrumentReading> ReadingColumns scalarColumns(Iterable<T> readings, 
+            Function<T, Double> value, Function<T, String> unit, boolean skipMissing, BooleanSupplier cancelled) {
+        ReadingColumns columns = new ReadingColumns(1);
+        for (T reading : readings) {
+            checkNotCancelled(cancelled);
+            Double v = value.apply(reading);
+            double d = (v == null) ? Double.NaN : v;
+            columns.setUnit(unit.apply(reading));
+            if (!skipMissing || !Double.isNaN(d)) {
+                columns.add(reading.getReading_time().toEpochMilli(), d);
+            }
+        }
+        return columns;
+    }
+    
+    /**
+     * Stop a read, its result is not needed anymore.
+     */
+    private static void checkNotCancelled(BooleanSupplier cancelled) {
+        if (cancelled.getAsBoolean()) {
+            throw new CancellationException("Read cancelled");
+        }
+    }
+    
+    /**
+     * Missing values are stored as NaN in primitive columns.
+     */
+    private static Double nullable(double value) {
+        return Double.isNaN(value) ? null : Double.valueOf(value);
+    }
+    
+    /**
+     * Cursor is an epoch millis, no cursor means starting from the most recent reading.
+     */
+    private Instant decodeSeekCursor(Optional<String> pageState) {
+        if (!pageState.isPresent()) {
+            return Instant.ofEpochMilli(Long.MAX_VALUE);
+        }
+        try {
+            return Instant.ofEpochMilli(Long.parseLong(pageState.get()));
+        } catch(NumberFormatException nfe) {
+            throw new IllegalArgumentException("Invalid pageState '" + pageState.get() 
+                + "', expecting epoch millis of a reading_time in SEEK mode");
+        }
+    }
+    
+    /**
+     * Scanner of the current tenant.
+     */
+    protected TokenRangeScanner getTokenRangeScanner() {
+        return SessionManager.getInstance().getTenantSession().getTokenRangeScanner(scanParallelism, scanSplits);
+    }
+    
+    /**
+     * Daos of the current tenant, prepared statements are kept with its session.
+     */
+    protected SpacecraftJourneyDao getSpaceCraftJourneyDao() {
+        return SessionManager.getInstance().getTenantSession().getSpacecraftJourneyDao();
+    }
+    
+    protected SpacecraftInstrumentsDao getSpaceCraftInstrumentsDao() {
+        return SessionManager.getInstance().getTenantSession().getSpacecraftInstrumentsDao();
+    }
+    
+    protected SpacecraftAnomalyDao getSpacecraftAnomalyDao() {
+        return SessionManager.getInstance().getTenantSession().getSpacecraftAnomalyDao();
     }
     
     /**
@@ -276,6 +1479,7 @@ public class ApolloService {
      */
     @PreDestroy
     public void cleanUp() {
+        compareExecutor.shutdownNow();
         SessionManager.getInstance().close();
     }
     
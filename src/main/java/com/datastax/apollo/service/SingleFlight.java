@@ -0,0 +1,200 @@
+package com.datastax.apollo.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Identical reads running at the same time share a single query: the first caller for a key runs it,
+ * callers arriving while it is in flight get the same result (or error). Nothing is kept once the
+ * query completes, the next caller runs it again.
+ *
+ * Results are shared between callers and must not be modified. A result that can only be read once
+ * (rows streamed to a response) is prepared for sharing only when another caller joined: a caller
+ * alone gets it as returned by the query.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+public class SingleFlight<K, V> {
+
+    /** Name in metrics. */
+    private final String name;
+
+    /** A query in flight and the callers waiting for it. */
+    private static final class Flight<V> {
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+        private final AtomicInteger joiners = new AtomicInteger();
+    }
+
+    /** Queries in flight per key. */
+    private final ConcurrentHashMap<K, Flight<V>> inFlight = new ConcurrentHashMap<>();
+
+    /** Calls received and queries actually run. */
+    private final LongAdder requests   = new LongAdder();
+    private final LongAdder executions = new LongAdder();
+
+    /**
+     * Constructor.
+     *
+     * @param name
+     *      name in metrics
+     */
+    public SingleFlight(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Run an asynchronous query or join the identical one in flight.
+     *
+     * @param key
+     *      identify the query, including everything its result depends on
+     * @param query
+     *      query to run when none is in flight
+     * @return
+     *      result of the query, shared
+     */
+    public CompletionStage<V> executeAsync(K key, Supplier<? extends CompletionStage<V>> query) {
+        return executeAsync(key, query, UnaryOperator.identity());
+    }
+
+    /**
+     * Run an asynchronous query or join the identical one in flight.
+     *
+     * @param key
+     *      identify the query, including everything its result depends on
+     * @param query
+     *      query to run when none is in flight
+     * @param share
+     *      applied once to the result when other callers joined, before any caller gets it
+     * @return
+     *      result of the query, shared if other callers joined
+     */
+    public CompletionStage<V> executeAsync(K key, Supplier<? extends CompletionStage<V>> query, UnaryOperator<V> share) {
+        requests.increment();
+        Flight<V> created = new Flight<>();
+        // Joiners are counted with the lookup, the count is final once the flight is removed
+        Flight<V> flight = inFlight.compute(key, (k, running) -> {
+            if (running == null) {
+                return created;
+            }
+            running.joiners.incrementAndGet();
+            return running;
+        });
+        if (flight != created) {
+            return flight.result.minimalCompletionStage();
+        }
+        executions.increment();
+        try {
+            query.get().whenComplete((result, error) -> {
+                // Removed first: callers arriving after completion run a new query
+                inFlight.remove(key, created);
+                if (error != null) {
+                    created.result.completeExceptionally(error);
+                } else if (created.joiners.get() == 0) {
+                    created.result.complete(result);
+                } else {
+                    try {
+                        created.result.complete(share.apply(result));
+                    } catch (RuntimeException | Error e) {
+                        created.result.completeExceptionally(e);
+                    }
+                }
+            });
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, created);
+            created.result.completeExceptionally(e);
+        }
+        return created.result.minimalCompletionStage();
+    }
+
+    /**
+     * Run a blocking query in the calling thread or wait for the identical one in flight.
+     *
+     * @param key
+     *      identify the query, including everything its result depends on
+     * @param query
+     *      query to run when none is in flight
+     * @return
+     *      result of the query, shared
+     */
+    public V execute(K key, Supplier<V> query) {
+        return execute(key, query, UnaryOperator.identity());
+    }
+
+    /**
+     * Run a blocking query in the calling thread or wait for the identical one in flight.
+     *
+     * @param key
+     *      identify the query, including everything its result depends on
+     * @param query
+     *      query to run when none is in flight
+     * @param share
+     *      applied once to the result when other callers joined, before any caller gets it
+     * @return
+     *      result of the query, shared if other callers joined
+     */
+    public V execute(K key, Supplier<V> query, UnaryOperator<V> share) {
+        CompletionStage<V> result = executeAsync(key, () -> {
+            try {
+                return CompletableFuture.completedFuture(query.get());
+            } catch (RuntimeException | Error e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }, share);
+        try {
+            return result.toCompletableFuture().join();
+        } catch (CompletionException ce) {
+            if (ce.getCause() instanceof Error) {
+                throw (Error) ce.getCause();
+            }
+            throw ce.getCause() instanceof RuntimeException ? (RuntimeException) ce.getCause() : ce;
+        }
+    }
+
+    /**
+     * Getter accessor for attribute 'name'.
+     *
+     * @return
+     *       current value of 'name'
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Getter accessor for attribute 'requests'.
+     *
+     * @return
+     *       current value of 'requests'
+     */
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    /**
+     * Getter accessor for attribute 'executions'.
+     *
+     * @return
+     *       current value of 'executions'
+     */
+    public long getExecutions() {
+        return executions.sum();
+    }
+
+    /**
+     * Share of the calls served by a query of another caller.
+     *
+     * @return
+     *       between 0 (no call coalesced) and 1
+     */
+    public double getCoalescingRatio() {
+        long received = requests.sum();
+        return received == 0 ? 0 : Math.max(0, 1 - (double) executions.sum() / received);
+    }
+
+}
@@ -0,0 +1,259 @@
+package com.datastax.apollo.snapshot;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+import com.datastax.apollo.model.Instrument;
+import com.datastax.apollo.series.ReadingColumns;
+
+/**
+ * Columnar snapshot of the four instrument series of a completed journey, read through a memory-mapped file.
+ *
+ * File layout (big endian), series are in {@link Instrument} order:
+ * <pre>
+ * int    magic, int version
+ * 4 x  { int count, int unitLength, byte[unitLength] unit (UTF-8) }
+ * padding to 8 bytes
+ * 4 x  { long[count] reading times (epoch millis), dimensions x double[count] values }
+ * long   CRC32 of all previous bytes
+ * </pre>
+ * Readings keep the table clustering order (reading_time DESC).
+ *
+ * @author DataStax Developer Advocates team.
+ */
+public class JourneySnapshot {
+
+    /** Magic number 'ASNP'. */
+    public static final int MAGIC = 0x41534E50;
+
+    /** Format version. */
+    public static final int VERSION = 1;
+
+    /** Size of the CRC trailer. */
+    private static final int TRAILER_SIZE = Long.BYTES;
+
+    /** Largest file mapped as a single buffer. */
+    public static final long MAX_FILE_SIZE = Integer.MAX_VALUE;
+
+    /** Mapped file. */
+    private final MappedByteBuffer buffer;
+
+    /** Offsets and metadata per instrument. */
+    private final int[]    counts      = new int[Instrument.values().length];
+    private final int[]    timeOffsets = new int[Instrument.values().length];
+    private final String[] units       = new String[Instrument.values().length];
+
+    /**
+     * Read-only view on a mapped file, use {@link #open(Path)}.
+     */
+    private JourneySnapshot(MappedByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(Integer.BYTES) != VERSION) {
+            throw new IOException("Invalid snapshot header");
+        }
+        int position = 2 * Integer.BYTES;
+        for (Instrument instrument : Instrument.values()) {
+            int idx = instrument.ordinal();
+            counts[idx]    = buffer.getInt(position);
+            int unitLength = buffer.getInt(position + Integer.BYTES);
+            position += 2 * Integer.BYTES;
+            if (unitLength > 0) {
+                byte[] unit = new byte[unitLength];
+                ByteBuffer dup = buffer.duplicate();
+                dup.position(position);
+                dup.get(unit);
+                units[idx] = new String(unit, StandardCharsets.UTF_8);
+            }
+            position += unitLength;
+        }
+        position = align(position);
+        for (Instrument instrument : Instrument.values()) {
+            int idx = instrument.ordinal();
+            timeOffsets[idx] = position;
+            position += counts[idx] * Long.BYTES * (1 + instrument.getDimensions());
+        }
+        if (position + TRAILER_SIZE != buffer.capacity()) {
+            throw new IOException("Invalid snapshot size, expected " + (position + TRAILER_SIZE) + " bytes");
+        }
+    }
+
+    /**
+     * Map a snapshot file and check its integrity.
+     *
+     * @param file
+     *      snapshot file
+     * @return
+     *      snapshot
+     * @throws IOException
+     *      file cannot be read or is corrupted
+     */
+    public static JourneySnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > MAX_FILE_SIZE || size < 2 * Integer.BYTES + TRAILER_SIZE) {
+                throw new IOException("Invalid snapshot size " + size);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            CRC32 crc = new CRC32();
+            ByteBuffer payload = buffer.duplicate();
+            payload.limit((int) size - TRAILER_SIZE);
+            crc.update(payload);
+            if (crc.getValue() != buffer.getLong((int) size - TRAILER_SIZE)) {
+                throw new IOException("Snapshot checksum mismatch for " + file);
+            }
+            return new JourneySnapshot(buffer);
+        }
+    }
+
+    /**
+     * Write a snapshot file.
+     *
+     * @param file
+     *      target file
+     * @param series
+     *      columns for each instrument in {@link Instrument} order
+     * @throws IOException
+     *      cannot write file
+     */
+    public static void write(Path file, ReadingColumns[] series) throws IOException {
+        CRC32 crc = new CRC32();
+        OutputStream fileOut = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16);
+        try (DataOutputStream out = new DataOutputStream(new CheckedOutputStream(fileOut, crc))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            for (Instrument instrument : Instrument.values()) {
+                ReadingColumns columns = series[instrument.ordinal()];
+                byte[] unit = columns.getUnit() == null ? new byte[0] : columns.getUnit().getBytes(StandardCharsets.UTF_8);
+                out.writeInt(columns.size());
+                out.writeInt(unit.length);
+                out.write(unit);
+            }
+            while (out.size() != align(out.size())) {
+                out.writeByte(0);
+            }
+            for (Instrument instrument : Instrument.values()) {
+                ReadingColumns columns = series[instrument.ordinal()];
+                for (int i = 0; i < columns.size(); i++) {
+                    out.writeLong(columns.time(i));
+                }
+                for (int d = 0; d < instrument.getDimensions(); d++) {
+                    for (int i = 0; i < columns.size(); i++) {
+                        out.writeDouble(columns.value(d, i));
+                    }
+                }
+            }
+            out.flush();
+            // Trailer is not part of the checksum
+            new DataOutputStream(fileOut).writeLong(crc.getValue());
+        }
+    }
+
+    /**
+     * Size of the file written for the series, known before writing it.
+     *
+     * @param series
+     *      columns for each instrument in {@link Instrument} order
+     * @return
+     *      size in bytes
+     */
+    public static long sizeOf(ReadingColumns[] series) {
+        long size = 2 * Integer.BYTES;
+        for (Instrument instrument : Instrument.values()) {
+            String unit = series[instrument.ordinal()].getUnit();
+            size += 2 * Integer.BYTES + (unit == null ? 0 : unit.getBytes(StandardCharsets.UTF_8).length);
+        }
+        size = (size + 7) & ~7L;
+        for (Instrument instrument : Instrument.values()) {
+            size += (long) series[instrument.ordinal()].size() * Long.BYTES * (1 + instrument.getDimensions());
+        }
+        return size + TRAILER_SIZE;
+    }
+
+    private static int align(int position) {
+        return (position + 7) & ~7;
+    }
+
+    /**
+     * Number of readings for an instrument.
+     */
+    public int size(Instrument instrument) {
+        return counts[instrument.ordinal()];
+    }
+
+    /**
+     * Unit of readings for an instrument, can be null.
+     */
+    public String unit(Instrument instrument) {
+        return units[instrument.ordinal()];
+    }
+
+    /**
+     * Reading time (epoch millis) at index.
+     */
+    public long readingTime(Instrument instrument, int index) {
+        return buffer.getLong(timeOffsets[instrument.ordinal()] + index * Long.BYTES);
+    }
+
+    /**
+     * Value at index for a dimension.
+     */
+    public double value(Instrument instrument, int dimension, int index) {
+        int count = counts[instrument.ordinal()];
+        return buffer.getDouble(timeOffsets[instrument.ordinal()]
+                + (count * (1 + dimension) + index) * Long.BYTES);
+    }
+
+    /**
+     * Copy readings of an instrument into primitive columns.
+     */
+    public ReadingColumns columns(Instrument instrument) {
+        int size = size(instrument);
+        ReadingColumns columns = new ReadingColumns(instrument.getDimensions(), size);
+        columns.setUnit(unit(instrument));
+        for (int i = 0; i < size; i++) {
+            if (instrument.getDimensions() == 1) {
+                columns.add(readingTime(instrument, i), value(instrument, 0, i));
+            } else {
+                columns.add(readingTime(instrument, i), 
+                        value(instrument, 0, i), value(instrument, 1, i), value(instrument, 2, i));
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Index of the first reading strictly older than the provided time (readings are sorted DESC).
+     *
+     * @param instrument
+     *      instrument
+     * @param epochMillis
+     *      exclusive upper bound
+     * @return
+     *      first index, equals size if none
+     */
+    public int indexBefore(Instrument instrument, long epochMillis) {
+        int low  = 0;
+        int high = size(instrument);
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (readingTime(instrument, mid) < epochMillis) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+}
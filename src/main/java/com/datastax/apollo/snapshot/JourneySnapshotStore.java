@@ -0,0 +1,335 @@
+package com.datastax.apollo.snapshot;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import com.datastax.apollo.dao.JourneyKey;
+import com.datastax.apollo.dao.TenantKey;
+import com.datastax.apollo.series.ReadingColumns;
+
+/**
+ * Local disk tier for completed journeys.
+ *
+ * A snapshot is built in background the first time a completed journey is read, following reads are
+ * served from the memory-mapped file. Files are evicted in LRU order once the total size on disk
+ * exceeds the budget and are checked against their CRC the first time they are mapped. File names
+ * are hashes of the session (bundle, user, keyspace) and of the journey.
+ *
+ * Journeys too large for a snapshot (over the budget or the mapping limit) are remembered and never
+ * built, failed builds and invalid files are retried after a delay only.
+ *
+ * Seek pages, series, trajectories and the snapshot export are served from this tier. Pages in
+ * DRIVER mode (the paging state belongs to the database) and Arrow exports always read the database.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+@Component
+public class JourneySnapshotStore {
+
+    /** Logger for the class. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(JourneySnapshotStore.class);
+
+    /** Extension of snapshot files. */
+    public static final String FILE_EXTENSION = ".snap";
+
+    /** Working directory. */
+    private Path directory;
+
+    /** Disk budget. */
+    private long maxBytes;
+
+    /** Tier can be disabled. */
+    private boolean enabled;
+
+    /** Files on disk with their size, in access order. */
+    private LinkedHashMap<String, Long> files = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** Snapshots already mapped and verified. */
+    private Map<String, JourneySnapshot> mapped = new HashMap<>();
+
+    /** Size of all files. */
+    private long totalBytes = 0;
+
+    /** Snapshots being built, guarded with files. */
+    private Set<String> pending = new HashSet<>();
+
+    /** Snapshots not to build before a time (epoch millis), forever when too large. */
+    private LinkedHashMap<String, Long> rejected = new LinkedHashMap<String, Long>() {
+        private static final long serialVersionUID = 1L;
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+            return size() > MAX_REJECTED;
+        }
+    };
+
+    /** Journeys remembered as rejected, oldest are forgotten beyond. */
+    private static final int MAX_REJECTED = 10000;
+
+    /** Delay before a failed snapshot is built again. */
+    private long retryDelayMillis;
+
+    /** Snapshots are built one at a time, not to compete with user requests. */
+    private ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "journey-snapshot");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * Constructor.
+     *
+     * @param directory
+     *      folder for snapshot files
+     * @param maxBytes
+     *      disk budget
+     * @param enabled
+     *      tier is enabled
+     * @param retryDelayMillis
+     *      delay before a failed snapshot is built again
+     */
+    public JourneySnapshotStore(
+            @Value("${apollo.snapshot.directory:${java.io.tmpdir}/apollo-snapshots}") String directory,
+            @Value("${apollo.snapshot.max-bytes:1073741824}") long maxBytes,
+            @Value("${apollo.snapshot.enabled:true}") boolean enabled,
+            @Value("${apollo.snapshot.retry-delay-millis:600000}") long retryDelayMillis) {
+        this.directory        = Paths.get(directory);
+        this.maxBytes         = maxBytes;
+        this.enabled          = enabled;
+        this.retryDelayMillis = retryDelayMillis;
+    }
+
+    /**
+     * Register files from a previous run, oldest first.
+     */
+    @PostConstruct
+    public synchronized void init() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(directory);
+        File[] existing = directory.toFile().listFiles((dir, name) -> name.endsWith(FILE_EXTENSION));
+        if (existing != null) {
+            Arrays.sort(existing, Comparator.comparingLong(File::lastModified));
+            for (File file : existing) {
+                files.put(file.getName(), file.length());
+                totalBytes += file.length();
+            }
+        }
+        evict(null);
+        LOGGER.info("Snapshot tier ready in {} with {} file(s), {} bytes", directory, files.size(), totalBytes);
+    }
+
+    /**
+     * Access snapshot of a journey if it is available on disk.
+     *
+     * @param journey
+     *      journey in the database of a session
+     * @return
+     *      mapped snapshot if available
+     */
+    public synchronized Optional<JourneySnapshot> find(JourneyKey journey) {
+        String fileName = fileName(journey);
+        if (!enabled || files.get(fileName) == null) {
+            return Optional.empty();
+        }
+        JourneySnapshot snapshot = mapped.get(fileName);
+        if (snapshot == null) {
+            try {
+                snapshot = JourneySnapshot.open(directory.resolve(fileName));
+                mapped.put(fileName, snapshot);
+            } catch(IOException ioe) {
+                LOGGER.warn("Dropping invalid snapshot {}: {}", fileName, ioe.getMessage());
+                remove(fileName);
+                reject(fileName, System.currentTimeMillis() + retryDelayMillis);
+                return Optional.empty();
+            }
+        }
+        return Optional.of(snapshot);
+    }
+
+    /**
+     * Open snapshot file of a journey if it is available on disk (to stream it as is). The file is
+     * opened with the lock held: evicted afterwards, its content stays readable from the channel.
+     *
+     * @param journey
+     *      journey in the database of a session
+     * @return
+     *      channel over a verified snapshot if available, to be closed by the caller
+     */
+    public synchronized Optional<FileChannel> openFile(JourneyKey journey) throws IOException {
+        if (!find(journey).isPresent()) {
+            return Optional.empty();
+        }
+        return Optional.of(FileChannel.open(directory.resolve(fileName(journey)), StandardOpenOption.READ));
+    }
+
+    /**
+     * Build snapshot in background, no-op if already available, in progress or rejected.
+     *
+     * @param journey
+     *      journey in the database of a session
+     * @param loader
+     *      read the four series from the database, in {@link com.datastax.apollo.model.Instrument} order
+     */
+    public void scheduleSnapshot(JourneyKey journey, Supplier<ReadingColumns[]> loader) {
+        String fileName = fileName(journey);
+        synchronized (this) {
+            // Pending and available are updated together, a journey is built once
+            if (!enabled || files.containsKey(fileName) || isRejected(fileName) || !pending.add(fileName)) {
+                return;
+            }
+        }
+        executor.submit(() -> {
+            try {
+                build(journey, fileName, loader);
+            } catch(Exception e) {
+                LOGGER.warn("Cannot build snapshot for journey {}: {}", journey, e.getMessage());
+                synchronized (this) {
+                    reject(fileName, System.currentTimeMillis() + retryDelayMillis);
+                }
+            } finally {
+                synchronized (this) {
+                    pending.remove(fileName);
+                }
+            }
+        });
+    }
+
+    private void build(JourneyKey journey, String fileName, Supplier<ReadingColumns[]> loader) throws IOException {
+        long top = System.currentTimeMillis();
+        ReadingColumns[] series = loader.get();
+        long expectedSize = JourneySnapshot.sizeOf(series);
+        if (expectedSize > maxBytes || expectedSize > JourneySnapshot.MAX_FILE_SIZE) {
+            // Readings of a completed journey do not change, it will never fit
+            LOGGER.info("No snapshot for journey {}, {} bytes would exceed the limits", journey, expectedSize);
+            synchronized (this) {
+                reject(fileName, Long.MAX_VALUE);
+            }
+            return;
+        }
+        Path tmpFile = Files.createTempFile(directory, fileName, ".tmp");
+        try {
+            JourneySnapshot.write(tmpFile, series);
+            Path target = directory.resolve(fileName);
+            Files.move(tmpFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            long size = Files.size(target);
+            synchronized (this) {
+                Long previous = files.put(fileName, size);
+                totalBytes += size - (previous == null ? 0 : previous);
+                evict(fileName);
+            }
+            LOGGER.info("Snapshot {} created with {} bytes in {} millis", fileName, size, System.currentTimeMillis() - top);
+        } finally {
+            Files.deleteIfExists(tmpFile);
+        }
+    }
+
+    /**
+     * Evict least recently used files until total size fits the budget.
+     */
+    private void evict(String keep) {
+        Iterator<Map.Entry<String, Long>> lru = files.entrySet().iterator();
+        while (totalBytes > maxBytes && lru.hasNext()) {
+            Map.Entry<String, Long> eldest = lru.next();
+            if (eldest.getKey().equals(keep)) {
+                continue;
+            }
+            lru.remove();
+            totalBytes -= eldest.getValue();
+            mapped.remove(eldest.getKey());
+            delete(eldest.getKey());
+        }
+    }
+
+    private boolean isRejected(String fileName) {
+        Long until = rejected.get(fileName);
+        if (until == null) {
+            return false;
+        }
+        if (until > System.currentTimeMillis()) {
+            return true;
+        }
+        rejected.remove(fileName);
+        return false;
+    }
+
+    private void reject(String fileName, long until) {
+        rejected.put(fileName, until);
+    }
+
+    private void remove(String fileName) {
+        Long size = files.remove(fileName);
+        if (size != null) {
+            totalBytes -= size;
+        }
+        mapped.remove(fileName);
+        delete(fileName);
+    }
+
+    private void delete(String fileName) {
+        try {
+            // Mapped buffers stay valid until collected
+            Files.deleteIfExists(directory.resolve(fileName));
+        } catch (IOException e) {
+            LOGGER.warn("Cannot delete snapshot {}", fileName);
+        }
+    }
+
+    /**
+     * Unmap snapshots of a session, closed or opened again. Files stay on disk within the budget.
+     *
+     * @param tenant
+     *      bundle, user and keyspace of the session
+     */
+    public synchronized void release(TenantKey tenant) {
+        String prefix = tenantPrefix(tenant);
+        mapped.keySet().removeIf(fileName -> fileName.startsWith(prefix));
+    }
+
+    private String fileName(JourneyKey journey) {
+        return tenantPrefix(journey.getTenant()) + DigestUtils.md5DigestAsHex((journey.getSpacecraftName() 
+                + "/" + journey.getJourneyId()).getBytes(StandardCharsets.UTF_8)) + FILE_EXTENSION;
+    }
+
+    private String tenantPrefix(TenantKey tenant) {
+        return DigestUtils.md5DigestAsHex((tenant.getSecureConnectionBundlePath() + "|" + tenant.getUserName() 
+                + "|" + tenant.getKeySpace()).getBytes(StandardCharsets.UTF_8)) + "-";
+    }
+
+    /**
+     * Stop background builds.
+     */
+    @PreDestroy
+    public void cleanUp() {
+        executor.shutdownNow();
+    }
+
+}
@@ -0,0 +1,223 @@
+package com.datastax.apollo.spatial;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.datastax.apollo.series.ReadingColumns;
+
+/**
+ * Spatial index over the location readings of one journey.
+ *
+ * A static {@link LocationKdTree} holds the bulk of the points, readings of active journeys are appended
+ * to a small delta scanned linearly. Once the delta grows past a fraction of the tree it is frozen and
+ * merged into a new tree in background, readings keep being appended to a new delta meanwhile: the
+ * ingestion thread never rebuilds the tree. Queries share a read lock, appends and the swap of a rebuilt
+ * tree take the write lock.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+public class JourneyLocationIndex {
+
+    /** Minimum delta size before a rebuild. */
+    private static final int MIN_DELTA_BEFORE_REBUILD = 4096;
+
+    /** Readings ordered by reading time, oldest first. */
+    private static final Comparator<double[]> BY_TIME_ASC = Comparator.comparingDouble(p -> p[0]);
+
+    /** Static part. */
+    private LocationKdTree tree;
+
+    /** Readings being merged into a new tree, empty when no rebuild is running. */
+    private ReadingColumns frozen = new ReadingColumns(3);
+
+    /** Readings appended since last build. */
+    private ReadingColumns delta = new ReadingColumns(3);
+
+    /** A rebuild is running. */
+    private boolean rebuilding = false;
+
+    /** Rebuilds of the tree, off the ingestion path. */
+    private final Executor rebuildExecutor;
+
+    /** Unit of coordinates. */
+    private String unit;
+
+    /** Queries run concurrently, appends are exclusive. */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Constructor.
+     *
+     * @param columns
+     *      location readings of the journey
+     * @param rebuildExecutor
+     *      merges readings appended into a new tree
+     */
+    public JourneyLocationIndex(ReadingColumns columns, Executor rebuildExecutor) {
+        this.tree            = new LocationKdTree(columns);
+        this.unit            = columns.getUnit();
+        this.rebuildExecutor = rebuildExecutor;
+    }
+
+    /**
+     * Append a reading (active journeys).
+     */
+    public void add(long epochMillis, double x, double y, double z) {
+        lock.writeLock().lock();
+        try {
+            delta.add(epochMillis, x, y, z);
+            if (!rebuilding && frozen.size() == 0
+                    && delta.size() >= Math.max(MIN_DELTA_BEFORE_REBUILD, tree.size() / 8)) {
+                LocationKdTree base = tree;
+                ReadingColumns appended = delta;
+                frozen     = appended;
+                delta      = new ReadingColumns(3);
+                rebuilding = true;
+                try {
+                    rebuildExecutor.execute(() -> rebuild(base, appended));
+                } catch (RejectedExecutionException ree) {
+                    delta      = appended;
+                    frozen     = new ReadingColumns(3);
+                    rebuilding = false;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Merge frozen readings into a new tree, queries use the previous one until it is ready.
+     */
+    private void rebuild(LocationKdTree base, ReadingColumns appended) {
+        try {
+            ReadingColumns merged = new ReadingColumns(3, base.size() + appended.size());
+            for (int i = 0; i < base.size(); i++) {
+                merged.add(base.time(i), base.x(i), base.y(i), base.z(i));
+            }
+            for (int i = 0; i < appended.size(); i++) {
+                merged.add(appended.time(i), appended.value(0, i), appended.value(1, i), appended.value(2, i));
+            }
+            LocationKdTree rebuilt = new LocationKdTree(merged);
+            lock.writeLock().lock();
+            try {
+                tree   = rebuilt;
+                frozen = new ReadingColumns(3);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            // Frozen readings are kept (and scanned) if the rebuild failed
+            lock.writeLock().lock();
+            try {
+                rebuilding = false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Closest reading to a point.
+     *
+     * @return
+     *      point as { epochMillis, x, y, z }, null if no reading
+     */
+    public double[] nearest(double x, double y, double z) {
+        lock.readLock().lock();
+        try {
+            double[] best = null;
+            double bestDistance = Double.POSITIVE_INFINITY;
+            int idx = tree.nearest(x, y, z);
+            if (idx >= 0) {
+                bestDistance = tree.squaredDistance(idx, x, y, z);
+                best = new double[] { tree.time(idx), tree.x(idx), tree.y(idx), tree.z(idx) };
+            }
+            for (ReadingColumns appended : new ReadingColumns[] { frozen, delta }) {
+                for (int i = 0; i < appended.size(); i++) {
+                    double dx = appended.value(0, i) - x, dy = appended.value(1, i) - y, dz = appended.value(2, i) - z;
+                    double d  = dx * dx + dy * dy + dz * dz;
+                    if (d < bestDistance) {
+                        bestDistance = d;
+                        best = new double[] { appended.time(i), appended.value(0, i), appended.value(1, i), appended.value(2, i) };
+                    }
+                }
+            }
+            return best;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Most recent readings inside a box (bounds included), all matches are ranked by reading time and
+     * only the 'limit' most recent are kept (bounded heap).
+     *
+     * @return
+     *      points as { epochMillis, x, y, z }, most recent first
+     */
+    public List<double[]> within(double[] min, double[] max, int limit) {
+        if (limit < 1) {
+            return new ArrayList<>();
+        }
+        // Oldest kept reading on top, replaced by any more recent match
+        PriorityQueue<double[]> mostRecent = new PriorityQueue<>(Math.min(limit, 1024), BY_TIME_ASC);
+        lock.readLock().lock();
+        try {
+            LocationKdTree current = tree;
+            current.range(min, max, idx ->
+                offer(mostRecent, limit, new double[] { current.time(idx), current.x(idx), current.y(idx), current.z(idx) }));
+            for (ReadingColumns appended : new ReadingColumns[] { frozen, delta }) {
+                for (int i = 0; i < appended.size(); i++) {
+                    double x = appended.value(0, i), y = appended.value(1, i), z = appended.value(2, i);
+                    if (x >= min[0] && x <= max[0] && y >= min[1] && y <= max[1] && z >= min[2] && z <= max[2]) {
+                        offer(mostRecent, limit, new double[] { appended.time(i), x, y, z });
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<double[]> result = new ArrayList<>(mostRecent);
+        result.sort(BY_TIME_ASC.reversed());
+        return result;
+    }
+
+    private static void offer(PriorityQueue<double[]> mostRecent, int limit, double[] point) {
+        if (mostRecent.size() < limit) {
+            mostRecent.add(point);
+        } else if (point[0] > mostRecent.peek()[0]) {
+            mostRecent.poll();
+            mostRecent.add(point);
+        }
+    }
+
+    /**
+     * Number of points indexed, used for eviction.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return tree.size() + frozen.size() + delta.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Getter accessor for attribute 'unit'.
+     *
+     * @return
+     *       current value of 'unit'
+     */
+    public String getUnit() {
+        return unit;
+    }
+
+}
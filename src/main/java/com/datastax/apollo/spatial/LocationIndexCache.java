@@ -0,0 +1,206 @@
+package com.datastax.apollo.spatial;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.datastax.apollo.dao.JourneyKey;
+import com.datastax.apollo.dao.TenantKey;
+import com.datastax.apollo.series.ReadingColumns;
+
+/**
+ * Spatial indices of journeys, built lazily on first query and evicted in LRU order
+ * once the total number of indexed points exceeds the budget.
+ *
+ * Readings written while an index is being built are buffered and replayed into it once built: the
+ * build may or may not have read them.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+@Component
+public class LocationIndexCache {
+
+    /** Logger for the class. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(LocationIndexCache.class);
+
+    /** Indices in access order. */
+    private LinkedHashMap<JourneyKey, JourneyLocationIndex> indices = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** Readings written while the index of a journey is being built. */
+    private Map<JourneyKey, ReadingColumns> pending = new HashMap<>();
+
+    /** Budget in points (32 bytes each). */
+    private long maxPoints;
+
+    /** Points indexed, counted at last eviction plus points added since (upper bound). */
+    private long points = 0;
+
+    /** Trees of active journeys are rebuilt one at a time, off the ingestion path. */
+    private ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "location-index");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * Constructor.
+     *
+     * @param maxPoints
+     *      budget in points
+     */
+    public LocationIndexCache(@Value("${apollo.spatial.max-points:10000000}") long maxPoints) {
+        this.maxPoints = maxPoints;
+    }
+
+    /**
+     * Get index of a journey, build it if needed.
+     *
+     * @param journey
+     *      journey in the database of a session
+     * @param loader
+     *      read location readings of the journey
+     * @return
+     *      index
+     */
+    public JourneyLocationIndex get(JourneyKey journey, Supplier<ReadingColumns> loader) {
+        synchronized (this) {
+            JourneyLocationIndex index = indices.get(journey);
+            if (index != null) {
+                return index;
+            }
+            // Registered before reading, readings written from now on are buffered
+            pending.computeIfAbsent(journey, k -> new ReadingColumns(3));
+        }
+        // Built outside of the lock, not to block queries on other journeys
+        long top = System.currentTimeMillis();
+        ReadingColumns columns;
+        JourneyLocationIndex index;
+        try {
+            columns = loader.get();
+            index   = new JourneyLocationIndex(columns, rebuildExecutor);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pending.remove(journey);
+            }
+            throw e;
+        }
+        LOGGER.info("Spatial index for journey {} built with {} points in {} millis",
+                journey, index.size(), System.currentTimeMillis() - top);
+        synchronized (this) {
+            JourneyLocationIndex concurrent = indices.get(journey);
+            if (concurrent != null) {
+                return concurrent;
+            }
+            ReadingColumns written = pending.remove(journey);
+            if (written == null) {
+                // Invalidated or released meanwhile, serves this query only
+                return index;
+            }
+            replay(index, columns, written);
+            indices.put(journey, index);
+            points += index.size();
+            evict(journey);
+        }
+        return index;
+    }
+
+    /**
+     * Append a reading to the index of a journey (active journeys), buffered if the index is being built
+     * and ignored if not built.
+     */
+    public void add(JourneyKey journey, long epochMillis, double x, double y, double z) {
+        JourneyLocationIndex index;
+        synchronized (this) {
+            index = indices.get(journey);
+            if (index == null) {
+                ReadingColumns written = pending.get(journey);
+                if (written != null) {
+                    written.add(epochMillis, x, y, z);
+                }
+                return;
+            }
+        }
+        index.add(epochMillis, x, y, z);
+        synchronized (this) {
+            // Active journeys grow, the budget is checked on growth too
+            if (++points > maxPoints) {
+                evict(journey);
+            }
+        }
+    }
+
+    /**
+     * Drop index of a journey, readings have been added without it.
+     */
+    public synchronized void invalidate(JourneyKey journey) {
+        indices.remove(journey);
+        pending.remove(journey);
+    }
+
+    /**
+     * Drop indices of a session, closed or opened again.
+     */
+    public synchronized void release(TenantKey tenant) {
+        indices.keySet().removeIf(journey -> journey.getTenant().equals(tenant));
+        pending.keySet().removeIf(journey -> journey.getTenant().equals(tenant));
+    }
+
+    /**
+     * Stop background rebuilds.
+     */
+    @PreDestroy
+    public void cleanUp() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    /**
+     * Add readings written during the build, skipping those the build has read (same reading time).
+     */
+    private static void replay(JourneyLocationIndex index, ReadingColumns loaded, ReadingColumns written) {
+        if (written.size() == 0) {
+            return;
+        }
+        Set<Long> missing = new HashSet<>();
+        for (int i = 0; i < written.size(); i++) {
+            missing.add(written.time(i));
+        }
+        for (int i = 0; i < loaded.size() && !missing.isEmpty(); i++) {
+            missing.remove(loaded.time(i));
+        }
+        for (int i = 0; i < written.size(); i++) {
+            if (missing.remove(written.time(i))) {
+                index.add(written.time(i), written.value(0, i), written.value(1, i), written.value(2, i));
+            }
+        }
+    }
+
+    private void evict(JourneyKey keep) {
+        long total = 0;
+        for (JourneyLocationIndex index : indices.values()) {
+            total += index.size();
+        }
+        Iterator<Map.Entry<JourneyKey, JourneyLocationIndex>> lru = indices.entrySet().iterator();
+        while (total > maxPoints && lru.hasNext()) {
+            Map.Entry<JourneyKey, JourneyLocationIndex> eldest = lru.next();
+            if (!eldest.getKey().equals(keep)) {
+                total -= eldest.getValue().size();
+                lru.remove();
+            }
+        }
+        points = total;
+    }
+
+}
@@ -0,0 +1,204 @@
+package com.datastax.apollo.spatial;
+
+import java.util.function.IntConsumer;
+
+import com.datastax.apollo.series.ReadingColumns;
+
+/**
+ * Static 3-dimensions k-d tree over location readings.
+ *
+ * The tree is implicit: coordinates and reading times are kept in four primitive arrays, permuted so
+ * that for any range [lo, hi) the median element splits the range on axis (depth % 3). No node object
+ * is allocated, a tree of n points costs 32 x n bytes.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+public class LocationKdTree {
+
+    /** Coordinates and reading times, permuted as a tree. */
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] zs;
+    private final long[]   times;
+
+    /** Number of points. */
+    private final int size;
+
+    /**
+     * Build the tree, readings with missing coordinates (NaN) are skipped.
+     *
+     * @param columns
+     *      location readings (3 dimensions)
+     */
+    public LocationKdTree(ReadingColumns columns) {
+        int n = 0;
+        xs    = new double[columns.size()];
+        ys    = new double[columns.size()];
+        zs    = new double[columns.size()];
+        times = new long[columns.size()];
+        for (int i = 0; i < columns.size(); i++) {
+            double x = columns.value(0, i), y = columns.value(1, i), z = columns.value(2, i);
+            if (!Double.isNaN(x) && !Double.isNaN(y) && !Double.isNaN(z)) {
+                xs[n] = x;
+                ys[n] = y;
+                zs[n] = z;
+                times[n] = columns.time(i);
+                n++;
+            }
+        }
+        size = n;
+        build(0, size, 0);
+    }
+
+    private void build(int lo, int hi, int axis) {
+        while (hi - lo > 1) {
+            int mid = (lo + hi) >>> 1;
+            select(lo, hi - 1, mid, axis);
+            int next = (axis + 1) % 3;
+            // Recurse on the right side [mid + 1, hi), never larger than the left one, loop on the left side
+            build(mid + 1, hi, next);
+            hi   = mid;
+            axis = next;
+        }
+    }
+
+    /**
+     * Quickselect: put the k-th smallest element on the axis at position k.
+     */
+    private void select(int left, int right, int k, int axis) {
+        while (right > left) {
+            double pivot = coordinate(axis, (left + right) >>> 1);
+            int i = left, j = right;
+            while (i <= j) {
+                while (coordinate(axis, i) < pivot) i++;
+                while (coordinate(axis, j) > pivot) j--;
+                if (i <= j) {
+                    swap(i++, j--);
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void swap(int i, int j) {
+        double x = xs[i]; xs[i] = xs[j]; xs[j] = x;
+        double y = ys[i]; ys[i] = ys[j]; ys[j] = y;
+        double z = zs[i]; zs[i] = zs[j]; zs[j] = z;
+        long   t = times[i]; times[i] = times[j]; times[j] = t;
+    }
+
+    private double coordinate(int axis, int index) {
+        switch (axis) {
+            case 0:  return xs[index];
+            case 1:  return ys[index];
+            default: return zs[index];
+        }
+    }
+
+    /**
+     * Index of the point closest to (x, y, z).
+     *
+     * @return
+     *      index, -1 if the tree is empty
+     */
+    public int nearest(double x, double y, double z) {
+        double[] query = { x, y, z };
+        int[]    best  = { -1 };
+        double[] bestDistance = { Double.POSITIVE_INFINITY };
+        nearest(0, size, 0, query, best, bestDistance);
+        return best[0];
+    }
+
+    private void nearest(int lo, int hi, int axis, double[] query, int[] best, double[] bestDistance) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        double d = squaredDistance(mid, query[0], query[1], query[2]);
+        if (d < bestDistance[0]) {
+            bestDistance[0] = d;
+            best[0] = mid;
+        }
+        double delta = query[axis] - coordinate(axis, mid);
+        int next = (axis + 1) % 3;
+        if (delta < 0) {
+            nearest(lo, mid, next, query, best, bestDistance);
+            if (delta * delta < bestDistance[0]) {
+                nearest(mid + 1, hi, next, query, best, bestDistance);
+            }
+        } else {
+            nearest(mid + 1, hi, next, query, best, bestDistance);
+            if (delta * delta < bestDistance[0]) {
+                nearest(lo, mid, next, query, best, bestDistance);
+            }
+        }
+    }
+
+    /**
+     * Visit indices of all points inside a box (bounds included).
+     */
+    public void range(double[] min, double[] max, IntConsumer visitor) {
+        range(0, size, 0, min, max, visitor);
+    }
+
+    private void range(int lo, int hi, int axis, double[] min, double[] max, IntConsumer visitor) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        double c = coordinate(axis, mid);
+        if (xs[mid] >= min[0] && xs[mid] <= max[0]
+                && ys[mid] >= min[1] && ys[mid] <= max[1]
+                && zs[mid] >= min[2] && zs[mid] <= max[2]) {
+            visitor.accept(mid);
+        }
+        int next = (axis + 1) % 3;
+        if (min[axis] <= c) {
+            range(lo, mid, next, min, max, visitor);
+        }
+        if (max[axis] >= c) {
+            range(mid + 1, hi, next, min, max, visitor);
+        }
+    }
+
+    /**
+     * Squared distance from a point to (x, y, z).
+     */
+    public double squaredDistance(int index, double x, double y, double z) {
+        double dx = xs[index] - x, dy = ys[index] - y, dz = zs[index] - z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    public double x(int index) {
+        return xs[index];
+    }
+
+    public double y(int index) {
+        return ys[index];
+    }
+
+    public double z(int index) {
+        return zs[index];
+    }
+
+    public long time(int index) {
+        return times[index];
+    }
+
+    /**
+     * Getter accessor for attribute 'size'.
+     *
+     * @return
+     *       current value of 'size'
+     */
+    public int size() {
+        return size;
+    }
+
+}
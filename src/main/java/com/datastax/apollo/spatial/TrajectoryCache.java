@@ -0,0 +1,100 @@
+package com.datastax.apollo.spatial;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.datastax.apollo.dao.JourneyKey;
+import com.datastax.apollo.dao.TenantKey;
+import com.datastax.apollo.series.ReadingColumns;
+
+/**
+ * Simplified trajectories of completed journeys per (journey, tolerance), evicted in LRU order
+ * once the total number of points exceeds the budget.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+@Component
+public class TrajectoryCache {
+
+    /** Trajectories in access order, keyed by journey and tolerance. */
+    private LinkedHashMap<List<Object>, ReadingColumns> trajectories = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** Budget in points. */
+    private long maxPoints;
+
+    /** Points currently held. */
+    private long totalPoints = 0;
+
+    /**
+     * Constructor.
+     *
+     * @param maxPoints
+     *      budget in points
+     */
+    public TrajectoryCache(@Value("${apollo.spatial.trajectory-max-points:1000000}") long maxPoints) {
+        this.maxPoints = maxPoints;
+    }
+
+    /**
+     * Get simplified trajectory, compute it if needed.
+     *
+     * @param journey
+     *      journey in the database of a session
+     * @param tolerance
+     *      simplification tolerance
+     * @param simplifier
+     *      computation of the trajectory
+     * @return
+     *      simplified trajectory
+     */
+    public ReadingColumns get(JourneyKey journey, double tolerance, Supplier<ReadingColumns> simplifier) {
+        List<Object> key = Arrays.asList(journey, tolerance);
+        synchronized (this) {
+            ReadingColumns trajectory = trajectories.get(key);
+            if (trajectory != null) {
+                return trajectory;
+            }
+        }
+        ReadingColumns trajectory = simplifier.get();
+        synchronized (this) {
+            if (!trajectories.containsKey(key)) {
+                trajectories.put(key, trajectory);
+                totalPoints += trajectory.size();
+                Iterator<Map.Entry<List<Object>, ReadingColumns>> lru = trajectories.entrySet().iterator();
+                while (totalPoints > maxPoints && lru.hasNext()) {
+                    Map.Entry<List<Object>, ReadingColumns> eldest = lru.next();
+                    if (!eldest.getKey().equals(key)) {
+                        totalPoints -= eldest.getValue().size();
+                        lru.remove();
+                    }
+                }
+            }
+        }
+        return trajectory;
+    }
+
+    /**
+     * Drop trajectories of a session, closed or opened again.
+     *
+     * @param tenant
+     *      bundle, user and keyspace of the session
+     */
+    public synchronized void release(TenantKey tenant) {
+        Iterator<Map.Entry<List<Object>, ReadingColumns>> entries = trajectories.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<List<Object>, ReadingColumns> entry = entries.next();
+            if (((JourneyKey) entry.getKey().get(0)).getTenant().equals(tenant)) {
+                totalPoints -= entry.getValue().size();
+                entries.remove();
+            }
+        }
+    }
+
+}
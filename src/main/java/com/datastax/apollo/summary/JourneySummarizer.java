@@ -0,0 +1,72 @@
+package com.datastax.apollo.summary;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.datastax.apollo.dao.JourneyKey;
+import com.datastax.apollo.entity.SpacecraftJourneySummary;
+
+/**
+ * Background computation of journey summaries, one journey at a time not to compete with user requests.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+@Component
+public class JourneySummarizer {
+
+    /** Logger for the class. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(JourneySummarizer.class);
+
+    /** Journeys being summarized. */
+    private Set<JourneyKey> pending = ConcurrentHashMap.newKeySet();
+
+    /** Single worker, a summary reads all readings of a journey. */
+    private ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "journey-summary");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * Compute and save summary of a journey in background, ignored if already pending.
+     *
+     * @param journey
+     *      journey in the database of a session
+     * @param computation
+     *      streaming pass over readings, saving the summary
+     */
+    public void schedule(JourneyKey journey, Supplier<SpacecraftJourneySummary> computation) {
+        if (pending.add(journey)) {
+            executor.submit(() -> {
+                try {
+                    long top = System.currentTimeMillis();
+                    SpacecraftJourneySummary summary = computation.get();
+                    LOGGER.info("Summary of journey {} computed over {} location readings in {} millis",
+                            journey, summary.getLocationCount(), System.currentTimeMillis() - top);
+                } catch(RuntimeException e) {
+                    LOGGER.warn("Cannot compute summary for journey {}: {}", journey, e.getMessage());
+                } finally {
+                    pending.remove(journey);
+                }
+            });
+        }
+    }
+
+    /**
+     * Stop background computations.
+     */
+    @PreDestroy
+    public void cleanUp() {
+        executor.shutdownNow();
+    }
+
+}
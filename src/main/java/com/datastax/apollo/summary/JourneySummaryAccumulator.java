@@ -0,0 +1,141 @@
+package com.datastax.apollo.summary;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import com.datastax.apollo.entity.LocationUdt;
+import com.datastax.apollo.entity.SpacecraftJourneySummary;
+
+/**
+ * Figures of a journey updated reading after reading, in a single pass and constant memory.
+ *
+ * Readings of each instrument are expected ordered by time (either direction), the distance is
+ * the length of the polyline joining consecutive locations.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+public class JourneySummaryAccumulator {
+
+    private long firstReading = Long.MAX_VALUE;
+    private long lastReading  = Long.MIN_VALUE;
+
+    private double minTemperature = Double.NaN;
+    private double maxTemperature = Double.NaN;
+    private String temperatureUnit;
+    private long   temperatureCount;
+
+    private long   pressureCount;
+
+    private double maxSpeed = Double.NaN;
+    private String speedUnit;
+    private long   speedCount;
+
+    private double distance;
+    private String distanceUnit;
+    private long   locationCount;
+    private boolean hasPreviousLocation;
+    private double previousX, previousY, previousZ;
+
+    /**
+     * Account a temperature reading.
+     */
+    public void temperature(Instant readingTime, Double temperature, String unit) {
+        time(readingTime);
+        temperatureCount++;
+        if (temperature != null && !temperature.isNaN()) {
+            minTemperature  = Double.isNaN(minTemperature) ? temperature : Math.min(minTemperature, temperature);
+            maxTemperature  = Double.isNaN(maxTemperature) ? temperature : Math.max(maxTemperature, temperature);
+            temperatureUnit = unit;
+        }
+    }
+
+    /**
+     * Account a pressure reading.
+     */
+    public void pressure(Instant readingTime) {
+        time(readingTime);
+        pressureCount++;
+    }
+
+    /**
+     * Account a speed reading.
+     */
+    public void speed(Instant readingTime, Double speed, String unit) {
+        time(readingTime);
+        speedCount++;
+        if (speed != null && !speed.isNaN()) {
+            maxSpeed  = Double.isNaN(maxSpeed) ? speed : Math.max(maxSpeed, speed);
+            speedUnit = unit;
+        }
+    }
+
+    /**
+     * Account a location reading.
+     */
+    public void location(Instant readingTime, LocationUdt location, String unit) {
+        time(readingTime);
+        locationCount++;
+        if (location == null) {
+            return;
+        }
+        double x = location.getX_coordinate();
+        double y = location.getY_coordinate();
+        double z = location.getZ_coordinate();
+        if (hasPreviousLocation) {
+            double dx = x - previousX, dy = y - previousY, dz = z - previousZ;
+            distance += Math.sqrt(dx * dx + dy * dy + dz * dz);
+        }
+        previousX = x;
+        previousY = y;
+        previousZ = z;
+        hasPreviousLocation = true;
+        distanceUnit = unit;
+    }
+
+    /**
+     * Figures over all readings accounted so far.
+     *
+     * @param spacecraftName
+     *      spacecraft name
+     * @param journeyId
+     *      journey identifier
+     * @return
+     *      summary to save
+     */
+    public SpacecraftJourneySummary toSummary(String spacecraftName, UUID journeyId) {
+        SpacecraftJourneySummary summary = new SpacecraftJourneySummary();
+        summary.setSpacecraftName(spacecraftName);
+        summary.setJourneyId(journeyId);
+        if (firstReading <= lastReading) {
+            summary.setFirstReading(Instant.ofEpochMilli(firstReading));
+            summary.setLastReading(Instant.ofEpochMilli(lastReading));
+            summary.setDurationMillis(lastReading - firstReading);
+        }
+        summary.setDistance(distance);
+        summary.setDistanceUnit(distanceUnit);
+        summary.setMaxSpeed(nullable(maxSpeed));
+        summary.setSpeedUnit(speedUnit);
+        summary.setMinTemperature(nullable(minTemperature));
+        summary.setMaxTemperature(nullable(maxTemperature));
+        summary.setTemperatureUnit(temperatureUnit);
+        summary.setTemperatureCount(temperatureCount);
+        summary.setPressureCount(pressureCount);
+        summary.setSpeedCount(speedCount);
+        summary.setLocationCount(locationCount);
+        summary.setComputedAt(Instant.now());
+        return summary;
+    }
+
+    private void time(Instant readingTime) {
+        if (readingTime != null) {
+            long millis  = readingTime.toEpochMilli();
+            firstReading = Math.min(firstReading, millis);
+            lastReading  = Math.max(lastReading, millis);
+        }
+    }
+
+    private static Double nullable(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+}
@@ -0,0 +1,111 @@
+package com.datastax.apollo.anomaly;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import com.datastax.apollo.dao.JourneyKey;
+import com.datastax.apollo.dao.TenantKey;
+import com.datastax.apollo.entity.SpacecraftAnomalyEvent;
+import com.datastax.apollo.entity.SpacecraftPressureOverTime;
+import com.datastax.apollo.entity.SpacecraftSpeedOverTime;
+import com.datastax.apollo.entity.SpacecraftTemperatureOverTime;
+import com.datastax.apollo.model.Instrument;
+
+/**
+ * Anomalies flagged by {@link AnomalyDetector} on synthetic readings.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+public class AnomalyDetectorTest {
+
+    private static final TenantKey TENANT = new TenantKey("bundle.zip", "user", "killrvideo");
+
+    private static final JourneyKey JOURNEY = new JourneyKey(TENANT, "voyager", UUID.randomUUID());
+
+    @Test
+    public void flagsOutlierAfterWarmup() {
+        AnomalyDetector detector = new AnomalyDetector(0.05, 4.0, 30, 100);
+        assertEquals(0, warmUp(detector, JOURNEY, 100));
+        List<SpacecraftAnomalyEvent> anomalies = detector.evaluate(JOURNEY, temperature(100, 80.0), pressure(100, 1.0), speed(100, null));
+        assertEquals(1, anomalies.size());
+        SpacecraftAnomalyEvent anomaly = anomalies.get(0);
+        assertEquals(Instrument.TEMPERATURE.name(), anomaly.getInstrument());
+        assertEquals(80.0, anomaly.getReading_value(), 0);
+        assertTrue(Math.abs(anomaly.getExpected_value() - 20.5) < 0.5);
+        assertTrue(anomaly.getZscore() > 4.0);
+        assertEquals("voyager", anomaly.getSpacecraft_name());
+        assertEquals(JOURNEY.getJourneyId(), anomaly.getJourney_id());
+        assertEquals(100_000, anomaly.getReading_time().toEpochMilli());
+    }
+
+    @Test
+    public void noAnomalyDuringWarmup() {
+        AnomalyDetector detector = new AnomalyDetector(0.05, 4.0, 30, 100);
+        assertEquals(0, warmUp(detector, JOURNEY, 10));
+        assertEquals(0, detector.evaluate(JOURNEY, temperature(10, 1000.0), pressure(10, 1.0), speed(10, 1.0)).size());
+    }
+
+    @Test
+    public void missingReadingsAreIgnored() {
+        AnomalyDetector detector = new AnomalyDetector(0.05, 4.0, 30, 100);
+        warmUp(detector, JOURNEY, 100);
+        for (int i = 100; i < 200; i++) {
+            assertEquals(0, detector.evaluate(JOURNEY, temperature(i, Double.NaN), pressure(i, null), speed(i, null)).size());
+        }
+        assertEquals(1, detector.evaluate(JOURNEY, temperature(200, -40.0), pressure(200, 1.0), speed(200, 1.0)).size());
+    }
+
+    @Test
+    public void releasedJourneyWarmsUpAgain() {
+        AnomalyDetector detector = new AnomalyDetector(0.05, 4.0, 30, 100);
+        warmUp(detector, JOURNEY, 100);
+        detector.release(TENANT);
+        assertEquals(0, detector.evaluate(JOURNEY, temperature(100, 80.0), pressure(100, 1.0), speed(100, 1.0)).size());
+    }
+
+    @Test
+    public void journeysAreIndependent() {
+        AnomalyDetector detector = new AnomalyDetector(0.05, 4.0, 30, 100);
+        JourneyKey other = new JourneyKey(TENANT, "voyager", UUID.randomUUID());
+        warmUp(detector, JOURNEY, 100);
+        assertEquals(0, detector.evaluate(other, temperature(0, 80.0), pressure(0, 1.0), speed(0, 1.0)).size());
+        assertEquals(1, detector.evaluate(JOURNEY, temperature(100, 80.0), pressure(100, 1.0), speed(100, 1.0)).size());
+    }
+
+    /** Temperature alternating between 20 and 21, constant pressure and speed. */
+    private static int warmUp(AnomalyDetector detector, JourneyKey journey, int readings) {
+        int anomalies = 0;
+        for (int i = 0; i < readings; i++) {
+            anomalies += detector.evaluate(journey, temperature(i, 20.0 + (i % 2)), pressure(i, 1.0), speed(i, 1.0)).size();
+        }
+        return anomalies;
+    }
+
+    private static SpacecraftTemperatureOverTime temperature(int second, Double value) {
+        SpacecraftTemperatureOverTime reading = new SpacecraftTemperatureOverTime();
+        reading.setReading_time(Instant.ofEpochSecond(second));
+        reading.setTemperature(value);
+        return reading;
+    }
+
+    private static SpacecraftPressureOverTime pressure(int second, Double value) {
+        SpacecraftPressureOverTime reading = new SpacecraftPressureOverTime();
+        reading.setReading_time(Instant.ofEpochSecond(second));
+        reading.setPressure(value);
+        return reading;
+    }
+
+    private static SpacecraftSpeedOverTime speed(int second, Double value) {
+        SpacecraftSpeedOverTime reading = new SpacecraftSpeedOverTime();
+        reading.setReading_time(Instant.ofEpochSecond(second));
+        reading.setSpeed(value);
+        return reading;
+    }
+
+}
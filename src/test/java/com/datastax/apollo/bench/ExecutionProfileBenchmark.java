@@ -0,0 +1,133 @@
+package com.datastax.apollo.bench;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.datastax.apollo.dao.ExecutionProfile;
+import com.datastax.apollo.dao.SessionManager;
+import com.datastax.apollo.dao.SpacecraftInstrumentsDao;
+import com.datastax.apollo.dao.SpacecraftMapperBuilder;
+import com.datastax.apollo.dao.TelemetryStorage;
+import com.datastax.apollo.entity.SpacecraftTemperatureOverTime;
+import com.datastax.oss.driver.api.core.CqlSession;
+
+/**
+ * Compare execution profiles on the two read workloads of the application against an existing journey.
+ * 
+ * <ul>
+ *  <li>interactive: first page of temperature readings, concurrent clients, latency percentiles</li>
+ *  <li>export: full journey of temperature readings, readings per second</li>
+ * </ul>
+ * 
+ * Benchmarks are not packaged with the application, run them from the test classpath
+ * (mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=...).
+ *
+ * Usage: ExecutionProfileBenchmark &lt;bundle.zip&gt; &lt;user&gt; &lt;password&gt; &lt;keyspace&gt; 
+ *   &lt;spacecraftName&gt; &lt;journeyId&gt; [requests] [clients]
+ */
+public class ExecutionProfileBenchmark {
+    
+    /** First page as requested by the dashboards. */
+    private static final int INTERACTIVE_PAGE_SIZE = 10;
+    
+    /** Requests discarded before measuring (prepared statements, connections, JIT). */
+    private static final int WARMUP_REQUESTS = 200;
+    
+    public static void main(String[] args) throws Exception {
+        if (args.length < 6) {
+            System.err.println("Usage: ExecutionProfileBenchmark <bundle.zip> <user> <password> <keyspace> "
+                    + "<spacecraftName> <journeyId> [requests] [clients]");
+            System.exit(1);
+        }
+        String spacecraftName = args[4];
+        UUID   journeyId      = UUID.fromString(args[5]);
+        int    requests       = args.length > 6 ? Integer.parseInt(args[6]) : 5000;
+        int    clients        = args.length > 7 ? Integer.parseInt(args[7]) : 16;
+        SessionManager.getInstance().saveCredentials(args[1], args[2], args[3], args[0]);
+        try {
+            CqlSession cqlSession = SessionManager.getInstance().connectToApollo();
+            SpacecraftInstrumentsDao dao = new SpacecraftMapperBuilder(cqlSession).build()
+                    .spacecraftInstrumentsDao(cqlSession.getKeyspace().get(), TelemetryStorage.PER_INSTRUMENT.getDaoTable());
+            System.out.println("profile       workload      p50(ms)  p99(ms)  p999(ms)  max(ms)  throughput");
+            for (ExecutionProfile profile : ExecutionProfile.values()) {
+                interactive(dao, profile, spacecraftName, journeyId, requests, clients);
+            }
+            for (ExecutionProfile profile : ExecutionProfile.values()) {
+                export(dao, profile, spacecraftName, journeyId);
+            }
+        } finally {
+            SessionManager.getInstance().close();
+        }
+    }
+    
+    private static void interactive(SpacecraftInstrumentsDao dao, ExecutionProfile profile, 
+            String spacecraftName, UUID journeyId, int requests, int clients) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        try {
+            run(executor, clients, WARMUP_REQUESTS, dao, profile, spacecraftName, journeyId);
+            long top = System.nanoTime();
+            long[] latencies = run(executor, clients, requests, dao, profile, spacecraftName, journeyId);
+            long elapsed = System.nanoTime() - top;
+            Arrays.sort(latencies);
+            System.out.println(String.format("%-13s %-13s %8.2f %8.2f %9.2f %8.2f  %8.0f req/s", 
+                    profile.getProfileName(), "interactive",
+                    millis(percentile(latencies, 0.50)), millis(percentile(latencies, 0.99)),
+                    millis(percentile(latencies, 0.999)), millis(latencies[latencies.length - 1]),
+                    requests / (elapsed / 1e9)));
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+    
+    private static long[] run(ExecutorService executor, int clients, int requests,
+            SpacecraftInstrumentsDao dao, ExecutionProfile profile, String spacecraftName, UUID journeyId) throws Exception {
+        long[] latencies = new long[requests];
+        List<Future<?>> futures = new ArrayList<>(clients);
+        for (int c = 0; c < clients; c++) {
+            final int client = c;
+            futures.add(executor.submit(() -> {
+                for (int i = client; i < requests; i += clients) {
+                    long start = System.nanoTime();
+                    dao.getTemperatureReading(spacecraftName, journeyId, 
+                            Optional.of(INTERACTIVE_PAGE_SIZE), Optional.empty(), profile).getAvailableWithoutFetching();
+                    latencies[i] = System.nanoTime() - start;
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        return latencies;
+    }
+    
+    private static void export(SpacecraftInstrumentsDao dao, ExecutionProfile profile, String spacecraftName, UUID journeyId) {
+        long top   = System.nanoTime();
+        long count = 0;
+        for (SpacecraftTemperatureOverTime reading : dao.getTemperatureReading(
+                spacecraftName, journeyId, Optional.empty(), Optional.empty(), profile)) {
+            if (reading != null) {
+                count++;
+            }
+        }
+        long elapsed = System.nanoTime() - top;
+        System.out.println(String.format("%-13s %-13s %8s %8s %9s %8.2f  %8.0f readings/s", 
+                profile.getProfileName(), "export", "-", "-", "-", millis(elapsed), count / (elapsed / 1e9)));
+    }
+    
+    private static long percentile(long[] sorted, double p) {
+        return sorted[(int) Math.max(0, Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1))];
+    }
+    
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+    
+}
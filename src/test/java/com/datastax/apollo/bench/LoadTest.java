@@ -0,0 +1,190 @@
+package com.datastax.apollo.bench;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.datastax.apollo.GettingStartedWithApollo;
+import com.datastax.apollo.dao.SessionManager;
+import com.datastax.apollo.dao.TenantKey;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.CqlSessionBuilder;
+
+/**
+ * Load test of the REST API: journeys, instruments and ingestion for many simulated spacecrafts.
+ *
+ * Requests are sent at a fixed mean rate whatever the response times (see {@link OpenLoadGenerator}),
+ * latencies are corrected for coordinated omission. After a warmup phase the measured phase is
+ * reported per operation on the console and saved to compare runs:
+ * <ul>
+ *  <li>&lt;report&gt;.txt: parameters of the run and percentiles per operation</li>
+ *  <li>&lt;report&gt;.hlog: histograms in HdrHistogram log format, tagged by operation</li>
+ * </ul>
+ *
+ * The target is either a running service (http://host:port) or a local Cassandra cluster
+ * (local:host:port/datacenter): the service is then started in this process against the cluster,
+ * in keyspace apollo_loadtest (created if needed), with user and password cassandra.
+ *
+ * Benchmarks are not packaged with the application, run them from the test classpath
+ * (mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=...).
+ *
+ * Usage: LoadTest &lt;target&gt; [ratePerSecond] [durationSeconds] [readRatio] [spacecrafts] [report]
+ */
+public class LoadTest {
+
+    /** Phase discarded before measuring (connections, prepared statements, JIT). */
+    private static final long WARMUP_SECONDS = 10;
+
+    /** Readings of each journey before the load starts, so that reads return full pages. */
+    private static final int SEED_READINGS = 100;
+
+    /** Page size of reads and readings per ingestion request. */
+    private static final int PAGE_SIZE    = 10;
+    private static final int INGEST_ITEMS = 10;
+
+    /** Requests waiting for a response beyond which new ones are not sent (counted). */
+    private static final int MAX_OUTSTANDING = 10000;
+
+    /** Same requests from one run to the other. */
+    private static final long SEED = 42;
+
+    /** Local cluster, the bundle path of the tenant stands for local:host:port/datacenter. */
+    private static final String LOCAL_CLUSTER_PREFIX = "local:";
+    private static final String LOCAL_USER     = "cassandra";
+    private static final String LOCAL_PASSWORD = "cassandra";
+    private static final String LOCAL_KEYSPACE = "apollo_loadtest";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: LoadTest <http://host:port | local:host:port/datacenter> "
+                    + "[ratePerSecond] [durationSeconds] [readRatio] [spacecrafts] [report]");
+            System.exit(1);
+        }
+        double rate        = args.length > 1 ? Double.parseDouble(args[1]) : 200;
+        long   duration    = args.length > 2 ? Long.parseLong(args[2]) : 60;
+        double readRatio   = args.length > 3 ? Double.parseDouble(args[3]) : 0.9;
+        int    spacecrafts = args.length > 4 ? Integer.parseInt(args[4]) : 50;
+        String report      = args.length > 5 ? args[5] : "loadtest-" + System.currentTimeMillis();
+
+        ConfigurableApplicationContext localService = null;
+        String target = args[0];
+        if (target.startsWith(LOCAL_CLUSTER_PREFIX)) {
+            localService = startLocalService(target);
+            target = "http://localhost:" + localService.getEnvironment().getProperty("local.server.port");
+        }
+        AtomicInteger counter = new AtomicInteger();
+        ExecutorService responses = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), r -> {
+            Thread t = new Thread(r, "loadtest-http-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .executor(responses)
+                    .build();
+            List<String> spacecraftNames = new ArrayList<>();
+            List<UUID>   journeyIds      = new ArrayList<>();
+            System.out.println("Creating " + spacecrafts + " journeys with " + SEED_READINGS + " readings each");
+            for (int i = 0; i < spacecrafts; i++) {
+                String spacecraftName = String.format("loadtest-%04d", i);
+                spacecraftNames.add(spacecraftName);
+                journeyIds.add(createJourney(httpClient, target, spacecraftName));
+            }
+            OpenLoadGenerator generator = new OpenLoadGenerator(httpClient, target, spacecraftNames, journeyIds,
+                    readRatio, PAGE_SIZE, INGEST_ITEMS, MAX_OUTSTANDING);
+            System.out.println("Warming up for " + WARMUP_SECONDS + "s");
+            generator.run(rate, TimeUnit.SECONDS.toNanos(WARMUP_SECONDS), new LoadTestReport(), SEED);
+            System.out.println("Measuring for " + duration + "s");
+            LoadTestReport measured = new LoadTestReport();
+            long elapsed = generator.run(rate, TimeUnit.SECONDS.toNanos(duration), measured, SEED + 1);
+
+            String header = String.format("# %s target=%s rate=%.1f/s duration=%ds readRatio=%.2f spacecrafts=%d pageSize=%d ingestItems=%d",
+                    Instant.now(), args[0], rate, duration, readRatio, spacecrafts, PAGE_SIZE, INGEST_ITEMS);
+            ByteArrayOutputStream summary = new ByteArrayOutputStream();
+            try (PrintStream out = new PrintStream(summary, true, StandardCharsets.UTF_8)) {
+                measured.write(out, header, elapsed, Paths.get(report + ".hlog"));
+            }
+            System.out.print(summary.toString(StandardCharsets.UTF_8));
+            Path summaryFile = Files.write(Paths.get(report + ".txt"), summary.toByteArray());
+            System.out.println("Report saved to " + summaryFile + " and " + report + ".hlog");
+        } finally {
+            responses.shutdownNow();
+            if (localService != null) {
+                localService.close();
+            }
+        }
+    }
+
+    private static UUID createJourney(HttpClient httpClient, String target, String spacecraftName) throws Exception {
+        HttpResponse<String> created = httpClient.send(HttpRequest.newBuilder()
+                .uri(URI.create(target + "/api/spacecrafts/" + spacecraftName))
+                .header("Content-Type", "text/plain")
+                .POST(HttpRequest.BodyPublishers.ofString("Load test"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (created.statusCode() != 201) {
+            throw new IllegalStateException("Cannot create journey for " + spacecraftName + ": " + created.statusCode() + " " + created.body());
+        }
+        UUID journeyId = UUID.fromString(created.body().trim());
+        HttpResponse<String> preloaded = httpClient.send(
+                LoadTestOperation.INGEST.request(target, spacecraftName, journeyId, SEED_READINGS),
+                HttpResponse.BodyHandlers.ofString());
+        if (preloaded.statusCode() != 200) {
+            throw new IllegalStateException("Cannot load readings for " + spacecraftName + ": " + preloaded.statusCode() + " " + preloaded.body());
+        }
+        return journeyId;
+    }
+
+    /**
+     * Create the keyspace on the local cluster and start the service against it in this process,
+     * tables are created by the service (see SchemaManager).
+     */
+    private static ConfigurableApplicationContext startLocalService(String localCluster) throws Exception {
+        TenantKey key = new TenantKey(localCluster, LOCAL_USER, LOCAL_KEYSPACE);
+        try (CqlSession cqlSession = localSessionBuilder(key, LOCAL_PASSWORD).build()) {
+            cqlSession.execute("CREATE KEYSPACE IF NOT EXISTS " + LOCAL_KEYSPACE
+                    + " WITH replication = {'class': 'SimpleStrategy', 'replication_factor': 1}");
+        }
+        SessionManager.getInstance().configureSessionBuilderFactory(LoadTest::localSessionBuilder);
+        SessionManager.getInstance().saveCredentials(LOCAL_USER, LOCAL_PASSWORD, LOCAL_KEYSPACE, localCluster);
+        return SpringApplication.run(GettingStartedWithApollo.class, "--server.port=0");
+    }
+
+    /**
+     * Sessions of the local cluster: contact point and datacenter instead of a bundle.
+     */
+    private static CqlSessionBuilder localSessionBuilder(TenantKey key, String password) {
+        String localCluster = key.getSecureConnectionBundlePath();
+        String[] hostAndDatacenter = localCluster.substring(LOCAL_CLUSTER_PREFIX.length()).split("/", 2);
+        int colon = hostAndDatacenter[0].lastIndexOf(':');
+        if (hostAndDatacenter.length < 2 || colon < 0) {
+            throw new IllegalArgumentException("Expecting " + LOCAL_CLUSTER_PREFIX + "host:port/datacenter, got " + localCluster);
+        }
+        return CqlSession.builder().withAuthCredentials(key.getUserName(), password)
+                .addContactPoint(new InetSocketAddress(hostAndDatacenter[0].substring(0, colon), 
+                        Integer.parseInt(hostAndDatacenter[0].substring(colon + 1))))
+                .withLocalDatacenter(hostAndDatacenter[1]);
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.datastax.apollo.bench;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Requests sent by the load test, reads are picked by weight within the read share of the mix.
+ */
+public enum LoadTestOperation {
+
+    /** Dashboards: first page of each instrument. */
+    READ_TEMPERATURE(false, 2, "/api/spacecraft/%s/%s/instruments/temperature?pageSize=%d"),
+    READ_PRESSURE(false, 2, "/api/spacecraft/%s/%s/instruments/pressure?pageSize=%d"),
+    READ_SPEED(false, 2, "/api/spacecraft/%s/%s/instruments/speed?pageSize=%d"),
+    READ_LOCATION(false, 2, "/api/spacecraft/%s/%s/instruments/location?pageSize=%d"),
+
+    /** Catalog lookups. */
+    READ_JOURNEY(false, 1, "/api/spacecrafts/%s/%s"),
+    LIST_JOURNEYS(false, 1, "/api/spacecrafts/%s"),
+
+    /** Ingestion: readings of all instruments for a few timestamps. */
+    INGEST(true, 1, "/api/spacecrafts/%s/%s/preload?itemCount=%d");
+
+    /** Request timeout, slower requests are errors. */
+    public static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final boolean write;
+
+    private final int weight;
+
+    private final String pathTemplate;
+
+    private LoadTestOperation(boolean write, int weight, String pathTemplate) {
+        this.write        = write;
+        this.weight       = weight;
+        this.pathTemplate = pathTemplate;
+    }
+
+    /**
+     * Build the request for a journey.
+     *
+     * @param target
+     *      base url of the service
+     * @param spacecraftName
+     *      simulated spacecraft
+     * @param journeyId
+     *      its journey
+     * @param size
+     *      page size for reads, readings per request for ingestion
+     * @return
+     *      request to send
+     */
+    public HttpRequest request(String target, String spacecraftName, UUID journeyId, int size) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .uri(URI.create(target + String.format(pathTemplate, spacecraftName, journeyId, size)))
+                .timeout(REQUEST_TIMEOUT);
+        return (write ? builder.POST(HttpRequest.BodyPublishers.noBody()) : builder.GET()).build();
+    }
+
+    /**
+     * Getter accessor for attribute 'write'.
+     *
+     * @return
+     *       current value of 'write'
+     */
+    public boolean isWrite() {
+        return write;
+    }
+
+    /**
+     * Getter accessor for attribute 'weight'.
+     *
+     * @return
+     *       current value of 'weight'
+     */
+    public int getWeight() {
+        return weight;
+    }
+
+}
@@ -0,0 +1,146 @@
+package com.datastax.apollo.bench;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Latencies and errors of a load test phase, per operation.
+ *
+ * Two latencies are recorded for each successful request (microseconds):
+ * <ul>
+ *  <li>response time: from the time the request should have been sent, as scheduled by the arrival rate,
+ *  to the response. A service falling behind delays the following requests, this delay is counted
+ *  (coordinated omission correction).</li>
+ *  <li>service time: from the time the request was actually sent to the response.</li>
+ * </ul>
+ * Errors (including timeouts) and requests shed by the service (503) are counted apart.
+ */
+public class LoadTestReport {
+
+    /** Latencies per operation. */
+    private final Map<LoadTestOperation, Recorder> responseTimes = new EnumMap<>(LoadTestOperation.class);
+    private final Map<LoadTestOperation, Recorder> serviceTimes  = new EnumMap<>(LoadTestOperation.class);
+
+    /** Failures per operation. */
+    private final Map<LoadTestOperation, LongAdder> errors = new EnumMap<>(LoadTestOperation.class);
+    private final Map<LoadTestOperation, LongAdder> shed   = new EnumMap<>(LoadTestOperation.class);
+
+    /** Requests not sent as too many were waiting for a response. */
+    private final LongAdder notSent = new LongAdder();
+
+    /**
+     * Constructor.
+     */
+    public LoadTestReport() {
+        for (LoadTestOperation op : LoadTestOperation.values()) {
+            responseTimes.put(op, new Recorder(3));
+            serviceTimes.put(op, new Recorder(3));
+            errors.put(op, new LongAdder());
+            shed.put(op, new LongAdder());
+        }
+    }
+
+    /**
+     * Record a successful request.
+     *
+     * @param op
+     *      operation
+     * @param intendedNanos
+     *      time the request should have been sent
+     * @param sentNanos
+     *      time the request was sent
+     * @param completedNanos
+     *      time the response was received
+     */
+    public void recordSuccess(LoadTestOperation op, long intendedNanos, long sentNanos, long completedNanos) {
+        responseTimes.get(op).recordValue(TimeUnit.NANOSECONDS.toMicros(completedNanos - intendedNanos));
+        serviceTimes.get(op).recordValue(TimeUnit.NANOSECONDS.toMicros(completedNanos - sentNanos));
+    }
+
+    /**
+     * Record a request rejected by the service as overloaded.
+     */
+    public void recordShed(LoadTestOperation op) {
+        shed.get(op).increment();
+    }
+
+    /**
+     * Record a failed request.
+     */
+    public void recordError(LoadTestOperation op) {
+        errors.get(op).increment();
+    }
+
+    /**
+     * Record a request not sent.
+     */
+    public void recordNotSent() {
+        notSent.increment();
+    }
+
+    /**
+     * Print the summary of the phase, one line per operation and a total.
+     *
+     * @param out
+     *      destination
+     * @param header
+     *      parameters of the run, printed first to compare reports
+     * @param elapsedNanos
+     *      duration of the phase
+     * @param histogramLog
+     *      file receiving the histograms in HdrHistogram log format, tagged by operation (and '-service')
+     */
+    public void write(PrintStream out, String header, long elapsedNanos, Path histogramLog) throws FileNotFoundException {
+        double seconds = elapsedNanos / 1e9;
+        Histogram allResponses = new Histogram(3);
+        out.println(header);
+        out.println(String.format("%-16s %9s %7s %7s %9s %9s %9s %9s %9s %9s %11s",
+                "operation", "count", "errors", "shed", "req/s", "p50(ms)", "p90(ms)", "p99(ms)", "p999(ms)", "max(ms)", "svc p99(ms)"));
+        try (PrintStream log = new PrintStream(histogramLog.toFile())) {
+            HistogramLogWriter logWriter = new HistogramLogWriter(log);
+            logWriter.outputComment(header.replace('\n', ' '));
+            logWriter.outputLogFormatVersion();
+            logWriter.outputLegend();
+            long totalErrors = 0;
+            long totalShed   = 0;
+            for (LoadTestOperation op : LoadTestOperation.values()) {
+                Histogram response = responseTimes.get(op).getIntervalHistogram();
+                Histogram service  = serviceTimes.get(op).getIntervalHistogram();
+                response.setTag(op.name());
+                service.setTag(op.name() + "-service");
+                logWriter.outputIntervalHistogram(response);
+                logWriter.outputIntervalHistogram(service);
+                allResponses.add(response);
+                totalErrors += errors.get(op).sum();
+                totalShed   += shed.get(op).sum();
+                out.println(line(op.name(), response, errors.get(op).sum(), shed.get(op).sum(), seconds, service));
+            }
+            out.println(line("TOTAL", allResponses, totalErrors, totalShed, seconds, null));
+            if (notSent.sum() > 0) {
+                out.println(notSent.sum() + " request(s) not sent, too many waiting for a response");
+            }
+        }
+    }
+
+    private static String line(String name, Histogram response, long errors, long shed, double seconds, Histogram service) {
+        return String.format("%-16s %9d %7d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %11s",
+                name, response.getTotalCount(), errors, shed, response.getTotalCount() / seconds,
+                millis(response, 50), millis(response, 90), millis(response, 99), millis(response, 99.9),
+                response.getMaxValue() / 1e3,
+                service == null ? "-" : String.format("%.2f", millis(service, 99)));
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1e3;
+    }
+
+}
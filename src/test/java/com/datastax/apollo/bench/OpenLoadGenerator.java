@@ -0,0 +1,139 @@
+package com.datastax.apollo.bench;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Send requests at a given arrival rate whatever the response times (open model), like independent
+ * users do: a slow service does not slow down the load, requests pile up instead.
+ *
+ * Arrivals follow a Poisson process. Each request is scheduled at its arrival time and its response
+ * time is measured from it, even when the generator sends it late.
+ */
+public class OpenLoadGenerator {
+
+    /** Status returned by the service when it sheds load. */
+    private static final int SERVICE_UNAVAILABLE = 503;
+
+    /** Asynchronous client, responses are handled as they come. */
+    private final HttpClient httpClient;
+
+    /** Base url of the service. */
+    private final String target;
+
+    /** Simulated spacecrafts and their journey. */
+    private final List<String> spacecraftNames;
+    private final List<UUID>   journeyIds;
+
+    /** Share of reads in the mix (0..1). */
+    private final double readRatio;
+
+    /** Page size of reads, readings per ingestion request. */
+    private final int pageSize;
+    private final int ingestItems;
+
+    /** Requests waiting for a response, bounded to keep the generator alive under overload. */
+    private final int maxOutstanding;
+    private final AtomicInteger outstanding = new AtomicInteger();
+
+    /** Reads repeated by weight, picked uniformly. */
+    private final LoadTestOperation[] readsByWeight;
+
+    /**
+     * Constructor.
+     */
+    public OpenLoadGenerator(HttpClient httpClient, String target, List<String> spacecraftNames, List<UUID> journeyIds,
+            double readRatio, int pageSize, int ingestItems, int maxOutstanding) {
+        this.httpClient      = httpClient;
+        this.target          = target;
+        this.spacecraftNames = spacecraftNames;
+        this.journeyIds      = journeyIds;
+        this.readRatio       = readRatio;
+        this.pageSize        = pageSize;
+        this.ingestItems     = ingestItems;
+        this.maxOutstanding  = maxOutstanding;
+        int count = 0;
+        for (LoadTestOperation op : LoadTestOperation.values()) {
+            if (!op.isWrite()) {
+                count += op.getWeight();
+            }
+        }
+        LoadTestOperation[] weighted = new LoadTestOperation[count];
+        int i = 0;
+        for (LoadTestOperation op : LoadTestOperation.values()) {
+            for (int w = 0; !op.isWrite() && w < op.getWeight(); w++) {
+                weighted[i++] = op;
+            }
+        }
+        this.readsByWeight = weighted;
+    }
+
+    /**
+     * Run a phase and wait for the responses.
+     *
+     * @param ratePerSecond
+     *      mean arrival rate
+     * @param durationNanos
+     *      duration of the phase
+     * @param report
+     *      receives latencies and errors
+     * @param seed
+     *      random seed, same seed gives the same sequence of requests
+     * @return
+     *      duration of the phase until the last response
+     */
+    public long run(double ratePerSecond, long durationNanos, LoadTestReport report, long seed) throws InterruptedException {
+        Random random = new Random(seed);
+        long start = System.nanoTime();
+        long end   = start + durationNanos;
+        long next  = start;
+        while (next < end) {
+            long wait = next - System.nanoTime();
+            while (wait > 0) {
+                LockSupport.parkNanos(wait);
+                wait = next - System.nanoTime();
+            }
+            int spacecraft = random.nextInt(spacecraftNames.size());
+            LoadTestOperation op = random.nextDouble() < readRatio
+                    ? readsByWeight[random.nextInt(readsByWeight.length)] : LoadTestOperation.INGEST;
+            send(op, spacecraft, next, report);
+            // Exponential inter-arrival times
+            next += (long) (-Math.log(1 - random.nextDouble()) / ratePerSecond * 1e9);
+        }
+        while (outstanding.get() > 0) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private void send(LoadTestOperation op, int spacecraft, long intendedNanos, LoadTestReport report) {
+        if (outstanding.incrementAndGet() > maxOutstanding) {
+            outstanding.decrementAndGet();
+            report.recordNotSent();
+            return;
+        }
+        long sentNanos = System.nanoTime();
+        httpClient.sendAsync(op.request(target, spacecraftNames.get(spacecraft), journeyIds.get(spacecraft),
+                    op.isWrite() ? ingestItems : pageSize), HttpResponse.BodyHandlers.discarding())
+                  .whenComplete((response, error) -> {
+                      long completedNanos = System.nanoTime();
+                      if (error != null) {
+                          report.recordError(op);
+                      } else if (response.statusCode() == SERVICE_UNAVAILABLE) {
+                          report.recordShed(op);
+                      } else if (response.statusCode() >= 300) {
+                          report.recordError(op);
+                      } else {
+                          report.recordSuccess(op, intendedNanos, sentNanos, completedNanos);
+                      }
+                      outstanding.decrementAndGet();
+                  });
+    }
+
+}
@@ -0,0 +1,179 @@
+package com.datastax.apollo.bulk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Number handling of {@link TelemetryParser}, compared with the JDK parsers.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+public class TelemetryParserTest {
+
+    @Test
+    public void parseLongSigns() {
+        assertEquals(0L, parseLong("0"));
+        assertEquals(1571327488123L, parseLong("1571327488123"));
+        assertEquals(42L, parseLong("+42"));
+        assertEquals(-42L, parseLong("-42"));
+        assertEquals(7L, parseLong("  7\t"));
+    }
+
+    @Test
+    public void parseLongBounds() {
+        assertEquals(Long.MAX_VALUE, parseLong(String.valueOf(Long.MAX_VALUE)));
+        assertEquals(Long.MIN_VALUE, parseLong(String.valueOf(Long.MIN_VALUE)));
+    }
+
+    @Test
+    public void parseLongOverflow() {
+        assertInvalidLong("9223372036854775808");
+        assertInvalidLong("-9223372036854775809");
+        assertInvalidLong("99999999999999999999");
+    }
+
+    @Test
+    public void parseLongMalformed() {
+        assertInvalidLong("");
+        assertInvalidLong("-");
+        assertInvalidLong("+");
+        assertInvalidLong("12a");
+        assertInvalidLong("1.5");
+        assertInvalidLong("--1");
+    }
+
+    @Test
+    public void parseDoubleSigns() {
+        assertSameAsJdk("12.5");
+        assertSameAsJdk("+12.5");
+        assertSameAsJdk("-12.5");
+        assertSameAsJdk("-0.0");
+        assertSameAsJdk(".5");
+        assertSameAsJdk("5.");
+    }
+
+    @Test
+    public void parseDoubleExponents() {
+        assertSameAsJdk("1e3");
+        assertSameAsJdk("1E3");
+        assertSameAsJdk("1.5e+3");
+        assertSameAsJdk("1.5e-3");
+        assertSameAsJdk("-2.5E-22");
+        assertSameAsJdk("6.02214076e23");
+        assertSameAsJdk("4.9e-324");
+    }
+
+    @Test
+    public void parseDoubleDigits() {
+        assertSameAsJdk("0.1");
+        assertSameAsJdk("0.000001234");
+        assertSameAsJdk("3.141592653589793");
+        assertSameAsJdk("123456789012345678901234567890");
+        assertSameAsJdk("0.12345678901234567890123");
+        assertSameAsJdk("9007199254740993");
+    }
+
+    @Test
+    public void parseDoubleOverflow() {
+        assertEquals(Double.POSITIVE_INFINITY, parseDouble("1e400"), 0);
+        assertEquals(Double.NEGATIVE_INFINITY, parseDouble("-1e400"), 0);
+        assertEquals(Double.POSITIVE_INFINITY, parseDouble("1e99999999999999999999"), 0);
+        assertEquals(0.0, parseDouble("1e-99999999999999999999"), 0);
+        assertEquals(0.0, parseDouble("1e-400"), 0);
+    }
+
+    @Test
+    public void parseDoubleMissing() {
+        assertTrue(Double.isNaN(parseDouble("")));
+        assertTrue(Double.isNaN(parseDouble("  ")));
+    }
+
+    @Test
+    public void parseDoubleMalformed() {
+        assertInvalidDouble("-");
+        assertInvalidDouble("+");
+        assertInvalidDouble(".");
+        assertInvalidDouble("abc");
+        assertInvalidDouble("1.2.3");
+        assertInvalidDouble("1e");
+        assertInvalidDouble("1e+");
+        assertInvalidDouble("1e5x");
+        assertInvalidDouble("e5");
+        assertInvalidDouble("12 3");
+        assertInvalidDouble("NaN");
+    }
+
+    @Test
+    public void parseRows() {
+        List<double[]> rows = new ArrayList<>();
+        TelemetryParser.RowHandler handler = (time, temperature, pressure, speed, x, y, z) ->
+            rows.add(new double[] { time, temperature, pressure, speed, x, y, z });
+        String csv = "reading_time,temperature,pressure,speed,x,y,z\n"
+                + "1000,-12.5,1.5e2,7,1,2,3\r\n"
+                + "2000,,,,,,\n";
+        assertEquals(2, TelemetryParser.parse(buffer(csv), TelemetryParser.Format.CSV, 0, handler));
+        String ndjson = "{\"reading_time\":3000,\"temperature\":-1E1,\"pressure\":null,\"note\":\"a,b\"}\n";
+        assertEquals(1, TelemetryParser.parse(buffer(ndjson), TelemetryParser.Format.NDJSON, 0, handler));
+        assertEquals(-12.5, rows.get(0)[1], 0);
+        assertEquals(150, rows.get(0)[2], 0);
+        assertTrue(Double.isNaN(rows.get(1)[1]));
+        assertEquals(3000, rows.get(2)[0], 0);
+        assertEquals(-10, rows.get(2)[1], 0);
+        assertTrue(Double.isNaN(rows.get(2)[2]));
+    }
+
+    @Test
+    public void parseRowsReportsOffset() {
+        try {
+            TelemetryParser.parse(buffer("1000,1,2,3,4,5,6\n1e,1,2,3,4,5,6\n"), TelemetryParser.Format.CSV, 100, (t, a, b, c, x, y, z) -> {});
+            fail("invalid reading_time");
+        } catch (IllegalArgumentException iae) {
+            assertTrue(iae.getMessage(), iae.getMessage().startsWith("Invalid line at byte 117"));
+        }
+    }
+
+    private static void assertSameAsJdk(String text) {
+        assertEquals(text, Double.doubleToLongBits(Double.parseDouble(text)), Double.doubleToLongBits(parseDouble(text)));
+    }
+
+    private static void assertInvalidLong(String text) {
+        try {
+            parseLong(text);
+            fail("'" + text + "' should be rejected");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
+
+    private static void assertInvalidDouble(String text) {
+        try {
+            parseDouble(text);
+            fail("'" + text + "' should be rejected");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
+
+    private static long parseLong(String text) {
+        ByteBuffer buf = buffer(text);
+        return TelemetryParser.parseLong(buf, 0, buf.limit());
+    }
+
+    private static double parseDouble(String text) {
+        ByteBuffer buf = buffer(text);
+        return TelemetryParser.parseDouble(buf, 0, buf.limit());
+    }
+
+    private static ByteBuffer buffer(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII));
+    }
+
+}
@@ -0,0 +1,121 @@
+package com.datastax.apollo.dao;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import org.junit.Test;
+
+import com.datastax.oss.driver.api.core.MappedAsyncPagingIterable;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
+import com.datastax.oss.driver.api.core.cql.ExecutionInfo;
+
+/**
+ * Paging of {@link AsyncPagingIterator} over in-memory pages.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+public class AsyncPagingIteratorTest {
+
+    @Test
+    public void iteratesAllPagesInOrder() {
+        Page<Integer> last  = new Page<>(Arrays.asList(4, 5), null);
+        Page<Integer> empty = new Page<>(Collections.emptyList(), CompletableFuture.completedFuture(last));
+        Page<Integer> first = new Page<>(Arrays.asList(1, 2, 3), CompletableFuture.completedFuture(empty));
+        List<Integer> values = new ArrayList<>();
+        new AsyncPagingIterator<>(CompletableFuture.completedFuture(first)).forEachRemaining(values::add);
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), values);
+    }
+
+    @Test
+    public void requestsNextPageBeforeConsumingCurrent() {
+        Page<Integer> second = new Page<>(Arrays.asList(2), null);
+        Page<Integer> first  = new Page<>(Arrays.asList(1), CompletableFuture.completedFuture(second));
+        AsyncPagingIterator<Integer> iterator = new AsyncPagingIterator<>(CompletableFuture.completedFuture(first));
+        assertFalse(first.fetched);
+        assertTrue(iterator.hasNext());
+        assertTrue(first.fetched);
+        assertEquals(1, (int) iterator.next());
+        assertEquals(2, (int) iterator.next());
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void failedPageIsRethrown() {
+        CompletableFuture<Page<Integer>> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new IllegalStateException("page 2"));
+        Page<Integer> first = new Page<>(Arrays.asList(1), failed);
+        AsyncPagingIterator<Integer> iterator = new AsyncPagingIterator<>(CompletableFuture.completedFuture(first));
+        assertEquals(1, (int) iterator.next());
+        try {
+            iterator.hasNext();
+            fail("second page failed");
+        } catch (IllegalStateException expected) {
+            assertEquals("page 2", expected.getMessage());
+        }
+        assertFalse(iterator.hasNext());
+    }
+
+    /**
+     * Page of results, the next one is provided when requested.
+     */
+    private static final class Page<T> implements MappedAsyncPagingIterable<T> {
+
+        private final List<T> rows;
+
+        private final CompletionStage<? extends MappedAsyncPagingIterable<T>> next;
+
+        private boolean fetched;
+
+        private Page(List<T> rows, CompletionStage<? extends MappedAsyncPagingIterable<T>> next) {
+            this.rows = rows;
+            this.next = next;
+        }
+
+        @Override
+        public ColumnDefinitions getColumnDefinitions() {
+            return null;
+        }
+
+        @Override
+        public ExecutionInfo getExecutionInfo() {
+            return null;
+        }
+
+        @Override
+        public int remaining() {
+            return rows.size();
+        }
+
+        @Override
+        public Iterable<T> currentPage() {
+            return rows;
+        }
+
+        @Override
+        public boolean hasMorePages() {
+            return next != null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public CompletionStage<MappedAsyncPagingIterable<T>> fetchNextPage() {
+            fetched = true;
+            return (CompletionStage<MappedAsyncPagingIterable<T>>) next;
+        }
+
+        @Override
+        public boolean wasApplied() {
+            return true;
+        }
+    }
+
+}
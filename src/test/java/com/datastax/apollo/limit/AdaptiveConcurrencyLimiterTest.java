@@ -0,0 +1,104 @@
+package com.datastax.apollo.limit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Limits computed by {@link AdaptiveConcurrencyLimiter} from observed latency.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+public class AdaptiveConcurrencyLimiterTest {
+
+    /** Time given to the limit to move, windows last 100ms. */
+    private static final long DEADLINE_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    @Test
+    public void rejectsOverLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 2, 1, 10, 2.0, 3);
+        AdaptiveConcurrencyLimiter.Permit first = limiter.acquire();
+        limiter.acquire();
+        try {
+            limiter.acquire();
+            fail("limit is 2");
+        } catch (LimitExceededException expected) {
+            assertEquals(3, expected.getRetryAfterSeconds());
+        }
+        first.onIgnore();
+        assertEquals(1, limiter.getInFlight());
+        limiter.acquire();
+        assertEquals(2, limiter.getInFlight());
+    }
+
+    @Test
+    public void permitIsReleasedOnce() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 4, 1, 10, 2.0, 1);
+        limiter.acquire();
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.acquire();
+        permit.onSuccess();
+        permit.onIgnore();
+        permit.onDropped();
+        assertEquals(1, limiter.getInFlight());
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    public void droppedHalvesLimitDownToMin() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 16, 4, 32, 2.0, 1);
+        limiter.acquire().onDropped();
+        assertEquals(8, limiter.getLimit());
+        limiter.acquire().onDropped();
+        assertEquals(4, limiter.getLimit());
+        limiter.acquire().onDropped();
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    public void growsWhileLatencyIsStable() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 4, 1, 64, 2.0, 1);
+        long start = System.nanoTime();
+        while (limiter.getLimit() <= 4 && System.nanoTime() - start < DEADLINE_NANOS) {
+            fullBatch(limiter, 1);
+        }
+        assertTrue("limit " + limiter.getLimit(), limiter.getLimit() > 4);
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void shrinksWhenLatencyIncreases() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 32, 4, 64, 1.0, 1);
+        // First window sets the lowest latency
+        long start = System.nanoTime();
+        while (System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(150)) {
+            fullBatch(limiter, 0);
+            Thread.sleep(1);
+        }
+        int limit = limiter.getLimit();
+        start = System.nanoTime();
+        while (limiter.getLimit() >= limit && System.nanoTime() - start < DEADLINE_NANOS) {
+            fullBatch(limiter, 30);
+        }
+        assertTrue("limit " + limiter.getLimit() + " was " + limit, limiter.getLimit() < limit);
+        assertTrue(limiter.getLimit() >= 4);
+    }
+
+    /** As many requests as the limit, all completing after a while. */
+    private static void fullBatch(AdaptiveConcurrencyLimiter limiter, long latencyMillis) throws InterruptedException {
+        List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+        for (int i = limiter.getLimit(); i > 0; i--) {
+            permits.add(limiter.acquire());
+        }
+        if (latencyMillis > 0) {
+            Thread.sleep(latencyMillis);
+        }
+        permits.forEach(AdaptiveConcurrencyLimiter.Permit::onSuccess);
+    }
+
+}
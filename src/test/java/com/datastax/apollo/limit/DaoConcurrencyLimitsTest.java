@@ -0,0 +1,118 @@
+package com.datastax.apollo.limit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import org.junit.Test;
+
+import com.datastax.apollo.dao.TenantKey;
+
+/**
+ * Slots taken and given back by DAOs decorated with {@link DaoConcurrencyLimits}.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+public class DaoConcurrencyLimitsTest {
+
+    private static final TenantKey TENANT = new TenantKey("bundle.zip", "user", "killrvideo");
+
+    /** DAO methods mapped to each limiter. */
+    public interface SampleDao {
+        CompletionStage<String> findAsync();
+        String find();
+        CompletionStage<Void> insertAsync();
+    }
+
+    /** DAO answering with futures completed by the test. */
+    private static final class PendingDao implements SampleDao {
+
+        private CompletableFuture<String> find = new CompletableFuture<>();
+
+        private CompletableFuture<Void> insert = new CompletableFuture<>();
+
+        private RuntimeException findError;
+
+        @Override
+        public CompletionStage<String> findAsync() {
+            return find;
+        }
+
+        @Override
+        public String find() {
+            if (findError != null) {
+                throw findError;
+            }
+            return "found";
+        }
+
+        @Override
+        public CompletionStage<Void> insertAsync() {
+            return insert;
+        }
+    }
+
+    @Test
+    public void releasedOnExceptionalCompletion() {
+        PendingDao target = new PendingDao();
+        SampleDao dao = limitsOfOne().decorate(TENANT, SampleDao.class, target);
+        dao.findAsync();
+        assertRejected(dao);
+        target.find.completeExceptionally(new IllegalStateException("read failed"));
+        target.find = CompletableFuture.completedFuture("found");
+        assertEquals("found", dao.findAsync().toCompletableFuture().join());
+    }
+
+    @Test
+    public void releasedOnSynchronousFailure() {
+        PendingDao target = new PendingDao();
+        SampleDao dao = limitsOfOne().decorate(TENANT, SampleDao.class, target);
+        target.findError = new IllegalStateException("cannot read");
+        for (int i = 0; i < 3; i++) {
+            try {
+                dao.find();
+                fail("target throws");
+            } catch (IllegalStateException expected) {
+                assertSame(target.findError, expected);
+            }
+        }
+        target.findError = null;
+        assertEquals("found", dao.find());
+    }
+
+    @Test
+    public void readsAndWritesHaveSeparateLimits() {
+        PendingDao target = new PendingDao();
+        SampleDao dao = limitsOfOne().decorate(TENANT, SampleDao.class, target);
+        dao.findAsync();
+        dao.insertAsync();
+        assertRejected(dao);
+        target.insert.complete(null);
+        target.insert = new CompletableFuture<>();
+        dao.insertAsync();
+    }
+
+    @Test
+    public void disabledLimitsKeepDao() {
+        PendingDao target = new PendingDao();
+        DaoConcurrencyLimits limits = new DaoConcurrencyLimits(false, 2.0, 1, 1, 1, 1, 1, 1, 1);
+        assertSame(target, limits.decorate(TENANT, SampleDao.class, target));
+    }
+
+    private static DaoConcurrencyLimits limitsOfOne() {
+        return new DaoConcurrencyLimits(true, 2.0, 1, 1, 1, 1, 1, 1, 1);
+    }
+
+    private static void assertRejected(SampleDao dao) {
+        try {
+            dao.findAsync();
+            fail("a read is in flight");
+        } catch (LimitExceededException expected) {
+            assertEquals(1, expected.getRetryAfterSeconds());
+        }
+    }
+
+}
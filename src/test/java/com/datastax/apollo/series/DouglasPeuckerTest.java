@@ -0,0 +1,91 @@
+package com.datastax.apollo.series;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Trajectories simplified by {@link DouglasPeucker}.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+public class DouglasPeuckerTest {
+
+    @Test
+    public void straightLineKeepsEndpoints() {
+        ReadingColumns columns = new ReadingColumns(3);
+        for (int i = 0; i < 100; i++) {
+            columns.add(i, i, 2 * i, 3 * i);
+        }
+        assertTrue(Arrays.equals(new int[] { 0, 99 }, DouglasPeucker.simplify(columns, 0.001)));
+    }
+
+    @Test
+    public void keepsCorner() {
+        ReadingColumns columns = new ReadingColumns(3);
+        for (int i = 0; i <= 50; i++) {
+            columns.add(i, i, 0, 0);
+        }
+        for (int i = 1; i <= 50; i++) {
+            columns.add(50 + i, 50, i, 0);
+        }
+        assertTrue(Arrays.equals(new int[] { 0, 50, 100 }, DouglasPeucker.simplify(columns, 1)));
+    }
+
+    @Test
+    public void shortTrajectoriesAreKept() {
+        ReadingColumns columns = new ReadingColumns(3);
+        assertEquals(0, DouglasPeucker.simplify(columns, 1).length);
+        columns.add(0, 0, 0, 0);
+        columns.add(1, 5, 5, 5);
+        assertTrue(Arrays.equals(new int[] { 0, 1 }, DouglasPeucker.simplify(columns, 100)));
+    }
+
+    @Test
+    public void droppedPointsWithinTolerance() {
+        Random random = new Random(11);
+        ReadingColumns columns = new ReadingColumns(3);
+        double x = 0, y = 0, z = 0;
+        for (int i = 0; i < 20_000; i++) {
+            x += random.nextGaussian();
+            y += random.nextGaussian();
+            z += random.nextGaussian();
+            columns.add(i, x, y, z);
+        }
+        double tolerance = 5;
+        int[] kept = DouglasPeucker.simplify(columns, tolerance);
+        assertEquals(0, kept[0]);
+        assertEquals(columns.size() - 1, kept[kept.length - 1]);
+        assertTrue(kept.length < columns.size());
+        for (int k = 1; k < kept.length; k++) {
+            assertTrue(kept[k - 1] < kept[k]);
+            for (int i = kept[k - 1] + 1; i < kept[k]; i++) {
+                assertTrue(distanceToSegment(columns, i, kept[k - 1], kept[k]) <= tolerance + 1e-9);
+            }
+        }
+    }
+
+    private static double distanceToSegment(ReadingColumns columns, int point, int first, int last) {
+        double[] a = new double[3], ab = new double[3], ap = new double[3];
+        double segment = 0, dot = 0;
+        for (int d = 0; d < 3; d++) {
+            a[d]  = columns.value(d, first);
+            ab[d] = columns.value(d, last) - a[d];
+            ap[d] = columns.value(d, point) - a[d];
+            segment += ab[d] * ab[d];
+            dot     += ab[d] * ap[d];
+        }
+        double t = segment == 0 ? 0 : Math.max(0, Math.min(1, dot / segment));
+        double distance = 0;
+        for (int d = 0; d < 3; d++) {
+            double e = ap[d] - t * ab[d];
+            distance += e * e;
+        }
+        return Math.sqrt(distance);
+    }
+
+}
@@ -0,0 +1,166 @@
+package com.datastax.apollo.series;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.datastax.apollo.entity.LocationUdt;
+import com.datastax.apollo.entity.SpacecraftLocationOverTime;
+import com.datastax.apollo.entity.SpacecraftPressureOverTime;
+import com.datastax.apollo.entity.SpacecraftSpeedOverTime;
+import com.datastax.apollo.entity.SpacecraftTemperatureOverTime;
+import com.datastax.apollo.model.JoinAlignment;
+import com.datastax.apollo.model.JoinedReadings;
+
+/**
+ * Ordering and gap filling of {@link InstrumentMergeJoin}.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+public class InstrumentMergeJoinTest {
+
+    @Test
+    public void oneRowPerDistinctTimeMostRecentFirst() {
+        List<JoinedReadings> rows = join(JoinAlignment.EXACT, 0,
+                temperatures(5, 50, 3, 30, 1, 10),
+                pressures(4, 400, 3, 300),
+                speeds(5, 5000),
+                locations(2));
+        assertEquals(5, rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            assertEquals(5 - i, rows.get(i).getReadingTime().toEpochMilli());
+        }
+        assertEquals(50, rows.get(0).getTemperature(), 0);
+        assertEquals(5000, rows.get(0).getSpeed(), 0);
+        assertEquals(30, rows.get(2).getTemperature(), 0);
+        assertEquals(300, rows.get(2).getPressure(), 0);
+        assertEquals(2, rows.get(3).getLocation().getX_coordinate(), 0);
+    }
+
+    @Test
+    public void exactLeavesGaps() {
+        List<JoinedReadings> rows = join(JoinAlignment.EXACT, 1000,
+                temperatures(5, 50, 1, 10),
+                pressures(4, 400),
+                speeds(),
+                locations());
+        assertEquals(3, rows.size());
+        assertNull(rows.get(0).getPressure());
+        assertNull(rows.get(1).getTemperature());
+        assertNull(rows.get(1).getSpeed());
+        assertNull(rows.get(1).getLocation());
+        assertNull(rows.get(2).getPressure());
+    }
+
+    @Test
+    public void forwardFillUsesOlderReadingWithinTolerance() {
+        List<JoinedReadings> rows = join(JoinAlignment.FORWARD_FILL, 2,
+                temperatures(5, 50, 3, 30),
+                pressures(6, 600, 4, 400, 0, 0),
+                speeds(),
+                locations());
+        assertEquals(5, rows.size());
+        // 6: 5 is older and within 2ms
+        assertEquals(50, rows.get(0).getTemperature(), 0);
+        // 4: 3 is older and close enough, 5 is more recent
+        assertEquals(30, rows.get(2).getTemperature(), 0);
+        // 0: 3 is too far
+        assertNull(rows.get(4).getTemperature());
+        // 5: pressure at 4 is older, 6 is not used when filling forward
+        assertEquals(400, rows.get(1).getPressure(), 0);
+    }
+
+    @Test
+    public void nearestPicksCloserReading() {
+        List<JoinedReadings> rows = join(JoinAlignment.NEAREST, 100,
+                temperatures(10, 100, 0, 0),
+                pressures(7, 70, 2, 20),
+                speeds(),
+                locations());
+        assertEquals(4, rows.size());
+        assertEquals(7, rows.get(1).getReadingTime().toEpochMilli());
+        assertEquals(100, rows.get(1).getTemperature(), 0);
+        assertEquals(2, rows.get(2).getReadingTime().toEpochMilli());
+        assertEquals(0, rows.get(2).getTemperature(), 0);
+        // Pressure before the first one and after the last one
+        assertEquals(70, rows.get(0).getPressure(), 0);
+        assertEquals(20, rows.get(3).getPressure(), 0);
+    }
+
+    @Test
+    public void nearestHonoursTolerance() {
+        List<JoinedReadings> rows = join(JoinAlignment.NEAREST, 2,
+                temperatures(10, 100, 0, 0),
+                pressures(5, 50),
+                speeds(),
+                locations());
+        assertNull(rows.get(1).getTemperature());
+    }
+
+    @Test
+    public void emptyInputs() {
+        assertFalse(new InstrumentMergeJoin(temperatures(), pressures(), speeds(), locations(), JoinAlignment.NEAREST, 10).hasNext());
+    }
+
+    private static List<JoinedReadings> join(JoinAlignment alignment, long tolerance,
+            Iterator<SpacecraftTemperatureOverTime> temperature, Iterator<SpacecraftPressureOverTime> pressure,
+            Iterator<SpacecraftSpeedOverTime> speed, Iterator<SpacecraftLocationOverTime> location) {
+        List<JoinedReadings> rows = new ArrayList<>();
+        new InstrumentMergeJoin(temperature, pressure, speed, location, alignment, tolerance).forEachRemaining(rows::add);
+        return rows;
+    }
+
+    /** Pairs of time and value, most recent first. */
+    private static Iterator<SpacecraftTemperatureOverTime> temperatures(double... timesAndValues) {
+        List<SpacecraftTemperatureOverTime> readings = new ArrayList<>();
+        for (int i = 0; i < timesAndValues.length; i += 2) {
+            SpacecraftTemperatureOverTime reading = new SpacecraftTemperatureOverTime();
+            reading.setReading_time(Instant.ofEpochMilli((long) timesAndValues[i]));
+            reading.setTemperature(timesAndValues[i + 1]);
+            readings.add(reading);
+        }
+        return readings.iterator();
+    }
+
+    private static Iterator<SpacecraftPressureOverTime> pressures(double... timesAndValues) {
+        List<SpacecraftPressureOverTime> readings = new ArrayList<>();
+        for (int i = 0; i < timesAndValues.length; i += 2) {
+            SpacecraftPressureOverTime reading = new SpacecraftPressureOverTime();
+            reading.setReading_time(Instant.ofEpochMilli((long) timesAndValues[i]));
+            reading.setPressure(timesAndValues[i + 1]);
+            readings.add(reading);
+        }
+        return readings.iterator();
+    }
+
+    private static Iterator<SpacecraftSpeedOverTime> speeds(double... timesAndValues) {
+        List<SpacecraftSpeedOverTime> readings = new ArrayList<>();
+        for (int i = 0; i < timesAndValues.length; i += 2) {
+            SpacecraftSpeedOverTime reading = new SpacecraftSpeedOverTime();
+            reading.setReading_time(Instant.ofEpochMilli((long) timesAndValues[i]));
+            reading.setSpeed(timesAndValues[i + 1]);
+            readings.add(reading);
+        }
+        return readings.iterator();
+    }
+
+    /** Location (t, t, t) at each time, most recent first. */
+    private static Iterator<SpacecraftLocationOverTime> locations(long... times) {
+        List<SpacecraftLocationOverTime> readings = new ArrayList<>();
+        for (long time : times) {
+            SpacecraftLocationOverTime reading = new SpacecraftLocationOverTime();
+            reading.setReading_time(Instant.ofEpochMilli(time));
+            reading.setLocation(new LocationUdt(time, time, time));
+            readings.add(reading);
+        }
+        return readings.iterator();
+    }
+
+}
@@ -0,0 +1,83 @@
+package com.datastax.apollo.series;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Points selected by {@link Lttb}.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+public class LttbTest {
+
+    @Test
+    public void keepsEndpointsAndThreshold() {
+        ReadingColumns columns = randomWalk(new Random(1), 10_000, false);
+        for (int threshold : new int[] { 3, 10, 100, 999 }) {
+            int[] selected = Lttb.select(columns, threshold);
+            assertEquals(threshold, selected.length);
+            assertEquals(0, selected[0]);
+            assertEquals(columns.size() - 1, selected[selected.length - 1]);
+            assertIncreasing(selected);
+        }
+    }
+
+    @Test
+    public void descendingTimes() {
+        ReadingColumns columns = randomWalk(new Random(2), 1000, true);
+        int[] selected = Lttb.select(columns, 50);
+        assertEquals(50, selected.length);
+        assertEquals(0, selected[0]);
+        assertEquals(999, selected[49]);
+        assertIncreasing(selected);
+    }
+
+    @Test
+    public void keepsAllBelowThreshold() {
+        ReadingColumns columns = randomWalk(new Random(3), 20, false);
+        assertTrue(Arrays.equals(range(20), Lttb.select(columns, 20)));
+        assertTrue(Arrays.equals(range(20), Lttb.select(columns, 100)));
+        assertTrue(Arrays.equals(range(20), Lttb.select(columns, 2)));
+        assertEquals(0, Lttb.select(new ReadingColumns(1), 10).length);
+    }
+
+    @Test
+    public void keepsSpike() {
+        ReadingColumns columns = new ReadingColumns(1);
+        for (int i = 0; i < 1000; i++) {
+            columns.add(i * 1000L, i == 617 ? 500 : 20);
+        }
+        int[] selected = Lttb.select(columns, 10);
+        assertTrue(Arrays.binarySearch(selected, 617) >= 0);
+    }
+
+    private static ReadingColumns randomWalk(Random random, int size, boolean descending) {
+        ReadingColumns columns = new ReadingColumns(1);
+        double value = 0;
+        for (int i = 0; i < size; i++) {
+            value += random.nextGaussian();
+            columns.add(descending ? (size - i) * 1000L : i * 1000L, value);
+        }
+        return columns;
+    }
+
+    private static int[] range(int size) {
+        int[] indices = new int[size];
+        for (int i = 0; i < size; i++) {
+            indices[i] = i;
+        }
+        return indices;
+    }
+
+    private static void assertIncreasing(int[] indices) {
+        for (int i = 1; i < indices.length; i++) {
+            assertTrue(indices[i - 1] < indices[i]);
+        }
+    }
+
+}
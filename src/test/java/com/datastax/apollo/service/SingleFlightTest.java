@@ -0,0 +1,106 @@
+package com.datastax.apollo.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * Sharing of queries in flight by {@link SingleFlight}.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+public class SingleFlightTest {
+
+    @Test
+    public void joinersShareQuery() {
+        SingleFlight<String, String> flight = new SingleFlight<>("test");
+        CompletableFuture<String> query = new CompletableFuture<>();
+        AtomicInteger runs = new AtomicInteger();
+        CompletionStage<String> first  = flight.executeAsync("voyager", () -> { runs.incrementAndGet(); return query; });
+        CompletionStage<String> second = flight.executeAsync("voyager", () -> { runs.incrementAndGet(); return query; });
+        CompletionStage<String> other  = flight.executeAsync("gemini", () -> { runs.incrementAndGet(); return new CompletableFuture<>(); });
+        assertEquals(2, runs.get());
+        query.complete("journeys");
+        assertEquals("journeys", first.toCompletableFuture().join());
+        assertEquals("journeys", second.toCompletableFuture().join());
+        assertTrue(!other.toCompletableFuture().isDone());
+        assertEquals(3, flight.getRequests());
+        assertEquals(2, flight.getExecutions());
+    }
+
+    @Test
+    public void completedQueryRunsAgain() {
+        SingleFlight<String, Integer> flight = new SingleFlight<>("test");
+        AtomicInteger runs = new AtomicInteger();
+        assertEquals(1, (int) flight.execute("voyager", runs::incrementAndGet));
+        assertEquals(2, (int) flight.execute("voyager", runs::incrementAndGet));
+        assertEquals(2, flight.getExecutions());
+        assertEquals(0, flight.getCoalescingRatio(), 0);
+    }
+
+    @Test
+    public void shareOnlyWhenJoined() {
+        SingleFlight<String, String> flight = new SingleFlight<>("test");
+        AtomicInteger shared = new AtomicInteger();
+        CompletableFuture<String> alone = new CompletableFuture<>();
+        CompletionStage<String> result = flight.executeAsync("voyager", () -> alone, v -> { shared.incrementAndGet(); return v + " (shared)"; });
+        alone.complete("rows");
+        assertEquals("rows", result.toCompletableFuture().join());
+        assertEquals(0, shared.get());
+
+        CompletableFuture<String> joined = new CompletableFuture<>();
+        CompletionStage<String> first  = flight.executeAsync("voyager", () -> joined, v -> { shared.incrementAndGet(); return v + " (shared)"; });
+        CompletionStage<String> second = flight.executeAsync("voyager", () -> joined, v -> { shared.incrementAndGet(); return v + " (shared)"; });
+        joined.complete("rows");
+        assertEquals("rows (shared)", first.toCompletableFuture().join());
+        assertEquals("rows (shared)", second.toCompletableFuture().join());
+        assertEquals(1, shared.get());
+    }
+
+    @Test
+    public void errorPropagatesToAllCallers() {
+        SingleFlight<String, String> flight = new SingleFlight<>("test");
+        CompletableFuture<String> query = new CompletableFuture<>();
+        CompletionStage<String> first  = flight.executeAsync("voyager", () -> query);
+        CompletionStage<String> second = flight.executeAsync("voyager", () -> query);
+        IllegalStateException error = new IllegalStateException("unavailable");
+        query.completeExceptionally(error);
+        assertSame(error, causeOf(first));
+        assertSame(error, causeOf(second));
+        // The failure is not kept
+        assertEquals("ok", flight.executeAsync("voyager", () -> CompletableFuture.completedFuture("ok")).toCompletableFuture().join());
+    }
+
+    @Test
+    public void queryThrowing() {
+        SingleFlight<String, String> flight = new SingleFlight<>("test");
+        IllegalStateException error = new IllegalStateException("cannot prepare");
+        assertSame(error, causeOf(flight.executeAsync("voyager", () -> { throw error; })));
+        try {
+            flight.execute("voyager", () -> { throw error; });
+            fail("query throws");
+        } catch (IllegalStateException expected) {
+            assertSame(error, expected);
+        }
+        assertEquals("ok", flight.execute("voyager", () -> "ok"));
+    }
+
+    private static Throwable causeOf(CompletionStage<?> stage) {
+        try {
+            stage.toCompletableFuture().join();
+            fail("expecting a failure");
+            return null;
+        } catch (CompletionException ce) {
+            return ce.getCause();
+        }
+    }
+
+}
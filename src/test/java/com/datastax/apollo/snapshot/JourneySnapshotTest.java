@@ -0,0 +1,132 @@
+package com.datastax.apollo.snapshot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.Test;
+
+import com.datastax.apollo.model.Instrument;
+import com.datastax.apollo.series.ReadingColumns;
+
+/**
+ * Files written and read back by {@link JourneySnapshot}.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+public class JourneySnapshotTest {
+
+    @Test
+    public void roundTrip() throws IOException {
+        Path file = Files.createTempFile("journey", ".snapshot");
+        try {
+            JourneySnapshot.write(file, series());
+            assertEquals(JourneySnapshot.sizeOf(series()), Files.size(file));
+            JourneySnapshot snapshot = JourneySnapshot.open(file);
+            assertEquals(3, snapshot.size(Instrument.TEMPERATURE));
+            assertEquals("C", snapshot.unit(Instrument.TEMPERATURE));
+            assertEquals(3000, snapshot.readingTime(Instrument.TEMPERATURE, 0));
+            assertEquals(-12.5, snapshot.value(Instrument.TEMPERATURE, 0, 0), 0);
+            assertTrue(Double.isNaN(snapshot.value(Instrument.TEMPERATURE, 0, 1)));
+            assertEquals(0, snapshot.size(Instrument.PRESSURE));
+            assertNull(snapshot.unit(Instrument.PRESSURE));
+            assertEquals(1, snapshot.size(Instrument.SPEED));
+            assertEquals("km/s", snapshot.unit(Instrument.SPEED));
+
+            ReadingColumns location = snapshot.columns(Instrument.LOCATION);
+            assertEquals(2, location.size());
+            assertEquals("km", location.getUnit());
+            assertEquals(2000, location.time(0));
+            assertEquals(1, location.value(0, 0), 0);
+            assertEquals(2, location.value(1, 0), 0);
+            assertEquals(3, location.value(2, 0), 0);
+            assertEquals(-6, location.value(2, 1), 0);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void indexBefore() throws IOException {
+        Path file = Files.createTempFile("journey", ".snapshot");
+        try {
+            JourneySnapshot.write(file, series());
+            JourneySnapshot snapshot = JourneySnapshot.open(file);
+            // Temperature readings at 3000, 2000, 1000
+            assertEquals(0, snapshot.indexBefore(Instrument.TEMPERATURE, 5000));
+            assertEquals(1, snapshot.indexBefore(Instrument.TEMPERATURE, 3000));
+            assertEquals(1, snapshot.indexBefore(Instrument.TEMPERATURE, 2500));
+            assertEquals(2, snapshot.indexBefore(Instrument.TEMPERATURE, 2000));
+            assertEquals(3, snapshot.indexBefore(Instrument.TEMPERATURE, 1000));
+            assertEquals(0, snapshot.indexBefore(Instrument.PRESSURE, 1000));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void corruptedFileIsRejected() throws IOException {
+        Path file = Files.createTempFile("journey", ".snapshot");
+        try {
+            JourneySnapshot.write(file, series());
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                // Flip the bits of a byte in the middle of the readings
+                ByteBuffer b = ByteBuffer.allocate(1);
+                channel.read(b, channel.size() / 2);
+                b.put(0, (byte) ~b.get(0));
+                channel.write(b.rewind(), channel.size() / 2);
+            }
+            try {
+                JourneySnapshot.open(file);
+                fail("checksum should not match");
+            } catch (IOException expected) {
+                assertTrue(expected.getMessage(), expected.getMessage().contains("checksum"));
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void truncatedFileIsRejected() throws IOException {
+        Path file = Files.createTempFile("journey", ".snapshot");
+        try {
+            Files.write(file, new byte[] { 0x41, 0x53 });
+            try {
+                JourneySnapshot.open(file);
+                fail("file is too small");
+            } catch (IOException expected) {
+                // expected
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /** Series in {@link Instrument} order, most recent first. */
+    private static ReadingColumns[] series() {
+        ReadingColumns temperature = new ReadingColumns(1);
+        temperature.setUnit("C");
+        temperature.add(3000, -12.5);
+        temperature.add(2000, Double.NaN);
+        temperature.add(1000, 20);
+        ReadingColumns pressure = new ReadingColumns(1);
+        ReadingColumns speed = new ReadingColumns(1);
+        speed.setUnit("km/s");
+        speed.add(3000, 17.1);
+        ReadingColumns location = new ReadingColumns(3);
+        location.setUnit("km");
+        location.add(2000, 1, 2, 3);
+        location.add(1000, 4, 5, -6);
+        return new ReadingColumns[] { temperature, pressure, speed, location };
+    }
+
+}
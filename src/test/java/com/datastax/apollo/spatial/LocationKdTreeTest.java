@@ -0,0 +1,123 @@
+package com.datastax.apollo.spatial;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.datastax.apollo.series.ReadingColumns;
+
+/**
+ * Queries of {@link LocationKdTree} compared with a scan of all points.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+public class LocationKdTreeTest {
+
+    @Test
+    public void emptyTree() {
+        LocationKdTree tree = new LocationKdTree(new ReadingColumns(3));
+        assertEquals(0, tree.size());
+        assertEquals(-1, tree.nearest(1, 2, 3));
+    }
+
+    @Test
+    public void missingCoordinatesAreSkipped() {
+        ReadingColumns columns = new ReadingColumns(3);
+        columns.add(1, 0, 0, 0);
+        columns.add(2, Double.NaN, 0, 0);
+        columns.add(3, 10, 10, Double.NaN);
+        columns.add(4, 10, 10, 10);
+        LocationKdTree tree = new LocationKdTree(columns);
+        assertEquals(2, tree.size());
+        assertEquals(4, tree.time(tree.nearest(9, 9, 9)));
+    }
+
+    @Test
+    public void nearestMatchesScan() {
+        Random random = new Random(42);
+        ReadingColumns columns = randomPoints(random, 5000);
+        LocationKdTree tree = new LocationKdTree(columns);
+        for (int q = 0; q < 500; q++) {
+            double x = random.nextDouble() * 1200 - 100;
+            double y = random.nextDouble() * 1200 - 100;
+            double z = random.nextDouble() * 1200 - 100;
+            int found = tree.nearest(x, y, z);
+            // Ties are possible, distances are compared rather than points
+            assertEquals(closestDistance(columns, x, y, z), tree.squaredDistance(found, x, y, z), 0);
+        }
+    }
+
+    @Test
+    public void rangeMatchesScan() {
+        Random random = new Random(7);
+        ReadingColumns columns = randomPoints(random, 5000);
+        LocationKdTree tree = new LocationKdTree(columns);
+        for (int q = 0; q < 200; q++) {
+            double[] min = new double[3];
+            double[] max = new double[3];
+            for (int d = 0; d < 3; d++) {
+                double a = random.nextDouble() * 1000, b = random.nextDouble() * 1000;
+                min[d] = Math.min(a, b);
+                max[d] = Math.max(a, b);
+            }
+            Set<Long> found = new HashSet<>();
+            tree.range(min, max, i -> found.add(tree.time(i)));
+            Set<Long> expected = new HashSet<>();
+            for (int i = 0; i < columns.size(); i++) {
+                if (inside(columns, i, min, max)) {
+                    expected.add(columns.time(i));
+                }
+            }
+            assertEquals(expected, found);
+        }
+    }
+
+    @Test
+    public void rangeBoundsIncluded() {
+        ReadingColumns columns = new ReadingColumns(3);
+        for (int i = 0; i < 10; i++) {
+            columns.add(i, i, i, i);
+        }
+        LocationKdTree tree = new LocationKdTree(columns);
+        Set<Long> found = new HashSet<>();
+        tree.range(new double[] { 2, 2, 2 }, new double[] { 5, 5, 5 }, i -> found.add(tree.time(i)));
+        assertEquals(new HashSet<>(Arrays.asList(2L, 3L, 4L, 5L)), found);
+    }
+
+    /** Points on a grid (duplicates and ties) and random ones, reading time is the index. */
+    private static ReadingColumns randomPoints(Random random, int size) {
+        ReadingColumns columns = new ReadingColumns(3);
+        for (int i = 0; i < size; i++) {
+            if (i % 5 == 0) {
+                columns.add(i, random.nextInt(10) * 100, random.nextInt(10) * 100, random.nextInt(10) * 100);
+            } else {
+                columns.add(i, random.nextDouble() * 1000, random.nextDouble() * 1000, random.nextDouble() * 1000);
+            }
+        }
+        return columns;
+    }
+
+    private static double closestDistance(ReadingColumns columns, double x, double y, double z) {
+        double best = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < columns.size(); i++) {
+            double dx = columns.value(0, i) - x, dy = columns.value(1, i) - y, dz = columns.value(2, i) - z;
+            best = Math.min(best, dx * dx + dy * dy + dz * dz);
+        }
+        return best;
+    }
+
+    private static boolean inside(ReadingColumns columns, int i, double[] min, double[] max) {
+        for (int d = 0; d < 3; d++) {
+            if (columns.value(d, i) < min[d] || columns.value(d, i) > max[d]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
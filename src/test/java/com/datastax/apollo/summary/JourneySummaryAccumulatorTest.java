@@ -0,0 +1,74 @@
+package com.datastax.apollo.summary;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import com.datastax.apollo.entity.LocationUdt;
+import com.datastax.apollo.entity.SpacecraftJourneySummary;
+
+/**
+ * Figures computed by {@link JourneySummaryAccumulator}.
+ *
+ * @author DataStax Developer Advocates team.
+ */
+public class JourneySummaryAccumulatorTest {
+
+    private static final UUID JOURNEY_ID = UUID.randomUUID();
+
+    @Test
+    public void emptyJourney() {
+        SpacecraftJourneySummary summary = new JourneySummaryAccumulator().toSummary("voyager", JOURNEY_ID);
+        assertEquals("voyager", summary.getSpacecraftName());
+        assertEquals(JOURNEY_ID, summary.getJourneyId());
+        assertNull(summary.getFirstReading());
+        assertNull(summary.getDurationMillis());
+        assertNull(summary.getMinTemperature());
+        assertNull(summary.getMaxSpeed());
+        assertEquals(0, summary.getDistance(), 0);
+        assertEquals(0, (long) summary.getTemperatureCount());
+    }
+
+    @Test
+    public void figuresOverInstruments() {
+        JourneySummaryAccumulator accumulator = new JourneySummaryAccumulator();
+        // Readings arrive most recent first, as in the tables
+        accumulator.temperature(Instant.ofEpochMilli(5000), -10.0, "C");
+        accumulator.temperature(Instant.ofEpochMilli(4000), null, "C");
+        accumulator.temperature(Instant.ofEpochMilli(3000), Double.NaN, "C");
+        accumulator.temperature(Instant.ofEpochMilli(2000), 35.5, "C");
+        accumulator.pressure(Instant.ofEpochMilli(6000));
+        accumulator.speed(Instant.ofEpochMilli(5000), 12.0, "km/s");
+        accumulator.speed(Instant.ofEpochMilli(1000), 17.0, "km/s");
+        SpacecraftJourneySummary summary = accumulator.toSummary("voyager", JOURNEY_ID);
+        assertEquals(-10.0, summary.getMinTemperature(), 0);
+        assertEquals(35.5, summary.getMaxTemperature(), 0);
+        assertEquals("C", summary.getTemperatureUnit());
+        assertEquals(4, (long) summary.getTemperatureCount());
+        assertEquals(1, (long) summary.getPressureCount());
+        assertEquals(17.0, summary.getMaxSpeed(), 0);
+        assertEquals(1000, summary.getFirstReading().toEpochMilli());
+        assertEquals(6000, summary.getLastReading().toEpochMilli());
+        assertEquals(5000, (long) summary.getDurationMillis());
+    }
+
+    @Test
+    public void distanceAlongPolyline() {
+        JourneySummaryAccumulator accumulator = new JourneySummaryAccumulator();
+        accumulator.location(Instant.ofEpochMilli(3000), new LocationUdt(3, 4, 12), "km");
+        accumulator.location(Instant.ofEpochMilli(2000), new LocationUdt(3, 4, 0), "km");
+        accumulator.location(Instant.ofEpochMilli(1500), null, "km");
+        accumulator.location(Instant.ofEpochMilli(1000), new LocationUdt(0, 0, 0), "km");
+        SpacecraftJourneySummary summary = accumulator.toSummary("voyager", JOURNEY_ID);
+        // 12 then 5, the missing location does not break the polyline
+        assertEquals(17, summary.getDistance(), 1e-9);
+        assertEquals("km", summary.getDistanceUnit());
+        assertEquals(4, (long) summary.getLocationCount());
+        assertEquals(2000, (long) summary.getDurationMillis());
+    }
+
+}